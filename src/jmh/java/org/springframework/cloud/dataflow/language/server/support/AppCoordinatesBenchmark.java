@@ -0,0 +1,139 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.dataflow.language.server.support;
+
+import java.io.File;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.cloud.dataflow.language.server.DataflowLanguages;
+import org.springframework.cloud.dataflow.language.server.app.AbstractAppLanguageService;
+import org.springframework.cloud.deployer.resource.maven.MavenResource;
+import org.springframework.dsl.document.Document;
+import org.springframework.dsl.document.TextDocument;
+
+/**
+ * Parses versions out of uris of a 10k line app descriptor. {@code legacy}
+ * is a previous way of doing it with {@link URI}, regular expressions,
+ * {@link MavenResource} and {@link DockerImage}, {@code parse} is
+ * {@link AppCoordinates} without memoizing and {@code memoized} goes through
+ * a shared coordinates cache. {@code document} parses a whole descriptor
+ * from scratch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AppCoordinatesBenchmark {
+
+	private static final int LINES = 10000;
+	private final List<String> uris = new ArrayList<>();
+	private final DataflowCacheService dataflowCacheService = new DataflowCacheService();
+	private final AppService appService = new AppService();
+	private Document document;
+
+	@Setup
+	public void setup() {
+		String content = DocumentSamples.appDescriptor(LINES);
+		for (String line : content.split("\n")) {
+			uris.add(line.substring(line.indexOf('=') + 1));
+		}
+		document = new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_APP, 0, content);
+	}
+
+	@Benchmark
+	public void legacy(Blackhole blackhole) {
+		for (String uri : uris) {
+			blackhole.consume(legacyVersion(uri));
+		}
+	}
+
+	@Benchmark
+	public void parse(Blackhole blackhole) {
+		for (String uri : uris) {
+			blackhole.consume(AppCoordinates.parse(uri).getVersion());
+		}
+	}
+
+	@Benchmark
+	public void memoized(Blackhole blackhole) {
+		for (String uri : uris) {
+			blackhole.consume(dataflowCacheService.getAppCoordinatesCache().get(uri, AppCoordinates::parse)
+					.getVersion());
+		}
+	}
+
+	@Benchmark
+	public Object document() {
+		return appService.apps(document);
+	}
+
+	private static String legacyVersion(String uri) {
+		String version = "";
+		try {
+			switch (new URI(uri).getScheme()) {
+				case "maven":
+					version = MavenResource.parse(uri.replaceFirst("maven:\\/*", "")).getVersion();
+					break;
+				case "docker":
+					version = DockerImage.fromImageName(uri.replaceFirst("docker:\\/*", "")).getTag();
+					break;
+				case "http":
+				case "https":
+					String lastSegment = new File(URI.create(uri).getPath()).getName();
+					lastSegment = lastSegment.substring(0, lastSegment.lastIndexOf("."));
+					Matcher m = Pattern.compile("(.*)-(\\d)(.*?)").matcher(lastSegment);
+					m.matches();
+					version = m.group(2) + m.group(3);
+					break;
+			}
+		} catch (Exception e) {
+		}
+		return version;
+	}
+
+	private static class AppService extends AbstractAppLanguageService {
+
+		AppService() {
+			setDataflowCacheService(new DataflowCacheService());
+		}
+
+		Collection<AppEntry> apps(Document document) {
+			dataflowCacheService.getAppItemCache().invalidateAll();
+			dataflowCacheService.getAppDocumentCache().invalidateAll();
+			dataflowCacheService.getAppCoordinatesCache().invalidateAll();
+			return parseCached(document);
+		}
+	}
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.dataflow.language.server.support;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.cloud.dataflow.language.server.DataflowLanguages;
+import org.springframework.dsl.document.Document;
+import org.springframework.dsl.document.DocumentText;
+import org.springframework.dsl.document.TextDocument;
+import org.springframework.dsl.domain.Range;
+
+/**
+ * Compares {@link DocumentLines} classification against a per line scanning
+ * used by stream and task block scanners before it.
+ * <p>
+ * Edit benchmarks measure what a single character typed in a middle of a
+ * document costs. {@code editCopy} is a copy of a new version into a
+ * {@code String} which every parse pays as spring-dsl hands over a whole new
+ * text, {@code editClassify} classifies a new version from scratch and
+ * {@code editUpdate} is an incremental path taken by a parse. A rope would
+ * only pay off if {@code editUpdate} was well above {@code editCopy}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DocumentLinesBenchmark {
+
+	@Param({ "100", "1000", "10000" })
+	private int streams;
+
+	private Document document;
+	private Document edited;
+	private String content;
+	private DocumentLines lines;
+
+	@Setup
+	public void setup() {
+		content = DocumentSamples.streams(streams);
+		document = new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_STREAM, 0, content);
+		int middle = content.indexOf('\n', content.length() / 2);
+		edited = new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_STREAM, 1,
+				content.substring(0, middle) + "x" + content.substring(middle));
+		lines = DocumentLines.classify(content);
+	}
+
+	@Benchmark
+	public void classify(Blackhole blackhole) {
+		DocumentLines lines = DocumentLines.classify(document.content().toString());
+		for (int line = 0; line < lines.getLineCount(); line++) {
+			blackhole.consume(lines.getKind(line));
+			blackhole.consume(lines.getContentStart(line));
+		}
+	}
+
+	@Benchmark
+	public String editCopy() {
+		return edited.content().toString();
+	}
+
+	@Benchmark
+	public DocumentLines editClassify() {
+		return DocumentLines.classify(edited.content().toString());
+	}
+
+	@Benchmark
+	public DocumentLines editUpdate() {
+		String next = edited.content().toString();
+		int prefix = DocumentLines.commonPrefixLength(content, next);
+		int suffix = DocumentLines.commonSuffixLength(content, next, prefix);
+		return DocumentLines.update(lines, next, prefix, suffix);
+	}
+
+	@Benchmark
+	public void perLine(Blackhole blackhole) {
+		for (int line = 0; line < document.lineCount(); line++) {
+			Range lineRange = document.getLineRange(line);
+			DocumentText lineContent = document.content(lineRange);
+			DocumentText trim = lineContent.trimStart();
+			if (trim.hasText() && Character.isLetterOrDigit(trim.charAt(0))) {
+				blackhole.consume(DocumentLines.DEFINITION);
+			} else if (trim.length() > 2 && (trim.charAt(0) == '#' || trim.charAt(0) == '-')) {
+				int contentStart = findContentStart(lineContent);
+				if (contentStart > -1 && lineContent.startsWith(DataflowLanguages.TEXT_ENV_PREFIX, contentStart)) {
+					blackhole.consume(DocumentLines.ENV);
+				} else if (contentStart > -1 && lineContent.startsWith(DataflowLanguages.TEXT_NAME_PREFIX, contentStart)) {
+					blackhole.consume(DocumentLines.NAME);
+				} else if (contentStart > -1 && lineContent.startsWith(DataflowLanguages.TEXT_DESC_PREFIX, contentStart)) {
+					blackhole.consume(DocumentLines.DESC);
+				} else if (contentStart > -1 && lineContent.startsWith(DataflowLanguages.TEXT_PROP_PREFIX, contentStart)) {
+					blackhole.consume(DocumentLines.PROP);
+				} else if (contentStart > -1 && lineContent.startsWith(DataflowLanguages.TEXT_ARG_PREFIX, contentStart)) {
+					blackhole.consume(DocumentLines.ARG);
+				} else {
+					blackhole.consume(DocumentLines.COMMENT);
+				}
+				blackhole.consume(contentStart);
+			} else {
+				blackhole.consume(DocumentLines.BLANK);
+			}
+		}
+	}
+
+	private static int findContentStart(DocumentText text) {
+		for (int i = 0; i < text.length(); i++) {
+			if (Character.isWhitespace(text.charAt(i))) {
+				continue;
+			} else if (text.charAt(i) == '-') {
+				continue;
+			} else if (text.charAt(i) == '#') {
+				continue;
+			} else if (text.charAt(i) == '@') {
+				return i;
+			} else if (Character.isLetterOrDigit(text.charAt(i))) {
+				return i;
+			}
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.dataflow.language.server.support;
+
+import java.util.Random;
+
+/**
+ * Generated sample documents for benchmarks.
+ */
+public final class DocumentSamples {
+
+	private DocumentSamples() {
+	}
+
+	/**
+	 * Generate a stream document with a given number of streams, each having a
+	 * comment, metadata and a deployment block.
+	 *
+	 * @param count the number of streams
+	 * @return the stream document content
+	 */
+	public static String streams(int count) {
+		StringBuilder buf = new StringBuilder();
+		for (int i = 0; i < count; i++) {
+			buf.append("# stream ").append(i).append('\n');
+			buf.append("-- @env env").append(i % 3).append('\n');
+			buf.append("-- @prop deployer.log.count=").append(i % 5).append('\n');
+			buf.append('\n');
+			buf.append("-- @name name").append(i).append('\n');
+			buf.append("-- @desc desc").append(i).append('\n');
+			buf.append("stream").append(i).append(" = time --fixed-delay=").append(i).append(" | transform | log\n");
+			buf.append('\n');
+		}
+		return buf.toString();
+	}
+
+	/**
+	 * Generate a task document with a given number of tasks, each having
+	 * metadata and a launch block.
+	 *
+	 * @param count the number of tasks
+	 * @return the task document content
+	 */
+	public static String tasks(int count) {
+		StringBuilder buf = new StringBuilder();
+		for (int i = 0; i < count; i++) {
+			buf.append("-- @env env").append(i % 3).append('\n');
+			buf.append("-- @prop app.timestamp.format=yyyy").append('\n');
+			buf.append("-- @arg --foo=").append(i).append('\n');
+			buf.append('\n');
+			buf.append("-- @desc desc").append(i).append('\n');
+			buf.append("task").append(i).append(" = timestamp && timestamp --format=yyyy\n");
+			buf.append('\n');
+		}
+		return buf.toString();
+	}
+
+	/**
+	 * Generate a single stream definition line of roughly a given length by
+	 * chaining processors.
+	 *
+	 * @param length the approximate line length
+	 * @return the stream document content
+	 */
+	public static String longLine(int length) {
+		StringBuilder buf = new StringBuilder("stream = time");
+		while (buf.length() < length) {
+			buf.append(" | transform");
+		}
+		return buf.append(" | log\n").toString();
+	}
+
+	/**
+	 * Generate a single block having a given number of property lines
+	 * followed by a definition.
+	 *
+	 * @param lines the number of property lines
+	 * @return the stream document content
+	 */
+	public static String largeBlock(int lines) {
+		StringBuilder buf = new StringBuilder();
+		for (int i = 0; i < lines; i++) {
+			buf.append("-- @prop deployer.log.count=").append(i).append('\n');
+		}
+		return buf.append("stream = time | log\n").toString();
+	}
+
+	/**
+	 * Generate a document of a given length from random dsl fragments.
+	 *
+	 * @param length the approximate document length
+	 * @param seed the random seed
+	 * @return the stream document content
+	 */
+	public static String noise(int length, long seed) {
+		String[] fragments = { "time", "log", "|", "=", " ", "--", "#", "@name ", "@env ", "@prop ", ":", ">",
+				"\n", "a.b=c", "--x=", "'" };
+		Random random = new Random(seed);
+		StringBuilder buf = new StringBuilder();
+		while (buf.length() < length) {
+			buf.append(fragments[random.nextInt(fragments.length)]);
+		}
+		return buf.toString();
+	}
+
+	/**
+	 * Generate an app import descriptor with a given number of lines, shaped
+	 * like bulk registration files published for stream and task apps. Every
+	 * app has an uri line followed by a metadata line, uris are mostly maven
+	 * with some docker and http ones.
+	 *
+	 * @param lines the number of lines
+	 * @return the app document content
+	 */
+	public static String appDescriptor(int lines) {
+		String[] types = { "source", "processor", "sink", "task" };
+		String[] names = { "time", "http", "jdbc", "file", "transform", "filter", "log", "cassandra", "mongodb",
+				"timestamp" };
+		StringBuilder buf = new StringBuilder();
+		for (int i = 0; i < lines / 2; i++) {
+			String type = types[i % types.length];
+			String name = names[i % names.length] + (i / names.length);
+			String version = "2." + (i % 4) + "." + (i % 7) + ".RELEASE";
+			String artifact = name + "-" + type + "-rabbit";
+			String key = type + "." + name;
+			if (i % 10 == 0) {
+				buf.append(key).append("=docker:springcloudstream/").append(artifact).append(':').append(version);
+			} else if (i % 10 == 1) {
+				buf.append(key).append("=https://repo.spring.io/libs-release/org/springframework/cloud/stream/app/")
+					.append(artifact).append('/').append(version).append('/').append(artifact).append('-')
+					.append(version).append(".jar");
+			} else {
+				buf.append(key).append("=maven://org.springframework.cloud.stream.app:").append(artifact).append(':')
+					.append(version);
+			}
+			buf.append('\n');
+			buf.append(key).append(".metadata=maven://org.springframework.cloud.stream.app:").append(artifact)
+				.append(":jar:metadata:").append(version).append('\n');
+		}
+		return buf.toString();
+	}
+}
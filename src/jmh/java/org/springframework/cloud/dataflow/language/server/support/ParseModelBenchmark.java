@@ -0,0 +1,126 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.dataflow.language.server.support;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jol.info.GraphLayout;
+import org.springframework.cloud.dataflow.language.server.DataflowLanguages;
+import org.springframework.cloud.dataflow.language.server.stream.AbstractStreamLanguageService;
+import org.springframework.cloud.dataflow.language.server.task.AbstractTaskLanguageService;
+import org.springframework.dsl.document.Document;
+import org.springframework.dsl.document.TextDocument;
+
+/**
+ * Measures a full parse of stream and task documents. Run with {@code -prof gc}
+ * to see allocated bytes per parse, and run {@link #main(String[])} to print a
+ * retained size of items parsed from a 1,000 line document. This class only
+ * uses {@code parseCached} and cache invalidation, so a same file can be run
+ * against an older item model to compare footprints. Retained sizes depend
+ * on a JVM and its flags, compare numbers from a same JVM only.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseModelBenchmark {
+
+	@Param({ "1000", "10000" })
+	private int lines;
+
+	private Document streamDocument;
+	private Document taskDocument;
+	private final StreamService streamService = new StreamService();
+	private final TaskService taskService = new TaskService();
+
+	@Setup
+	public void setup() {
+		streamDocument = streamDocument(lines);
+		taskDocument = taskDocument(lines);
+	}
+
+	@Benchmark
+	public Object parseStreams() {
+		return streamService.items(streamDocument);
+	}
+
+	@Benchmark
+	public Object parseTasks() {
+		return taskService.items(taskDocument);
+	}
+
+	public static void main(String[] args) {
+		Document streamDocument = streamDocument(1000);
+		Document taskDocument = taskDocument(1000);
+		List<?> streamItems = new StreamService().items(streamDocument);
+		List<?> taskItems = new TaskService().items(taskDocument);
+		long streamText = GraphLayout.parseInstance(streamDocument.content()).totalSize();
+		long taskText = GraphLayout.parseInstance(taskDocument.content()).totalSize();
+		System.out.println("Stream items retained " + GraphLayout.parseInstance(streamItems).totalSize()
+				+ " bytes, of which document text " + streamText + " bytes");
+		System.out.println("Task items retained " + GraphLayout.parseInstance(taskItems).totalSize()
+				+ " bytes, of which document text " + taskText + " bytes");
+	}
+
+	private static Document streamDocument(int lines) {
+		// sample streams are 8 lines each
+		return new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_STREAM, 0, DocumentSamples.streams(lines / 8));
+	}
+
+	private static Document taskDocument(int lines) {
+		// sample tasks are 7 lines each
+		return new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_TASK, 0, DocumentSamples.tasks(lines / 7));
+	}
+
+	private static class StreamService extends AbstractStreamLanguageService {
+
+		StreamService() {
+			setDataflowCacheService(new DataflowCacheService());
+		}
+
+		List<StreamItem> items(Document document) {
+			dataflowCacheService.getStreamItemCache().invalidateAll();
+			dataflowCacheService.getStreamDocumentCache().invalidateAll();
+			return parseCached(document);
+		}
+	}
+
+	private static class TaskService extends AbstractTaskLanguageService {
+
+		TaskService() {
+			setDataflowCacheService(new DataflowCacheService());
+		}
+
+		List<TaskItem> items(Document document) {
+			dataflowCacheService.getTaskItemCache().invalidateAll();
+			return parseCached(document);
+		}
+	}
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.dataflow.language.server.support;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cloud.dataflow.language.server.DataflowLanguages;
+import org.springframework.cloud.dataflow.language.server.stream.AbstractStreamLanguageService;
+import org.springframework.dsl.document.Document;
+import org.springframework.dsl.document.TextDocument;
+
+/**
+ * Parses pathological stream documents of growing size. A score of every
+ * shape should grow linearly with {@code length}, a tenfold length taking
+ * roughly tenfold time. Long lines and large blocks also exercise configured
+ * parse limits as their sizes go over defaults.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScannerScalingBenchmark {
+
+	@Param({ "10000", "100000", "1000000" })
+	private int length;
+
+	@Param({ "longLine", "largeBlock", "noise" })
+	private String shape;
+
+	private Document document;
+	private final StreamService streamService = new StreamService();
+
+	@Setup
+	public void setup() {
+		String content;
+		if ("longLine".equals(shape)) {
+			content = DocumentSamples.longLine(length);
+		} else if ("largeBlock".equals(shape)) {
+			// property lines are about 30 characters each
+			content = DocumentSamples.largeBlock(length / 30);
+		} else {
+			content = DocumentSamples.noise(length, 0);
+		}
+		document = new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_STREAM, 0, content);
+	}
+
+	@Benchmark
+	public Object parse() {
+		return streamService.items(document);
+	}
+
+	private static class StreamService extends AbstractStreamLanguageService {
+
+		StreamService() {
+			setDataflowCacheService(new DataflowCacheService());
+		}
+
+		List<StreamItem> items(Document document) {
+			dataflowCacheService.getStreamItemCache().invalidateAll();
+			dataflowCacheService.getStreamDocumentCache().invalidateAll();
+			dataflowCacheService.getStreamNodeCache().invalidateAll();
+			return parseCached(document);
+		}
+	}
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.dataflow.language.server.support;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cloud.dataflow.language.server.app.AppLanguageSymbolizer;
+import org.springframework.cloud.dataflow.language.server.config.DataflowLanguagesProperties;
+import org.springframework.cloud.dataflow.language.server.stream.StreamLanguageSymbolizer;
+import org.springframework.cloud.dataflow.language.server.task.TaskLanguageSymbolizer;
+
+/**
+ * Time to index a generated workspace of 5000 stream, task and app files
+ * spread over 50 directories, with a varying number of files in flight.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorkspaceIndexBenchmark {
+
+	private static final int FILES = 5000;
+	private static final int DIRECTORIES = 50;
+
+	@Param({ "1", "4", "16" })
+	private int concurrency;
+
+	private Path root;
+	private WorkspaceIndexer indexer;
+	private WorkspaceSymbolIndex index;
+
+	@Setup
+	public void setup() throws IOException {
+		root = Files.createTempDirectory("workspace-index");
+		String streamContent = DocumentSamples.streams(5);
+		String taskContent = DocumentSamples.tasks(5);
+		String appContent = DocumentSamples.appDescriptor(20);
+		for (int i = 0; i < FILES; i++) {
+			Path dir = root.resolve("dir" + (i % DIRECTORIES));
+			Files.createDirectories(dir);
+			switch (i % 5) {
+				case 0:
+				case 1:
+					write(dir.resolve("file" + i + ".scdfs"), streamContent);
+					break;
+				case 2:
+				case 3:
+					write(dir.resolve("file" + i + ".scdft"), taskContent);
+					break;
+				default:
+					write(dir.resolve("file" + i + ".scdfa"), appContent);
+			}
+		}
+
+		DataflowLanguagesProperties properties = new DataflowLanguagesProperties();
+		properties.getWorkspace().setIndexConcurrency(concurrency);
+		properties.getWorkspace().setWatch(false);
+		DataflowCacheService dataflowCacheService = new DataflowCacheService();
+		StreamLanguageSymbolizer streams = new StreamLanguageSymbolizer();
+		streams.setDataflowCacheService(dataflowCacheService);
+		TaskLanguageSymbolizer tasks = new TaskLanguageSymbolizer();
+		tasks.setDataflowCacheService(dataflowCacheService);
+		AppLanguageSymbolizer apps = new AppLanguageSymbolizer();
+		apps.setDataflowCacheService(dataflowCacheService);
+
+		index = new WorkspaceSymbolIndex();
+		indexer = new WorkspaceIndexer();
+		indexer.setDataflowLanguagesProperties(properties);
+		indexer.setWorkspaceSymbolIndex(index);
+		indexer.setWorkspaceSymbolSources(Arrays.asList(streams, tasks, apps));
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		try (Stream<Path> paths = Files.walk(root)) {
+			paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+		}
+	}
+
+	@Benchmark
+	public Object index() {
+		return indexer.index(Collections.singletonList(root)).blockLast();
+	}
+
+	private static void write(Path file, String content) throws IOException {
+		Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+	}
+}
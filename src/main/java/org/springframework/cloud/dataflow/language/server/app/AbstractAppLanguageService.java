@@ -15,23 +15,33 @@
  */
 package org.springframework.cloud.dataflow.language.server.app;
 
-import java.io.File;
-import java.net.URI;
-import java.net.URISyntaxException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cloud.dataflow.language.server.DataflowLanguages;
-import org.springframework.cloud.dataflow.language.server.support.DockerImage;
-import org.springframework.cloud.deployer.resource.maven.MavenResource;
+import org.springframework.cloud.dataflow.language.server.config.DataflowLanguagesProperties;
+import org.springframework.cloud.dataflow.language.server.support.AppCoordinates;
+import org.springframework.cloud.dataflow.language.server.support.DataflowCacheService;
+import org.springframework.cloud.dataflow.language.server.support.DataflowMetricsService;
+import org.springframework.cloud.dataflow.language.server.support.DocumentLines;
+import org.springframework.cloud.dataflow.language.server.support.DocumentVersionTracker;
+import org.springframework.cloud.dataflow.language.server.support.ParsedDocument;
+import org.springframework.cloud.dataflow.language.server.support.SymbolizedDocument;
+import org.springframework.cloud.dataflow.language.server.support.WorkspaceSymbolIndex;
 import org.springframework.dsl.document.Document;
 import org.springframework.dsl.domain.Range;
 import org.springframework.dsl.service.AbstractDslService;
 import org.springframework.dsl.service.DslService;
 
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
 /**
  * Base {@link DslService} implementation for {@link DataflowLanguages#LANGUAGE_APP}.
  *
@@ -40,94 +50,252 @@ import org.springframework.dsl.service.DslService;
  */
 public abstract class AbstractAppLanguageService extends AbstractDslService {
 
+	private static final Logger log = LoggerFactory.getLogger(AbstractAppLanguageService.class);
+	protected DataflowCacheService dataflowCacheService;
+	protected DataflowLanguagesProperties dataflowLanguagesProperties = new DataflowLanguagesProperties();
+	protected DataflowMetricsService dataflowMetricsService = new DataflowMetricsService();
+	protected DocumentVersionTracker documentVersionTracker = new DocumentVersionTracker();
+	protected WorkspaceSymbolIndex workspaceSymbolIndex = new WorkspaceSymbolIndex();
+
 	public AbstractAppLanguageService() {
 		super(DataflowLanguages.LANGUAGE_APP);
 	}
 
+	@Autowired
+	public void setDataflowCacheService(DataflowCacheService dataflowCacheService) {
+		this.dataflowCacheService = dataflowCacheService;
+	}
+
+	@Autowired
+	public void setDataflowLanguagesProperties(DataflowLanguagesProperties dataflowLanguagesProperties) {
+		this.dataflowLanguagesProperties = dataflowLanguagesProperties;
+	}
+
+	@Autowired
+	public void setDataflowMetricsService(DataflowMetricsService dataflowMetricsService) {
+		this.dataflowMetricsService = dataflowMetricsService;
+	}
+
+	@Autowired
+	public void setDocumentVersionTracker(DocumentVersionTracker documentVersionTracker) {
+		this.documentVersionTracker = documentVersionTracker;
+	}
+
+	@Autowired
+	public void setWorkspaceSymbolIndex(WorkspaceSymbolIndex workspaceSymbolIndex) {
+		this.workspaceSymbolIndex = workspaceSymbolIndex;
+	}
+
+	protected Collection<AppEntry> parseCached(Document document) {
+		return dataflowCacheService.getAppItemCache().get(document, key -> {
+			log.debug("Parsing {}", key);
+			Collection<AppEntry> apps = parseApps(document);
+			workspaceSymbolIndex.update(document.uri(), document.getVersion(),
+					AppLanguageSymbolizer.workspaceSymbols(document.uri(), apps));
+			return apps;
+		});
+	}
+
+	/**
+	 * Gets a symbol table of a document, built once per document version.
+	 *
+	 * @param document the document
+	 * @return the mono of symbolized document
+	 */
+	protected Mono<SymbolizedDocument> parseSymbols(Document document) {
+		return Mono.fromSupplier(() -> dataflowCacheService.getAppSymbolCache().get(document,
+				key -> new SymbolizedDocument(document.uri(), AppLanguageSymbolizer.buildTable(parseCached(document)))));
+	}
+
+	/**
+	 * Start parsing a document on a background scheduler so that lenses and
+	 * symbols requested for a same version find parsed apps in a cache.
+	 * Returned mono replays a result of this one parse.
+	 *
+	 * @param document the document
+	 * @return the mono of parsed apps
+	 */
+	protected Mono<Collection<AppEntry>> parseEagerly(Document document) {
+		Mono<Collection<AppEntry>> parsed = Mono.fromCallable(() -> parseCached(document));
+		if (!dataflowLanguagesProperties.getParse().isEager()) {
+			return parsed;
+		}
+		parsed = parsed
+			.subscribeOn(Schedulers.parallel())
+			.takeUntilOther(documentVersionTracker.superseded(document))
+			.cache();
+		parsed.subscribe(apps -> log.debug("Eagerly parsed {} apps from {} version {}", apps.size(),
+				document.uri(), document.getVersion()),
+				e -> log.debug("Eager parse of {} failed", document.uri(), e));
+		return parsed;
+	}
+
+	/**
+	 * Parse a document into app entries. Lines are parsed separately and a
+	 * parsed form of each line is kept with a document so that a next version
+	 * parses only lines between a common prefix and a common suffix of both
+	 * versions. Entries are assembled again from all parsed lines as that
+	 * is just a map lookup per line.
+	 */
 	protected Collection<AppEntry> parseApps(Document document) {
-		Map<String, AppEntry> apps = new HashMap<>();
-		for (int line = 0; line < document.lineCount(); line++) {
-            Range lineRange = document.getLineRange(line);
-			String content = document.content(lineRange).toString();
-			String[] split1 = content.split("=");
-			if (split1.length == 2) {
-				String[] split2 = split1[0].split("\\.");
+		String content = document.content().toString();
+		ParsedDocument<AppLine> previous = dataflowCacheService.getAppDocumentCache().getIfPresent(document.uri());
+		DocumentLines lines;
+		List<AppLine> appLines;
+		if (previous != null) {
+			log.debug("Parsing {} version {} incrementally against version {}", document.uri(),
+					document.getVersion(), previous.getVersion());
+			String previousContent = previous.getContent();
+			int prefix = DocumentLines.commonPrefixLength(previousContent, content);
+			int suffix = DocumentLines.commonSuffixLength(previousContent, content, prefix);
+			lines = DocumentLines.update(previous.getLines(), content, prefix, suffix);
+			appLines = parseAppLines(content, lines, previous, prefix, suffix);
+		} else {
+			lines = DocumentLines.classify(content);
+			appLines = new ArrayList<>(lines.getLineCount());
+			parseAppLines(content, lines, 0, lines.getLineCount() - 1, appLines);
+		}
+		dataflowCacheService.getAppDocumentCache().put(document.uri(),
+				new ParsedDocument<>(document.getVersion(), content, lines, appLines));
+		return assembleApps(appLines);
+	}
+
+	/**
+	 * Parse a document into app entries from scratch without keeping its
+	 * parsed lines around, used for documents which are not open in a client.
+	 *
+	 * @param document the document
+	 * @return the app entries
+	 */
+	protected Collection<AppEntry> parseDetached(Document document) {
+		String content = document.content().toString();
+		DocumentLines lines = DocumentLines.classify(content);
+		List<AppLine> appLines = new ArrayList<>(lines.getLineCount());
+		parseAppLines(content, lines, 0, lines.getLineCount() - 1, appLines);
+		return assembleApps(appLines);
+	}
+
+	private List<AppLine> parseAppLines(String content, DocumentLines lines, ParsedDocument<AppLine> previous,
+			int prefix, int suffix) {
+		List<AppLine> previousLines = previous.getItems();
+		int changeStartLine = lines.getLine(prefix);
+		int previousChangeEndLine = previous.getLines().getLine(previous.getContent().length() - suffix);
+		int changeEndLine = lines.getLine(content.length() - suffix);
+		List<AppLine> appLines = new ArrayList<>(lines.getLineCount());
+		appLines.addAll(previousLines.subList(0, changeStartLine));
+		parseAppLines(content, lines, changeStartLine, changeEndLine, appLines);
+		appLines.addAll(previousLines.subList(previousChangeEndLine + 1, previousLines.size()));
+		return appLines;
+	}
+
+	private void parseAppLines(String content, DocumentLines lines, int startLine, int endLine,
+			List<AppLine> appLines) {
+		for (int line = startLine; line <= endLine; line++) {
+			int start = lines.getLineStart(line);
+			int end = line + 1 < lines.getLineCount() ? lines.getLineStart(line + 1) - 1 : content.length();
+			if (end > start && content.charAt(end - 1) == '\r') {
+				end--;
+			}
+			appLines.add(parseAppLine(content.substring(start, end)));
+		}
+	}
+
+	private AppLine parseAppLine(String content) {
+		String[] split1 = content.split("=");
+		if (split1.length == 2) {
+			String[] split2 = split1[0].split("\\.");
+			if (split2.length == 2 || split2.length == 3) {
 				String version = getVersion(split1[1]);
-				if (split2.length == 2) {
-					String name = split2[0] + split2[1] + version;
-					AppEntry ae = apps.get(name);
-					Range appRange = Range.from(line, 0, line, split1[0].length());
-					if (ae == null) {
-						ae = new AppEntry(split2[0], split2[1], version, appRange, null, split1[1], null);
-						apps.put(name, ae);
-					} else {
-						ae.setAppRange(appRange);
-						ae.setAppUri(split1[1]);
-					}
-				} else if (split2.length == 3) {
-					String name = split2[0] + split2[1] + version;
-					if (name.endsWith("-metadata")) {
-						name = name.substring(0, name.length() - 9);
-					}
-					AppEntry ae = apps.get(name);
-					Range metadataRange = Range.from(line, 0, line, split1[0].length());
-					if (ae == null) {
-						ae = new AppEntry(split2[0], split2[1], version, null, metadataRange, null, split1[1]);
-						apps.put(name, ae);
-					} else {
-						ae.setMetadataRange(metadataRange);
-						ae.setMetadataUri(split1[1]);
-					}
+				String name = split2[0] + split2[1] + version;
+				boolean metadata = split2.length == 3;
+				if (metadata && name.endsWith("-metadata")) {
+					name = name.substring(0, name.length() - 9);
 				}
+				return new AppLine(name, split2[0], split2[1], version, split1[1], split1[0].length(), metadata);
 			}
 		}
-		return apps.values();
+		return AppLine.NONE;
 	}
 
-	private String getVersion(String uri) {
-		String version = "";
-		try {
-			String scheme = new URI(uri).getScheme();
-			switch (scheme) {
-				case "maven":
-					String coordinates = uri.replaceFirst("maven:\\/*", "");
-					MavenResource resource1 = MavenResource.parse(coordinates);
-					version = resource1.getVersion();
-					break;
-				case "docker":
-					String dockerUri = uri.replaceFirst("docker:\\/*", "");
-					DockerImage dockerImage = DockerImage.fromImageName(dockerUri);
-					version =  dockerImage.getTag();
-					break;
-				case "http":
-				case "https":
-					URI resourceUri = URI.create(uri);
-					String uriPath = resourceUri.getPath();
-					String lastSegment = new File(uriPath).getName();
-					lastSegment = lastSegment.substring(0, lastSegment.lastIndexOf("."));
-					Pattern pattern = Pattern.compile("(.*)-(\\d)(.*?)");
-					Matcher m = pattern.matcher(lastSegment);
-					m.matches();
-					version =  m.group(2) + m.group(3);
-					break;
+	/**
+	 * Assemble app entries from parsed lines. A first line of an app gives
+	 * its type, name and version and a last app and metadata line win, each
+	 * entry is built once all lines of it are known.
+	 */
+	private static Collection<AppEntry> assembleApps(List<AppLine> appLines) {
+		// first, last app and last metadata line of each app
+		Map<String, int[]> appLineNumbers = new HashMap<>();
+		for (int line = 0; line < appLines.size(); line++) {
+			AppLine appLine = appLines.get(line);
+			if (appLine == AppLine.NONE) {
+				continue;
+			}
+			int[] lineNumbers = appLineNumbers.computeIfAbsent(appLine.key, key -> new int[] { -1, -1, -1 });
+			if (lineNumbers[0] < 0) {
+				lineNumbers[0] = line;
 			}
-		} catch (URISyntaxException e) {
+			lineNumbers[appLine.metadata ? 2 : 1] = line;
 		}
-		return version;
+		List<AppEntry> apps = new ArrayList<>(appLineNumbers.size());
+		for (int[] lineNumbers : appLineNumbers.values()) {
+			AppLine first = appLines.get(lineNumbers[0]);
+			AppLine app = lineNumbers[1] > -1 ? appLines.get(lineNumbers[1]) : null;
+			AppLine metadata = lineNumbers[2] > -1 ? appLines.get(lineNumbers[2]) : null;
+			apps.add(new AppEntry(first.type, first.name, first.version,
+					app != null ? Range.from(lineNumbers[1], 0, lineNumbers[1], app.keyLength) : null,
+					metadata != null ? Range.from(lineNumbers[2], 0, lineNumbers[2], metadata.keyLength) : null,
+					app != null ? app.uri : null, metadata != null ? metadata.uri : null));
+		}
+		return apps;
+	}
+
+	private String getVersion(String uri) {
+		return dataflowCacheService.getAppCoordinatesCache().get(uri, AppCoordinates::parse).getVersion();
 	}
 
+	/**
+	 * Parsed form of a single line of an app document. Independent of a line
+	 * number so that it can be reused when lines around it change.
+	 */
+	public static class AppLine {
+
+		static final AppLine NONE = new AppLine(null, null, null, null, null, 0, false);
+
+		private final String key;
+		private final String type;
+		private final String name;
+		private final String version;
+		private final String uri;
+		private final int keyLength;
+		private final boolean metadata;
+
+		AppLine(String key, String type, String name, String version, String uri, int keyLength, boolean metadata) {
+			this.key = key;
+			this.type = type;
+			this.name = name;
+			this.version = version;
+			this.uri = uri;
+			this.keyLength = keyLength;
+			this.metadata = metadata;
+		}
+	}
 
-	protected static class AppEntry {
+	/**
+	 * App parsed from its uri and metadata lines. Entries are immutable as they
+	 * are kept in a cache per document version and read concurrently.
+	 */
+	public static class AppEntry {
 
-		private String type;
-		private String name;
-		private String version;
-		private String appUri;
-		private String metadataUri;
-		private Range appRange;
-		private Range metadataRange;
+		private final String type;
+		private final String name;
+		private final String version;
+		private final String appUri;
+		private final String metadataUri;
+		private final Range appRange;
+		private final Range metadataRange;
 
-		AppEntry(String type, String name, String version, Range appRange, Range metadataRange, String appUri, String metadataUri) {
+		AppEntry(String type, String name, String version, Range appRange, Range metadataRange, String appUri,
+				String metadataUri) {
 			this.type = type;
 			this.name = name;
 			this.version = version;
@@ -153,30 +321,14 @@ public abstract class AbstractAppLanguageService extends AbstractDslService {
 			return appRange;
 		}
 
-		public void setAppRange(Range appRange) {
-			this.appRange = appRange;
-		}
-
 		public Range getMetadataRange() {
 			return metadataRange;
 		}
 
-		public void setMetadataRange(Range metadataRange) {
-			this.metadataRange = metadataRange;
-		}
-
-		public void setAppUri(String appUri) {
-			this.appUri = appUri;
-		}
-
 		public String getAppUri() {
 			return appUri;
 		}
 
-		public void setMetadataUri(String metadataUri) {
-			this.metadataUri = metadataUri;
-		}
-
 		public String getMetadataUri() {
 			return metadataUri;
 		}
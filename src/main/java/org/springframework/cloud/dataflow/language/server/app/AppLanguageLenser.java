@@ -39,7 +39,7 @@ public class AppLanguageLenser extends AbstractAppLanguageService implements Len
 	@Override
 	public Flux<CodeLens> lense(DslContext context) {
 		return Flux.defer(() -> {
-			return Flux.fromIterable(parseApps(context.getDocument()))
+			return Flux.fromIterable(parseCached(context.getDocument()))
 				.flatMap(item -> {
 					return Flux.just(
 						CodeLens.codeLens()
@@ -15,6 +15,8 @@
  */
 package org.springframework.cloud.dataflow.language.server.app;
 
+import org.springframework.cloud.dataflow.language.server.DataflowLanguages;
+import org.springframework.dsl.document.Document;
 import org.springframework.dsl.service.DslContext;
 import org.springframework.dsl.service.reconcile.Linter;
 import org.springframework.dsl.service.reconcile.ReconcileProblem;
@@ -33,6 +35,11 @@ public class AppLanguageLinter extends AbstractAppLanguageService implements Lin
 
     @Override
     public Flux<ReconcileProblem> lint(DslContext context) {
-        return Flux.empty();
+        Document document = context.getDocument();
+        documentVersionTracker.track(document);
+        // app documents have no diagnostics, time a parse lenses and symbols use
+        return dataflowMetricsService.timeDiagnostics(DataflowLanguages.LANGUAGE_APP_ID,
+                () -> documentVersionTracker.isSuperseded(document),
+                documentVersionTracker.supersedable(document, parseEagerly(document).thenMany(Flux.<ReconcileProblem>empty())));
     }
 }
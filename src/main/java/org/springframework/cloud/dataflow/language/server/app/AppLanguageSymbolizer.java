@@ -15,21 +15,29 @@
  */
 package org.springframework.cloud.dataflow.language.server.app;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
+import org.springframework.cloud.dataflow.language.server.DataflowLanguages;
+import org.springframework.cloud.dataflow.language.server.support.WorkspaceSymbol;
+import org.springframework.cloud.dataflow.language.server.support.WorkspaceSymbolSource;
+import org.springframework.dsl.document.TextDocument;
+import org.springframework.dsl.domain.Range;
 import org.springframework.dsl.domain.SymbolKind;
 import org.springframework.dsl.service.DslContext;
 import org.springframework.dsl.service.symbol.SymbolizeInfo;
 import org.springframework.dsl.service.symbol.Symbolizer;
 import org.springframework.dsl.support.DslUtils;
+import org.springframework.dsl.symboltable.Symbol;
 import org.springframework.dsl.symboltable.SymbolTable;
 import org.springframework.dsl.symboltable.model.ClassSymbol;
 import org.springframework.dsl.symboltable.model.LocalScope;
 import org.springframework.dsl.symboltable.support.DefaultSymbolTable;
-import org.springframework.dsl.symboltable.support.DocumentSymbolTableVisitor;
 import org.springframework.stereotype.Component;
 
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
@@ -39,7 +47,11 @@ import reactor.core.publisher.Mono;
  *
  */
 @Component
-public class AppLanguageSymbolizer extends AbstractAppLanguageService implements Symbolizer {
+public class AppLanguageSymbolizer extends AbstractAppLanguageService implements Symbolizer,
+		WorkspaceSymbolSource {
+
+	private static final Map<Character, Class<? extends Symbol>> QUERY_PREFIXES = Collections
+			.singletonMap('@', AppSymbol.class);
 
 	@Override
 	public SymbolizeInfo symbolize(DslContext context) {
@@ -52,19 +64,22 @@ public class AppLanguageSymbolizer extends AbstractAppLanguageService implements
 	}
 
 	private SymbolizeInfo symbolizeInternal(DslContext context, String query) {
-		Mono<SymbolizeInfo> symbolizeInfo = Flux.fromIterable(parseApps(context.getDocument()))
-			.collectList()
-			.map(items -> buildTable(items))
-			.map(table -> {
-				DocumentSymbolTableVisitor visitor = new DocumentSymbolTableVisitor(context.getDocument().uri());
-				table.visitSymbolTable(visitor);
-				return visitor;
-			})
-			.map(visitor -> visitor.getSymbolizeInfo());
+		Mono<SymbolizeInfo> symbolizeInfo = parseSymbols(context.getDocument())
+			.map(symbolized -> symbolized.getSymbolizeInfo(query, QUERY_PREFIXES));
 		return DslUtils.symbolizeInfoFromMono(symbolizeInfo);
 	}
 
-	private static SymbolTable buildTable(List<AppEntry> items) {
+	@Override
+	public String getFileExtension() {
+		return DataflowLanguages.LANGUAGE_APP_ID;
+	}
+
+	@Override
+	public List<WorkspaceSymbol> parseWorkspaceSymbols(String uri, String content) {
+		return workspaceSymbols(uri, parseDetached(new TextDocument(uri, DataflowLanguages.LANGUAGE_APP, 0, content)));
+	}
+
+	static SymbolTable buildTable(Collection<AppEntry> items) {
 		DefaultSymbolTable table = new DefaultSymbolTable();
 		for (AppEntry item : items) {
 			String appName = item.getName();
@@ -87,6 +102,26 @@ public class AppLanguageSymbolizer extends AbstractAppLanguageService implements
 		return table;
 	}
 
+	/**
+	 * Build symbols of app documents kept in a workspace wide index, one per
+	 * registered app with its type as a container.
+	 *
+	 * @param uri the document uri
+	 * @param items the app entries
+	 * @return the workspace symbols
+	 */
+	static List<WorkspaceSymbol> workspaceSymbols(String uri, Collection<AppEntry> items) {
+		List<WorkspaceSymbol> symbols = new ArrayList<>();
+		for (AppEntry item : items) {
+			Range range = item.getAppRange() != null ? item.getAppRange() : item.getMetadataRange();
+			if (item.getName() == null || range == null) {
+				continue;
+			}
+			symbols.add(new WorkspaceSymbol(item.getName(), WorkspaceSymbol.Kind.APP, uri, range, item.getType()));
+		}
+		return symbols;
+	}
+
 	public static class AppSymbol extends ClassSymbol {
 
 		AppSymbol(String name) {
@@ -15,6 +15,7 @@
  */
 package org.springframework.cloud.dataflow.language.server.config;
 
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.dataflow.language.server.controller.DataflowJsonRpcController;
 import org.springframework.cloud.dataflow.language.server.controller.TraceNotificationController;
 import org.springframework.context.annotation.Bean;
@@ -23,6 +24,7 @@ import org.springframework.dsl.lsp.server.support.JvmLspExiter;
 import org.springframework.dsl.lsp.server.support.LspExiter;
 
 @Configuration
+@EnableConfigurationProperties(DataflowLanguagesProperties.class)
 public class DataflowLanguagesConfiguration {
 
     @Bean
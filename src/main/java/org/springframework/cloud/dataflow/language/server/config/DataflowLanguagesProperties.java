@@ -0,0 +1,244 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.dataflow.language.server.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for a dataflow language server.
+ *
+ * @author Janne Valkealahti
+ *
+ */
+@ConfigurationProperties(prefix = "spring.cloud.dataflow.language.server")
+public class DataflowLanguagesProperties {
+
+	private final Cache cache = new Cache();
+	private final Parse parse = new Parse();
+	private final Workspace workspace = new Workspace();
+	private final Registry registry = new Registry();
+
+	public Cache getCache() {
+		return cache;
+	}
+
+	public Parse getParse() {
+		return parse;
+	}
+
+	public Workspace getWorkspace() {
+		return workspace;
+	}
+
+	public Registry getRegistry() {
+		return registry;
+	}
+
+	public static class Cache {
+
+		/**
+		 * Maximum number of parsed stream and task definitions shared across
+		 * documents and their versions.
+		 */
+		private long nodeMaximumSize = 1000;
+
+		/**
+		 * Maximum total number of document lines for which parsed items are
+		 * kept, bounding each per document version cache.
+		 */
+		private long itemMaximumWeight = 500000;
+
+		public long getNodeMaximumSize() {
+			return nodeMaximumSize;
+		}
+
+		public void setNodeMaximumSize(long nodeMaximumSize) {
+			this.nodeMaximumSize = nodeMaximumSize;
+		}
+
+		public long getItemMaximumWeight() {
+			return itemMaximumWeight;
+		}
+
+		public void setItemMaximumWeight(long itemMaximumWeight) {
+			this.itemMaximumWeight = itemMaximumWeight;
+		}
+	}
+
+	public static class Parse {
+
+		/**
+		 * Number of document lines above which stream and task blocks are
+		 * parsed in parallel.
+		 */
+		private int parallelLineThreshold = 10000;
+
+		/**
+		 * Number of stream or task blocks in a document above which blocks are
+		 * parsed in parallel.
+		 */
+		private int parallelBlockThreshold = 1000;
+
+		/**
+		 * Whether a new document version is parsed on a background scheduler
+		 * as soon as it arrives.
+		 */
+		private boolean eager = true;
+
+		/**
+		 * Maximum length of a definition line handed to a dsl parser, longer
+		 * lines are reported as problems without being parsed.
+		 */
+		private int maximumLineLength = 10000;
+
+		/**
+		 * Maximum number of lines in a block ending with a definition, metadata
+		 * after it is ignored and reported as a problem.
+		 */
+		private int maximumBlockLines = 10000;
+
+		public int getParallelLineThreshold() {
+			return parallelLineThreshold;
+		}
+
+		public void setParallelLineThreshold(int parallelLineThreshold) {
+			this.parallelLineThreshold = parallelLineThreshold;
+		}
+
+		public int getParallelBlockThreshold() {
+			return parallelBlockThreshold;
+		}
+
+		public void setParallelBlockThreshold(int parallelBlockThreshold) {
+			this.parallelBlockThreshold = parallelBlockThreshold;
+		}
+
+		public boolean isEager() {
+			return eager;
+		}
+
+		public void setEager(boolean eager) {
+			this.eager = eager;
+		}
+
+		public int getMaximumLineLength() {
+			return maximumLineLength;
+		}
+
+		public void setMaximumLineLength(int maximumLineLength) {
+			this.maximumLineLength = maximumLineLength;
+		}
+
+		public int getMaximumBlockLines() {
+			return maximumBlockLines;
+		}
+
+		public void setMaximumBlockLines(int maximumBlockLines) {
+			this.maximumBlockLines = maximumBlockLines;
+		}
+	}
+
+	public static class Workspace {
+
+		/**
+		 * Maximum number of files read and parsed concurrently when indexing
+		 * workspace roots.
+		 */
+		private int indexConcurrency = Runtime.getRuntime().availableProcessors();
+
+		/**
+		 * Whether indexed workspace roots are watched for file changes.
+		 */
+		private boolean watch = true;
+
+		public int getIndexConcurrency() {
+			return indexConcurrency;
+		}
+
+		public void setIndexConcurrency(int indexConcurrency) {
+			this.indexConcurrency = indexConcurrency;
+		}
+
+		public boolean isWatch() {
+			return watch;
+		}
+
+		public void setWatch(boolean watch) {
+			this.watch = watch;
+		}
+	}
+
+	public static class Registry {
+
+		/**
+		 * Interval between background refreshes of an app registry snapshot of
+		 * an environment, zero or negative disables refreshing.
+		 */
+		private Duration refreshInterval = Duration.ofMinutes(5);
+
+		/**
+		 * Maximum random delay added to each refresh interval so that
+		 * snapshots loaded together don't hit a server together.
+		 */
+		private Duration refreshJitter = Duration.ofSeconds(30);
+
+		/**
+		 * Maximum number of registration pages fetched concurrently when
+		 * loading an app registry snapshot.
+		 */
+		private int fetchConcurrency = 4;
+
+		/**
+		 * Time a failed load of an app registry snapshot is remembered before
+		 * a next read tries to load it again.
+		 */
+		private Duration failureRetryInterval = Duration.ofSeconds(10);
+
+		public Duration getRefreshInterval() {
+			return refreshInterval;
+		}
+
+		public void setRefreshInterval(Duration refreshInterval) {
+			this.refreshInterval = refreshInterval;
+		}
+
+		public Duration getRefreshJitter() {
+			return refreshJitter;
+		}
+
+		public void setRefreshJitter(Duration refreshJitter) {
+			this.refreshJitter = refreshJitter;
+		}
+
+		public int getFetchConcurrency() {
+			return fetchConcurrency;
+		}
+
+		public void setFetchConcurrency(int fetchConcurrency) {
+			this.fetchConcurrency = fetchConcurrency;
+		}
+
+		public Duration getFailureRetryInterval() {
+			return failureRetryInterval;
+		}
+
+		public void setFailureRetryInterval(Duration failureRetryInterval) {
+			this.failureRetryInterval = failureRetryInterval;
+		}
+	}
+}
@@ -17,24 +17,40 @@
  package org.springframework.cloud.dataflow.language.server.controller;
 
 import java.net.URI;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cloud.dataflow.language.server.DataflowLanguages;
+import org.springframework.cloud.dataflow.language.server.domain.DataflowDocumentParams;
 import org.springframework.cloud.dataflow.language.server.domain.DataflowEnvironmentParams;
-import org.springframework.cloud.dataflow.language.server.domain.DataflowResponse;
 import org.springframework.cloud.dataflow.language.server.domain.DataflowEnvironmentParams.Environment;
+import org.springframework.cloud.dataflow.language.server.domain.DataflowResponse;
 import org.springframework.cloud.dataflow.language.server.domain.DataflowStreamCreateParams;
 import org.springframework.cloud.dataflow.language.server.domain.DataflowStreamDeployParams;
 import org.springframework.cloud.dataflow.language.server.domain.DataflowStreamDestroyParams;
 import org.springframework.cloud.dataflow.language.server.domain.DataflowStreamUndeployParams;
+import org.springframework.cloud.dataflow.language.server.domain.DataflowSymbolLinksParams;
 import org.springframework.cloud.dataflow.language.server.domain.DataflowTaskCreateParams;
 import org.springframework.cloud.dataflow.language.server.domain.DataflowTaskDestroyParams;
 import org.springframework.cloud.dataflow.language.server.domain.DataflowTaskLaunchParams;
+import org.springframework.cloud.dataflow.language.server.domain.DataflowWorkspaceParams;
+import org.springframework.cloud.dataflow.language.server.domain.DataflowWorkspaceSymbolParams;
+import org.springframework.cloud.dataflow.language.server.support.AppRegistrySnapshotService;
+import org.springframework.cloud.dataflow.language.server.support.DestinationGraph;
+import org.springframework.cloud.dataflow.language.server.support.DestinationGraph.SymbolLinks;
+import org.springframework.cloud.dataflow.language.server.support.DocumentVersionTracker;
+import org.springframework.cloud.dataflow.language.server.support.WorkspaceIndexer;
+import org.springframework.cloud.dataflow.language.server.support.WorkspaceSymbol;
+import org.springframework.cloud.dataflow.language.server.support.WorkspaceSymbolIndex;
 import org.springframework.cloud.dataflow.rest.client.DataFlowOperations;
 import org.springframework.cloud.dataflow.rest.client.DataFlowTemplate;
 import org.springframework.cloud.dataflow.rest.util.HttpClientConfigurer;
+import org.springframework.dsl.domain.Position;
 import org.springframework.dsl.jsonrpc.annotation.JsonRpcNotification;
 import org.springframework.dsl.jsonrpc.annotation.JsonRpcRequestMapping;
 import org.springframework.dsl.jsonrpc.annotation.JsonRpcRequestParams;
@@ -46,6 +62,7 @@ import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
 import org.springframework.web.client.RestTemplate;
 
+import reactor.core.Disposable;
 import reactor.core.publisher.Mono;
 
 /**
@@ -62,10 +79,43 @@ import reactor.core.publisher.Mono;
 public class DataflowJsonRpcController {
 
 	private final static Logger log = LoggerFactory.getLogger(DataflowJsonRpcController.class);
+	private static final int DEFAULT_WORKSPACE_SYMBOL_LIMIT = 1000;
+	private WorkspaceSymbolIndex workspaceSymbolIndex = new WorkspaceSymbolIndex();
+	private WorkspaceIndexer workspaceIndexer = new WorkspaceIndexer();
+	private DestinationGraph destinationGraph = new DestinationGraph();
+	private AppRegistrySnapshotService appRegistrySnapshotService = new AppRegistrySnapshotService();
+	private DocumentVersionTracker documentVersionTracker = new DocumentVersionTracker();
+	private Disposable workspaceIndexing;
+
+	@Autowired
+	public void setWorkspaceSymbolIndex(WorkspaceSymbolIndex workspaceSymbolIndex) {
+		this.workspaceSymbolIndex = workspaceSymbolIndex;
+	}
+
+	@Autowired
+	public void setDestinationGraph(DestinationGraph destinationGraph) {
+		this.destinationGraph = destinationGraph;
+	}
+
+	@Autowired
+	public void setWorkspaceIndexer(WorkspaceIndexer workspaceIndexer) {
+		this.workspaceIndexer = workspaceIndexer;
+	}
+
+	@Autowired
+	public void setAppRegistrySnapshotService(AppRegistrySnapshotService appRegistrySnapshotService) {
+		this.appRegistrySnapshotService = appRegistrySnapshotService;
+	}
+
+	@Autowired
+	public void setDocumentVersionTracker(DocumentVersionTracker documentVersionTracker) {
+		this.documentVersionTracker = documentVersionTracker;
+	}
 
 	/**
 	 * Blindly inject given params into a session so that other methods can use this
 	 * info from a {@link JsonRpcSession} available from a {@link DslContext}.
+	 * Registry snapshots are dropped as environments may now point elsewhere.
 	 *
 	 * @param params  the dataflow environment params
 	 * @param session th json rpc session
@@ -76,6 +126,52 @@ public class DataflowJsonRpcController {
 			JsonRpcSession session) {
 		log.debug("Client sending new environment info, params {} and session id {}", params, session.getId());
 		session.getAttributes().put(DataflowLanguages.CONTEXT_SESSION_ENVIRONMENTS_ATTRIBUTE, params);
+		appRegistrySnapshotService.invalidateAll();
+	}
+
+	/**
+	 * Index dsl files under workspace roots sent by a client and keep watching
+	 * them for changes. Indexing runs in a background and its progress is
+	 * sent back as {@code scdf/workspaceIndexProgress} notifications. Roots
+	 * sent again replace previous ones.
+	 *
+	 * @param params the workspace params
+	 * @param lspClient the lsp client
+	 */
+	@JsonRpcRequestMapping(method = "workspace")
+	@JsonRpcNotification
+	public synchronized void workspaceNotification(@JsonRpcRequestParams DataflowWorkspaceParams params,
+			LspClient lspClient) {
+		log.debug("Client sending workspace roots, params {}", params);
+		if (workspaceIndexing != null) {
+			workspaceIndexing.dispose();
+		}
+		List<Path> roots = params.getRoots().stream()
+			.map(root -> root.startsWith("file:") ? Paths.get(URI.create(root)) : Paths.get(root))
+			.collect(Collectors.toList());
+		workspaceIndexer.watch(roots);
+		workspaceIndexing = workspaceIndexer.index(roots)
+			.concatMap(progress -> lspClient.notification()
+				.method("scdf/workspaceIndexProgress")
+				.params(progress)
+				.exchange())
+			.subscribe(null, e -> log.warn("Indexing workspace {} failed", roots, e),
+					() -> log.debug("Indexed workspace {}", roots));
+	}
+
+	/**
+	 * Client telling that a document was closed in an editor. Its content on
+	 * a disk is indexed again so that workspace symbols, destination links and
+	 * renames no longer use content from an editor.
+	 *
+	 * @param params the document params
+	 */
+	@JsonRpcRequestMapping(method = "documentClosed")
+	@JsonRpcNotification
+	public void documentClosedNotification(@JsonRpcRequestParams DataflowDocumentParams params) {
+		log.debug("Client sending document closed, params {}", params);
+		documentVersionTracker.close(params.getUri());
+		workspaceIndexer.reload(params.getUri());
 	}
 
 	@JsonRpcRequestMapping(method = "createStream")
@@ -206,6 +302,40 @@ public class DataflowJsonRpcController {
 			.onErrorReturn(DataflowResponse.error(String.format("Task %s destroy failed", params.getName())));
 	}
 
+	/**
+	 * Query streams, tasks, apps and named destinations from all indexed
+	 * documents in a workspace. Answered from a {@link WorkspaceSymbolIndex}
+	 * without parsing anything.
+	 *
+	 * @param params the workspace symbol params
+	 * @return the mono of matching workspace symbols
+	 */
+	@JsonRpcRequestMapping(method = "workspaceSymbols")
+	@JsonRpcResponseResult
+	public Mono<List<WorkspaceSymbol>> workspaceSymbols(@JsonRpcRequestParams DataflowWorkspaceSymbolParams params) {
+		return Mono.fromSupplier(() -> {
+			log.debug("Client sending workspace symbols request, params {}", params);
+			int limit = params.getLimit() != null ? params.getLimit() : DEFAULT_WORKSPACE_SYMBOL_LIMIT;
+			return workspaceSymbolIndex.query(params.getQuery(), limit);
+		});
+	}
+
+	/**
+	 * Resolve definitions, references and consumers of a stream, destination
+	 * or a tap at a position of a document across a whole workspace.
+	 *
+	 * @param params the symbol links params
+	 * @return the mono of symbol links, empty if there is no symbol
+	 */
+	@JsonRpcRequestMapping(method = "symbolLinks")
+	@JsonRpcResponseResult
+	public Mono<SymbolLinks> symbolLinks(@JsonRpcRequestParams DataflowSymbolLinksParams params) {
+		return Mono.fromSupplier(() -> {
+			log.debug("Client sending symbol links request, params {}", params);
+			return destinationGraph.getLinks(params.getUri(), Position.from(params.getLine(), params.getCharacter()));
+		});
+	}
+
 	protected DataFlowOperations getDataFlowOperations(JsonRpcSession session, String server) {
 		org.springframework.cloud.dataflow.language.server.domain.DataflowEnvironmentParams params = session
 				.getAttribute(DataflowLanguages.CONTEXT_SESSION_ENVIRONMENTS_ATTRIBUTE);
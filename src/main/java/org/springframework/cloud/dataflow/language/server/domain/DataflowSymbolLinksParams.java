@@ -0,0 +1,61 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.dataflow.language.server.domain;
+
+public class DataflowSymbolLinksParams {
+
+	private String uri;
+	private int line;
+	private int character;
+
+	public DataflowSymbolLinksParams() {
+	}
+
+	public DataflowSymbolLinksParams(String uri, int line, int character) {
+		this.uri = uri;
+		this.line = line;
+		this.character = character;
+	}
+
+	public String getUri() {
+		return uri;
+	}
+
+	public void setUri(String uri) {
+		this.uri = uri;
+	}
+
+	public int getLine() {
+		return line;
+	}
+
+	public void setLine(int line) {
+		this.line = line;
+	}
+
+	public int getCharacter() {
+		return character;
+	}
+
+	public void setCharacter(int character) {
+		this.character = character;
+	}
+
+	@Override
+	public String toString() {
+		return "DataflowSymbolLinksParams [uri=" + uri + ", line=" + line + ", character=" + character + "]";
+	}
+}
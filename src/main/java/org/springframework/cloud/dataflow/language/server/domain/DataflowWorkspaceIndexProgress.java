@@ -0,0 +1,55 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.dataflow.language.server.domain;
+
+public class DataflowWorkspaceIndexProgress {
+
+	private int indexed;
+	private int total;
+
+	public DataflowWorkspaceIndexProgress() {
+	}
+
+	public DataflowWorkspaceIndexProgress(int indexed, int total) {
+		this.indexed = indexed;
+		this.total = total;
+	}
+
+	public int getIndexed() {
+		return indexed;
+	}
+
+	public void setIndexed(int indexed) {
+		this.indexed = indexed;
+	}
+
+	public int getTotal() {
+		return total;
+	}
+
+	public void setTotal(int total) {
+		this.total = total;
+	}
+
+	public boolean isDone() {
+		return indexed >= total;
+	}
+
+	@Override
+	public String toString() {
+		return "DataflowWorkspaceIndexProgress [indexed=" + indexed + ", total=" + total + "]";
+	}
+}
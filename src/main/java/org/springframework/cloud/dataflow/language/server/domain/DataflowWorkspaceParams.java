@@ -0,0 +1,44 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.dataflow.language.server.domain;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class DataflowWorkspaceParams {
+
+	private List<String> roots = new ArrayList<>();
+
+	public DataflowWorkspaceParams() {
+	}
+
+	public DataflowWorkspaceParams(List<String> roots) {
+		this.roots = roots;
+	}
+
+	public List<String> getRoots() {
+		return roots;
+	}
+
+	public void setRoots(List<String> roots) {
+		this.roots = roots;
+	}
+
+	@Override
+	public String toString() {
+		return "DataflowWorkspaceParams [roots=" + roots + "]";
+	}
+}
@@ -16,7 +16,13 @@
 package org.springframework.cloud.dataflow.language.server.stream;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -25,10 +31,20 @@ import org.springframework.cloud.dataflow.core.dsl.ParseException;
 import org.springframework.cloud.dataflow.core.dsl.StreamNode;
 import org.springframework.cloud.dataflow.core.dsl.StreamParser;
 import org.springframework.cloud.dataflow.language.server.DataflowLanguages;
+import org.springframework.cloud.dataflow.language.server.config.DataflowLanguagesProperties;
 import org.springframework.cloud.dataflow.language.server.domain.DataflowEnvironmentParams;
 import org.springframework.cloud.dataflow.language.server.domain.DataflowEnvironmentParams.Environment;
+import org.springframework.cloud.dataflow.language.server.support.AppRegistrySnapshotService;
 import org.springframework.cloud.dataflow.language.server.support.DataFlowOperationsService;
 import org.springframework.cloud.dataflow.language.server.support.DataflowCacheService;
+import org.springframework.cloud.dataflow.language.server.support.DataflowMetricsService;
+import org.springframework.cloud.dataflow.language.server.support.DocumentLines;
+import org.springframework.cloud.dataflow.language.server.support.DocumentVersionTracker;
+import org.springframework.cloud.dataflow.language.server.support.ParsedDocument;
+import org.springframework.cloud.dataflow.language.server.support.ParsedNode;
+import org.springframework.cloud.dataflow.language.server.support.PositionIndex;
+import org.springframework.cloud.dataflow.language.server.support.SymbolizedDocument;
+import org.springframework.cloud.dataflow.language.server.support.WorkspaceSymbolIndex;
 import org.springframework.cloud.dataflow.rest.client.DataFlowOperations;
 import org.springframework.dsl.document.Document;
 import org.springframework.dsl.document.DocumentText;
@@ -43,18 +59,24 @@ import org.springframework.dsl.service.reconcile.DefaultReconcileProblem;
 import org.springframework.dsl.service.reconcile.ProblemSeverity;
 import org.springframework.dsl.service.reconcile.ProblemType;
 import org.springframework.dsl.service.reconcile.ReconcileProblem;
-import org.springframework.dsl.support.DslUtils;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 public abstract class AbstractStreamLanguageService extends AbstractDslService {
 
 	private static final Logger log = LoggerFactory.getLogger(AbstractStreamLanguageService.class);
+	private static final ErrorProblemType ERROR_PROBLEM_TYPE = new ErrorProblemType("");
 	protected DataFlowOperationsService dataflowOperationsService;
 	protected DataflowCacheService dataflowCacheService;
+	protected DataflowLanguagesProperties dataflowLanguagesProperties = new DataflowLanguagesProperties();
+	protected DataflowMetricsService dataflowMetricsService = new DataflowMetricsService();
+	protected DocumentVersionTracker documentVersionTracker = new DocumentVersionTracker();
+	protected WorkspaceSymbolIndex workspaceSymbolIndex = new WorkspaceSymbolIndex();
+	protected AppRegistrySnapshotService appRegistrySnapshotService = new AppRegistrySnapshotService();
 
 	public AbstractStreamLanguageService() {
 		super(DataflowLanguages.LANGUAGE_STREAM);
@@ -74,6 +96,31 @@ public abstract class AbstractStreamLanguageService extends AbstractDslService {
 		this.dataflowCacheService = dataflowCacheService;
 	}
 
+	@Autowired
+	public void setDataflowLanguagesProperties(DataflowLanguagesProperties dataflowLanguagesProperties) {
+		this.dataflowLanguagesProperties = dataflowLanguagesProperties;
+	}
+
+	@Autowired
+	public void setDataflowMetricsService(DataflowMetricsService dataflowMetricsService) {
+		this.dataflowMetricsService = dataflowMetricsService;
+	}
+
+	@Autowired
+	public void setDocumentVersionTracker(DocumentVersionTracker documentVersionTracker) {
+		this.documentVersionTracker = documentVersionTracker;
+	}
+
+	@Autowired
+	public void setWorkspaceSymbolIndex(WorkspaceSymbolIndex workspaceSymbolIndex) {
+		this.workspaceSymbolIndex = workspaceSymbolIndex;
+	}
+
+	@Autowired
+	public void setAppRegistrySnapshotService(AppRegistrySnapshotService appRegistrySnapshotService) {
+		this.appRegistrySnapshotService = appRegistrySnapshotService;
+	}
+
 	protected static class ErrorProblemType implements ProblemType {
 
 		private final String code;
@@ -95,10 +142,13 @@ public abstract class AbstractStreamLanguageService extends AbstractDslService {
 
 	protected DataFlowOperations resolveDataFlowOperations(DslContext context, Position position) {
 		JsonRpcSession session = context.getAttribute(LspSystemConstants.CONTEXT_SESSION_ATTRIBUTE);
+		if (session == null) {
+			return null;
+		}
 		DataflowEnvironmentParams params = session
 				.getAttribute(DataflowLanguages.CONTEXT_SESSION_ENVIRONMENTS_ATTRIBUTE);
 		String defaultEnvironment = resolveEnvironmentName(context, position, params);
-		List<Environment> environments = params.getEnvironments();
+		List<Environment> environments = params != null ? params.getEnvironments() : Collections.emptyList();
 		Environment environment = environments.stream()
 			.filter(env -> ObjectUtils.nullSafeEquals(defaultEnvironment, env.getName()))
 			.findFirst()
@@ -116,28 +166,17 @@ public abstract class AbstractStreamLanguageService extends AbstractDslService {
 
 	protected String resolveEnvironmentName(DslContext context, Position position, DataflowEnvironmentParams params) {
 		String defaultEnvironment = resolveDefinedEnvironmentName(context, position);
-		if (defaultEnvironment == null) {
+		if (defaultEnvironment == null && params != null) {
 			defaultEnvironment = params.getDefaultEnvironment();
 		}
 		return defaultEnvironment;
 	}
 
 	protected String resolveDefinedEnvironmentName(DslContext context, Position position) {
-		for (StreamItem item : parseCached(context.getDocument())) {
-			if (DslUtils.isPositionInRange(position, item.getRange())) {
-				DefinitionItem definitionItem = item.getDefinitionItem();
-				if (definitionItem != null) {
-					DeploymentItem envItem = definitionItem.getEnvItem();
-					if (envItem != null) {
-						Range contentRange = envItem.getContentRange();
-						String envName = envItem.getText()
-								.substring(contentRange.getStart().getCharacter() + 5, envItem.getText().length())
-								.trim().toString();
-						if (StringUtils.hasText(envName)) {
-							return envName;
-						}
-					}
-				}
+		for (StreamItem item : parseIndexed(context.getDocument()).findAll(position)) {
+			DefinitionItem definitionItem = item.getDefinitionItem();
+			if (definitionItem != null && StringUtils.hasText(definitionItem.getEnvironment())) {
+				return definitionItem.getEnvironment();
 			}
 		}
 		return null;
@@ -150,253 +189,582 @@ public abstract class AbstractStreamLanguageService extends AbstractDslService {
 	}
 
 	protected List<StreamItem> parseCached(Document document) {
-		String cacheKey = document.uri() + "#" + document.getVersion();
-		log.debug("Used cache key for streamItemCache is {}", cacheKey);
-		return dataflowCacheService.getStreamItemCache().get(cacheKey, key -> {
-			return parseStreams(document);
+		return dataflowCacheService.getStreamItemCache().get(document, key -> {
+			log.debug("Parsing {}", key);
+			List<StreamItem> items = parseStreams(document);
+			workspaceSymbolIndex.update(document.uri(), document.getVersion(),
+					StreamLanguageSymbolizer.workspaceSymbols(document.uri(), items));
+			return items;
 		});
 	}
 
+	/**
+	 * Parse a document without reading or publishing anything in per document
+	 * caches, used for documents which are not open in a client.
+	 *
+	 * @param document the document
+	 * @return the parsed items
+	 */
+	protected List<StreamItem> parseDetached(Document document) {
+		DocumentText text = document.content();
+		return parseStreams(document, text, DocumentLines.classify(text.toString()));
+	}
+
 	protected Flux<StreamItem> parse(Document document) {
 		return parseCachedMono(document).flatMapMany(items -> Flux.fromIterable(items));
 	}
 
+	/**
+	 * Gets a position index over parsed items of a document, built once per
+	 * document version.
+	 *
+	 * @param document the document
+	 * @return the position index of parsed items
+	 */
+	protected PositionIndex<StreamItem> parseIndexed(Document document) {
+		List<StreamItem> items = parseCached(document);
+		return dataflowCacheService.getStreamItemIndexCache().get(document,
+				key -> PositionIndex.of(items, StreamItem::getRange));
+	}
+
+	/**
+	 * Gets a symbol table of a document, built once per document version from
+	 * its parsed items and shared by symbolizing and renaming.
+	 *
+	 * @param document the document
+	 * @return the mono of symbolized document
+	 */
+	protected Mono<SymbolizedDocument> parseSymbols(Document document) {
+		return parseCachedMono(document)
+			.map(items -> dataflowCacheService.getStreamSymbolCache().get(document,
+					key -> new SymbolizedDocument(document.uri(), StreamLanguageSymbolizer.buildTable(items),
+							StreamLanguageSymbolizer::symbolKind)));
+	}
+
+	/**
+	 * Start parsing a document on a background scheduler without waiting for
+	 * a result. Parsed items are published into {@link DataflowCacheService}
+	 * so that requests for a same document version find a warm entry instead
+	 * of paying for a parse. Returned mono replays a result of this one parse
+	 * so that a caller doesn't parse a same version again, parse is not
+	 * started if eager parsing is disabled.
+	 *
+	 * @param document the document
+	 * @return the mono of parsed items
+	 */
+	protected Mono<List<StreamItem>> parseEagerly(Document document) {
+		if (!dataflowLanguagesProperties.getParse().isEager()) {
+			return parseCachedMono(document);
+		}
+		Mono<List<StreamItem>> parsed = parseCachedMono(document)
+			.subscribeOn(Schedulers.parallel())
+			.takeUntilOther(documentVersionTracker.superseded(document))
+			.cache();
+		parsed.subscribe(items -> log.debug("Eagerly parsed {} items from {} version {}", items.size(),
+				document.uri(), document.getVersion()),
+				e -> log.debug("Eager parse of {} failed", document.uri(), e));
+		return parsed;
+	}
+
+	/**
+	 * Parse a document, linear in its length. Lines are classified in a single
+	 * pass, block scanners visit every line once, an incremental diff against a
+	 * previous version is a single pass over both contents and definition lines
+	 * above a configured maximum length never reach a {@link StreamParser}.
+	 */
 	private List<StreamItem> parseStreams(Document document) {
+		DocumentText text = document.content();
+		String content = text.toString();
+		ParsedDocument<StreamItem> previous = dataflowCacheService.getStreamDocumentCache().getIfPresent(document.uri());
+		DocumentLines lines;
+		List<StreamItem> items;
+		if (previous != null) {
+			log.debug("Parsing {} version {} incrementally against version {}", document.uri(),
+					document.getVersion(), previous.getVersion());
+			String previousContent = previous.getContent();
+			int prefix = DocumentLines.commonPrefixLength(previousContent, content);
+			int suffix = DocumentLines.commonSuffixLength(previousContent, content, prefix);
+			lines = DocumentLines.update(previous.getLines(), content, prefix, suffix);
+			items = parseStreams(document, text, lines, content, previous, prefix, suffix);
+		} else {
+			lines = DocumentLines.classify(content);
+			items = parseStreams(document, text, lines);
+		}
+		dataflowCacheService.getStreamDocumentCache().put(document.uri(),
+				new ParsedDocument<>(document.getVersion(), content, lines, items));
+		return items;
+	}
+
+	/**
+	 * Parse all blocks of a document, in parallel if a document is large
+	 * enough. Blocks are independent once their start lines are known and
+	 * results are collected in a document order.
+	 */
+	private List<StreamItem> parseStreams(Document document, DocumentText text, DocumentLines lines) {
+		int lineCount = document.lineCount();
+		int[] starts = lines.getBlockStarts(lineCount);
+		DataflowLanguagesProperties.Parse parse = dataflowLanguagesProperties.getParse();
+		if (lineCount > parse.getParallelLineThreshold() || starts.length > parse.getParallelBlockThreshold()) {
+			log.debug("Parsing {} blocks with {} lines in parallel", starts.length, lineCount);
+			return Arrays.stream(starts)
+				.parallel()
+				.mapToObj(start -> parseNextStream(document, text, lines, start))
+				.filter(Objects::nonNull)
+				.collect(Collectors.toList());
+		}
+		return parseStreams(document, text, lines, 0, new ArrayList<>());
+	}
+
+	private List<StreamItem> parseStreams(Document document, DocumentText text, DocumentLines lines, int start,
+			List<StreamItem> items) {
+		StreamItem item = null;
+		do {
+			item = parseNextStream(document, text, lines, start);
+			if (item != null) {
+				items.add(item);
+				start = item.getEndLine() + 1;
+			}
+		} while (item != null);
+		return items;
+	}
+
+	/**
+	 * Parse a document against a previously parsed version of it. Items ending
+	 * before a changed region are reused, items touching it are parsed again
+	 * and once parsing is back in sync with an old item boundary after a
+	 * changed region, rest of the old items are reused by shifting their lines.
+	 * All reused items are rebased on a new document text so that no item
+	 * keeps an older version of a document reachable.
+	 */
+	private List<StreamItem> parseStreams(Document document, DocumentText text, DocumentLines lines, String content,
+			ParsedDocument<StreamItem> previous, int prefix, int suffix) {
+		String previousContent = previous.getContent();
+		List<StreamItem> previousItems = previous.getItems();
+		int changeStartLine = lines.getLine(prefix);
+		int previousChangeEndLine = previous.getLines().getLine(previousContent.length() - suffix);
+		int changeEndLine = lines.getLine(content.length() - suffix);
+		int delta = changeEndLine - previousChangeEndLine;
+		int offsetDelta = content.length() - previousContent.length();
+
 		ArrayList<StreamItem> items = new ArrayList<>();
+		int index = 0;
+		while (index < previousItems.size() && previousItems.get(index).getEndLine() < changeStartLine) {
+			items.add(previousItems.get(index++).rebase(0, 0, text));
+		}
+		int start = items.isEmpty() ? 0 : items.get(items.size() - 1).getEndLine() + 1;
+
 		StreamItem item = null;
 		do {
-			item = parseNextStream(document, item);
+			item = parseNextStream(document, text, lines, start);
 			if (item != null) {
 				items.add(item);
+				int end = item.getEndLine();
+				start = end + 1;
+				if (end >= changeEndLine) {
+					while (index < previousItems.size() && previousItems.get(index).getEndLine() < end - delta) {
+						index++;
+					}
+					if (index < previousItems.size() && previousItems.get(index).getEndLine() == end - delta) {
+						for (int i = index + 1; i < previousItems.size(); i++) {
+							StreamItem previousItem = previousItems.get(i);
+							items.add(previousItem.rebase(delta, offsetDelta, text));
+						}
+						return items;
+					}
+				}
 			}
 		} while (item != null);
 		return items;
 	}
 
-	private StreamItem parseNextStream(Document document, StreamItem previous) {
-		List<DeploymentItems> deployments = new ArrayList<>();
-		List<DeploymentItem> deploymentItems = new ArrayList<>();
+	private StreamItem parseNextStream(Document document, DocumentText text, DocumentLines lines, int start) {
+		List<DeploymentItems> deployments = null;
+		List<DeploymentItem> deploymentItems = null;
 		DeploymentItem envItem = null;
 		DeploymentItem nameItem = null;
 		DeploymentItem descItem = null;
-		Range deploymentItemsRange = null;
-		Position deploymentItemsStart = null;
-		Position deploymentItemsEnd = null;
-		StreamItem streamItem = null;
+		int deploymentItemsStartLine = -1;
+		int deploymentItemsStartLength = 0;
+		int deploymentItemsEndLine = -1;
+		DefinitionItem definitionItem = null;
+		Range range = null;
 		int lineCount = document.lineCount();
-		int start = previous != null ? previous.range.getEnd().getLine() + 1 : 0;
-		Range lineRange = null;
-		List<Range> commentRanges = new ArrayList<>();
-		Range commentRange = null;
-
-		for (int line = start; streamItem == null && line < lineCount; line++) {
-			lineRange = document.getLineRange(line);
-			DocumentText lineContent = document.content(lineRange);
-			DocumentText trim = lineContent.trimStart();
-			if (trim.hasText() && Character.isLetterOrDigit(trim.charAt(0))) {
-				DefinitionItem definitionItem = parseDefinition(lineContent, line);
-				definitionItem.range = lineRange;
-				definitionItem.envItem = envItem;
-				definitionItem.nameItem = nameItem;
-				definitionItem.descItem = descItem;
-				streamItem = new StreamItem();
-				streamItem.definitionItem = definitionItem;
-				streamItem.range = Range.from(start, 0, line, lineContent.length());
-				if (!deploymentItems.isEmpty()) {
-					DeploymentItems items = new DeploymentItems();
-					items.envItem = envItem;
-					items.startLineRange = deploymentItemsRange;
-					items.range = Range.from(deploymentItemsStart, deploymentItemsEnd);
-					items.items.addAll(deploymentItems);
-					deployments.add(items);
+		int lastLine = -1;
+		List<Range> commentRanges = null;
+		int commentStartLine = -1;
+		int commentEndLine = -1;
+		int maximumBlockLines = dataflowLanguagesProperties.getParse().getMaximumBlockLines();
+		ReconcileProblem limitProblem = null;
+
+		for (int line = start; definitionItem == null && line < lineCount; line++) {
+			lastLine = line;
+			byte kind = lines.getKind(line);
+			if (kind == DocumentLines.DEFINITION) {
+				Range lineRange = document.getLineRange(line);
+				DocumentText lineContent = document.content(lineRange);
+				definitionItem = parseDefinition(lineContent, line, limitProblem, envItem, nameItem, descItem);
+				range = Range.from(start, 0, line, lineContent.length());
+				if (deploymentItems != null) {
+					deployments = add(deployments, new DeploymentItems(deploymentItems, envItem,
+							deploymentItemsStartLine, deploymentItemsStartLength,
+							document.getLineRange(deploymentItemsEndLine).getEnd()));
+					deploymentItems = null;
 				}
-				streamItem.deployments.addAll(new ArrayList<>(deployments));
-				deploymentItems.clear();
-				deployments.clear();
 				envItem = null;
 				nameItem = null;
 				descItem = null;
-				deploymentItemsStart = null;
+				deploymentItemsStartLine = -1;
 			} else {
 
-				if (trim.length() > 0 && trim.charAt(0) == '#') {
-					if (commentRange == null) {
-						commentRange = Range.from(lineRange);
-					} else {
-						commentRange = commentRange.extend(lineRange);
+				if (lines.isComment(line)) {
+					if (commentStartLine < 0) {
+						commentStartLine = line;
 					}
-				} else if (commentRange != null) {
-					commentRanges.add(commentRange);
-					commentRange = null;
+					commentEndLine = line;
+				} else if (commentStartLine > -1) {
+					commentRanges = add(commentRanges, Range.from(document.getLineRange(commentStartLine).getStart(),
+							document.getLineRange(commentEndLine).getEnd()));
+					commentStartLine = -1;
 				}
 
-				if (trim.length() > 2 && (trim.charAt(0) == '#' || trim.charAt(0) == '-')) {
-					deploymentItemsEnd = lineRange.getEnd();
-					DeploymentItem item = new DeploymentItem();
-					item.range = lineRange;
-					item.text = lineContent;
-
-					boolean match = true;
-					int contentStart = findContentStart(lineContent);
-					if (contentStart > -1) {
-						item.contentRange = Range.from(lineRange.getStart().getLine(), contentStart,
-								lineRange.getEnd().getLine(), lineRange.getEnd().getCharacter());
-					}
-					if (contentStart > -1 && lineContent.startsWith(DataflowLanguages.TEXT_ENV_PREFIX, contentStart)) {
-						envItem = item;
-					} else if (contentStart > -1 && lineContent.startsWith(DataflowLanguages.TEXT_NAME_PREFIX, contentStart)) {
-						nameItem = item;
-					} else if (contentStart > -1 && lineContent.startsWith(DataflowLanguages.TEXT_DESC_PREFIX, contentStart)) {
-						descItem = item;
-					} else if (contentStart > -1 && lineContent.startsWith(DataflowLanguages.TEXT_PROP_PREFIX, contentStart)) {
-						deploymentItems.add(item);
-					} else {
-						match = false;
+				if (kind != DocumentLines.BLANK && line - start >= maximumBlockLines) {
+					// degrade oversized blocks by ignoring rest of their metadata
+					if (limitProblem == null) {
+						limitProblem = new DefaultReconcileProblem(ERROR_PROBLEM_TYPE,
+								"Block exceeds maximum of " + maximumBlockLines
+										+ " lines, rest of its metadata is ignored",
+								document.getLineRange(line));
 					}
-					if (match) {
-						if (deploymentItemsStart == null) {
-							deploymentItemsStart = lineRange.getStart();
-							deploymentItemsRange = lineRange;
+				} else if (kind != DocumentLines.BLANK) {
+					deploymentItemsEndLine = line;
+					if (kind == DocumentLines.ENV || kind == DocumentLines.NAME || kind == DocumentLines.DESC
+							|| kind == DocumentLines.PROP) {
+						int length = document.getLineRange(line).getEnd().getCharacter();
+						DeploymentItem item = new DeploymentItem(text, lines.getLineStart(line), line,
+								lines.getContentStart(line), length, lines.getKey(text, line, length),
+								lines.getValue(text, line, length));
+						if (kind == DocumentLines.ENV) {
+							envItem = item;
+						} else if (kind == DocumentLines.NAME) {
+							nameItem = item;
+						} else if (kind == DocumentLines.DESC) {
+							descItem = item;
+						} else {
+							deploymentItems = add(deploymentItems, item);
+						}
+						if (deploymentItemsStartLine < 0) {
+							deploymentItemsStartLine = line;
+							deploymentItemsStartLength = length;
 						}
 					}
 				} else {
-					if (!deploymentItems.isEmpty()) {
-						DeploymentItems items = new DeploymentItems();
-						items.envItem = envItem;
-						items.startLineRange = deploymentItemsRange;
-						items.range = Range.from(deploymentItemsStart, deploymentItemsEnd);
-						items.items.addAll(deploymentItems);
-						deployments.add(items);
+					if (deploymentItems != null) {
+						deployments = add(deployments, new DeploymentItems(deploymentItems, envItem,
+								deploymentItemsStartLine, deploymentItemsStartLength,
+								document.getLineRange(deploymentItemsEndLine).getEnd()));
+						deploymentItems = null;
 						envItem = null;
 						nameItem = null;
 						descItem = null;
-						deploymentItemsStart = null;
+						deploymentItemsStartLine = -1;
 					}
-					deploymentItems.clear();
 				}
 			}
 		}
-		// no check case when with metadata but no dsl
-		if (envItem != null || nameItem != null || descItem != null) {
-			DefinitionItem definitionItem = new DefinitionItem();
-			definitionItem.envItem = envItem;
-			definitionItem.nameItem = nameItem;
-			definitionItem.descItem = descItem;
-			streamItem = new StreamItem();
-			streamItem.definitionItem = definitionItem;
-			streamItem.range = Range.from(deploymentItemsStart, lineRange.getEnd());
-		}
 
-		if (streamItem != null) {
-			streamItem.getCommentRanges().addAll(commentRanges);
+		if (definitionItem == null) {
+			// no check case when with metadata but no dsl
+			if (envItem == null && nameItem == null && descItem == null) {
+				return null;
+			}
+			definitionItem = new DefinitionItem(null, limitProblem, -1, 0, -1, -1, envItem, nameItem, descItem);
+			deployments = null;
+			range = Range.from(Position.from(deploymentItemsStartLine, 0), document.getLineRange(lastLine).getEnd());
 		}
+		return new StreamItem(deployments != null ? deployments : Collections.emptyList(), definitionItem, range,
+				commentRanges != null ? commentRanges : Collections.emptyList());
+	}
 
-		return streamItem;
+	private static Range shift(Range range, int lineDelta) {
+		if (range == null || lineDelta == 0) {
+			return range;
+		}
+		return Range.from(range.getStart().getLine() + lineDelta, range.getStart().getCharacter(),
+				range.getEnd().getLine() + lineDelta, range.getEnd().getCharacter());
 	}
 
-	private static int findContentStart(DocumentText text) {
-		for (int i = 0; i < text.length(); i++) {
-			if (Character.isWhitespace(text.charAt(i))) {
-				continue;
-			} else if (text.charAt(i) == '-') {
-				continue;
-			} else if (text.charAt(i) == '#') {
-				continue;
-			} else if (text.charAt(i) == '@') {
-				return i;
-			} else if (Character.isLetterOrDigit(text.charAt(i))) {
-				return i;
-			}
+	private static <T> List<T> add(List<T> list, T item) {
+		if (list == null) {
+			list = new ArrayList<>(2);
 		}
-		return -1;
+		list.add(item);
+		return list;
 	}
 
-	private DefinitionItem parseDefinition(DocumentText text, int line) {
-		DefinitionItem definitionItem = new DefinitionItem();
-		try {
-			StreamParser parser = new StreamParser(text.toString());
-			definitionItem.streamNode = parser.parse();
-			String parsedName = definitionItem.streamNode.getStreamName();
+	/**
+	 * Parse a definition line. Lines longer than a configured maximum are not
+	 * handed to a {@link StreamParser} at all and end up as a parse error.
+	 */
+	private DefinitionItem parseDefinition(DocumentText text, int line, ReconcileProblem limitProblem,
+			DeploymentItem envItem, DeploymentItem nameItem, DeploymentItem descItem) {
+		int maximumLineLength = dataflowLanguagesProperties.getParse().getMaximumLineLength();
+		if (text.length() > maximumLineLength) {
+			ParsedNode<StreamNode> parsed = ParsedNode.error(maximumLineLength,
+					"Definition exceeds maximum length of " + maximumLineLength + " characters");
+			return new DefinitionItem(parsed, limitProblem, line, text.length(), -1, -1, envItem, nameItem,
+					descItem);
+		}
+		ParsedNode<StreamNode> parsed = dataflowCacheService.getStreamNodeCache().get(text.toString(), definition -> {
+			try {
+				return ParsedNode.of(new StreamParser(definition).parse());
+			} catch (ParseException e) {
+				return ParsedNode.error(e.getPosition(), e.getMessage());
+			}
+		});
+		int nameStart = -1;
+		int nameEnd = -1;
+		if (parsed.getNode() != null) {
+			String parsedName = parsed.getNode().getStreamName();
 			if (StringUtils.hasText(parsedName)) {
 				int index = text.indexOf(parsedName);
 				if (index > -1) {
-					definitionItem.nameRange = Range.from(line, index, line, index + parsedName.length());
+					nameStart = index;
+					nameEnd = index + parsedName.length();
 				}
 			}
-		} catch (ParseException e) {
-			String message = e.getMessage();
-			int position = e.getPosition();
-			Range range = Range.from(line, position, line, position);
-			DefaultReconcileProblem problem = new DefaultReconcileProblem(new ErrorProblemType(""), message, range);
-			definitionItem.reconcileProblem = problem;
 		}
-		return definitionItem;
+		return new DefinitionItem(parsed, limitProblem, line, text.length(), nameStart, nameEnd, envItem, nameItem,
+				descItem);
 	}
 
+	/**
+	 * Group of {@link DeploymentItem}s separated by blank lines.
+	 */
 	public static class DeploymentItems {
-		private List<DeploymentItem> items = new ArrayList<>();
-		private Range startLineRange;
-		private Range range;
-		private DeploymentItem envItem;
+		private final List<DeploymentItem> items;
+		private final Map<String, String> properties;
+		private final DeploymentItem envItem;
+		private final int startLine;
+		private final int startLineLength;
+		private final Range range;
+
+		DeploymentItems(List<DeploymentItem> items, DeploymentItem envItem, int startLine, int startLineLength,
+				Position end) {
+			this(items, envItem, startLine, startLineLength, Range.from(Position.from(startLine, 0), end));
+		}
+
+		private DeploymentItems(List<DeploymentItem> items, DeploymentItem envItem, int startLine,
+				int startLineLength, Range range) {
+			this.items = Collections.unmodifiableList(items);
+			Map<String, String> properties = new LinkedHashMap<>();
+			for (DeploymentItem item : items) {
+				if (item.getKey() != null) {
+					properties.put(item.getKey(), item.getValue());
+				}
+			}
+			this.properties = Collections.unmodifiableMap(properties);
+			this.envItem = envItem;
+			this.startLine = startLine;
+			this.startLineLength = startLineLength;
+			this.range = range;
+		}
 
 		public List<DeploymentItem> getItems() {
 			return items;
 		}
 
+		/**
+		 * Gets deployment properties of this group in a document order.
+		 *
+		 * @return the deployment properties
+		 */
+		public Map<String, String> getProperties() {
+			return properties;
+		}
+
 		public DeploymentItem getEnvItem() {
 			return envItem;
 		}
 
+		/**
+		 * Gets a value of an {@code @env} line of this group.
+		 *
+		 * @return the environment or {@code null}
+		 */
+		public String getEnvironment() {
+			return envItem != null ? envItem.getValue() : null;
+		}
+
 		public Range getStartLineRange() {
-			return startLineRange;
+			return Range.from(startLine, 0, startLine, startLineLength);
 		}
 
 		public Range getRange() {
 			return range;
 		}
+
+		private DeploymentItems rebase(int lineDelta, int offsetDelta, DocumentText text) {
+			List<DeploymentItem> rebased = new ArrayList<>(items.size());
+			for (DeploymentItem item : items) {
+				rebased.add(item.rebase(lineDelta, offsetDelta, text));
+			}
+			return new DeploymentItems(rebased, DeploymentItem.rebase(envItem, lineDelta, offsetDelta, text),
+					startLine + lineDelta, startLineLength, shift(range, lineDelta));
+		}
 	}
 
+	/**
+	 * Metadata line, kept as an offset into a document text which is sliced
+	 * only when {@link #getText()} is called. Its key and value are extracted
+	 * once when a line is parsed.
+	 */
 	public static class DeploymentItem {
-		private Range contentRange;
-		private Range range;
-		private DocumentText text;
+		private final DocumentText documentText;
+		private final int offset;
+		private final int line;
+		private final int contentStart;
+		private final int length;
+		private final String key;
+		private final String value;
+
+		DeploymentItem(DocumentText documentText, int offset, int line, int contentStart, int length, String key,
+				String value) {
+			this.documentText = documentText;
+			this.offset = offset;
+			this.line = line;
+			this.contentStart = contentStart;
+			this.length = length;
+			this.key = key;
+			this.value = value;
+		}
 
 		public Range getRange() {
-			return range;
+			return Range.from(line, 0, line, length);
 		}
 
 		public Range getContentRange() {
-			return contentRange;
+			return Range.from(line, contentStart, line, length);
 		}
 
 		public DocumentText getText() {
-			return text;
+			return documentText.subtext(offset, offset + length);
+		}
+
+		/**
+		 * Gets a property key of an {@code @prop} line.
+		 *
+		 * @return the property key or {@code null}
+		 */
+		public String getKey() {
+			return key;
+		}
+
+		/**
+		 * Gets a value following a metadata keyword, for an {@code @prop}
+		 * line a value after {@code =}.
+		 *
+		 * @return the value or {@code null}
+		 */
+		public String getValue() {
+			return value;
+		}
+
+		private DeploymentItem rebase(int lineDelta, int offsetDelta, DocumentText text) {
+			return new DeploymentItem(text, offset + offsetDelta, line + lineDelta, contentStart, length, key,
+					value);
+		}
+
+		private static DeploymentItem rebase(DeploymentItem item, int lineDelta, int offsetDelta, DocumentText text) {
+			return item != null ? item.rebase(lineDelta, offsetDelta, text) : null;
+		}
+
+		private static boolean references(DeploymentItem item, DocumentText text) {
+			return item != null && item.documentText == text;
 		}
 	}
 
+	/**
+	 * Stream definition line together with its metadata. A parsed node or a
+	 * parse error is shared with other documents having a same definition.
+	 * A block exceeding a line limit carries a limit problem in addition to
+	 * a possible parse error.
+	 */
 	public static class DefinitionItem {
-		private StreamNode streamNode;
-		private Range range;
-		private Range nameRange;
-		private ReconcileProblem reconcileProblem;
-		private DeploymentItem envItem;
-		private DeploymentItem nameItem;
-		private DeploymentItem descItem;
+		private final ParsedNode<StreamNode> parsed;
+		private final ReconcileProblem limitProblem;
+		private final int line;
+		private final int length;
+		private final int nameStart;
+		private final int nameEnd;
+		private final DeploymentItem envItem;
+		private final DeploymentItem nameItem;
+		private final DeploymentItem descItem;
+
+		DefinitionItem(ParsedNode<StreamNode> parsed, ReconcileProblem limitProblem, int line, int length,
+				int nameStart, int nameEnd, DeploymentItem envItem, DeploymentItem nameItem,
+				DeploymentItem descItem) {
+			this.parsed = parsed;
+			this.limitProblem = limitProblem;
+			this.line = line;
+			this.length = length;
+			this.nameStart = nameStart;
+			this.nameEnd = nameEnd;
+			this.envItem = envItem;
+			this.nameItem = nameItem;
+			this.descItem = descItem;
+		}
 
 		public StreamNode getStreamNode() {
-			return streamNode;
+			return parsed != null ? parsed.getNode() : null;
 		}
 
 		public Range getRange() {
-			return range;
+			return line > -1 ? Range.from(line, 0, line, length) : null;
 		}
 
 		public Range getNameRange() {
-			return nameRange;
+			return nameStart > -1 ? Range.from(line, nameStart, line, nameEnd) : null;
 		}
 
+		/**
+		 * Gets a first problem of a definition. A parse error takes precedence
+		 * over a limit problem as it tells why a definition has no node.
+		 *
+		 * @return the problem or {@code null}
+		 */
 		public ReconcileProblem getReconcileProblem() {
-			return reconcileProblem;
+			ReconcileProblem parseProblem = getParseProblem();
+			return parseProblem != null ? parseProblem : limitProblem;
+		}
+
+		/**
+		 * Gets all problems of a definition, a parse error first.
+		 *
+		 * @return the problems
+		 */
+		public List<ReconcileProblem> getReconcileProblems() {
+			ReconcileProblem parseProblem = getParseProblem();
+			if (parseProblem == null) {
+				return limitProblem != null ? Collections.singletonList(limitProblem) : Collections.emptyList();
+			}
+			return limitProblem != null ? Arrays.asList(parseProblem, limitProblem)
+					: Collections.singletonList(parseProblem);
+		}
+
+		/**
+		 * Gets a parse error of a definition, ignoring a limit problem which
+		 * still leaves a definition with a usable node.
+		 *
+		 * @return the problem or {@code null}
+		 */
+		public ReconcileProblem getParseProblem() {
+			if (parsed == null || parsed.getNode() != null) {
+				return null;
+			}
+			// cached error position is relative to a definition, rebase it to this line
+			int position = parsed.getErrorPosition();
+			return new DefaultReconcileProblem(ERROR_PROBLEM_TYPE, parsed.getErrorMessage(),
+					Range.from(line, position, line, position));
 		}
 
 		public DeploymentItem getEnvItem() {
@@ -410,13 +778,60 @@ public abstract class AbstractStreamLanguageService extends AbstractDslService {
 		public DeploymentItem getDescItem() {
 			return descItem;
 		}
+
+		/**
+		 * Gets a stream name, either from a parsed definition or from an
+		 * {@code @name} line if a definition doesn't name a stream.
+		 *
+		 * @return the stream name or {@code null}
+		 */
+		public String getName() {
+			String name = getStreamNode() != null ? getStreamNode().getName() : null;
+			if (!StringUtils.hasText(name) && nameItem != null) {
+				name = nameItem.getValue();
+			}
+			return name;
+		}
+
+		public String getEnvironment() {
+			return envItem != null ? envItem.getValue() : null;
+		}
+
+		public String getDescription() {
+			return descItem != null ? descItem.getValue() : null;
+		}
+
+		private DefinitionItem rebase(int lineDelta, int offsetDelta, DocumentText text) {
+			ReconcileProblem problem = limitProblem;
+			if (problem != null && lineDelta != 0) {
+				problem = new DefaultReconcileProblem(ERROR_PROBLEM_TYPE, problem.getMessage(),
+						shift(problem.getRange(), lineDelta));
+			}
+			return new DefinitionItem(parsed, problem, line > -1 ? line + lineDelta : line, length, nameStart,
+					nameEnd, DeploymentItem.rebase(envItem, lineDelta, offsetDelta, text),
+					DeploymentItem.rebase(nameItem, lineDelta, offsetDelta, text),
+					DeploymentItem.rebase(descItem, lineDelta, offsetDelta, text));
+		}
 	}
 
+	/**
+	 * Block of a stream document ending with a definition line. Items are
+	 * immutable and shared between threads and sessions via
+	 * {@link DataflowCacheService}.
+	 */
 	public static class StreamItem {
-		private List<DeploymentItems> deployments = new ArrayList<>();
-		private DefinitionItem definitionItem;
-		private Range range;
-		private List<Range> commentRanges = new ArrayList<>();
+		private final List<DeploymentItems> deployments;
+		private final DefinitionItem definitionItem;
+		private final Range range;
+		private final List<Range> commentRanges;
+
+		StreamItem(List<DeploymentItems> deployments, DefinitionItem definitionItem, Range range,
+				List<Range> commentRanges) {
+			this.deployments = Collections.unmodifiableList(deployments);
+			this.definitionItem = definitionItem;
+			this.range = range;
+			this.commentRanges = Collections.unmodifiableList(commentRanges);
+		}
 
 		public List<DeploymentItems> getDeployments() {
 			return deployments;
@@ -433,5 +848,56 @@ public abstract class AbstractStreamLanguageService extends AbstractDslService {
 		public List<Range> getCommentRanges() {
 			return commentRanges;
 		}
+
+		private int getEndLine() {
+			return range.getEnd().getLine();
+		}
+
+		/**
+		 * Whether any metadata item of this block slices a given document text.
+		 *
+		 * @param text the document text
+		 * @return true if a text is referenced
+		 */
+		boolean references(DocumentText text) {
+			for (DeploymentItems deployment : deployments) {
+				if (DeploymentItem.references(deployment.envItem, text)) {
+					return true;
+				}
+				for (DeploymentItem item : deployment.items) {
+					if (DeploymentItem.references(item, text)) {
+						return true;
+					}
+				}
+			}
+			return DeploymentItem.references(definitionItem.envItem, text)
+					|| DeploymentItem.references(definitionItem.nameItem, text)
+					|| DeploymentItem.references(definitionItem.descItem, text);
+		}
+
+		private boolean hasMetadata() {
+			return !deployments.isEmpty() || definitionItem.envItem != null || definitionItem.nameItem != null
+					|| definitionItem.descItem != null;
+		}
+
+		private StreamItem rebase(int lineDelta, int offsetDelta, DocumentText text) {
+			if (lineDelta == 0 && !hasMetadata()) {
+				// nothing to shift and no text to point to a new version
+				return this;
+			}
+			List<DeploymentItems> rebased = deployments.isEmpty() ? deployments : new ArrayList<>(deployments.size());
+			for (DeploymentItems deployment : deployments) {
+				rebased.add(deployment.rebase(lineDelta, offsetDelta, text));
+			}
+			List<Range> shifted = commentRanges;
+			if (lineDelta != 0 && !commentRanges.isEmpty()) {
+				shifted = new ArrayList<>(commentRanges.size());
+				for (Range commentRange : commentRanges) {
+					shifted.add(shift(commentRange, lineDelta));
+				}
+			}
+			return new StreamItem(rebased, definitionItem.rebase(lineDelta, offsetDelta, text),
+					shift(range, lineDelta), shifted);
+		}
 	}
 }
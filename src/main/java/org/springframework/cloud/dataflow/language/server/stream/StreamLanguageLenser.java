@@ -17,9 +17,7 @@ package org.springframework.cloud.dataflow.language.server.stream;
 
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.springframework.cloud.dataflow.core.dsl.StreamNode;
@@ -28,9 +26,7 @@ import org.springframework.cloud.dataflow.language.server.domain.DataflowStreamC
 import org.springframework.cloud.dataflow.language.server.domain.DataflowStreamDeployParams;
 import org.springframework.cloud.dataflow.language.server.domain.DataflowStreamDestroyParams;
 import org.springframework.cloud.dataflow.language.server.domain.DataflowStreamUndeployParams;
-import org.springframework.dsl.document.DocumentText;
 import org.springframework.dsl.domain.CodeLens;
-import org.springframework.dsl.domain.Range;
 import org.springframework.dsl.service.DslContext;
 import org.springframework.dsl.service.Lenser;
 import org.springframework.stereotype.Component;
@@ -58,7 +54,7 @@ public class StreamLanguageLenser extends AbstractStreamLanguageService implemen
 						.title(DataflowLanguages.COMMAND_STREAM_DEPLOY_TITLE)
 						.argument(DataflowStreamDeployParams.from(getStreamName(item),
 							getStreamEnvironment(deployment, item),
-							getDeploymentProperties(deployment.getItems())))
+							deployment.getProperties()))
 						.and()
 					.build();
 			})
@@ -117,83 +113,22 @@ public class StreamLanguageLenser extends AbstractStreamLanguageService implemen
 	}
 
 	private String getStreamName(StreamItem item) {
-		DefinitionItem definitionItem = item.getDefinitionItem();
-		String streamName = definitionItem.getStreamNode() != null ? definitionItem.getStreamNode().getName() : null;
-		if (!StringUtils.hasText(streamName)) {
-			DeploymentItem nameItem = definitionItem.getNameItem();
-			if (nameItem != null) {
-				Range contentRange = nameItem.getContentRange();
-				streamName = nameItem.getText()
-						.substring(contentRange.getStart().getCharacter() + 5, nameItem.getText().length()).trim()
-						.toString();
-			}
-		}
-		return streamName;
+		return item.getDefinitionItem().getName();
 	}
 
 	private String getStreamDescription(StreamItem item) {
-		String streamDescription = null;
-		DeploymentItem descItem = item.getDefinitionItem().getDescItem();
-		if (descItem != null) {
-			Range contentRange = descItem.getContentRange();
-			streamDescription = descItem.getText()
-					.substring(contentRange.getStart().getCharacter() + 5, descItem.getText().length()).trim()
-					.toString();
-		}
-		return streamDescription;
+		return item.getDefinitionItem().getDescription();
 	}
 
 	private String getStreamEnvironment(StreamItem item) {
-		String streamEnvironment = null;
-		DeploymentItem envItem = item.getDefinitionItem().getEnvItem();
-		if (envItem != null) {
-			Range contentRange = envItem.getContentRange();
-			streamEnvironment = envItem.getText()
-					.substring(contentRange.getStart().getCharacter() + 4, envItem.getText().length()).trim()
-					.toString();
-		}
-		return streamEnvironment;
+		return item.getDefinitionItem().getEnvironment();
 	}
 
 	private String getStreamEnvironment(DeploymentItems items, StreamItem item) {
-		String streamEnvironment = null;
-		DeploymentItem envItem = items.getEnvItem();
-		if (envItem != null) {
-			Range contentRange = envItem.getContentRange();
-			streamEnvironment = envItem.getText()
-					.substring(contentRange.getStart().getCharacter() + 4, envItem.getText().length()).trim()
-					.toString();
-		}
+		String streamEnvironment = items.getEnvironment();
 		if (!StringUtils.hasText(streamEnvironment)) {
 			streamEnvironment = getStreamEnvironment(item);
 		}
 		return streamEnvironment;
 	}
-
-	private Map<String, String> getDeploymentProperties(List<DeploymentItem> items) {
-		HashMap<String, String> properties = new HashMap<String, String>();
-		items.stream().forEach(item -> {
-			DocumentText[] split = item.getText().splitFirst('=');
-			if (split.length == 2) {
-				int firstAlphaNumeric = firstLetterOrDigit(split[0]);
-				if (firstAlphaNumeric > -1) {
-					int lastIndexOf = split[0].indexOf(DataflowLanguages.TEXT_PROP_PREFIX);
-					if (lastIndexOf > -1) {
-						properties.put(split[0].subSequence(lastIndexOf + DataflowLanguages.TEXT_PROP_PREFIX.length(),
-								split[0].length()).toString().trim(), split[1].toString().trim());
-					}
-				}
-			}
-		});
-		return properties;
-	}
-
-	private static int firstLetterOrDigit(DocumentText text) {
-		for (int i = 0; i < text.length(); i++) {
-			if (Character.isLetterOrDigit(text.charAt(i))) {
-				return i;
-			}
-		}
-		return -1;
-	}
 }
@@ -15,6 +15,26 @@
  */
 package org.springframework.cloud.dataflow.language.server.stream;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.dataflow.core.ApplicationType;
+import org.springframework.cloud.dataflow.core.dsl.AppNode;
+import org.springframework.cloud.dataflow.core.dsl.StreamNode;
+import org.springframework.cloud.dataflow.language.server.DataflowLanguages;
+import org.springframework.cloud.dataflow.language.server.domain.DataflowEnvironmentParams;
+import org.springframework.cloud.dataflow.language.server.support.AppRegistrySnapshot;
+import org.springframework.cloud.dataflow.rest.client.DataFlowOperations;
+import org.springframework.dsl.document.Document;
+import org.springframework.dsl.domain.Range;
+import org.springframework.dsl.jsonrpc.session.JsonRpcSession;
+import org.springframework.dsl.lsp.LspSystemConstants;
 import org.springframework.dsl.service.DslContext;
 import org.springframework.dsl.service.reconcile.DefaultReconcileProblem;
 import org.springframework.dsl.service.reconcile.Linter;
@@ -28,14 +48,25 @@ import reactor.core.publisher.Mono;
 @Component
 public class StreamLanguageLinter extends AbstractStreamLanguageService implements Linter {
 
+	private static final Logger log = LoggerFactory.getLogger(StreamLanguageLinter.class);
+
 	@Override
 	public Flux<ReconcileProblem> lint(DslContext context) {
-		return parse(context.getDocument())
-			.flatMap(item -> Flux.concat(definitionProblem(item), nameProblem(item)));
+		Document document = context.getDocument();
+		documentVersionTracker.track(document);
+		return dataflowMetricsService.timeDiagnostics(DataflowLanguages.LANGUAGE_STREAM_ID,
+				() -> documentVersionTracker.isSuperseded(document),
+				documentVersionTracker.supersedable(document, parseEagerly(document).flatMapMany(items -> {
+					return Flux.concat(parseProblems(items), registryProblems(context, items));
+				})));
 	}
 
-	private Mono<ReconcileProblem> definitionProblem(StreamItem item) {
-		return Mono.justOrEmpty(item.getDefinitionItem().getReconcileProblem());
+	private Flux<ReconcileProblem> parseProblems(List<StreamItem> items) {
+		return Flux.fromIterable(items).concatMap(item -> Flux.concat(definitionProblems(item), nameProblem(item)));
+	}
+
+	private Flux<ReconcileProblem> definitionProblems(StreamItem item) {
+		return Flux.fromIterable(item.getDefinitionItem().getReconcileProblems());
 	}
 
 	private Mono<ReconcileProblem> nameProblem(StreamItem item) {
@@ -52,4 +83,84 @@ public class StreamLanguageLinter extends AbstractStreamLanguageService implemen
 		}
 		return Mono.justOrEmpty(problem);
 	}
+
+	/**
+	 * Check stream apps against a registry of an environment each stream
+	 * resolves to. A type an app needs to be registered as comes from its
+	 * position in a stream and destinations around it.
+	 */
+	private Flux<ReconcileProblem> registryProblems(DslContext context, List<StreamItem> items) {
+		DataflowEnvironmentParams params = null;
+		JsonRpcSession session = context.getAttribute(LspSystemConstants.CONTEXT_SESSION_ATTRIBUTE);
+		if (session != null) {
+			params = session.getAttribute(DataflowLanguages.CONTEXT_SESSION_ENVIRONMENTS_ATTRIBUTE);
+		}
+		Map<String, List<StreamItem>> environments = new LinkedHashMap<>();
+		for (StreamItem item : items) {
+			DefinitionItem definitionItem = item.getDefinitionItem();
+			if (definitionItem.getStreamNode() != null && definitionItem.getParseProblem() == null) {
+				String environment = StringUtils.hasText(definitionItem.getEnvironment())
+						? definitionItem.getEnvironment()
+						: null;
+				if (environment == null && params != null) {
+					environment = params.getDefaultEnvironment();
+				}
+				environments.computeIfAbsent(environment, key -> new ArrayList<>()).add(item);
+			}
+		}
+		return appRegistrySnapshotService.check(environments,
+				(environment, environmentItems) -> registryProblems(context, environment, environmentItems));
+	}
+
+	private List<ReconcileProblem> registryProblems(DslContext context, String environment, List<StreamItem> items) {
+		DataFlowOperations operations = resolveDataFlowOperations(context,
+				items.get(0).getDefinitionItem().getRange().getStart());
+		if (operations == null) {
+			return Collections.emptyList();
+		}
+		Map<ApplicationType, AppRegistrySnapshot> snapshots = new EnumMap<>(ApplicationType.class);
+		List<ReconcileProblem> found = new ArrayList<>();
+		for (StreamItem item : items) {
+			StreamNode streamNode = item.getDefinitionItem().getStreamNode();
+			int line = item.getDefinitionItem().getRange().getStart().getLine();
+			boolean hasSourceDestination = streamNode.getSourceDestinationNode() != null;
+			boolean hasSinkDestination = streamNode.getSinkDestinationNode() != null;
+			List<AppNode> appNodes = streamNode.getAppNodes();
+			for (int i = 0; i < appNodes.size(); i++) {
+				AppNode appNode = appNodes.get(i);
+				ApplicationType type = appType(hasSourceDestination, hasSinkDestination, i, appNodes.size());
+				AppRegistrySnapshot snapshot = snapshots.computeIfAbsent(type,
+						key -> appRegistrySnapshotService.getSnapshot(environment, key, operations));
+				if (!snapshot.contains(appNode.getName())) {
+					DefaultReconcileProblem problem = new DefaultReconcileProblem(new ErrorProblemType(""),
+							StringUtils.capitalize(type.name()) + " app " + appNode.getName() + " is not registered",
+							Range.from(line, appNode.getStartPos(), line, appNode.getEndPos()));
+					found.add(problem);
+					log.debug("Found problem {} for environment {}", problem, environment);
+				}
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * Resolve a type an app in a stream needs to be registered as. A first app
+	 * is a source unless a stream reads from a destination and a last app is a
+	 * sink unless a stream writes to a destination, all other apps are
+	 * processors.
+	 *
+	 * @param hasSourceDestination whether a stream reads from a destination
+	 * @param hasSinkDestination whether a stream writes to a destination
+	 * @param index the index of an app in a stream
+	 * @param count the number of apps in a stream
+	 * @return the app type
+	 */
+	static ApplicationType appType(boolean hasSourceDestination, boolean hasSinkDestination, int index, int count) {
+		if (index == 0 && !hasSourceDestination) {
+			return ApplicationType.source;
+		} else if (index == count - 1 && !hasSinkDestination) {
+			return ApplicationType.sink;
+		}
+		return ApplicationType.processor;
+	}
 }
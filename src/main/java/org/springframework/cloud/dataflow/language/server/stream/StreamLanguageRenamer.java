@@ -15,70 +15,133 @@
  */
 package org.springframework.cloud.dataflow.language.server.stream;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 import org.springframework.cloud.dataflow.language.server.stream.StreamLanguageSymbolizer.StreamSymbol;
+import org.springframework.cloud.dataflow.language.server.support.SymbolizedDocument;
+import org.springframework.cloud.dataflow.language.server.support.WorkspaceSymbol;
+import org.springframework.cloud.dataflow.language.server.support.WorkspaceSymbolIndex;
+import org.springframework.dsl.document.Document;
 import org.springframework.dsl.domain.Position;
+import org.springframework.dsl.domain.Range;
 import org.springframework.dsl.domain.TextDocumentEdit.TextDocumentEditBuilder;
 import org.springframework.dsl.domain.WorkspaceEdit;
 import org.springframework.dsl.domain.WorkspaceEdit.WorkspaceEditBuilder;
 import org.springframework.dsl.service.DslContext;
 import org.springframework.dsl.service.Renamer;
-import org.springframework.dsl.support.DslUtils;
 import org.springframework.dsl.symboltable.Symbol;
-import org.springframework.dsl.symboltable.SymbolTable;
 import org.springframework.stereotype.Component;
-import org.springframework.util.ObjectUtils;
 
 import reactor.core.publisher.Mono;
 
+/**
+ * {@link Renamer} for a {@code stream language}.
+ * <p>
+ * Symbols are first matched by name within a document being edited. If a
+ * position is on a stream name or a named destination, places in other
+ * documents are found from a {@link WorkspaceSymbolIndex} which also covers
+ * files not open in a client, so a rename costs a lookup per reference
+ * instead of parsing a workspace.
+ *
+ * @author Janne Valkealahti
+ *
+ */
 @Component
 public class StreamLanguageRenamer extends AbstractStreamLanguageService implements Renamer {
 
 	@Override
 	public Mono<WorkspaceEdit> rename(DslContext context, Position position, String newName) {
-		return parseItems(context)
-			.map(items -> StreamLanguageSymbolizer.buildTable(items))
-			.flatMap(table -> buildEdits(context, table, position, newName));
+		Document document = context.getDocument();
+		return parseSymbols(document)
+			.flatMap(symbolized -> Mono.justOrEmpty(buildEdits(document, symbolized, position, newName)));
+	}
+
+	private WorkspaceEdit buildEdits(Document document, SymbolizedDocument symbolized, Position position,
+			String newName) {
+		// collect ranges per document, this document first
+		Map<String, List<Range>> ranges = new LinkedHashMap<>();
+		ranges.put(document.uri(), new ArrayList<>());
+		findSymbol(symbolized, position).ifPresent(symbol -> {
+			// stream symbols have no kind so these are never included
+			for (Symbol s : symbolized.getNameIndex().get(symbol.getName())) {
+				addRange(ranges, document.uri(), s.getRange());
+			}
+		});
+		for (WorkspaceSymbol s : findWorkspaceReferences(document.uri(), position)) {
+			// this document is edited from its own parsed version, never from an index
+			if (!document.uri().equals(s.getUri())) {
+				addRange(ranges, s.getUri(), s.getRange());
+			}
+		}
+		if (ranges.values().stream().allMatch(List::isEmpty)) {
+			// no matches so we don't want workspace edit with empty text document edits
+			return null;
+		}
+
+		WorkspaceEditBuilder<WorkspaceEdit> weBuilder = WorkspaceEdit.workspaceEdit();
+		for (Map.Entry<String, List<Range>> entry : ranges.entrySet()) {
+			if (entry.getValue().isEmpty()) {
+				continue;
+			}
+			TextDocumentEditBuilder<WorkspaceEditBuilder<WorkspaceEdit>> tdeBuilder = weBuilder
+				.documentChangesTextDocumentEdits();
+			Integer version = resolveVersion(document, entry.getKey());
+			if (version != null) {
+				tdeBuilder.textDocument().uri(entry.getKey()).version(version);
+			} else {
+				tdeBuilder.textDocument().uri(entry.getKey());
+			}
+			entry.getValue().forEach(range -> tdeBuilder.edits().newText(newName).range(range));
+		}
+		return weBuilder.build();
 	}
 
-	private Mono<List<StreamItem>> parseItems(DslContext context) {
-		return parse(context.getDocument()).collectList();
+	/**
+	 * Find all places of a stream name or a named destination at a position
+	 * across indexed documents, empty for anything else.
+	 */
+	private List<WorkspaceSymbol> findWorkspaceReferences(String uri, Position position) {
+		List<WorkspaceSymbol> symbols = workspaceSymbolIndex.findSymbols(uri, position);
+		if (symbols.isEmpty()) {
+			return symbols;
+		}
+		WorkspaceSymbol symbol = symbols.get(symbols.size() - 1);
+		if (symbol.getKind() != WorkspaceSymbol.Kind.STREAM && symbol.getKind() != WorkspaceSymbol.Kind.DESTINATION) {
+			return new ArrayList<>();
+		}
+		List<WorkspaceSymbol> references = new ArrayList<>();
+		for (WorkspaceSymbol s : workspaceSymbolIndex.getSymbolsByName(symbol.getName())) {
+			if (s.getKind() == symbol.getKind()) {
+				references.add(s);
+			}
+		}
+		return references;
 	}
 
-	private static Mono<WorkspaceEdit> buildEdits(DslContext context, SymbolTable table, Position position,
-			String newName) {
-		// build edits for given position by finding matching symbols
-		return Mono.justOrEmpty(findSymbol(table, position))
-			.flatMap(symbol -> {
-				List<Symbol> symbols = table.getAllSymbols().stream()
-					.filter(s -> !(s instanceof StreamSymbol))
-					.filter(s -> symbol == s || ObjectUtils.nullSafeEquals(s.getName(), symbol.getName()))
-					.collect(Collectors.toList());
-				// don't expect any IO so return just or empty
-				if (!symbols.isEmpty()) {
-					WorkspaceEditBuilder<WorkspaceEdit> weBuilder = WorkspaceEdit.workspaceEdit();
-					TextDocumentEditBuilder<WorkspaceEditBuilder<WorkspaceEdit>> tdeBuilder = weBuilder
-						.documentChangesTextDocumentEdits();
-					tdeBuilder.textDocument()
-						.uri(context.getDocument().uri())
-						.version(context.getDocument().getVersion());
-					symbols.stream().forEach(s -> tdeBuilder.edits().newText(newName).range(s.getRange()));
-					return Mono.just(weBuilder.build());
-				} else {
-					// no matches so we don't want workspace edit with empty text document edits
-					return Mono.empty();
-				}
-			});
+	private Integer resolveVersion(Document document, String uri) {
+		if (document.uri().equals(uri)) {
+			return document.getVersion();
+		}
+		Integer version = workspaceSymbolIndex.getVersion(uri);
+		// files read from a disk have no version known to a client
+		return version != null && version != WorkspaceSymbolIndex.DISK_VERSION ? version : null;
+	}
+
+	private static void addRange(Map<String, List<Range>> ranges, String uri, Range range) {
+		List<Range> list = ranges.computeIfAbsent(uri, key -> new ArrayList<>());
+		if (!list.contains(range)) {
+			list.add(range);
+		}
 	}
 
-	private static Optional<? extends Symbol> findSymbol(SymbolTable table, Position position) {
+	private static Optional<Symbol> findSymbol(SymbolizedDocument symbolized, Position position) {
 		// find symbol for position
-		return table.getAllSymbols().stream()
+		return symbolized.getSymbolIndex().findAll(position).stream()
 			.filter(s -> !(s instanceof StreamSymbol))
-			.filter(symbol -> DslUtils.isPositionInRange(position, symbol.getRange()))
 			.findFirst();
 	}
 }
@@ -15,15 +15,24 @@
  */
 package org.springframework.cloud.dataflow.language.server.stream;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.function.Function;
+import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cloud.dataflow.core.ApplicationType;
 import org.springframework.cloud.dataflow.core.dsl.AppNode;
 import org.springframework.cloud.dataflow.core.dsl.ArgumentNode;
+import org.springframework.cloud.dataflow.core.dsl.DestinationNode;
 import org.springframework.cloud.dataflow.core.dsl.SourceDestinationNode;
 import org.springframework.cloud.dataflow.core.dsl.StreamNode;
+import org.springframework.cloud.dataflow.language.server.DataflowLanguages;
+import org.springframework.cloud.dataflow.language.server.support.WorkspaceSymbol;
+import org.springframework.cloud.dataflow.language.server.support.WorkspaceSymbolSource;
+import org.springframework.dsl.document.TextDocument;
 import org.springframework.dsl.domain.Range;
 import org.springframework.dsl.domain.SymbolKind;
 import org.springframework.dsl.service.DslContext;
@@ -35,7 +44,6 @@ import org.springframework.dsl.symboltable.SymbolTable;
 import org.springframework.dsl.symboltable.model.ClassSymbol;
 import org.springframework.dsl.symboltable.model.LocalScope;
 import org.springframework.dsl.symboltable.support.DefaultSymbolTable;
-import org.springframework.dsl.symboltable.support.DocumentSymbolTableVisitor;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
@@ -76,9 +84,20 @@ import reactor.core.publisher.Mono;
  *
  */
 @Component
-public class StreamLanguageSymbolizer extends AbstractStreamLanguageService implements Symbolizer {
+public class StreamLanguageSymbolizer extends AbstractStreamLanguageService implements Symbolizer,
+		WorkspaceSymbolSource {
 
 	private static final Logger log = LoggerFactory.getLogger(StreamLanguageSymbolizer.class);
+	private static final Map<Character, Class<? extends Symbol>> QUERY_PREFIXES;
+
+	static {
+		Map<Character, Class<? extends Symbol>> prefixes = new HashMap<>();
+		prefixes.put('<', SourceSymbol.class);
+		prefixes.put('^', ProcessorSymbol.class);
+		prefixes.put('>', SinkSymbol.class);
+		prefixes.put('@', StreamSymbol.class);
+		QUERY_PREFIXES = Collections.unmodifiableMap(prefixes);
+	}
 
 	@Override
 	public SymbolizeInfo symbolize(DslContext context) {
@@ -91,14 +110,21 @@ public class StreamLanguageSymbolizer extends AbstractStreamLanguageService impl
 	}
 
 	private SymbolizeInfo symbolizeInternal(DslContext context, String query) {
-		Mono<SymbolizeInfo> symbolizeInfo = parse(context.getDocument())
-			.collectList()
-			.map(items -> buildTable(items))
-			.map(table -> table.visitSymbolTable(DocumentSymbolTableVisitor.from(context.getDocument().uri(), new SymbolQuery(query))))
-			.map(visitor -> visitor.getSymbolizeInfo());
+		Mono<SymbolizeInfo> symbolizeInfo = parseSymbols(context.getDocument())
+			.map(symbolized -> symbolized.getSymbolizeInfo(query, QUERY_PREFIXES));
 		return DslUtils.symbolizeInfoFromMono(symbolizeInfo);
 	}
 
+	@Override
+	public String getFileExtension() {
+		return DataflowLanguages.LANGUAGE_STREAM_ID;
+	}
+
+	@Override
+	public List<WorkspaceSymbol> parseWorkspaceSymbols(String uri, String content) {
+		return workspaceSymbols(uri, parseDetached(new TextDocument(uri, DataflowLanguages.LANGUAGE_STREAM, 0, content)));
+	}
+
 	public static SymbolTable buildTable(List<StreamItem> items) {
 		DefaultSymbolTable table = new DefaultSymbolTable();
 		for (StreamItem item : items) {
@@ -109,7 +135,7 @@ public class StreamLanguageSymbolizer extends AbstractStreamLanguageService impl
 			int line = item.getDefinitionItem().getRange().getStart().getLine();
 			int startPos = streamNode.getStartPos();
 			int endPos = streamNode.getEndPos();
-			String streamName = getStreamName(item);
+			String streamName = item.getDefinitionItem().getName();
 
 			LocalScope mainScope = new LocalScope(table.getGlobalScope());
 			LocalScope metaScope = new LocalScope(mainScope);
@@ -130,16 +156,11 @@ public class StreamLanguageSymbolizer extends AbstractStreamLanguageService impl
 				streamNameClass.setRange(nameRange);
 				streamClass.define(streamNameClass);
 			}
-			if (item.getDefinitionItem().getNameItem() != null) {
-				Range contentRange = item.getDefinitionItem().getNameItem().getContentRange();
-				String name = item.getDefinitionItem().getNameItem().getText()
-						.subtext(contentRange.getStart().getCharacter() + 6, contentRange.getEnd().getCharacter())
-						.toString();
-				StreamNameMetaSymbol streamNameClass = new StreamNameMetaSymbol(name != null ? name : "[unnamed]");
+			DeploymentItem nameItem = item.getDefinitionItem().getNameItem();
+			if (nameItem != null && StringUtils.hasText(nameItem.getValue())) {
+				StreamNameMetaSymbol streamNameClass = new StreamNameMetaSymbol(nameItem.getValue());
 				streamNameClass.setDetail("@name");
-				streamNameClass.setRange(
-						Range.from(contentRange.getStart().getLine(), contentRange.getStart().getCharacter() + 6,
-								contentRange.getEnd().getLine(), contentRange.getEnd().getCharacter()));
+				streamNameClass.setRange(metaNameRange(nameItem));
 				metaScope.define(streamNameClass);
 			}
 
@@ -148,28 +169,16 @@ public class StreamLanguageSymbolizer extends AbstractStreamLanguageService impl
 			for (int i = 0; i < streamNode.getAppNodes().size(); i++) {
 				AppNode appNode = streamNode.getAppNodes().get(i);
 				String appName = appNode.getName();
+				ApplicationType appType = appType(hasSourceDestination, i, streamNode.getAppNodes().size());
 				ClassSymbol appClass;
-
-				if (hasSourceDestination) {
-					if (i == streamNode.getAppNodes().size() - 1) {
-						appClass = new SinkSymbol(appName);
-						appClass.setDetail("sink");
-					} else {
-						appClass = new ProcessorSymbol(appName);
-						appClass.setDetail("processor");
-					}
+				if (appType == ApplicationType.source) {
+					appClass = new SourceSymbol(appName);
+				} else if (appType == ApplicationType.sink) {
+					appClass = new SinkSymbol(appName);
 				} else {
-					if (i == 0) {
-						appClass = new SourceSymbol(appName);
-						appClass.setDetail("source");
-					} else if (i == streamNode.getAppNodes().size() - 1) {
-						appClass = new SinkSymbol(appName);
-						appClass.setDetail("sink");
-					} else {
-						appClass = new ProcessorSymbol(appName);
-						appClass.setDetail("processor");
-					}
+					appClass = new ProcessorSymbol(appName);
 				}
+				appClass.setDetail(appType.name());
 
 				appClass.setRange(Range.from(line, appNode.getStartPos(), line, appNode.getEndPos()));
 				streamClass.define(appClass);
@@ -205,66 +214,139 @@ public class StreamLanguageSymbolizer extends AbstractStreamLanguageService impl
 		return table;
 	}
 
-	private static String getStreamName(StreamItem item) {
-		String streamName = item.getDefinitionItem().getStreamNode().getName();
-		if (!StringUtils.hasText(streamName)) {
+	/**
+	 * Resolve a type of an app in a stream by its position. With a source
+	 * destination a last app is a sink and others are processors, otherwise
+	 * a first app is a source, a last one a sink and ones between them
+	 * processors.
+	 *
+	 * @param hasSourceDestination whether a stream reads from a destination
+	 * @param index the index of an app in a stream
+	 * @param count the number of apps in a stream
+	 * @return the app type
+	 */
+	static ApplicationType appType(boolean hasSourceDestination, int index, int count) {
+		if (index == count - 1 && (hasSourceDestination || index > 0)) {
+			return ApplicationType.sink;
+		} else if (index == 0 && !hasSourceDestination) {
+			return ApplicationType.source;
+		}
+		return ApplicationType.processor;
+	}
+
+	/**
+	 * Build symbols of stream documents kept in a workspace wide index, named
+	 * streams and named destinations they read from or write to. A source
+	 * destination of a form {@code stream.app} is a tap which also refers to
+	 * a stream by its name. Positions are resolved the same way as in
+	 * {@link #buildTable(List)}.
+	 *
+	 * @param uri the document uri
+	 * @param items the stream items
+	 * @return the workspace symbols
+	 */
+	public static List<WorkspaceSymbol> workspaceSymbols(String uri, List<StreamItem> items) {
+		List<WorkspaceSymbol> symbols = new ArrayList<>();
+		for (StreamItem item : items) {
+			StreamNode streamNode = item.getDefinitionItem().getStreamNode();
+			if (streamNode == null) {
+				continue;
+			}
+			int line = item.getDefinitionItem().getRange().getStart().getLine();
+			String streamName = item.getDefinitionItem().getName();
+			Range nameRange = item.getDefinitionItem().getNameRange();
+			if (nameRange != null && StringUtils.hasText(streamName)) {
+				symbols.add(new WorkspaceSymbol(streamName, WorkspaceSymbol.Kind.STREAM, uri, nameRange, null));
+			}
 			DeploymentItem nameItem = item.getDefinitionItem().getNameItem();
-			if (nameItem != null) {
-				Range contentRange = nameItem.getContentRange();
-				streamName = nameItem.getText()
-						.substring(contentRange.getStart().getCharacter() + 5, nameItem.getText().length()).trim()
-						.toString();
+			if (nameItem != null && StringUtils.hasText(nameItem.getValue())) {
+				// @name is a declaration only if a definition itself is not named
+				symbols.add(new WorkspaceSymbol(nameItem.getValue(), WorkspaceSymbol.Kind.STREAM,
+						nameRange != null ? WorkspaceSymbol.Role.REFERENCE : WorkspaceSymbol.Role.DECLARATION, uri,
+						metaNameRange(nameItem), null));
+			}
+			if (streamNode.getSourceDestinationNode() != null) {
+				DestinationNode destinationNode = streamNode.getSourceDestinationNode().getDestinationNode();
+				String destinationName = destinationNode.getDestinationName();
+				String[] split = destinationName.split("\\.");
+				int startPos = destinationNode.getStartPos();
+				if (split.length == 2) {
+					symbols.add(new WorkspaceSymbol(destinationName, WorkspaceSymbol.Kind.TAP,
+							WorkspaceSymbol.Role.CONSUMER, uri,
+							Range.from(line, startPos, line, destinationNode.getEndPos()), streamName));
+					symbols.add(new WorkspaceSymbol(split[0], WorkspaceSymbol.Kind.STREAM,
+							WorkspaceSymbol.Role.REFERENCE, uri,
+							Range.from(line, startPos, line, startPos + split[0].length()), streamName));
+				} else {
+					symbols.add(destinationSymbol(uri, line, streamName, destinationNode,
+							WorkspaceSymbol.Role.CONSUMER));
+				}
+			}
+			if (streamNode.getSinkDestinationNode() != null) {
+				symbols.add(destinationSymbol(uri, line, streamName,
+						streamNode.getSinkDestinationNode().getDestinationNode(), WorkspaceSymbol.Role.PRODUCER));
 			}
 		}
-		return streamName;
+		return symbols;
 	}
 
-	private static class SymbolQuery implements Function<Symbol, Boolean> {
+	private static Range metaNameRange(DeploymentItem nameItem) {
+		Range contentRange = nameItem.getContentRange();
+		return Range.from(contentRange.getStart().getLine(), contentRange.getStart().getCharacter() + 6,
+				contentRange.getEnd().getLine(), contentRange.getEnd().getCharacter());
+	}
 
-		private final String query;
+	private static WorkspaceSymbol destinationSymbol(String uri, int line, String streamName,
+			DestinationNode destinationNode, WorkspaceSymbol.Role role) {
+		return new WorkspaceSymbol(destinationNode.getDestinationName(), WorkspaceSymbol.Kind.DESTINATION, role, uri,
+				Range.from(line, destinationNode.getStartPos(), line, destinationNode.getEndPos()), streamName);
+	}
 
-		SymbolQuery(String query) {
-			this.query = query;
+	/**
+	 * Resolve a kind of a stream symbol, {@code null} for a {@link StreamSymbol}
+	 * as a whole stream definition is not referenced by its name.
+	 *
+	 * @param symbol the symbol
+	 * @return the kind of a symbol
+	 */
+	public static StreamSymbolKind symbolKind(Symbol symbol) {
+		if (symbol instanceof StreamSymbol) {
+			return null;
+		} else if (symbol instanceof StreamNameNativeSymbol || symbol instanceof StreamNameMetaSymbol) {
+			return StreamSymbolKind.STREAM_NAME;
+		} else if (symbol instanceof SourceSymbol || symbol instanceof ProcessorSymbol
+				|| symbol instanceof SinkSymbol) {
+			return StreamSymbolKind.APP;
+		} else if (symbol instanceof StreamAppOptionSymbol) {
+			return StreamSymbolKind.OPTION;
 		}
+		return StreamSymbolKind.REFERENCE;
+	}
 
-		@Override
-		public Boolean apply(Symbol symbol) {
-			if (!StringUtils.hasText(query)) {
-				return true;
-			}
-			if (query.startsWith("<")) {
-				if (symbol instanceof SourceSymbol) {
-					if (query.length() > 1) {
-						return symbol.getName().startsWith(query.substring(1));
-					}
-					return true;
-				}
-			} else if (query.startsWith("^")) {
-				if (symbol instanceof ProcessorSymbol) {
-					if (query.length() > 1) {
-						return symbol.getName().startsWith(query.substring(1));
-					}
-					return true;
-				}
-			} else if (query.startsWith(">")) {
-				if (symbol instanceof SinkSymbol) {
-					if (query.length() > 1) {
-						return symbol.getName().startsWith(query.substring(1));
-					}
-					return true;
-				}
-			} else if (query.startsWith("@")) {
-				if (symbol instanceof StreamSymbol) {
-					if (query.length() > 1) {
-						return symbol.getName().startsWith(query.substring(1));
-					}
-					return true;
-				}
-			} else {
-				return symbol.getName().toLowerCase().contains(query.toLowerCase());
-			}
-			return false;
-		}
+	/**
+	 * Kinds of symbols in a stream document.
+	 */
+	public enum StreamSymbolKind {
+
+		/**
+		 * Stream name either in a definition or in its {@code @name} metadata.
+		 */
+		STREAM_NAME,
+
+		/**
+		 * Source, processor or sink app.
+		 */
+		APP,
+
+		/**
+		 * App option.
+		 */
+		OPTION,
+
+		/**
+		 * Stream or app part of a named destination referring to other stream.
+		 */
+		REFERENCE
 	}
 
 	public static class StreamSymbol extends ClassSymbol {
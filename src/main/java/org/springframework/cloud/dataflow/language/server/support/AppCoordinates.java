@@ -0,0 +1,328 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.dataflow.language.server.support;
+
+/**
+ * Coordinates of an app registration uri. Parsed by hand in a single pass
+ * over a uri without regular expressions, understanding formats:
+ *
+ * <ul>
+ *   <li>{@code maven://group:artifact[:extension[:classifier]]:version}</li>
+ *   <li>{@code docker:[host/][namespace/]repository[:tag]}</li>
+ *   <li>{@code http(s)://host/path/artifact-version.extension}</li>
+ * </ul>
+ *
+ * Uris which can't be parsed never throw, they just have no version.
+ *
+ * @author Janne Valkealahti
+ *
+ */
+public final class AppCoordinates {
+
+	public static final String SCHEME_MAVEN = "maven";
+	public static final String SCHEME_DOCKER = "docker";
+	public static final String SCHEME_HTTP = "http";
+	public static final String SCHEME_HTTPS = "https";
+	private static final String DEFAULT_EXTENSION = "jar";
+	private static final AppCoordinates NONE = new AppCoordinates(null, null, null, null, null, null, null, null, "");
+
+	private final String scheme;
+	private final String groupId;
+	private final String artifactId;
+	private final String extension;
+	private final String classifier;
+	private final String host;
+	private final String namespace;
+	private final String repository;
+	private final String version;
+
+	private AppCoordinates(String scheme, String groupId, String artifactId, String extension, String classifier,
+			String host, String namespace, String repository, String version) {
+		this.scheme = scheme;
+		this.groupId = groupId;
+		this.artifactId = artifactId;
+		this.extension = extension;
+		this.classifier = classifier;
+		this.host = host;
+		this.namespace = namespace;
+		this.repository = repository;
+		this.version = version;
+	}
+
+	/**
+	 * Parse an app uri.
+	 *
+	 * @param uri the app uri
+	 * @return the parsed coordinates, never {@code null}
+	 */
+	public static AppCoordinates parse(String uri) {
+		if (uri == null) {
+			return NONE;
+		}
+		int colon = schemeEnd(uri);
+		if (colon < 0) {
+			return NONE;
+		}
+		String scheme = uri.substring(0, colon);
+		switch (scheme) {
+			case SCHEME_MAVEN:
+				return parseMaven(uri, skipSlashes(uri, colon + 1));
+			case SCHEME_DOCKER:
+				return parseDocker(uri, skipSlashes(uri, colon + 1));
+			case SCHEME_HTTP:
+			case SCHEME_HTTPS:
+				return parseHttp(scheme, uri, colon + 1);
+			default:
+				return new AppCoordinates(scheme, null, null, null, null, null, null, null, "");
+		}
+	}
+
+	public String getScheme() {
+		return scheme;
+	}
+
+	/**
+	 * Gets a maven group id.
+	 *
+	 * @return the group id
+	 */
+	public String getGroupId() {
+		return groupId;
+	}
+
+	/**
+	 * Gets a maven artifact id or an artifact name of a http resource without
+	 * its version and extension.
+	 *
+	 * @return the artifact id
+	 */
+	public String getArtifactId() {
+		return artifactId;
+	}
+
+	/**
+	 * Gets a maven extension, {@code jar} if not given, or an extension of a
+	 * http resource.
+	 *
+	 * @return the extension
+	 */
+	public String getExtension() {
+		return extension;
+	}
+
+	/**
+	 * Gets a maven classifier.
+	 *
+	 * @return the classifier
+	 */
+	public String getClassifier() {
+		return classifier;
+	}
+
+	/**
+	 * Gets a docker registry host or a host of a http resource.
+	 *
+	 * @return the host
+	 */
+	public String getHost() {
+		return host;
+	}
+
+	/**
+	 * Gets a docker namespace.
+	 *
+	 * @return the namespace
+	 */
+	public String getNamespace() {
+		return namespace;
+	}
+
+	/**
+	 * Gets a docker repository.
+	 *
+	 * @return the repository
+	 */
+	public String getRepository() {
+		return repository;
+	}
+
+	/**
+	 * Gets a version, that is a maven version, a docker tag or a version part
+	 * of a http resource name. Empty if a uri has no known version.
+	 *
+	 * @return the version, never {@code null}
+	 */
+	public String getVersion() {
+		return version;
+	}
+
+	@Override
+	public String toString() {
+		return "AppCoordinates [scheme=" + scheme + ", groupId=" + groupId + ", artifactId=" + artifactId
+				+ ", extension=" + extension + ", classifier=" + classifier + ", host=" + host + ", namespace="
+				+ namespace + ", repository=" + repository + ", version=" + version + "]";
+	}
+
+	private static AppCoordinates parseMaven(String uri, int start) {
+		// group:artifact[:extension[:classifier]]:version, at most five segments
+		int[] colons = new int[4];
+		int count = 0;
+		for (int i = start; i < uri.length(); i++) {
+			char c = uri.charAt(i);
+			if (c == ':') {
+				if (count == colons.length) {
+					return invalid(SCHEME_MAVEN);
+				}
+				colons[count++] = i;
+			} else if (c == ' ') {
+				return invalid(SCHEME_MAVEN);
+			}
+		}
+		if (count < 2) {
+			return invalid(SCHEME_MAVEN);
+		}
+		String groupId = uri.substring(start, colons[0]);
+		String artifactId = uri.substring(colons[0] + 1, colons[1]);
+		String version = uri.substring(colons[count - 1] + 1);
+		String extension = DEFAULT_EXTENSION;
+		String classifier = null;
+		if (count > 2) {
+			extension = uri.substring(colons[1] + 1, colons[2]);
+		}
+		if (count > 3) {
+			classifier = uri.substring(colons[2] + 1, colons[3]);
+			if (classifier.isEmpty()) {
+				return invalid(SCHEME_MAVEN);
+			}
+		}
+		if (groupId.isEmpty() || artifactId.isEmpty() || version.isEmpty()) {
+			return invalid(SCHEME_MAVEN);
+		}
+		return new AppCoordinates(SCHEME_MAVEN, groupId, artifactId, extension, classifier, null, null, null,
+				version);
+	}
+
+	private static AppCoordinates parseDocker(String uri, int start) {
+		int firstSlash = uri.indexOf('/', start);
+		int lastSlash = uri.lastIndexOf('/');
+		String host = null;
+		String namespace = null;
+		if (firstSlash > -1 && firstSlash == lastSlash) {
+			// single section before a repository is either a namespace or a host
+			String section = uri.substring(start, firstSlash);
+			if (isNamespace(section)) {
+				namespace = section;
+			} else {
+				host = section;
+			}
+		} else if (firstSlash > -1) {
+			host = uri.substring(start, firstSlash);
+			namespace = uri.substring(firstSlash + 1, lastSlash);
+		}
+		int repositoryStart = firstSlash > -1 ? lastSlash + 1 : start;
+		int tagSeparator = uri.indexOf(':', repositoryStart);
+		if (tagSeparator < 0) {
+			return new AppCoordinates(SCHEME_DOCKER, null, null, null, null, host, namespace,
+					uri.substring(repositoryStart), DockerImage.DEFAULT_TAG);
+		}
+		if (uri.indexOf(':', tagSeparator + 1) > -1) {
+			return invalid(SCHEME_DOCKER);
+		}
+		return new AppCoordinates(SCHEME_DOCKER, null, null, null, null, host, namespace,
+				uri.substring(repositoryStart, tagSeparator), uri.substring(tagSeparator + 1));
+	}
+
+	private static AppCoordinates parseHttp(String scheme, String uri, int start) {
+		if (!uri.startsWith("//", start)) {
+			return invalid(scheme);
+		}
+		int hostStart = start + 2;
+		int pathEnd = uri.length();
+		for (int i = hostStart; i < uri.length(); i++) {
+			char c = uri.charAt(i);
+			if (c == '?' || c == '#') {
+				pathEnd = i;
+				break;
+			}
+		}
+		int pathStart = uri.indexOf('/', hostStart);
+		if (pathStart < 0 || pathStart > pathEnd) {
+			pathStart = pathEnd;
+		}
+		String host = uri.substring(hostStart, pathStart);
+		int nameStart = uri.lastIndexOf('/', pathEnd - 1) + 1;
+		if (nameStart <= pathStart) {
+			return new AppCoordinates(scheme, null, null, null, null, host, null, null, "");
+		}
+		int extensionStart = uri.lastIndexOf('.', pathEnd - 1);
+		if (extensionStart < nameStart) {
+			return new AppCoordinates(scheme, null, null, null, null, host, null, null, "");
+		}
+		String extension = uri.substring(extensionStart + 1, pathEnd);
+		// version starts from a last dash followed by a digit
+		for (int i = extensionStart - 2; i >= nameStart; i--) {
+			if (uri.charAt(i) == '-' && isDigit(uri.charAt(i + 1))) {
+				return new AppCoordinates(scheme, null, uri.substring(nameStart, i), extension, null, host, null,
+						null, uri.substring(i + 1, extensionStart));
+			}
+		}
+		return new AppCoordinates(scheme, null, uri.substring(nameStart, extensionStart), extension, null, host,
+				null, null, "");
+	}
+
+	private static AppCoordinates invalid(String scheme) {
+		return new AppCoordinates(scheme, null, null, null, null, null, null, null, "");
+	}
+
+	private static int schemeEnd(String uri) {
+		for (int i = 0; i < uri.length(); i++) {
+			char c = uri.charAt(i);
+			if (c == ':') {
+				return i > 0 ? i : -1;
+			}
+			boolean valid = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')
+					|| (i > 0 && (isDigit(c) || c == '+' || c == '-' || c == '.'));
+			if (!valid) {
+				return -1;
+			}
+		}
+		return -1;
+	}
+
+	private static int skipSlashes(String uri, int start) {
+		while (start < uri.length() && uri.charAt(start) == '/') {
+			start++;
+		}
+		return start;
+	}
+
+	private static boolean isNamespace(String section) {
+		if (section.isEmpty()) {
+			return false;
+		}
+		for (int i = 0; i < section.length(); i++) {
+			char c = section.charAt(i);
+			if (!((c >= 'a' && c <= 'z') || isDigit(c) || c == '_')) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+}
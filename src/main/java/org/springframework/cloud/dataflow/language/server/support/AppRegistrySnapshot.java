@@ -0,0 +1,139 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.dataflow.language.server.support;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.cloud.dataflow.core.ApplicationType;
+import org.springframework.cloud.dataflow.rest.resource.AppRegistrationResource;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * Immutable copy of registrations of one {@link ApplicationType} in an app
+ * registry of an environment, indexed by an app name. A name maps to all
+ * its registrations as a registry may have many versions of a same app.
+ *
+ * @author Janne Valkealahti
+ *
+ */
+public class AppRegistrySnapshot {
+
+	private final ApplicationType type;
+	private final Map<String, List<AppRegistrationResource>> registrations;
+
+	private AppRegistrySnapshot(ApplicationType type, Map<String, List<AppRegistrationResource>> registrations) {
+		this.type = type;
+		this.registrations = registrations;
+	}
+
+	/**
+	 * Build a snapshot from registrations, ones not having a given type are
+	 * left out. A version of an app seen more than once, like when a registry
+	 * changes while its pages are fetched, is kept only once.
+	 *
+	 * @param type the application type
+	 * @param registrations the registrations
+	 * @return the snapshot
+	 */
+	public static AppRegistrySnapshot of(ApplicationType type, Collection<AppRegistrationResource> registrations) {
+		Map<String, List<AppRegistrationResource>> byName = new HashMap<>();
+		for (AppRegistrationResource registration : registrations) {
+			if (registration.getName() == null || !type.name().equals(registration.getType())) {
+				continue;
+			}
+			List<AppRegistrationResource> versions = byName.computeIfAbsent(registration.getName(),
+					name -> new ArrayList<>());
+			if (!isDuplicate(versions, registration)) {
+				versions.add(registration);
+			}
+		}
+		for (Map.Entry<String, List<AppRegistrationResource>> entry : byName.entrySet()) {
+			entry.setValue(Collections.unmodifiableList(entry.getValue()));
+		}
+		return new AppRegistrySnapshot(type, Collections.unmodifiableMap(byName));
+	}
+
+	public ApplicationType getType() {
+		return type;
+	}
+
+	/**
+	 * Gets if an app with a name is registered.
+	 *
+	 * @param name the app name
+	 * @return true if app is registered
+	 */
+	public boolean contains(String name) {
+		return registrations.containsKey(name);
+	}
+
+	/**
+	 * Gets registrations of an app, one per registered version.
+	 *
+	 * @param name the app name
+	 * @return the registrations, empty if app is not registered
+	 */
+	public List<AppRegistrationResource> getRegistrations(String name) {
+		List<AppRegistrationResource> found = registrations.get(name);
+		return found != null ? found : Collections.emptyList();
+	}
+
+	/**
+	 * Gets a registration of a default version of an app, first registration
+	 * if registry doesn't tell which version is a default.
+	 *
+	 * @param name the app name
+	 * @return the registration, {@code null} if app is not registered
+	 */
+	public AppRegistrationResource getDefaultRegistration(String name) {
+		List<AppRegistrationResource> versions = getRegistrations(name);
+		for (AppRegistrationResource registration : versions) {
+			if (Boolean.TRUE.equals(registration.getDefaultVersion())) {
+				return registration;
+			}
+		}
+		return versions.isEmpty() ? null : versions.get(0);
+	}
+
+	public Set<String> getNames() {
+		return registrations.keySet();
+	}
+
+	public int size() {
+		return registrations.size();
+	}
+
+	private static boolean isDuplicate(List<AppRegistrationResource> registrations, AppRegistrationResource other) {
+		for (AppRegistrationResource registration : registrations) {
+			if (ObjectUtils.nullSafeEquals(other.getVersion(), registration.getVersion())
+					&& ObjectUtils.nullSafeEquals(other.getUri(), registration.getUri())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public String toString() {
+		return "AppRegistrySnapshot [type=" + type + ", size=" + registrations.size() + "]";
+	}
+}
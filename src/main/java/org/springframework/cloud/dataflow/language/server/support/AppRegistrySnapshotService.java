@@ -0,0 +1,308 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.dataflow.language.server.support;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+import java.util.function.IntFunction;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.dataflow.core.ApplicationType;
+import org.springframework.cloud.dataflow.language.server.config.DataflowLanguagesProperties;
+import org.springframework.cloud.dataflow.rest.client.DataFlowOperations;
+import org.springframework.cloud.dataflow.rest.resource.AppRegistrationResource;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ObjectUtils;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Service keeping an {@link AppRegistrySnapshot} per environment and
+ * {@link ApplicationType} so that validating documents against a registry
+ * only reads memory instead of calling a server for every item.
+ * <p>
+ * A snapshot is loaded when first asked for and then refreshed in a
+ * background on a configured interval with a random jitter, a failed
+ * refresh keeps a previous snapshot. Loading happens outside of a cache
+ * so that a slow server only blocks readers of a same snapshot, and a failed
+ * load is remembered for a configured interval so that every lint doesn't
+ * call an unavailable server again. All snapshots are dropped when client
+ * environments are changed so that a next read loads them again.
+ *
+ * @author Janne Valkealahti
+ *
+ */
+@Component
+public class AppRegistrySnapshotService implements DisposableBean {
+
+	private static final Logger log = LoggerFactory.getLogger(AppRegistrySnapshotService.class);
+	private final Cache<SnapshotKey, SnapshotEntry> snapshots = Caffeine.newBuilder()
+		.removalListener((SnapshotKey key, SnapshotEntry entry, RemovalCause cause) -> {
+			log.debug("Snapshot removed {} {}", key, cause);
+			if (entry != null) {
+				entry.cancel();
+			}
+		})
+		.build();
+	private DataflowLanguagesProperties dataflowLanguagesProperties = new DataflowLanguagesProperties();
+	private DataFlowOperationsService dataflowOperationsService = new DataFlowOperationsService();
+
+	@Autowired
+	public void setDataflowLanguagesProperties(DataflowLanguagesProperties dataflowLanguagesProperties) {
+		this.dataflowLanguagesProperties = dataflowLanguagesProperties;
+	}
+
+	@Autowired
+	public void setDataflowOperationsService(DataFlowOperationsService dataflowOperationsService) {
+		this.dataflowOperationsService = dataflowOperationsService;
+	}
+
+	@Override
+	public void destroy() throws Exception {
+		invalidateAll();
+	}
+
+	/**
+	 * Gets a snapshot of registrations of a type, loading it with given
+	 * operations if not yet known. Loading blocks, callers should not be on
+	 * a non-blocking thread. Operations are remembered for later refreshes.
+	 * A failed load is thrown to every caller until a retry interval passes.
+	 *
+	 * @param environment the environment name, {@code null} for a default
+	 * @param type the application type
+	 * @param operations the operations to load registrations with
+	 * @return the registry snapshot
+	 */
+	public AppRegistrySnapshot getSnapshot(String environment, ApplicationType type, DataFlowOperations operations) {
+		SnapshotKey key = new SnapshotKey(environment, type);
+		SnapshotEntry entry = snapshots.get(key, k -> new SnapshotEntry(k, operations));
+		if (entry.isFailedBefore(System.nanoTime()
+				- dataflowLanguagesProperties.getRegistry().getFailureRetryInterval().toNanos())) {
+			snapshots.asMap().remove(key, entry);
+			entry = snapshots.get(key, k -> new SnapshotEntry(k, operations));
+		}
+		entry.operations = operations;
+		if (entry.claim()) {
+			// a first reader loads, others wait on an entry instead of a cache
+			try {
+				entry.complete(load(type, operations));
+			} catch (RuntimeException | Error e) {
+				log.debug("Unable to load {}", key, e);
+				entry.fail(e);
+				throw e;
+			}
+			schedule(entry);
+		}
+		return entry.await();
+	}
+
+	/**
+	 * Check items grouped by an environment against registries of those
+	 * environments. Checks run on a bounded elastic scheduler as a snapshot
+	 * may need to be loaded from a server, results keep an order of given
+	 * environments. An environment whose registry can't be read yields
+	 * nothing, so that problems found by parsing are still reported.
+	 *
+	 * @param <T> the type of checked items
+	 * @param <R> the type of found problems
+	 * @param environments the items per environment name
+	 * @param check the check of items of an environment
+	 * @return the flux of found problems
+	 */
+	public <T, R> Flux<R> check(Map<String, List<T>> environments, BiFunction<String, List<T>, List<R>> check) {
+		return Flux.fromIterable(environments.entrySet())
+			.flatMapSequential(entry -> Mono
+				.fromCallable(() -> check.apply(entry.getKey(), entry.getValue()))
+				.subscribeOn(Schedulers.boundedElastic())
+				.onErrorResume(e -> {
+					log.warn("Unable to check apps against registry of environment {}", entry.getKey(), e);
+					return Mono.just(Collections.<R>emptyList());
+				}))
+			.flatMapIterable(problems -> problems);
+	}
+
+	/**
+	 * Drop snapshots of all environments.
+	 */
+	public void invalidateAll() {
+		snapshots.invalidateAll();
+	}
+
+	/**
+	 * Fetch registrations of a type from all pages of a registry. Pages after
+	 * a first one are fetched concurrently if operations were built by a
+	 * {@link DataFlowOperationsService}, otherwise only a first page is used.
+	 *
+	 * @param type the application type
+	 * @param operations the dataflow operations
+	 * @return the registrations
+	 */
+	protected Collection<AppRegistrationResource> fetchRegistrations(ApplicationType type,
+			DataFlowOperations operations) {
+		PagedModel<AppRegistrationResource> first = operations.appRegistryOperations().list(type);
+		IntFunction<AppRegistrationResource.Page> pages = PagedModelFetcher.pages(first,
+				dataflowOperationsService.getRestTemplate(operations), AppRegistrationResource.Page.class);
+		return PagedModelFetcher.fetchAll(first, pages,
+				dataflowLanguagesProperties.getRegistry().getFetchConcurrency());
+	}
+
+	private AppRegistrySnapshot load(ApplicationType type, DataFlowOperations operations) {
+		AppRegistrySnapshot snapshot = AppRegistrySnapshot.of(type, fetchRegistrations(type, operations));
+		log.debug("Loaded {}", snapshot);
+		return snapshot;
+	}
+
+	private SnapshotEntry schedule(SnapshotEntry entry) {
+		Duration interval = dataflowLanguagesProperties.getRegistry().getRefreshInterval();
+		if (interval == null || interval.isZero() || interval.isNegative()) {
+			return entry;
+		}
+		Duration jitter = dataflowLanguagesProperties.getRegistry().getRefreshJitter();
+		long delay = interval.toMillis();
+		if (jitter != null && jitter.toMillis() > 0) {
+			delay += ThreadLocalRandom.current().nextLong(jitter.toMillis() + 1);
+		}
+		entry.refresh = Schedulers.boundedElastic().schedule(() -> refresh(entry), delay, TimeUnit.MILLISECONDS);
+		return entry;
+	}
+
+	private void refresh(SnapshotEntry entry) {
+		if (snapshots.asMap().get(entry.key) != entry) {
+			return;
+		}
+		try {
+			entry.snapshot = load(entry.key.type, entry.operations);
+		} catch (Exception e) {
+			log.debug("Unable to refresh {}, keeping previous snapshot", entry.key, e);
+		}
+		if (snapshots.asMap().get(entry.key) == entry) {
+			schedule(entry);
+		}
+	}
+
+	private static class SnapshotKey {
+
+		final String environment;
+		final ApplicationType type;
+
+		SnapshotKey(String environment, ApplicationType type) {
+			this.environment = name(environment);
+			this.type = type;
+		}
+
+		static String name(String environment) {
+			return environment != null ? environment : "";
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * environment.hashCode() + type.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof SnapshotKey)) {
+				return false;
+			}
+			SnapshotKey other = (SnapshotKey) obj;
+			return environment.equals(other.environment) && ObjectUtils.nullSafeEquals(type, other.type);
+		}
+
+		@Override
+		public String toString() {
+			return "SnapshotKey [environment=" + environment + ", type=" + type + "]";
+		}
+	}
+
+	private static class SnapshotEntry {
+
+		final SnapshotKey key;
+		final AtomicBoolean claimed = new AtomicBoolean();
+		final CompletableFuture<AppRegistrySnapshot> loaded = new CompletableFuture<>();
+		volatile DataFlowOperations operations;
+		volatile AppRegistrySnapshot snapshot;
+		volatile Disposable refresh;
+		volatile long failedAt;
+
+		SnapshotEntry(SnapshotKey key, DataFlowOperations operations) {
+			this.key = key;
+			this.operations = operations;
+		}
+
+		boolean claim() {
+			return claimed.compareAndSet(false, true);
+		}
+
+		void complete(AppRegistrySnapshot snapshot) {
+			this.snapshot = snapshot;
+			loaded.complete(snapshot);
+		}
+
+		void fail(Throwable e) {
+			failedAt = System.nanoTime();
+			loaded.completeExceptionally(e);
+		}
+
+		boolean isFailedBefore(long time) {
+			return loaded.isCompletedExceptionally() && failedAt - time < 0;
+		}
+
+		AppRegistrySnapshot await() {
+			try {
+				loaded.join();
+			} catch (CompletionException e) {
+				if (e.getCause() instanceof RuntimeException) {
+					throw (RuntimeException) e.getCause();
+				} else if (e.getCause() instanceof Error) {
+					throw (Error) e.getCause();
+				}
+				throw e;
+			}
+			// refreshes replace a snapshot after a first load
+			return snapshot;
+		}
+
+		void cancel() {
+			Disposable disposable = refresh;
+			if (disposable != null) {
+				disposable.dispose();
+			}
+		}
+	}
+}
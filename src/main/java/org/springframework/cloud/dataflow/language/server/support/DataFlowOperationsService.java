@@ -30,6 +30,7 @@ import org.springframework.cloud.dataflow.rest.client.DataFlowTemplate;
 import org.springframework.cloud.dataflow.rest.util.HttpClientConfigurer;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
+import org.springframework.web.client.RestTemplate;
 
 /**
  * Service class to share instances of a {@link DataFlowOperations}. Mostly done
@@ -46,11 +47,26 @@ public class DataFlowOperationsService {
 			log.debug("Entry removed {} {} {}", key, value, cause);
 		})
 		.build();
+	private final Cache<DataFlowOperations, RestTemplate> restTemplates = Caffeine.newBuilder()
+		.weakKeys()
+		.build();
 
 	public DataFlowOperations getDataFlowOperations(Environment environment, Boolean trustssl) {
 		return cache.get(environment, key -> buildDataFlowTemplate(key, trustssl));
 	}
 
+	/**
+	 * Gets a {@link RestTemplate} a {@link DataFlowOperations} built by this
+	 * service talks to a server with, for requests not covered by operations
+	 * like following links of a paged resource.
+	 *
+	 * @param operations the dataflow operations
+	 * @return the rest template, {@code null} if operations were not built here
+	 */
+	public RestTemplate getRestTemplate(DataFlowOperations operations) {
+		return operations != null ? restTemplates.getIfPresent(operations) : null;
+	}
+
 	private DataFlowTemplate buildDataFlowTemplate(Environment environment, Boolean trustssl) {
 		log.debug("Building DataFlowTemplate for environment {}", environment);
 		URI uri = URI.create(environment.getUrl());
@@ -72,7 +88,11 @@ public class DataFlowOperationsService {
 			builder.requestFactory(() -> httpClientConfigurer.buildClientHttpRequestFactory());
 		}
 
-		return new DataFlowTemplate(uri, builder.build());
+		// template configures a given rest template for hal, keep it around
+		RestTemplate restTemplate = builder.build();
+		DataFlowTemplate template = new DataFlowTemplate(uri, restTemplate);
+		restTemplates.put(template, restTemplate);
+		return template;
 	}
 
 	@Override
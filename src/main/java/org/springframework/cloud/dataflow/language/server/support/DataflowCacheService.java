@@ -16,11 +16,19 @@
 package org.springframework.cloud.dataflow.language.server.support;
 
 import java.time.Duration;
+import java.util.Collection;
 import java.util.List;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.dataflow.core.dsl.StreamNode;
+import org.springframework.cloud.dataflow.core.dsl.TaskNode;
+import org.springframework.cloud.dataflow.language.server.app.AbstractAppLanguageService.AppEntry;
+import org.springframework.cloud.dataflow.language.server.app.AbstractAppLanguageService.AppLine;
+import org.springframework.cloud.dataflow.language.server.config.DataflowLanguagesProperties;
 import org.springframework.cloud.dataflow.language.server.stream.AbstractStreamLanguageService.StreamItem;
 import org.springframework.cloud.dataflow.language.server.task.AbstractTaskLanguageService.TaskItem;
 import org.springframework.stereotype.Component;
@@ -34,19 +42,235 @@ import org.springframework.stereotype.Component;
 @Component
 public class DataflowCacheService {
 
-	private final Cache<String, List<StreamItem>> streamItemCache = Caffeine.newBuilder()
+	private static final DataflowLanguagesProperties DEFAULT_PROPERTIES = new DataflowLanguagesProperties();
+
+	private final DocumentVersionCache<List<StreamItem>> streamItemCache = new DocumentVersionCache<>(
+			DEFAULT_PROPERTIES.getCache().getItemMaximumWeight());
+
+	private final DocumentVersionCache<List<TaskItem>> taskItemCache = new DocumentVersionCache<>(
+			DEFAULT_PROPERTIES.getCache().getItemMaximumWeight());
+
+	private final DocumentVersionCache<Collection<AppEntry>> appItemCache = new DocumentVersionCache<>(
+			DEFAULT_PROPERTIES.getCache().getItemMaximumWeight());
+
+	private final DocumentVersionCache<PositionIndex<StreamItem>> streamItemIndexCache = new DocumentVersionCache<>(
+			DEFAULT_PROPERTIES.getCache().getItemMaximumWeight());
+
+	private final DocumentVersionCache<PositionIndex<TaskItem>> taskItemIndexCache = new DocumentVersionCache<>(
+			DEFAULT_PROPERTIES.getCache().getItemMaximumWeight());
+
+	private final DocumentVersionCache<SymbolizedDocument> streamSymbolCache = new DocumentVersionCache<>(
+			DEFAULT_PROPERTIES.getCache().getItemMaximumWeight());
+
+	private final DocumentVersionCache<SymbolizedDocument> taskSymbolCache = new DocumentVersionCache<>(
+			DEFAULT_PROPERTIES.getCache().getItemMaximumWeight());
+
+	private final DocumentVersionCache<SymbolizedDocument> appSymbolCache = new DocumentVersionCache<>(
+			DEFAULT_PROPERTIES.getCache().getItemMaximumWeight());
+
+	private final Cache<String, ParsedDocument<StreamItem>> streamDocumentCache = Caffeine.newBuilder()
+		.maximumWeight(DEFAULT_PROPERTIES.getCache().getItemMaximumWeight())
+		.weigher(DataflowCacheService::weigh)
 		.expireAfterAccess(Duration.ofMinutes(1))
 		.build();
 
-	private final Cache<String, List<TaskItem>> taskItemCache = Caffeine.newBuilder()
+	private final Cache<String, ParsedDocument<AppLine>> appDocumentCache = Caffeine.newBuilder()
+		.maximumWeight(DEFAULT_PROPERTIES.getCache().getItemMaximumWeight())
+		.weigher(DataflowCacheService::weigh)
 		.expireAfterAccess(Duration.ofMinutes(1))
 		.build();
 
-	public Cache<String, List<StreamItem>> getStreamItemCache() {
+	private final Cache<String, ParsedNode<StreamNode>> streamNodeCache = Caffeine.newBuilder()
+		.maximumSize(DEFAULT_PROPERTIES.getCache().getNodeMaximumSize())
+		.recordStats()
+		.build();
+
+	private final Cache<String, ParsedNode<TaskNode>> taskNodeCache = Caffeine.newBuilder()
+		.maximumSize(DEFAULT_PROPERTIES.getCache().getNodeMaximumSize())
+		.recordStats()
+		.build();
+
+	private final Cache<String, AppCoordinates> appCoordinatesCache = Caffeine.newBuilder()
+		.maximumSize(DEFAULT_PROPERTIES.getCache().getNodeMaximumSize())
+		.recordStats()
+		.build();
+
+	@Autowired
+	public void setDataflowLanguagesProperties(DataflowLanguagesProperties properties) {
+		long nodeMaximumSize = properties.getCache().getNodeMaximumSize();
+		streamNodeCache.policy().eviction().ifPresent(eviction -> eviction.setMaximum(nodeMaximumSize));
+		taskNodeCache.policy().eviction().ifPresent(eviction -> eviction.setMaximum(nodeMaximumSize));
+		appCoordinatesCache.policy().eviction().ifPresent(eviction -> eviction.setMaximum(nodeMaximumSize));
+		long itemMaximumWeight = properties.getCache().getItemMaximumWeight();
+		streamItemCache.setMaximumWeight(itemMaximumWeight);
+		taskItemCache.setMaximumWeight(itemMaximumWeight);
+		appItemCache.setMaximumWeight(itemMaximumWeight);
+		streamItemIndexCache.setMaximumWeight(itemMaximumWeight);
+		taskItemIndexCache.setMaximumWeight(itemMaximumWeight);
+		streamSymbolCache.setMaximumWeight(itemMaximumWeight);
+		taskSymbolCache.setMaximumWeight(itemMaximumWeight);
+		appSymbolCache.setMaximumWeight(itemMaximumWeight);
+		streamDocumentCache.policy().eviction().ifPresent(eviction -> eviction.setMaximum(itemMaximumWeight));
+		appDocumentCache.policy().eviction().ifPresent(eviction -> eviction.setMaximum(itemMaximumWeight));
+	}
+
+	/**
+	 * Invalidate cached documents when a tracker tells that a document was
+	 * closed or reopened.
+	 *
+	 * @param documentVersionTracker the document version tracker
+	 */
+	@Autowired
+	public void setDocumentVersionTracker(DocumentVersionTracker documentVersionTracker) {
+		documentVersionTracker.addResetListener(this::invalidateDocument);
+	}
+
+	/**
+	 * Invalidate everything cached for a document, meant to be called when a
+	 * document is closed or reopened.
+	 *
+	 * @param uri the document uri
+	 */
+	public void invalidateDocument(String uri) {
+		streamItemCache.invalidate(uri);
+		taskItemCache.invalidate(uri);
+		appItemCache.invalidate(uri);
+		streamItemIndexCache.invalidate(uri);
+		taskItemIndexCache.invalidate(uri);
+		streamSymbolCache.invalidate(uri);
+		taskSymbolCache.invalidate(uri);
+		appSymbolCache.invalidate(uri);
+		streamDocumentCache.invalidate(uri);
+		appDocumentCache.invalidate(uri);
+	}
+
+	public DocumentVersionCache<List<StreamItem>> getStreamItemCache() {
 		return streamItemCache;
 	}
 
-	public Cache<String, List<TaskItem>> getTaskItemCache() {
+	public DocumentVersionCache<List<TaskItem>> getTaskItemCache() {
 		return taskItemCache;
 	}
+
+	public DocumentVersionCache<Collection<AppEntry>> getAppItemCache() {
+		return appItemCache;
+	}
+
+	/**
+	 * Gets a cache of position indexes over parsed stream items, built once
+	 * per document version for position lookups.
+	 *
+	 * @return the stream item index cache
+	 */
+	public DocumentVersionCache<PositionIndex<StreamItem>> getStreamItemIndexCache() {
+		return streamItemIndexCache;
+	}
+
+	public DocumentVersionCache<PositionIndex<TaskItem>> getTaskItemIndexCache() {
+		return taskItemIndexCache;
+	}
+
+	/**
+	 * Gets a cache of symbol tables built from parsed stream items, cached
+	 * per document version next to the items themselves.
+	 *
+	 * @return the stream symbol cache
+	 */
+	public DocumentVersionCache<SymbolizedDocument> getStreamSymbolCache() {
+		return streamSymbolCache;
+	}
+
+	public DocumentVersionCache<SymbolizedDocument> getTaskSymbolCache() {
+		return taskSymbolCache;
+	}
+
+	public DocumentVersionCache<SymbolizedDocument> getAppSymbolCache() {
+		return appSymbolCache;
+	}
+
+	/**
+	 * Gets a cache keeping a last parsed version of a stream document keyed by
+	 * its uri. Used as a base for incremental parsing of a next version.
+	 *
+	 * @return the stream document cache
+	 */
+	public Cache<String, ParsedDocument<StreamItem>> getStreamDocumentCache() {
+		return streamDocumentCache;
+	}
+
+	/**
+	 * Gets a cache of a last parsed version of every app document, keeping a
+	 * parsed form of each line so that a next version only needs to parse
+	 * lines which changed.
+	 *
+	 * @return the app document cache
+	 */
+	public Cache<String, ParsedDocument<AppLine>> getAppDocumentCache() {
+		return appDocumentCache;
+	}
+
+	/**
+	 * Gets a bounded cache of parsed stream definitions keyed by a definition
+	 * text, shared across all documents and their versions.
+	 *
+	 * @return the stream node cache
+	 */
+	public Cache<String, ParsedNode<StreamNode>> getStreamNodeCache() {
+		return streamNodeCache;
+	}
+
+	/**
+	 * Gets a bounded cache of parsed task definitions keyed by a task name and
+	 * a definition text, shared across all documents and their versions.
+	 *
+	 * @return the task node cache
+	 */
+	public Cache<String, ParsedNode<TaskNode>> getTaskNodeCache() {
+		return taskNodeCache;
+	}
+
+	/**
+	 * Gets a bounded cache of parsed app uris keyed by an uri, shared across
+	 * all app documents as same uris tend to repeat in them.
+	 *
+	 * @return the app coordinates cache
+	 */
+	public Cache<String, AppCoordinates> getAppCoordinatesCache() {
+		return appCoordinatesCache;
+	}
+
+	public CacheStats getStreamItemCacheStats() {
+		return streamItemCache.stats();
+	}
+
+	public CacheStats getTaskItemCacheStats() {
+		return taskItemCache.stats();
+	}
+
+	public CacheStats getAppItemCacheStats() {
+		return appItemCache.stats();
+	}
+
+	public CacheStats getStreamNodeCacheStats() {
+		return streamNodeCache.stats();
+	}
+
+	public CacheStats getTaskNodeCacheStats() {
+		return taskNodeCache.stats();
+	}
+
+	private static int weigh(String uri, ParsedDocument<?> document) {
+		return Math.max(1, document.getLines().getLineCount());
+	}
+
+	@Override
+	public String toString() {
+		return "DataflowCacheService streamItemCache size=" + streamItemCache.estimatedSize() + " "
+				+ streamItemCache.stats() + ", taskItemCache size=" + taskItemCache.estimatedSize() + " "
+				+ taskItemCache.stats() + ", appItemCache size=" + appItemCache.estimatedSize() + " "
+				+ appItemCache.stats() + ", streamNodeCache size=" + streamNodeCache.estimatedSize() + " hitRate="
+				+ streamNodeCache.stats().hitRate() + ", taskNodeCache size=" + taskNodeCache.estimatedSize()
+				+ " hitRate=" + taskNodeCache.stats().hitRate() + ", appCoordinatesCache size="
+				+ appCoordinatesCache.estimatedSize() + " hitRate=" + appCoordinatesCache.stats().hitRate();
+	}
 }
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.dataflow.language.server.support;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Flux;
+
+/**
+ * Service recording language server metrics. Meters are registered into a
+ * {@link MeterRegistry} if one exists in a context, otherwise into a global
+ * registry.
+ *
+ * @author Janne Valkealahti
+ *
+ */
+@Component
+public class DataflowMetricsService {
+
+	/**
+	 * Name of a timer measuring time from a new document version arriving into
+	 * a reconcile to its diagnostics being available.
+	 */
+	public static final String METRIC_DIAGNOSTICS_LATENCY = "dataflow.language.server.diagnostics.latency";
+
+	/**
+	 * Name of a tag telling if diagnostics were published or dropped.
+	 */
+	public static final String TAG_OUTCOME = "outcome";
+
+	/**
+	 * Outcome of diagnostics which were published to a client.
+	 */
+	public static final String OUTCOME_COMPLETED = "completed";
+
+	/**
+	 * Outcome of diagnostics dropped as a newer version arrived.
+	 */
+	public static final String OUTCOME_SUPERSEDED = "superseded";
+
+	private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+	@Autowired(required = false)
+	public void setMeterRegistry(MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+	}
+
+	/**
+	 * Gets a diagnostics latency timer for a language and an outcome.
+	 *
+	 * @param language the language id
+	 * @param outcome the outcome
+	 * @return the diagnostics latency timer
+	 */
+	public Timer getDiagnosticsTimer(String language, String outcome) {
+		return Timer.builder(METRIC_DIAGNOSTICS_LATENCY)
+			.description("Time from a new document version to its diagnostics")
+			.tag("language", language)
+			.tag(TAG_OUTCOME, outcome)
+			.register(meterRegistry);
+	}
+
+	/**
+	 * Time diagnostics of a document version. Time is measured from a call to
+	 * this method, which happens when a version arrives into a reconcile, until
+	 * given diagnostics complete. Diagnostics of a version superseded by the
+	 * time they complete are recorded with a {@link #OUTCOME_SUPERSEDED}
+	 * outcome so that dropped work doesn't show up as latency of published
+	 * diagnostics.
+	 *
+	 * @param <T> the type of diagnostics
+	 * @param language the language id
+	 * @param superseded the supplier telling if a version is superseded
+	 * @param diagnostics the diagnostics
+	 * @return the timed diagnostics
+	 */
+	public <T> Flux<T> timeDiagnostics(String language, BooleanSupplier superseded, Flux<T> diagnostics) {
+		long start = System.nanoTime();
+		return diagnostics.doOnComplete(() -> {
+			String outcome = superseded.getAsBoolean() ? OUTCOME_SUPERSEDED : OUTCOME_COMPLETED;
+			getDiagnosticsTimer(language, outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		});
+	}
+}
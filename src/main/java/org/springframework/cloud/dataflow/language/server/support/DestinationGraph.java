@@ -0,0 +1,181 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.dataflow.language.server.support;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.dataflow.language.server.support.WorkspaceSymbol.Kind;
+import org.springframework.cloud.dataflow.language.server.support.WorkspaceSymbol.Role;
+import org.springframework.dsl.domain.Position;
+import org.springframework.stereotype.Component;
+
+/**
+ * Graph of named destinations and taps across all documents in a
+ * {@link WorkspaceSymbolIndex}.
+ * <p>
+ * Edges are not stored separately, they are symbols of a same name found
+ * from a name index of a workspace index. As a workspace index replaces
+ * symbols per document, this graph changes only for documents which
+ * changed and every lookup is a hash lookup of a name plus a pass over
+ * symbols having it.
+ *
+ * @author Janne Valkealahti
+ *
+ */
+@Component
+public class DestinationGraph {
+
+	private WorkspaceSymbolIndex workspaceSymbolIndex = new WorkspaceSymbolIndex();
+
+	@Autowired
+	public void setWorkspaceSymbolIndex(WorkspaceSymbolIndex workspaceSymbolIndex) {
+		this.workspaceSymbolIndex = workspaceSymbolIndex;
+	}
+
+	/**
+	 * Gets places where streams write into a named destination.
+	 *
+	 * @param destination the destination name
+	 * @return the producer symbols
+	 */
+	public List<WorkspaceSymbol> getProducers(String destination) {
+		return find(destination, s -> s.getKind() == Kind.DESTINATION && s.getRole() == Role.PRODUCER);
+	}
+
+	/**
+	 * Gets places where streams read from a named destination, or from an
+	 * app of a stream if a name is of a form {@code stream.app}.
+	 *
+	 * @param destination the destination name
+	 * @return the consumer symbols
+	 */
+	public List<WorkspaceSymbol> getConsumers(String destination) {
+		return find(destination, s -> (s.getKind() == Kind.DESTINATION || s.getKind() == Kind.TAP)
+				&& s.getRole() == Role.CONSUMER);
+	}
+
+	/**
+	 * Gets taps referring to a stream by its name.
+	 *
+	 * @param stream the stream name
+	 * @return the stream references in taps
+	 */
+	public List<WorkspaceSymbol> getTaps(String stream) {
+		return find(stream, s -> s.getKind() == Kind.STREAM && s.getRole() == Role.REFERENCE);
+	}
+
+	/**
+	 * Gets definitions of a symbol. Destinations are defined by streams
+	 * writing into them, taps and stream references by a stream they refer
+	 * to and other symbols by declarations of a same kind and name.
+	 *
+	 * @param symbol the symbol
+	 * @return the definition symbols
+	 */
+	public List<WorkspaceSymbol> getDefinitions(WorkspaceSymbol symbol) {
+		switch (symbol.getKind()) {
+			case DESTINATION:
+				return getProducers(symbol.getName());
+			case TAP:
+				return getDeclarations(Kind.STREAM, symbol.getName().split("\\.")[0]);
+			default:
+				return getDeclarations(symbol.getKind(), symbol.getName());
+		}
+	}
+
+	/**
+	 * Gets all places where a same destination, tap or other symbol appears,
+	 * including a symbol itself.
+	 *
+	 * @param symbol the symbol
+	 * @return the referencing symbols
+	 */
+	public List<WorkspaceSymbol> getReferences(WorkspaceSymbol symbol) {
+		return find(symbol.getName(), s -> s.getKind() == symbol.getKind());
+	}
+
+	/**
+	 * Resolve links of an innermost indexed symbol at a position of a
+	 * document.
+	 *
+	 * @param uri the document uri
+	 * @param position the position
+	 * @return the symbol links or {@code null} if there is no symbol
+	 */
+	public SymbolLinks getLinks(String uri, Position position) {
+		List<WorkspaceSymbol> symbols = workspaceSymbolIndex.findSymbols(uri, position);
+		if (symbols.isEmpty()) {
+			return null;
+		}
+		WorkspaceSymbol symbol = symbols.get(symbols.size() - 1);
+		List<WorkspaceSymbol> consumers;
+		if (symbol.getKind() == Kind.DESTINATION || symbol.getKind() == Kind.TAP) {
+			consumers = getConsumers(symbol.getName());
+		} else if (symbol.getKind() == Kind.STREAM) {
+			consumers = getTaps(symbol.getName());
+		} else {
+			consumers = Collections.emptyList();
+		}
+		return new SymbolLinks(symbol, getDefinitions(symbol), getReferences(symbol), consumers);
+	}
+
+	private List<WorkspaceSymbol> getDeclarations(Kind kind, String name) {
+		return find(name, s -> s.getKind() == kind && s.getRole() == Role.DECLARATION);
+	}
+
+	private List<WorkspaceSymbol> find(String name, Predicate<WorkspaceSymbol> filter) {
+		return workspaceSymbolIndex.getSymbolsByName(name).stream().filter(filter).collect(Collectors.toList());
+	}
+
+	/**
+	 * Definitions, references and consumers of a symbol.
+	 */
+	public static class SymbolLinks {
+
+		private final WorkspaceSymbol symbol;
+		private final List<WorkspaceSymbol> definitions;
+		private final List<WorkspaceSymbol> references;
+		private final List<WorkspaceSymbol> consumers;
+
+		SymbolLinks(WorkspaceSymbol symbol, List<WorkspaceSymbol> definitions, List<WorkspaceSymbol> references,
+				List<WorkspaceSymbol> consumers) {
+			this.symbol = symbol;
+			this.definitions = definitions;
+			this.references = references;
+			this.consumers = consumers;
+		}
+
+		public WorkspaceSymbol getSymbol() {
+			return symbol;
+		}
+
+		public List<WorkspaceSymbol> getDefinitions() {
+			return definitions;
+		}
+
+		public List<WorkspaceSymbol> getReferences() {
+			return references;
+		}
+
+		public List<WorkspaceSymbol> getConsumers() {
+			return consumers;
+		}
+	}
+}
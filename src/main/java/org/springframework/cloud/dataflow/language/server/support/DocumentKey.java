@@ -0,0 +1,75 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.dataflow.language.server.support;
+
+import java.util.Objects;
+
+import org.springframework.dsl.document.Document;
+
+/**
+ * Cache key identifying a version of a document.
+ *
+ * @author Janne Valkealahti
+ *
+ */
+public final class DocumentKey {
+
+	private final String uri;
+	private final int version;
+
+	private DocumentKey(String uri, int version) {
+		this.uri = uri;
+		this.version = version;
+	}
+
+	public static DocumentKey of(String uri, int version) {
+		return new DocumentKey(uri, version);
+	}
+
+	public static DocumentKey of(Document document) {
+		return new DocumentKey(document.uri(), document.getVersion());
+	}
+
+	public String getUri() {
+		return uri;
+	}
+
+	public int getVersion() {
+		return version;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof DocumentKey)) {
+			return false;
+		}
+		DocumentKey other = (DocumentKey) obj;
+		return version == other.version && uri.equals(other.uri);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(uri, version);
+	}
+
+	@Override
+	public String toString() {
+		return uri + "#" + version;
+	}
+}
@@ -0,0 +1,467 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.dataflow.language.server.support;
+
+import org.springframework.cloud.dataflow.language.server.DataflowLanguages;
+import org.springframework.dsl.document.DocumentText;
+
+/**
+ * Cache of a line classification of a stream or task document done in a
+ * single pass over its content. Kinds and content start offsets are kept in
+ * primitive arrays so that block scanners can walk lines without slicing line
+ * content for lines which don't end up in a parsed item.
+ * <p>
+ * This is not a document storage. Text stays in a {@code Document} given by
+ * spring-dsl, which applies edits and keeps its own line index, and these
+ * lines only describe one version of that text. A rope or a piece table here
+ * wouldn't save work done per edit as every parse is handed a whole new text
+ * anyway, which is already a linear copy. Against that an update stays
+ * within a same order, two scans to find a changed region and array copies,
+ * see {@code DocumentLinesBenchmark} in jmh sources.
+ * <p>
+ * Kinds are:
+ * <ul>
+ * <li>{@link #DEFINITION} first non whitespace character is a letter or digit</li>
+ * <li>{@link #ENV}, {@link #NAME}, {@link #DESC}, {@link #PROP} and
+ * {@link #ARG} metadata lines starting with {@code #} or {@code -}</li>
+ * <li>{@link #COMMENT} other lines starting with {@code #} or {@code -}</li>
+ * <li>{@link #BLANK} every other line, which ends a block of metadata</li>
+ * </ul>
+ * Independently from a kind, lines starting with {@code #} are flagged as
+ * comments for folding purposes.
+ * <p>
+ * Line start offsets are kept sorted so that a line of an offset is found
+ * with a binary search, and a next version of a text can be classified with
+ * {@link #update(DocumentLines, CharSequence, int, int)} touching only
+ * changed lines.
+ *
+ * @author Janne Valkealahti
+ *
+ */
+public final class DocumentLines {
+
+	public static final byte BLANK = 0;
+	public static final byte DEFINITION = 1;
+	public static final byte ENV = 2;
+	public static final byte NAME = 3;
+	public static final byte DESC = 4;
+	public static final byte PROP = 5;
+	public static final byte ARG = 6;
+	public static final byte COMMENT = 7;
+
+	private static final byte KIND_MASK = 0x0f;
+	private static final byte HASH_FLAG = 0x10;
+
+	private final byte[] kinds;
+	private final int[] contentStarts;
+	private final int[] lineStarts;
+	private final int lineCount;
+	private final int length;
+
+	private DocumentLines(byte[] kinds, int[] contentStarts, int[] lineStarts, int lineCount, int length) {
+		this.kinds = kinds;
+		this.contentStarts = contentStarts;
+		this.lineStarts = lineStarts;
+		this.lineCount = lineCount;
+		this.length = length;
+	}
+
+	/**
+	 * Classify all lines in a given text.
+	 *
+	 * @param text the document text
+	 * @return the classified lines
+	 */
+	public static DocumentLines classify(CharSequence text) {
+		int length = text.length();
+		int lineCount = 1;
+		for (int i = 0; i < length; i++) {
+			if (text.charAt(i) == '\n') {
+				lineCount++;
+			}
+		}
+		byte[] kinds = new byte[lineCount];
+		int[] contentStarts = new int[lineCount];
+		int[] lineStarts = new int[lineCount];
+		classify(text, 0, 0, lineCount, kinds, contentStarts, lineStarts);
+		return new DocumentLines(kinds, contentStarts, lineStarts, lineCount, length);
+	}
+
+	/**
+	 * Classify lines of a new version of a text against lines of its previous
+	 * version. Only lines touching a changed region between a common prefix
+	 * and a common suffix are classified again, lines before it are copied and
+	 * lines after it are copied with their offsets shifted. Arrays are still
+	 * copied as a whole, what is saved is classifying unchanged lines.
+	 *
+	 * @param previous the lines of a previous version
+	 * @param text the new version of a text
+	 * @param prefix the length of a common prefix of both versions
+	 * @param suffix the length of a common suffix of both versions
+	 * @return the classified lines
+	 */
+	public static DocumentLines update(DocumentLines previous, CharSequence text, int prefix, int suffix) {
+		int length = text.length();
+		int startLine = previous.getLine(prefix);
+		int previousEndLine = previous.getLine(previous.length - suffix);
+		int start = previous.lineStarts[startLine];
+		int changeEnd = length - suffix;
+		int changedLines = 1;
+		for (int i = start; i < changeEnd; i++) {
+			if (text.charAt(i) == '\n') {
+				changedLines++;
+			}
+		}
+		int tailLines = previous.lineCount - 1 - previousEndLine;
+		int lineCount = startLine + changedLines + tailLines;
+		byte[] kinds = new byte[lineCount];
+		int[] contentStarts = new int[lineCount];
+		int[] lineStarts = new int[lineCount];
+		System.arraycopy(previous.kinds, 0, kinds, 0, startLine);
+		System.arraycopy(previous.contentStarts, 0, contentStarts, 0, startLine);
+		System.arraycopy(previous.lineStarts, 0, lineStarts, 0, startLine);
+		classify(text, start, startLine, changedLines, kinds, contentStarts, lineStarts);
+		int tailStart = startLine + changedLines;
+		System.arraycopy(previous.kinds, previousEndLine + 1, kinds, tailStart, tailLines);
+		System.arraycopy(previous.contentStarts, previousEndLine + 1, contentStarts, tailStart, tailLines);
+		int offsetDelta = length - previous.length;
+		for (int i = 0; i < tailLines; i++) {
+			lineStarts[tailStart + i] = previous.lineStarts[previousEndLine + 1 + i] + offsetDelta;
+		}
+		return new DocumentLines(kinds, contentStarts, lineStarts, lineCount, length);
+	}
+
+	/**
+	 * Gets a length of a common prefix of two versions of a text.
+	 *
+	 * @param left the previous version
+	 * @param right the new version
+	 * @return the common prefix length
+	 */
+	public static int commonPrefixLength(CharSequence left, CharSequence right) {
+		int min = Math.min(left.length(), right.length());
+		for (int i = 0; i < min; i++) {
+			if (left.charAt(i) != right.charAt(i)) {
+				return i;
+			}
+		}
+		return min;
+	}
+
+	/**
+	 * Gets a length of a common suffix of two versions of a text not
+	 * overlapping with their common prefix.
+	 *
+	 * @param left the previous version
+	 * @param right the new version
+	 * @param prefix the common prefix length
+	 * @return the common suffix length
+	 */
+	public static int commonSuffixLength(CharSequence left, CharSequence right, int prefix) {
+		int max = Math.min(left.length(), right.length()) - prefix;
+		for (int i = 0; i < max; i++) {
+			if (left.charAt(left.length() - 1 - i) != right.charAt(right.length() - 1 - i)) {
+				return i;
+			}
+		}
+		return max;
+	}
+
+	private static void classify(CharSequence text, int start, int firstLine, int count, byte[] kinds,
+			int[] contentStarts, int[] lineStarts) {
+		int length = text.length();
+		int lineStart = start;
+		for (int line = firstLine; line < firstLine + count; line++) {
+			lineStarts[line] = lineStart;
+			int lineEnd = lineStart;
+			while (lineEnd < length && text.charAt(lineEnd) != '\n') {
+				lineEnd++;
+			}
+			int next = lineEnd + 1;
+			if (lineEnd > lineStart && text.charAt(lineEnd - 1) == '\r') {
+				lineEnd--;
+			}
+			classify(text, lineStart, lineEnd, line, kinds, contentStarts);
+			lineStart = next;
+		}
+	}
+
+	private static void classify(CharSequence text, int start, int end, int line, byte[] kinds, int[] contentStarts) {
+		contentStarts[line] = -1;
+		int first = start;
+		while (first < end && Character.isWhitespace(text.charAt(first))) {
+			first++;
+		}
+		if (first == end) {
+			kinds[line] = BLANK;
+			return;
+		}
+		char c = text.charAt(first);
+		if (Character.isLetterOrDigit(c)) {
+			kinds[line] = DEFINITION;
+			return;
+		}
+		byte flag = c == '#' ? HASH_FLAG : 0;
+		if (end - first > 2 && (c == '#' || c == '-')) {
+			int contentStart = findContentStart(text, start, end);
+			contentStarts[line] = contentStart;
+			byte kind = COMMENT;
+			if (contentStart > -1) {
+				int offset = start + contentStart;
+				if (startsWith(text, offset, end, DataflowLanguages.TEXT_ENV_PREFIX)) {
+					kind = ENV;
+				} else if (startsWith(text, offset, end, DataflowLanguages.TEXT_NAME_PREFIX)) {
+					kind = NAME;
+				} else if (startsWith(text, offset, end, DataflowLanguages.TEXT_DESC_PREFIX)) {
+					kind = DESC;
+				} else if (startsWith(text, offset, end, DataflowLanguages.TEXT_PROP_PREFIX)) {
+					kind = PROP;
+				} else if (startsWith(text, offset, end, DataflowLanguages.TEXT_ARG_PREFIX)) {
+					kind = ARG;
+				}
+			}
+			kinds[line] = (byte) (kind | flag);
+		} else {
+			kinds[line] = (byte) (BLANK | flag);
+		}
+	}
+
+	private static int findContentStart(CharSequence text, int start, int end) {
+		for (int i = start; i < end; i++) {
+			char c = text.charAt(i);
+			if (c == '@' || Character.isLetterOrDigit(c)) {
+				return i - start;
+			}
+		}
+		return -1;
+	}
+
+	private static boolean startsWith(CharSequence text, int offset, int end, DocumentText prefix) {
+		int length = prefix.length();
+		if (end - offset < length) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			if (text.charAt(offset + i) != prefix.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Gets start lines of blocks in a document, a block being every line
+	 * following a previous definition line up to and including a next
+	 * definition line. Last block may not contain a definition.
+	 *
+	 * @param lineCount the number of lines in a document
+	 * @return the block start lines
+	 */
+	public int[] getBlockStarts(int lineCount) {
+		int count = 1;
+		int max = Math.min(lineCount, this.lineCount);
+		for (int line = 0; line < max; line++) {
+			if (getKind(line) == DEFINITION) {
+				count++;
+			}
+		}
+		int[] starts = new int[count];
+		int index = 1;
+		for (int line = 0; line < max; line++) {
+			if (getKind(line) == DEFINITION) {
+				starts[index++] = line + 1;
+			}
+		}
+		return starts;
+	}
+
+	/**
+	 * Gets a line containing an offset in a classified text, found with a
+	 * binary search over line start offsets. Offsets past a text end are on
+	 * a last line.
+	 *
+	 * @param offset the offset
+	 * @return the line
+	 */
+	public int getLine(int offset) {
+		int low = 0;
+		int high = lineCount - 1;
+		while (low < high) {
+			int mid = (low + high + 1) >>> 1;
+			if (lineStarts[mid] <= offset) {
+				low = mid;
+			} else {
+				high = mid - 1;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Gets a number of classified lines.
+	 *
+	 * @return the line count
+	 */
+	public int getLineCount() {
+		return lineCount;
+	}
+
+	/**
+	 * Gets a kind of a line, lines outside of a classified text are
+	 * {@link #BLANK}.
+	 *
+	 * @param line the line
+	 * @return the kind of a line
+	 */
+	public byte getKind(int line) {
+		if (line < 0 || line >= lineCount) {
+			return BLANK;
+		}
+		return (byte) (kinds[line] & KIND_MASK);
+	}
+
+	/**
+	 * Checks if a line is a comment, meaning its first non whitespace
+	 * character is {@code #}.
+	 *
+	 * @param line the line
+	 * @return true if line is a comment
+	 */
+	public boolean isComment(int line) {
+		if (line < 0 || line >= lineCount) {
+			return false;
+		}
+		return (kinds[line] & HASH_FLAG) != 0;
+	}
+
+	/**
+	 * Gets a position of a first {@code @}, letter or digit in a metadata or
+	 * comment line or {@code -1} if not found or a line is of other kind.
+	 *
+	 * @param line the line
+	 * @return the content start position
+	 */
+	public int getContentStart(int line) {
+		if (line < 0 || line >= lineCount) {
+			return -1;
+		}
+		return contentStarts[line];
+	}
+
+	/**
+	 * Gets an offset of a first character of a line in a classified text or
+	 * {@code -1} if line is outside of it.
+	 *
+	 * @param line the line
+	 * @return the line start offset
+	 */
+	public int getLineStart(int line) {
+		if (line < 0 || line >= lineCount) {
+			return -1;
+		}
+		return lineStarts[line];
+	}
+
+	/**
+	 * Gets a value of a metadata line in a classified text, that is text after
+	 * its keyword without surrounding whitespace. For {@link #PROP} lines a
+	 * value is text after a first {@code =} and {@code null} without one.
+	 * Other kinds of lines have no value.
+	 *
+	 * @param text the classified text
+	 * @param line the line
+	 * @param length the line length
+	 * @return the metadata value or {@code null}
+	 */
+	public String getValue(DocumentText text, int line, int length) {
+		int start = getKeywordEnd(line);
+		if (start < 0) {
+			return null;
+		}
+		int end = getLineStart(line) + length;
+		if (getKind(line) == PROP) {
+			int separator = indexOf(text, '=', start, end);
+			if (separator < 0) {
+				return null;
+			}
+			start = separator + 1;
+		}
+		return trim(text, start, end);
+	}
+
+	/**
+	 * Gets a property key of a {@link #PROP} line in a classified text, that
+	 * is text between its keyword and a first {@code =}. Lines without
+	 * {@code =} and other kinds of lines have no key.
+	 *
+	 * @param text the classified text
+	 * @param line the line
+	 * @param length the line length
+	 * @return the property key or {@code null}
+	 */
+	public String getKey(DocumentText text, int line, int length) {
+		if (getKind(line) != PROP) {
+			return null;
+		}
+		int start = getKeywordEnd(line);
+		int separator = indexOf(text, '=', start, getLineStart(line) + length);
+		if (separator < 0) {
+			return null;
+		}
+		return trim(text, start, separator);
+	}
+
+	private int getKeywordEnd(int line) {
+		int contentStart = getContentStart(line);
+		if (contentStart < 0) {
+			return -1;
+		}
+		int start = getLineStart(line) + contentStart;
+		switch (getKind(line)) {
+			case ENV:
+				return start + DataflowLanguages.TEXT_ENV_PREFIX.length();
+			case NAME:
+				return start + DataflowLanguages.TEXT_NAME_PREFIX.length();
+			case DESC:
+				return start + DataflowLanguages.TEXT_DESC_PREFIX.length();
+			case PROP:
+				return start + DataflowLanguages.TEXT_PROP_PREFIX.length();
+			case ARG:
+				return start + DataflowLanguages.TEXT_ARG_PREFIX.length();
+			default:
+				return -1;
+		}
+	}
+
+	private static int indexOf(DocumentText text, char c, int start, int end) {
+		for (int i = start; i < end; i++) {
+			if (text.charAt(i) == c) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static String trim(DocumentText text, int start, int end) {
+		while (start < end && Character.isWhitespace(text.charAt(start))) {
+			start++;
+		}
+		while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+			end--;
+		}
+		return text.subtext(start, end).toString();
+	}
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.dataflow.language.server.support;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import org.springframework.dsl.document.Document;
+
+/**
+ * Cache of values computed from document versions. Only a highest computed
+ * version of a document is kept, lower versions are evicted as soon as a
+ * value is computed and a value of a lower version finishing after a higher
+ * one is returned but not kept. A version a client starts over from after
+ * reopening a document is handled by invalidating a document on a reset of
+ * {@link DocumentVersionTracker}. Entries are weighted by a document line
+ * count and a total weight is bounded.
+ *
+ * @author Janne Valkealahti
+ *
+ * @param <V> the type of cached values
+ */
+public class DocumentVersionCache<V> {
+
+	private final Cache<DocumentKey, Entry<V>> cache;
+
+	public DocumentVersionCache(long maximumWeight) {
+		this.cache = Caffeine.newBuilder()
+			.maximumWeight(maximumWeight)
+			.weigher((DocumentKey key, Entry<V> entry) -> entry.weight)
+			.expireAfterAccess(Duration.ofMinutes(1))
+			.recordStats()
+			.build();
+	}
+
+	/**
+	 * Get a value of a document version, computing it if not cached.
+	 *
+	 * @param document the document
+	 * @param mappingFunction the function computing a value
+	 * @return the value
+	 */
+	public V get(Document document, Function<DocumentKey, V> mappingFunction) {
+		DocumentKey documentKey = DocumentKey.of(document);
+		int weight = Math.max(1, document.lineCount());
+		boolean[] computed = new boolean[1];
+		Entry<V> entry = cache.get(documentKey, key -> {
+			computed[0] = true;
+			return new Entry<>(mappingFunction.apply(key), weight);
+		});
+		if (computed[0]) {
+			evictOlderVersions(documentKey, entry);
+		}
+		return entry.value;
+	}
+
+	/**
+	 * Get a value of a document version if cached.
+	 *
+	 * @param key the document key
+	 * @return the value or {@code null}
+	 */
+	public V getIfPresent(DocumentKey key) {
+		Entry<V> entry = cache.getIfPresent(key);
+		return entry != null ? entry.value : null;
+	}
+
+	/**
+	 * Invalidate all versions of a document.
+	 *
+	 * @param uri the document uri
+	 */
+	public void invalidate(String uri) {
+		cache.asMap().keySet().removeIf(key -> key.getUri().equals(uri));
+	}
+
+	public void invalidateAll() {
+		cache.invalidateAll();
+	}
+
+	/**
+	 * Perform pending maintenance like size based eviction.
+	 */
+	public void cleanUp() {
+		cache.cleanUp();
+	}
+
+	public long estimatedSize() {
+		return cache.estimatedSize();
+	}
+
+	public CacheStats stats() {
+		return cache.stats();
+	}
+
+	void setMaximumWeight(long maximumWeight) {
+		cache.policy().eviction().ifPresent(eviction -> eviction.setMaximum(maximumWeight));
+	}
+
+	private void evictOlderVersions(DocumentKey documentKey, Entry<V> entry) {
+		boolean[] newer = new boolean[1];
+		cache.asMap().keySet().removeIf(key -> {
+			if (!key.getUri().equals(documentKey.getUri())) {
+				return false;
+			}
+			if (key.getVersion() > documentKey.getVersion()) {
+				newer[0] = true;
+			}
+			return key.getVersion() < documentKey.getVersion();
+		});
+		if (newer[0]) {
+			// a higher version was computed first, don't let this one replace it
+			cache.asMap().remove(documentKey, entry);
+		}
+	}
+
+	private static class Entry<V> {
+
+		final V value;
+		final int weight;
+
+		Entry(V value, int weight) {
+			this.value = value;
+			this.weight = weight;
+		}
+	}
+}
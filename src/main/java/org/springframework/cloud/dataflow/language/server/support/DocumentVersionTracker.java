@@ -0,0 +1,267 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.dataflow.language.server.support;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dsl.document.Document;
+import org.springframework.dsl.document.DocumentText;
+import org.springframework.stereotype.Component;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+
+/**
+ * Tracks a latest known version of every document uri so that lint work done
+ * for older versions can be dropped via {@link #supersedable(Document, Flux)}
+ * when a newer version arrives. Only a lint stops early, steps it has not yet
+ * started are skipped and results of running ones are ignored. Parsing itself
+ * is never cancelled as parsed items are shared by every service asking for a
+ * same version, and a blocking registry call already in flight is not
+ * interrupted.
+ * <p>
+ * A client starts versions of a document over when it is closed and opened
+ * again. A close is told via {@link #close(String)}, and as open
+ * notifications are not seen here, a version lower than a tracked one, a
+ * same version with other content or any version of a closed document
+ * starts a new epoch for a document. Versions of previous epochs up to a highest one seen
+ * stay superseded and listeners added via
+ * {@link #addResetListener(Consumer)} are told to drop what they keep for a
+ * document. Only a version, a length and a hash of a content are kept per
+ * document uri, never a document itself.
+ *
+ * @author Janne Valkealahti
+ *
+ */
+@Component
+public class DocumentVersionTracker {
+
+	private static final Logger log = LoggerFactory.getLogger(DocumentVersionTracker.class);
+	private final ConcurrentMap<String, TrackedVersion> versions = new ConcurrentHashMap<>();
+	private final List<Consumer<String>> resetListeners = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Add a listener called with a document uri when tracking of it starts
+	 * over from a reopened document. Listeners are called synchronously from
+	 * a call which resets tracking.
+	 *
+	 * @param listener the reset listener
+	 */
+	public void addResetListener(Consumer<String> listener) {
+		resetListeners.add(listener);
+	}
+
+	/**
+	 * Track a version of a document. If it is newer than a currently tracked
+	 * version, work for all older versions is signalled to be superseded. A
+	 * lower version, or a same version with other content, means a document
+	 * was reopened and starts a new epoch.
+	 *
+	 * @param document the document
+	 */
+	public void track(Document document) {
+		String uri = document.uri();
+		int version = document.getVersion();
+		DocumentText content = document.content();
+		int length = content.length();
+		int hash = hash(content);
+		TrackedVersion current = versions.get(uri);
+		while (true) {
+			TrackedVersion next;
+			boolean reopened = false;
+			if (current == null) {
+				next = new TrackedVersion(version, length, hash, -1, false);
+			} else if (current.closed) {
+				next = new TrackedVersion(version, length, hash, Math.max(current.floor, current.version), false);
+				reopened = true;
+			} else if (current.version < version) {
+				next = new TrackedVersion(version, length, hash, current.floor, false);
+			} else if (current.version > version || current.length != length || current.hash != hash) {
+				next = new TrackedVersion(version, length, hash, Math.max(current.floor, current.version), false);
+				reopened = true;
+			} else {
+				return;
+			}
+			boolean replaced = current == null ? versions.putIfAbsent(uri, next) == null
+					: versions.replace(uri, current, next);
+			if (replaced) {
+				if (current != null && !current.closed) {
+					log.debug("Document {} version {} superseded by {}", uri, current.version, version);
+					current.superseded.onNext(version);
+				}
+				if (reopened) {
+					log.debug("Document {} reopened at version {}", uri, version);
+					notifyReset(uri);
+				}
+				return;
+			}
+			current = versions.get(uri);
+		}
+	}
+
+	/**
+	 * Mark a document closed in an editor. Work for any of its versions is
+	 * signalled to be superseded and listeners added via
+	 * {@link #addResetListener(Consumer)} are told to drop what they keep for
+	 * a document, so that its content on a disk is used again.
+	 *
+	 * @param uri the document uri
+	 */
+	public void close(String uri) {
+		TrackedVersion current = versions.get(uri);
+		while (current != null && !current.closed) {
+			TrackedVersion next = new TrackedVersion(current.version, current.length, current.hash, current.floor,
+					true);
+			if (versions.replace(uri, current, next)) {
+				log.debug("Document {} closed at version {}", uri, current.version);
+				current.superseded.onNext(current.version);
+				notifyReset(uri);
+				return;
+			}
+			current = versions.get(uri);
+		}
+	}
+
+	/**
+	 * Checks if a document uri is tracked, meaning it is currently open in an
+	 * editor. A document stops being tracked once it is closed.
+	 *
+	 * @param uri the document uri
+	 * @return true if document is tracked
+	 */
+	public boolean isTracked(String uri) {
+		TrackedVersion current = versions.get(uri);
+		return current != null && !current.closed;
+	}
+
+	/**
+	 * Checks if a newer version of a document is known, a document is from
+	 * an epoch before it was last reopened or it has been closed.
+	 *
+	 * @param document the document
+	 * @return true if document version is superseded
+	 */
+	public boolean isSuperseded(Document document) {
+		TrackedVersion current = versions.get(document.uri());
+		return current != null && current.supersedes(document);
+	}
+
+	/**
+	 * Gets a {@link Mono} emitting once a newer version of a document arrives.
+	 * Emits immediately if version is already superseded and never if a
+	 * document is not tracked.
+	 *
+	 * @param document the document
+	 * @return the mono emitting a newer version
+	 */
+	public Mono<Integer> superseded(Document document) {
+		TrackedVersion current = versions.get(document.uri());
+		if (current == null) {
+			return Mono.never();
+		} else if (current.supersedes(document)) {
+			return Mono.just(current.version);
+		} else if (current.version < document.getVersion()) {
+			// version not tracked yet, nothing newer can exist
+			return Mono.never();
+		}
+		return current.superseded;
+	}
+
+	/**
+	 * Wrap work done for a document version so that a subscription to it is
+	 * cancelled when a newer version arrives. Cancelling only stops upstream
+	 * steps which are not yet started, a step already running on a scheduler,
+	 * like a parse or a registry call, runs to its end and its result is
+	 * ignored. Results are held back until work completes and cancelled work
+	 * completes empty, so partial results are never published and a
+	 * superseded version doesn't push an error to a client.
+	 *
+	 * @param <T> the type of flux items
+	 * @param document the document
+	 * @param flux the flux
+	 * @return the flux completing empty when a document is superseded
+	 */
+	public <T> Flux<T> supersedable(Document document, Flux<T> flux) {
+		return flux
+			.takeUntilOther(superseded(document))
+			.collectList()
+			.flatMapMany(items -> {
+				if (isSuperseded(document)) {
+					log.debug("Dropping results of document {} version {} as it is superseded", document.uri(),
+							document.getVersion());
+					return Flux.empty();
+				}
+				return Flux.fromIterable(items);
+			});
+	}
+
+	private static int hash(DocumentText content) {
+		int hash = 0;
+		for (int i = 0; i < content.length(); i++) {
+			hash = 31 * hash + content.charAt(i);
+		}
+		return hash;
+	}
+
+	private void notifyReset(String uri) {
+		for (Consumer<String> listener : resetListeners) {
+			try {
+				listener.accept(uri);
+			} catch (Exception e) {
+				log.warn("Reset listener failed for {}", uri, e);
+			}
+		}
+	}
+
+	private static class TrackedVersion {
+
+		final int version;
+		final int length;
+		final int hash;
+		// highest version of previous epochs, -1 if never reopened
+		final int floor;
+		final boolean closed;
+		final MonoProcessor<Integer> superseded = MonoProcessor.create();
+
+		TrackedVersion(int version, int length, int hash, int floor, boolean closed) {
+			this.version = version;
+			this.length = length;
+			this.hash = hash;
+			this.floor = floor;
+			this.closed = closed;
+		}
+
+		boolean supersedes(Document other) {
+			if (closed) {
+				return true;
+			}
+			int otherVersion = other.getVersion();
+			if (otherVersion < version) {
+				return true;
+			} else if (otherVersion == version) {
+				return false;
+			}
+			return otherVersion <= floor;
+		}
+	}
+}
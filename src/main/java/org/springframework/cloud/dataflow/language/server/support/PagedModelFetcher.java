@@ -0,0 +1,104 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.dataflow.language.server.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.PagedModel.PageMetadata;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Fetches content of all pages of a paged resource when a first page is
+ * known. A total page count is read from a first page and remaining pages
+ * are requested concurrently, content is returned in page order.
+ *
+ * @author Janne Valkealahti
+ *
+ */
+public final class PagedModelFetcher {
+
+	private PagedModelFetcher() {
+	}
+
+	/**
+	 * Fetch content of all pages, blocking until all are fetched. Only a first
+	 * page is used if it doesn't know a total page count.
+	 *
+	 * @param <T> the type of a content
+	 * @param first the first page
+	 * @param pages the function fetching a page by its zero based number
+	 * @param concurrency the maximum number of pages fetched concurrently
+	 * @return the content of all pages
+	 */
+	public static <T> List<T> fetchAll(PagedModel<T> first, IntFunction<? extends PagedModel<T>> pages,
+			int concurrency) {
+		List<T> content = new ArrayList<>(first.getContent());
+		PageMetadata metadata = first.getMetadata();
+		if (metadata == null || pages == null || metadata.getTotalPages() <= metadata.getNumber() + 1) {
+			return content;
+		}
+		int from = (int) metadata.getNumber() + 1;
+		int count = (int) metadata.getTotalPages() - from;
+		List<T> rest = Flux.range(from, count)
+			.flatMapSequential(page -> Mono.fromCallable(() -> pages.apply(page))
+				.subscribeOn(Schedulers.boundedElastic()), Math.max(1, concurrency))
+			.concatMapIterable(page -> page.getContent())
+			.collectList()
+			.block();
+		if (rest != null) {
+			content.addAll(rest);
+		}
+		return content;
+	}
+
+	/**
+	 * Gets a function fetching pages of a same resource and size as a given
+	 * page by replacing a page number in its self link.
+	 *
+	 * @param <T> the type of a content
+	 * @param <P> the type of a page
+	 * @param page the known page
+	 * @param restTemplate the rest template
+	 * @param pageType the type of a page
+	 * @return the page function, {@code null} if page doesn't link to itself
+	 */
+	public static <T, P extends PagedModel<T>> IntFunction<P> pages(PagedModel<T> page, RestTemplate restTemplate,
+			Class<P> pageType) {
+		Link self = page.getLink(IanaLinkRelations.SELF).orElse(null);
+		if (self == null || restTemplate == null) {
+			return null;
+		}
+		String href = self.expand().getHref();
+		PageMetadata metadata = page.getMetadata();
+		return number -> {
+			UriComponentsBuilder builder = UriComponentsBuilder.fromUriString(href).replaceQueryParam("page", number);
+			if (metadata != null) {
+				builder.replaceQueryParam("size", metadata.getSize());
+			}
+			return restTemplate.getForObject(builder.build().toUri(), pageType);
+		};
+	}
+}
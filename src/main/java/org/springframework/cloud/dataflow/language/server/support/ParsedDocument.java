@@ -0,0 +1,58 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.dataflow.language.server.support;
+
+import java.util.List;
+
+/**
+ * Snapshot of a parsed document version keeping its raw content together with
+ * its classified lines and items parsed from it so that a next version can be
+ * classified and parsed against it.
+ *
+ * @author Janne Valkealahti
+ *
+ * @param <T> the type of parsed items
+ */
+public class ParsedDocument<T> {
+
+	private final int version;
+	private final String content;
+	private final DocumentLines lines;
+	private final List<T> items;
+
+	public ParsedDocument(int version, String content, DocumentLines lines, List<T> items) {
+		this.version = version;
+		this.content = content;
+		this.lines = lines;
+		this.items = items;
+	}
+
+	public int getVersion() {
+		return version;
+	}
+
+	public String getContent() {
+		return content;
+	}
+
+	public DocumentLines getLines() {
+		return lines;
+	}
+
+	public List<T> getItems() {
+		return items;
+	}
+}
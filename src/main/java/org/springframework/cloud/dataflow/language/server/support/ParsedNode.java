@@ -0,0 +1,58 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.dataflow.language.server.support;
+
+/**
+ * Outcome of parsing a single definition text, either a parsed node or a
+ * position and message of a parse error. Positions are relative to a parsed
+ * text so that a same result can be shared between lines and documents.
+ *
+ * @author Janne Valkealahti
+ *
+ * @param <T> the type of a parsed node
+ */
+public class ParsedNode<T> {
+
+	private final T node;
+	private final int errorPosition;
+	private final String errorMessage;
+
+	private ParsedNode(T node, int errorPosition, String errorMessage) {
+		this.node = node;
+		this.errorPosition = errorPosition;
+		this.errorMessage = errorMessage;
+	}
+
+	public static <T> ParsedNode<T> of(T node) {
+		return new ParsedNode<>(node, -1, null);
+	}
+
+	public static <T> ParsedNode<T> error(int position, String message) {
+		return new ParsedNode<>(null, position, message);
+	}
+
+	public T getNode() {
+		return node;
+	}
+
+	public int getErrorPosition() {
+		return errorPosition;
+	}
+
+	public String getErrorMessage() {
+		return errorMessage;
+	}
+}
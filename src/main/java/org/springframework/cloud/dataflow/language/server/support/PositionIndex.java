@@ -0,0 +1,174 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.dataflow.language.server.support;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.dsl.domain.Position;
+import org.springframework.dsl.domain.Range;
+
+/**
+ * Index of items having a {@link Range} answering which items contain a
+ * {@link Position}. Ranges are kept as position keys, a line in high and a
+ * character in low 32 bits of a {@code long}, sorted by their start together with a running maximum of their ends, so a lookup is a
+ * binary search followed by a backwards walk which stops once no earlier
+ * range can reach a position. With non overlapping ranges like document
+ * blocks that walk is a single step and with symbols nested within a line
+ * it is bound by symbols on that line. Both ends of a range are inclusive.
+ * <p>
+ * Results are in an order items were given which keeps lookups compatible
+ * with a linear scan. Items without a range are never found.
+ *
+ * @author Janne Valkealahti
+ *
+ * @param <T> the type of indexed items
+ */
+public final class PositionIndex<T> {
+
+	private final List<T> items;
+	private final int[] order;
+	private final long[] starts;
+	private final long[] ends;
+	private final long[] maxEnds;
+
+	private PositionIndex(List<T> items, int[] order, long[] starts, long[] ends, long[] maxEnds) {
+		this.items = items;
+		this.order = order;
+		this.starts = starts;
+		this.ends = ends;
+		this.maxEnds = maxEnds;
+	}
+
+	/**
+	 * Build an index.
+	 *
+	 * @param <T> the type of indexed items
+	 * @param items the items
+	 * @param range the function resolving a range of an item
+	 * @return the position index
+	 */
+	public static <T> PositionIndex<T> of(List<T> items, Function<? super T, Range> range) {
+		int size = items.size();
+		long[] itemStarts = new long[size];
+		long[] itemEnds = new long[size];
+		List<Integer> indexed = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			Range r = range.apply(items.get(i));
+			if (r == null || r.getStart() == null || r.getEnd() == null) {
+				continue;
+			}
+			itemStarts[i] = key(r.getStart());
+			itemEnds[i] = key(r.getEnd());
+			indexed.add(i);
+		}
+		indexed.sort(Comparator.comparingLong((Integer i) -> itemStarts[i]).thenComparingInt(i -> i));
+		int count = indexed.size();
+		int[] order = new int[count];
+		long[] starts = new long[count];
+		long[] ends = new long[count];
+		long[] maxEnds = new long[count];
+		long maxEnd = Long.MIN_VALUE;
+		for (int i = 0; i < count; i++) {
+			int index = indexed.get(i);
+			order[i] = index;
+			starts[i] = itemStarts[index];
+			ends[i] = itemEnds[index];
+			maxEnd = Math.max(maxEnd, ends[i]);
+			maxEnds[i] = maxEnd;
+		}
+		return new PositionIndex<>(items, order, starts, ends, maxEnds);
+	}
+
+	/**
+	 * Find a first item containing a position.
+	 *
+	 * @param position the position
+	 * @return the item or {@code null} if none found
+	 */
+	public T find(Position position) {
+		long key = key(position);
+		int found = -1;
+		for (int i = lastStartingAtOrBefore(key); i >= 0 && maxEnds[i] >= key; i--) {
+			if (ends[i] >= key && (found < 0 || order[i] < found)) {
+				found = order[i];
+			}
+		}
+		return found < 0 ? null : items.get(found);
+	}
+
+	/**
+	 * Find all items containing a position.
+	 *
+	 * @param position the position
+	 * @return the items in their original order
+	 */
+	public List<T> findAll(Position position) {
+		long key = key(position);
+		int[] found = new int[8];
+		int count = 0;
+		for (int i = lastStartingAtOrBefore(key); i >= 0 && maxEnds[i] >= key; i--) {
+			if (ends[i] >= key) {
+				if (count == found.length) {
+					found = Arrays.copyOf(found, count * 2);
+				}
+				found[count++] = order[i];
+			}
+		}
+		if (count == 0) {
+			return Collections.emptyList();
+		}
+		Arrays.sort(found, 0, count);
+		List<T> result = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			result.add(items.get(found[i]));
+		}
+		return result;
+	}
+
+	/**
+	 * Gets a number of indexed items, that is items having a range.
+	 *
+	 * @return the number of indexed items
+	 */
+	public int size() {
+		return order.length;
+	}
+
+	private static long key(Position position) {
+		return ((long) position.getLine() << 32) | (position.getCharacter() & 0xffffffffL);
+	}
+
+	private int lastStartingAtOrBefore(long key) {
+		int low = 0;
+		int high = starts.length - 1;
+		int result = -1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			if (starts[mid] <= key) {
+				result = mid;
+				low = mid + 1;
+			} else {
+				high = mid - 1;
+			}
+		}
+		return result;
+	}
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.dataflow.language.server.support;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.dsl.symboltable.Symbol;
+
+/**
+ * Multimap from a symbol name to symbols having it, both over all symbols
+ * and split by a symbol kind. Kinds are resolved by a function given when
+ * an index is built and symbols it resolves no kind for are left out.
+ * Symbols of a name are kept in an order they were given.
+ *
+ * @author Janne Valkealahti
+ *
+ */
+public final class SymbolNameIndex {
+
+	private final Map<String, List<Symbol>> byName;
+	private final Map<Object, Map<String, List<Symbol>>> byKind;
+
+	private SymbolNameIndex(Map<String, List<Symbol>> byName, Map<Object, Map<String, List<Symbol>>> byKind) {
+		this.byName = byName;
+		this.byKind = byKind;
+	}
+
+	/**
+	 * Build an index.
+	 *
+	 * @param symbols the symbols
+	 * @param kind the function resolving a kind of a symbol
+	 * @return the symbol name index
+	 */
+	public static SymbolNameIndex of(Collection<? extends Symbol> symbols, Function<Symbol, ?> kind) {
+		Map<String, List<Symbol>> byName = new HashMap<>();
+		Map<Object, Map<String, List<Symbol>>> byKind = new HashMap<>();
+		for (Symbol symbol : symbols) {
+			Object k = kind.apply(symbol);
+			if (k == null) {
+				continue;
+			}
+			byName.computeIfAbsent(symbol.getName(), name -> new ArrayList<>()).add(symbol);
+			byKind.computeIfAbsent(k, x -> new HashMap<>())
+				.computeIfAbsent(symbol.getName(), name -> new ArrayList<>())
+				.add(symbol);
+		}
+		return new SymbolNameIndex(byName, byKind);
+	}
+
+	/**
+	 * Gets symbols of any kind having a name.
+	 *
+	 * @param name the symbol name
+	 * @return the symbols, empty if none
+	 */
+	public List<Symbol> get(String name) {
+		return Collections.unmodifiableList(byName.getOrDefault(name, Collections.emptyList()));
+	}
+
+	/**
+	 * Gets symbols of a kind having a name.
+	 *
+	 * @param kind the symbol kind
+	 * @param name the symbol name
+	 * @return the symbols, empty if none
+	 */
+	public List<Symbol> get(Object kind, String name) {
+		Map<String, List<Symbol>> names = byKind.get(kind);
+		if (names == null) {
+			return Collections.emptyList();
+		}
+		return Collections.unmodifiableList(names.getOrDefault(name, Collections.emptyList()));
+	}
+}
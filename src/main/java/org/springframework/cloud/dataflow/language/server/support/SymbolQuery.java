@@ -0,0 +1,109 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.dataflow.language.server.support;
+
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.springframework.dsl.symboltable.Symbol;
+import org.springframework.util.StringUtils;
+
+/**
+ * Symbol query compiled once into a filter applied to every symbol.
+ * <p>
+ * A query starting with a known prefix character matches symbols of a type
+ * registered for that prefix whose name starts with rest of a query. Any
+ * other query matches symbols whose name contains it ignoring case, resolved
+ * up front from a {@link SymbolTrigramIndex} so that applying it per symbol
+ * is a single set lookup. An empty query matches everything.
+ *
+ * @author Janne Valkealahti
+ *
+ */
+public abstract class SymbolQuery implements Function<Symbol, Boolean> {
+
+	private static final SymbolQuery ALL = new SymbolQuery() {
+
+		@Override
+		public Boolean apply(Symbol symbol) {
+			return true;
+		}
+	};
+
+	/**
+	 * Compile a query.
+	 *
+	 * @param query the query
+	 * @param prefixes the symbol types keyed by their query prefix character
+	 * @param index the trigram index over symbols a query is applied to
+	 * @return the compiled query
+	 */
+	public static SymbolQuery compile(String query, Map<Character, Class<? extends Symbol>> prefixes,
+			SymbolTrigramIndex<Symbol> index) {
+		if (!StringUtils.hasText(query)) {
+			return ALL;
+		}
+		Class<? extends Symbol> type = prefixes.get(query.charAt(0));
+		if (type != null) {
+			return new TypeQuery(type, query.substring(1));
+		}
+		return new NameQuery(index.find(query.toLowerCase(Locale.ROOT)));
+	}
+
+	/**
+	 * Compile a query without type prefixes.
+	 *
+	 * @param query the query
+	 * @param index the trigram index over symbols a query is applied to
+	 * @return the compiled query
+	 */
+	public static SymbolQuery compile(String query, SymbolTrigramIndex<Symbol> index) {
+		return compile(query, Collections.emptyMap(), index);
+	}
+
+	private static class TypeQuery extends SymbolQuery {
+
+		private final Class<? extends Symbol> type;
+		private final String prefix;
+
+		TypeQuery(Class<? extends Symbol> type, String prefix) {
+			this.type = type;
+			this.prefix = prefix;
+		}
+
+		@Override
+		public Boolean apply(Symbol symbol) {
+			return type.isInstance(symbol) && (prefix.isEmpty() || symbol.getName().startsWith(prefix));
+		}
+	}
+
+	private static class NameQuery extends SymbolQuery {
+
+		private final Set<Symbol> matches;
+
+		NameQuery(Set<Symbol> matches) {
+			this.matches = matches;
+		}
+
+		@Override
+		public Boolean apply(Symbol symbol) {
+			return matches.contains(symbol);
+		}
+	}
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.dataflow.language.server.support;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.springframework.dsl.symboltable.Symbol;
+
+/**
+ * Trigram index over lower cased symbol names. A substring query of at
+ * least three characters only needs to check names having every trigram of
+ * a query, found by intersecting sorted posting lists of name ids. Shorter
+ * queries can't be narrowed down and are checked against all names.
+ *
+ * @author Janne Valkealahti
+ *
+ * @param <T> the type of indexed symbols
+ */
+public final class SymbolTrigramIndex<T> {
+
+	private static final int[] EMPTY = new int[0];
+	private final String[] names;
+	private final List<List<T>> symbols;
+	private final Map<String, int[]> postings;
+
+	private SymbolTrigramIndex(String[] names, List<List<T>> symbols, Map<String, int[]> postings) {
+		this.names = names;
+		this.symbols = symbols;
+		this.postings = postings;
+	}
+
+	/**
+	 * Build an index over symbols.
+	 *
+	 * @param all the symbols
+	 * @return the trigram index
+	 */
+	public static SymbolTrigramIndex<Symbol> of(Collection<? extends Symbol> all) {
+		return of(all, Symbol::getName);
+	}
+
+	/**
+	 * Build an index over symbols having a name resolved by a function.
+	 * Symbols without a name are not indexed.
+	 *
+	 * @param <T> the type of indexed symbols
+	 * @param all the symbols
+	 * @param nameResolver the function resolving a name of a symbol
+	 * @return the trigram index
+	 */
+	public static <T> SymbolTrigramIndex<T> of(Collection<? extends T> all,
+			Function<? super T, String> nameResolver) {
+		Map<String, List<T>> byName = new LinkedHashMap<>();
+		for (T symbol : all) {
+			String symbolName = nameResolver.apply(symbol);
+			if (symbolName != null) {
+				byName.computeIfAbsent(symbolName.toLowerCase(Locale.ROOT), n -> new ArrayList<>()).add(symbol);
+			}
+		}
+		String[] names = byName.keySet().toArray(new String[0]);
+		List<List<T>> symbols = new ArrayList<>(byName.values());
+		Map<String, int[]> postings = new HashMap<>();
+		Map<String, Integer> sizes = new HashMap<>();
+		for (int id = 0; id < names.length; id++) {
+			String name = names[id];
+			for (int i = 0; i + 3 <= name.length(); i++) {
+				String trigram = name.substring(i, i + 3);
+				int[] posting = postings.get(trigram);
+				int size = sizes.getOrDefault(trigram, 0);
+				if (size > 0 && posting[size - 1] == id) {
+					// same trigram repeating in a name
+					continue;
+				}
+				if (posting == null) {
+					posting = new int[4];
+				} else if (size == posting.length) {
+					posting = Arrays.copyOf(posting, size * 2);
+				}
+				posting[size] = id;
+				postings.put(trigram, posting);
+				sizes.put(trigram, size + 1);
+			}
+		}
+		for (Map.Entry<String, int[]> entry : postings.entrySet()) {
+			entry.setValue(Arrays.copyOf(entry.getValue(), sizes.get(entry.getKey())));
+		}
+		return new SymbolTrigramIndex(names, symbols, postings);
+	}
+
+	/**
+	 * Find symbols whose lower cased name contains a lower cased query.
+	 *
+	 * @param query the lower cased query
+	 * @return the matching symbols compared by identity
+	 */
+	public Set<T> find(String query) {
+		Set<T> found = Collections.newSetFromMap(new IdentityHashMap<>());
+		collect(query, found);
+		return found;
+	}
+
+	/**
+	 * Find symbols whose lower cased name contains a lower cased query, in an
+	 * order their names were first indexed in and symbols having a same name
+	 * in an order they were indexed in.
+	 *
+	 * @param query the lower cased query
+	 * @return the matching symbols
+	 */
+	public List<T> findAll(String query) {
+		List<T> found = new ArrayList<>();
+		collect(query, found);
+		return found;
+	}
+
+	private void collect(String query, Collection<T> found) {
+		if (query.length() < 3) {
+			for (int id = 0; id < names.length; id++) {
+				if (names[id].contains(query)) {
+					found.addAll(symbols.get(id));
+				}
+			}
+			return;
+		}
+		int[] candidates = null;
+		for (int i = 0; i + 3 <= query.length(); i++) {
+			int[] posting = postings.getOrDefault(query.substring(i, i + 3), EMPTY);
+			candidates = candidates == null ? posting : intersect(candidates, posting);
+			if (candidates.length == 0) {
+				return;
+			}
+		}
+		for (int id : candidates) {
+			if (names[id].contains(query)) {
+				found.addAll(symbols.get(id));
+			}
+		}
+	}
+
+	private static int[] intersect(int[] left, int[] right) {
+		int[] result = new int[Math.min(left.length, right.length)];
+		int count = 0;
+		int i = 0;
+		int j = 0;
+		while (i < left.length && j < right.length) {
+			if (left[i] < right[j]) {
+				i++;
+			} else if (left[i] > right[j]) {
+				j++;
+			} else {
+				result[count++] = left[i];
+				i++;
+				j++;
+			}
+		}
+		return count == result.length ? result : Arrays.copyOf(result, count);
+	}
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.dataflow.language.server.support;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.dsl.service.symbol.SymbolizeInfo;
+import org.springframework.dsl.symboltable.Symbol;
+import org.springframework.dsl.symboltable.SymbolTable;
+import org.springframework.dsl.symboltable.support.DocumentSymbolTableVisitor;
+import org.springframework.util.StringUtils;
+
+/**
+ * {@link SymbolTable} built for a document version together with its
+ * unfiltered {@link SymbolizeInfo}, a position index and a name index of
+ * its symbols. All are meant to be treated as read only as instances are
+ * cached and shared between requests for a same document version.
+ *
+ * @author Janne Valkealahti
+ *
+ */
+public class SymbolizedDocument {
+
+	private final String uri;
+	private final SymbolTable symbolTable;
+	private final Function<Symbol, ?> symbolKind;
+	private volatile SymbolizeInfo symbolizeInfo;
+	private volatile PositionIndex<Symbol> symbolIndex;
+	private volatile SymbolNameIndex nameIndex;
+	private volatile SymbolTrigramIndex<Symbol> trigramIndex;
+
+	/**
+	 * Instantiate a symbolized document where a kind of a symbol is its class.
+	 *
+	 * @param uri the document uri
+	 * @param symbolTable the symbol table
+	 */
+	public SymbolizedDocument(String uri, SymbolTable symbolTable) {
+		this(uri, symbolTable, Symbol::getClass);
+	}
+
+	/**
+	 * Instantiate a symbolized document.
+	 *
+	 * @param uri the document uri
+	 * @param symbolTable the symbol table
+	 * @param symbolKind the function resolving a kind of a symbol for a name
+	 *                   index, {@code null} kind leaves a symbol out of it
+	 */
+	public SymbolizedDocument(String uri, SymbolTable symbolTable, Function<Symbol, ?> symbolKind) {
+		this.uri = uri;
+		this.symbolTable = symbolTable;
+		this.symbolKind = symbolKind;
+	}
+
+	public SymbolTable getSymbolTable() {
+		return symbolTable;
+	}
+
+	/**
+	 * Gets an unfiltered {@link SymbolizeInfo}, built on a first request.
+	 *
+	 * @return the symbolize info
+	 */
+	public SymbolizeInfo getSymbolizeInfo() {
+		SymbolizeInfo info = symbolizeInfo;
+		if (info == null) {
+			synchronized (this) {
+				info = symbolizeInfo;
+				if (info == null) {
+					DocumentSymbolTableVisitor visitor = new DocumentSymbolTableVisitor(uri);
+					symbolTable.visitSymbolTable(visitor);
+					info = visitor.getSymbolizeInfo();
+					symbolizeInfo = info;
+				}
+			}
+		}
+		return info;
+	}
+
+	/**
+	 * Gets a position index over all symbols of a table, built on a first
+	 * request.
+	 *
+	 * @return the symbol position index
+	 */
+	public PositionIndex<Symbol> getSymbolIndex() {
+		PositionIndex<Symbol> index = symbolIndex;
+		if (index == null) {
+			synchronized (this) {
+				index = symbolIndex;
+				if (index == null) {
+					index = PositionIndex.of(new ArrayList<Symbol>(symbolTable.getAllSymbols()), Symbol::getRange);
+					symbolIndex = index;
+				}
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Gets an index from a symbol name to symbols, built on a first request.
+	 *
+	 * @return the symbol name index
+	 */
+	public SymbolNameIndex getNameIndex() {
+		SymbolNameIndex index = nameIndex;
+		if (index == null) {
+			synchronized (this) {
+				index = nameIndex;
+				if (index == null) {
+					index = SymbolNameIndex.of(symbolTable.getAllSymbols(), symbolKind);
+					nameIndex = index;
+				}
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Gets a trigram index over symbol names, built on a first request.
+	 *
+	 * @return the symbol trigram index
+	 */
+	public SymbolTrigramIndex<Symbol> getTrigramIndex() {
+		SymbolTrigramIndex<Symbol> index = trigramIndex;
+		if (index == null) {
+			synchronized (this) {
+				index = trigramIndex;
+				if (index == null) {
+					index = SymbolTrigramIndex.of(symbolTable.getAllSymbols());
+					trigramIndex = index;
+				}
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Gets a {@link SymbolizeInfo} for a query compiled against symbols of
+	 * this document, unfiltered and cached one if query is empty.
+	 *
+	 * @param query the query
+	 * @param prefixes the symbol types keyed by their query prefix character
+	 * @return the symbolize info
+	 * @see SymbolQuery
+	 */
+	public SymbolizeInfo getSymbolizeInfo(String query, Map<Character, Class<? extends Symbol>> prefixes) {
+		if (!StringUtils.hasText(query)) {
+			return getSymbolizeInfo();
+		}
+		return getSymbolizeInfo(SymbolQuery.compile(query, prefixes, getTrigramIndex()));
+	}
+
+	/**
+	 * Gets a {@link SymbolizeInfo} having only symbols accepted by a filter.
+	 * Visits a table on every call as filtered results are not cached.
+	 *
+	 * @param filter the symbol filter
+	 * @return the filtered symbolize info
+	 */
+	public SymbolizeInfo getSymbolizeInfo(Function<Symbol, Boolean> filter) {
+		return symbolTable.visitSymbolTable(DocumentSymbolTableVisitor.from(uri, filter)).getSymbolizeInfo();
+	}
+}
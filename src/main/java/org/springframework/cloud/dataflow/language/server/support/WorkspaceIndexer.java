@@ -0,0 +1,368 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.dataflow.language.server.support;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.dataflow.language.server.config.DataflowLanguagesProperties;
+import org.springframework.cloud.dataflow.language.server.domain.DataflowWorkspaceIndexProgress;
+import org.springframework.stereotype.Component;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Indexes dsl files under workspace roots into a {@link WorkspaceSymbolIndex}
+ * and keeps it current by watching roots for file changes.
+ * <p>
+ * Roots are walked concurrently, then files are read and parsed by their
+ * {@link WorkspaceSymbolSource} on a bounded elastic scheduler with at most
+ * a configured number of files in flight. Hidden directories are skipped.
+ *
+ * @author Janne Valkealahti
+ *
+ */
+@Component
+public class WorkspaceIndexer implements DisposableBean {
+
+	private static final Logger log = LoggerFactory.getLogger(WorkspaceIndexer.class);
+	private static final int PROGRESS_STEPS = 100;
+	private Map<String, WorkspaceSymbolSource> sources = Collections.emptyMap();
+	private WorkspaceSymbolIndex workspaceSymbolIndex = new WorkspaceSymbolIndex();
+	private DataflowLanguagesProperties dataflowLanguagesProperties = new DataflowLanguagesProperties();
+	private DocumentVersionTracker documentVersionTracker = new DocumentVersionTracker();
+	private Watcher watcher;
+
+	@Autowired(required = false)
+	public void setWorkspaceSymbolSources(List<WorkspaceSymbolSource> workspaceSymbolSources) {
+		Map<String, WorkspaceSymbolSource> sources = new HashMap<>();
+		for (WorkspaceSymbolSource source : workspaceSymbolSources) {
+			sources.put(source.getFileExtension(), source);
+		}
+		this.sources = sources;
+	}
+
+	@Autowired
+	public void setWorkspaceSymbolIndex(WorkspaceSymbolIndex workspaceSymbolIndex) {
+		this.workspaceSymbolIndex = workspaceSymbolIndex;
+	}
+
+	@Autowired
+	public void setDataflowLanguagesProperties(DataflowLanguagesProperties dataflowLanguagesProperties) {
+		this.dataflowLanguagesProperties = dataflowLanguagesProperties;
+	}
+
+	@Autowired
+	public void setDocumentVersionTracker(DocumentVersionTracker documentVersionTracker) {
+		this.documentVersionTracker = documentVersionTracker;
+	}
+
+	@Override
+	public void destroy() throws Exception {
+		unwatch();
+	}
+
+	/**
+	 * Index all known dsl files under workspace roots. Nothing happens until
+	 * a returned flux is subscribed. Progress is emitted when indexing starts,
+	 * roughly every percent of indexed files and once all files are indexed.
+	 *
+	 * @param roots the workspace roots
+	 * @return the flux of indexing progress
+	 */
+	public Flux<DataflowWorkspaceIndexProgress> index(List<Path> roots) {
+		int concurrency = Math.max(1, dataflowLanguagesProperties.getWorkspace().getIndexConcurrency());
+		return Flux.fromIterable(roots)
+			.flatMap(root -> Mono.fromCallable(() -> findFiles(root)).subscribeOn(Schedulers.boundedElastic()))
+			.<Path>flatMapIterable(files -> files)
+			.collectList()
+			.flatMapMany(files -> {
+				int total = files.size();
+				int step = Math.max(1, total / PROGRESS_STEPS);
+				AtomicInteger indexed = new AtomicInteger();
+				log.debug("Indexing {} files from {}", total, roots);
+				return Flux.fromIterable(files)
+					.flatMap(file -> Mono.fromCallable(() -> indexFile(file, false))
+							.subscribeOn(Schedulers.boundedElastic()), concurrency)
+					.map(ok -> indexed.incrementAndGet())
+					.filter(count -> count % step == 0 || count == total)
+					.map(count -> new DataflowWorkspaceIndexProgress(count, total))
+					.startWith(new DataflowWorkspaceIndexProgress(0, total));
+			});
+	}
+
+	/**
+	 * Start watching workspace roots for created, modified and deleted files,
+	 * replacing a previous watch if any. Does nothing if watching is disabled.
+	 *
+	 * @param roots the workspace roots
+	 */
+	public synchronized void watch(List<Path> roots) {
+		unwatch();
+		if (!dataflowLanguagesProperties.getWorkspace().isWatch()) {
+			return;
+		}
+		try {
+			Watcher next = new Watcher();
+			for (Path root : roots) {
+				next.registerAll(root);
+			}
+			Thread thread = new Thread(next, "workspace-watcher");
+			thread.setDaemon(true);
+			thread.start();
+			watcher = next;
+		} catch (IOException e) {
+			log.warn("Unable to watch workspace roots {}", roots, e);
+		}
+	}
+
+	/**
+	 * Stop watching workspace roots.
+	 */
+	public synchronized void unwatch() {
+		if (watcher != null) {
+			watcher.close();
+			watcher = null;
+		}
+	}
+
+	private List<Path> findFiles(Path root) throws IOException {
+		List<Path> files = new ArrayList<>();
+		if (!Files.isDirectory(root)) {
+			return files;
+		}
+		Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+
+			@Override
+			public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+				return isHidden(root, dir) ? FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+				if (attrs.isRegularFile() && getSource(file) != null) {
+					files.add(file);
+				}
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult visitFileFailed(Path file, IOException e) {
+				log.debug("Skipping {}", file, e);
+				return FileVisitResult.CONTINUE;
+			}
+		});
+		return files;
+	}
+
+	/**
+	 * Read and parse a file into an index. Initial indexing never overrides
+	 * an open document, a change seen by a watcher does only for documents
+	 * which are not open as an editor has newer content than a disk.
+	 */
+	boolean indexFile(Path file, boolean changed) {
+		WorkspaceSymbolSource source = getSource(file);
+		if (source == null) {
+			return false;
+		}
+		String uri = file.toUri().toString();
+		try {
+			String content = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+			List<WorkspaceSymbol> symbols = source.parseWorkspaceSymbols(uri, content);
+			if (changed && !documentVersionTracker.isTracked(uri)) {
+				workspaceSymbolIndex.replace(uri, symbols);
+				return true;
+			}
+			return workspaceSymbolIndex.update(uri, WorkspaceSymbolIndex.DISK_VERSION, symbols);
+		} catch (Exception e) {
+			log.debug("Unable to index {}", file, e);
+			return false;
+		}
+	}
+
+	/**
+	 * Index a document closed in an editor again from a disk, or remove it if
+	 * its file no longer exists, as an index may still hold content from an
+	 * editor which was never saved.
+	 *
+	 * @param uri the document uri
+	 */
+	public void reload(String uri) {
+		if (!uri.startsWith("file:")) {
+			return;
+		}
+		Path file;
+		try {
+			file = Paths.get(URI.create(uri));
+		} catch (Exception e) {
+			log.debug("Unable to reload {}", uri, e);
+			return;
+		}
+		if (Files.isRegularFile(file)) {
+			indexFile(file, true);
+		} else {
+			removeDeleted(file);
+		}
+	}
+
+	/**
+	 * Remove a deleted file, or files under a deleted directory, from an index.
+	 * Documents which are open keep their symbols as an editor still has their
+	 * content.
+	 */
+	void removeDeleted(Path path) {
+		String uri = path.toUri().toString();
+		if (!documentVersionTracker.isTracked(uri)) {
+			workspaceSymbolIndex.remove(uri);
+		}
+		workspaceSymbolIndex.removeUnder(uri, under -> !documentVersionTracker.isTracked(under));
+	}
+
+	private WorkspaceSymbolSource getSource(Path file) {
+		Path name = file.getFileName();
+		if (name == null) {
+			return null;
+		}
+		String fileName = name.toString();
+		int dot = fileName.lastIndexOf('.');
+		return dot > -1 ? sources.get(fileName.substring(dot + 1)) : null;
+	}
+
+	private static boolean isHidden(Path root, Path dir) {
+		Path name = dir.getFileName();
+		return !dir.equals(root) && name != null && name.toString().startsWith(".");
+	}
+
+	private class Watcher implements Runnable {
+
+		private final WatchService watchService;
+		private final Map<WatchKey, Path> directories = new ConcurrentHashMap<>();
+
+		Watcher() throws IOException {
+			this.watchService = FileSystems.getDefault().newWatchService();
+		}
+
+		void registerAll(Path start) throws IOException {
+			if (!Files.isDirectory(start)) {
+				return;
+			}
+			Files.walkFileTree(start, new SimpleFileVisitor<Path>() {
+
+				@Override
+				public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+					if (isHidden(start, dir)) {
+						return FileVisitResult.SKIP_SUBTREE;
+					}
+					directories.put(dir.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE), dir);
+					return FileVisitResult.CONTINUE;
+				}
+
+				@Override
+				public FileVisitResult visitFileFailed(Path file, IOException e) {
+					return FileVisitResult.CONTINUE;
+				}
+			});
+		}
+
+		@Override
+		public void run() {
+			while (true) {
+				WatchKey key;
+				try {
+					key = watchService.take();
+				} catch (InterruptedException | ClosedWatchServiceException e) {
+					return;
+				}
+				Path dir = directories.get(key);
+				if (dir != null) {
+					for (WatchEvent<?> event : key.pollEvents()) {
+						try {
+							handle(dir, event);
+						} catch (Exception e) {
+							log.debug("Unable to handle {} in {}", event.kind(), dir, e);
+						}
+					}
+				}
+				if (!key.reset()) {
+					directories.remove(key);
+				}
+			}
+		}
+
+		private void handle(Path dir, WatchEvent<?> event) throws IOException {
+			if (event.kind() == OVERFLOW) {
+				log.debug("Events lost in {}, indexing it again", dir);
+				reindex(dir);
+				return;
+			}
+			Path path = dir.resolve((Path) event.context());
+			if (event.kind() == ENTRY_DELETE) {
+				removeDeleted(path);
+			} else if (Files.isDirectory(path)) {
+				if (event.kind() == ENTRY_CREATE && !isHidden(dir, path)) {
+					reindex(path);
+				}
+			} else {
+				indexFile(path, true);
+			}
+		}
+
+		private void reindex(Path dir) throws IOException {
+			registerAll(dir);
+			for (Path file : findFiles(dir)) {
+				indexFile(file, true);
+			}
+		}
+
+		void close() {
+			try {
+				watchService.close();
+			} catch (IOException e) {
+				log.debug("Unable to close watch service", e);
+			}
+		}
+	}
+}
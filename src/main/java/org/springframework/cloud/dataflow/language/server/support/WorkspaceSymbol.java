@@ -0,0 +1,121 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.dataflow.language.server.support;
+
+import org.springframework.dsl.domain.Range;
+
+/**
+ * Lightweight symbol kept in a {@link WorkspaceSymbolIndex}. Unlike symbols
+ * in a symbol table it doesn't reference a parsed document so that an index
+ * can hold symbols of many documents without keeping their parse results.
+ *
+ * @author Janne Valkealahti
+ *
+ */
+public class WorkspaceSymbol {
+
+	private final String name;
+	private final Kind kind;
+	private final Role role;
+	private final String uri;
+	private final Range range;
+	private final String containerName;
+
+	public WorkspaceSymbol(String name, Kind kind, String uri, Range range, String containerName) {
+		this(name, kind, Role.DECLARATION, uri, range, containerName);
+	}
+
+	public WorkspaceSymbol(String name, Kind kind, Role role, String uri, Range range, String containerName) {
+		this.name = name;
+		this.kind = kind;
+		this.role = role;
+		this.uri = uri;
+		this.range = range;
+		this.containerName = containerName;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public Kind getKind() {
+		return kind;
+	}
+
+	public Role getRole() {
+		return role;
+	}
+
+	public String getUri() {
+		return uri;
+	}
+
+	public Range getRange() {
+		return range;
+	}
+
+	public String getContainerName() {
+		return containerName;
+	}
+
+	@Override
+	public String toString() {
+		return "WorkspaceSymbol [name=" + name + ", kind=" + kind + ", role=" + role + ", uri=" + uri + ", range="
+				+ range + ", containerName=" + containerName + "]";
+	}
+
+	/**
+	 * Kinds of symbols indexed across a workspace.
+	 */
+	public enum Kind {
+		STREAM,
+		TASK,
+		APP,
+		DESTINATION,
+
+		/**
+		 * Named destination of a form {@code stream.app} reading from an app
+		 * of another stream.
+		 */
+		TAP
+	}
+
+	/**
+	 * Roles of a symbol in a place where it appears.
+	 */
+	public enum Role {
+
+		/**
+		 * Symbol is defined here.
+		 */
+		DECLARATION,
+
+		/**
+		 * Stream writes into a destination here.
+		 */
+		PRODUCER,
+
+		/**
+		 * Stream reads from a destination or a tap here.
+		 */
+		CONSUMER,
+
+		/**
+		 * Symbol defined elsewhere is referred to by its name here.
+		 */
+		REFERENCE
+	}
+}
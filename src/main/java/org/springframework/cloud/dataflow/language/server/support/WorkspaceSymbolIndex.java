@@ -0,0 +1,309 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.dataflow.language.server.support;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dsl.domain.Position;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * Index of {@link WorkspaceSymbol}s of all known documents in a workspace.
+ * <p>
+ * Symbols are replaced per document whenever a new version of it is parsed
+ * so that a query never needs to parse anything, names matching a query are
+ * looked up from a {@link SymbolTrigramIndex} of each document built on a
+ * first query after a document was indexed. Symbols are also kept
+ * by their exact name across documents and by position within a document,
+ * replacing a document only touches names it had or has. Updates for a
+ * version older than an indexed one are ignored as parsing of different
+ * versions may complete out of order. Files read from a disk are indexed
+ * with {@link #DISK_VERSION} so that an open document always wins over its
+ * file, and only files which are not open are forced in with
+ * {@link #replace(String, List)} when they change on a disk.
+ *
+ * @author Janne Valkealahti
+ *
+ */
+@Component
+public class WorkspaceSymbolIndex {
+
+	/**
+	 * Version used for symbols read from a file instead of an open document.
+	 */
+	public static final int DISK_VERSION = -1;
+	private static final Logger log = LoggerFactory.getLogger(WorkspaceSymbolIndex.class);
+	private final ConcurrentMap<String, IndexedDocument> documents = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, ConcurrentMap<String, List<WorkspaceSymbol>>> names = new ConcurrentHashMap<>();
+
+	@Autowired
+	public void setDocumentVersionTracker(DocumentVersionTracker documentVersionTracker) {
+		documentVersionTracker.addResetListener(this::resetVersion);
+	}
+
+	/**
+	 * Replace symbols of a document unless a newer version of it is already
+	 * indexed.
+	 *
+	 * @param uri the document uri
+	 * @param version the document version
+	 * @param symbols the document symbols
+	 * @return true if symbols were indexed
+	 */
+	public synchronized boolean update(String uri, int version, List<WorkspaceSymbol> symbols) {
+		IndexedDocument current = documents.get(uri);
+		if (current != null && current.version > version) {
+			log.debug("Ignoring symbols from {} version {} as version {} is indexed", uri, version, current.version);
+			return false;
+		}
+		put(uri, current, new IndexedDocument(version, symbols));
+		log.debug("Indexed {} symbols from {} version {}", symbols.size(), uri, version);
+		return true;
+	}
+
+	/**
+	 * Replace symbols of a document regardless of an indexed version, used
+	 * when a file which is not open changed on a disk. An indexed version is kept so that
+	 * parsing of a next version of an open document still replaces these.
+	 *
+	 * @param uri the document uri
+	 * @param symbols the document symbols
+	 */
+	public synchronized void replace(String uri, List<WorkspaceSymbol> symbols) {
+		IndexedDocument current = documents.get(uri);
+		put(uri, current, new IndexedDocument(current != null ? current.version : DISK_VERSION, symbols));
+		log.debug("Replaced symbols from {}", uri);
+	}
+
+	/**
+	 * Forget an indexed version of a document while keeping its symbols, so
+	 * that a next update replaces them whatever its version is. Used when a
+	 * document is closed or reopened as a client then starts its versions
+	 * over.
+	 *
+	 * @param uri the document uri
+	 */
+	public synchronized void resetVersion(String uri) {
+		IndexedDocument current = documents.get(uri);
+		if (current != null && current.version != DISK_VERSION) {
+			put(uri, current, new IndexedDocument(DISK_VERSION, Arrays.asList(current.symbols)));
+			log.debug("Reset indexed version of {}", uri);
+		}
+	}
+
+	/**
+	 * Remove symbols of a document.
+	 *
+	 * @param uri the document uri
+	 */
+	public synchronized void remove(String uri) {
+		IndexedDocument current = documents.remove(uri);
+		if (current != null) {
+			unlink(uri, current);
+		}
+	}
+
+	/**
+	 * Remove symbols of all documents under a directory uri.
+	 *
+	 * @param directoryUri the directory uri
+	 */
+	public void removeUnder(String directoryUri) {
+		removeUnder(directoryUri, uri -> true);
+	}
+
+	/**
+	 * Remove symbols of documents under a directory uri which match a filter.
+	 *
+	 * @param directoryUri the directory uri
+	 * @param filter the filter of document uris to remove
+	 */
+	public synchronized void removeUnder(String directoryUri, Predicate<String> filter) {
+		String prefix = directoryUri.endsWith("/") ? directoryUri : directoryUri + "/";
+		for (String uri : new ArrayList<>(documents.keySet())) {
+			if (uri.startsWith(prefix) && filter.test(uri)) {
+				remove(uri);
+			}
+		}
+	}
+
+	/**
+	 * Gets indexed symbols of a document.
+	 *
+	 * @param uri the document uri
+	 * @return the symbols, empty if document is not indexed
+	 */
+	public List<WorkspaceSymbol> getSymbols(String uri) {
+		IndexedDocument document = documents.get(uri);
+		return document != null ? Collections.unmodifiableList(Arrays.asList(document.symbols))
+				: Collections.emptyList();
+	}
+
+	/**
+	 * Gets symbols having an exact name across all documents, in no
+	 * particular order between documents.
+	 *
+	 * @param name the symbol name
+	 * @return the symbols, empty if none
+	 */
+	public List<WorkspaceSymbol> getSymbolsByName(String name) {
+		Map<String, List<WorkspaceSymbol>> byUri = names.get(name);
+		if (byUri == null) {
+			return Collections.emptyList();
+		}
+		List<WorkspaceSymbol> symbols = new ArrayList<>();
+		for (List<WorkspaceSymbol> list : byUri.values()) {
+			symbols.addAll(list);
+		}
+		return symbols;
+	}
+
+	/**
+	 * Find symbols of a document containing a position, in an order they were
+	 * indexed in.
+	 *
+	 * @param uri the document uri
+	 * @param position the position
+	 * @return the symbols at a position, empty if none
+	 */
+	public List<WorkspaceSymbol> findSymbols(String uri, Position position) {
+		IndexedDocument document = documents.get(uri);
+		return document != null ? document.getPositions().findAll(position) : Collections.emptyList();
+	}
+
+	/**
+	 * Gets a version of an indexed document.
+	 *
+	 * @param uri the document uri
+	 * @return the indexed version or {@code null} if document is not indexed
+	 */
+	public Integer getVersion(String uri) {
+		IndexedDocument document = documents.get(uri);
+		return document != null ? document.version : null;
+	}
+
+	/**
+	 * Gets a number of indexed documents.
+	 *
+	 * @return the number of indexed documents
+	 */
+	public int size() {
+		return documents.size();
+	}
+
+	/**
+	 * Find symbols whose name contains a query ignoring case, all symbols
+	 * if query is empty. References to symbols defined elsewhere are left
+	 * out. Matches of a document are in an order their names were indexed in.
+	 *
+	 * @param query the query
+	 * @param limit the maximum number of symbols to return
+	 * @return the matching symbols
+	 */
+	public List<WorkspaceSymbol> query(String query, int limit) {
+		List<WorkspaceSymbol> found = new ArrayList<>();
+		String lower = StringUtils.hasText(query) ? query.toLowerCase(Locale.ROOT) : null;
+		for (IndexedDocument document : documents.values()) {
+			List<WorkspaceSymbol> matches = lower != null ? document.getTrigramIndex().findAll(lower)
+					: Arrays.asList(document.symbols);
+			for (WorkspaceSymbol symbol : matches) {
+				if (found.size() >= limit) {
+					return found;
+				}
+				if (symbol.getRole() != WorkspaceSymbol.Role.REFERENCE) {
+					found.add(symbol);
+				}
+			}
+		}
+		return found;
+	}
+
+	private void put(String uri, IndexedDocument current, IndexedDocument next) {
+		if (current != null) {
+			unlink(uri, current);
+		}
+		documents.put(uri, next);
+		Map<String, List<WorkspaceSymbol>> byName = new HashMap<>();
+		for (WorkspaceSymbol symbol : next.symbols) {
+			if (symbol.getName() != null) {
+				byName.computeIfAbsent(symbol.getName(), name -> new ArrayList<>()).add(symbol);
+			}
+		}
+		for (Map.Entry<String, List<WorkspaceSymbol>> entry : byName.entrySet()) {
+			names.computeIfAbsent(entry.getKey(), name -> new ConcurrentHashMap<>()).put(uri,
+					Collections.unmodifiableList(entry.getValue()));
+		}
+	}
+
+	private void unlink(String uri, IndexedDocument document) {
+		for (WorkspaceSymbol symbol : document.symbols) {
+			if (symbol.getName() == null) {
+				continue;
+			}
+			ConcurrentMap<String, List<WorkspaceSymbol>> byUri = names.get(symbol.getName());
+			if (byUri != null) {
+				byUri.remove(uri);
+				if (byUri.isEmpty()) {
+					names.remove(symbol.getName(), byUri);
+				}
+			}
+		}
+	}
+
+	private static class IndexedDocument {
+
+		final int version;
+		final WorkspaceSymbol[] symbols;
+		private volatile PositionIndex<WorkspaceSymbol> positions;
+		private volatile SymbolTrigramIndex<WorkspaceSymbol> trigramIndex;
+
+		IndexedDocument(int version, List<WorkspaceSymbol> symbols) {
+			this.version = version;
+			this.symbols = symbols.toArray(new WorkspaceSymbol[0]);
+		}
+
+		SymbolTrigramIndex<WorkspaceSymbol> getTrigramIndex() {
+			SymbolTrigramIndex<WorkspaceSymbol> index = trigramIndex;
+			if (index == null) {
+				index = SymbolTrigramIndex.of(Arrays.asList(symbols), WorkspaceSymbol::getName);
+				trigramIndex = index;
+			}
+			return index;
+		}
+
+		PositionIndex<WorkspaceSymbol> getPositions() {
+			PositionIndex<WorkspaceSymbol> index = positions;
+			if (index == null) {
+				index = PositionIndex.of(Arrays.asList(symbols), WorkspaceSymbol::getRange);
+				positions = index;
+			}
+			return index;
+		}
+	}
+}
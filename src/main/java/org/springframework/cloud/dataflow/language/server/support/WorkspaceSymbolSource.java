@@ -0,0 +1,44 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.dataflow.language.server.support;
+
+import java.util.List;
+
+/**
+ * Parses {@link WorkspaceSymbol}s out of files of one language which are not
+ * necessarily open in a client.
+ *
+ * @author Janne Valkealahti
+ *
+ */
+public interface WorkspaceSymbolSource {
+
+	/**
+	 * Gets a file extension, without a dot, of files this source handles.
+	 *
+	 * @return the file extension
+	 */
+	String getFileExtension();
+
+	/**
+	 * Parse symbols out of a file content.
+	 *
+	 * @param uri the file uri
+	 * @param content the file content
+	 * @return the workspace symbols
+	 */
+	List<WorkspaceSymbol> parseWorkspaceSymbols(String uri, String content);
+}
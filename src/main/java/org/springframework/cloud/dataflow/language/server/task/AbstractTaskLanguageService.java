@@ -16,8 +16,13 @@
 package org.springframework.cloud.dataflow.language.server.task;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,10 +31,19 @@ import org.springframework.cloud.dataflow.core.dsl.ParseException;
 import org.springframework.cloud.dataflow.core.dsl.TaskNode;
 import org.springframework.cloud.dataflow.core.dsl.TaskParser;
 import org.springframework.cloud.dataflow.language.server.DataflowLanguages;
+import org.springframework.cloud.dataflow.language.server.config.DataflowLanguagesProperties;
 import org.springframework.cloud.dataflow.language.server.domain.DataflowEnvironmentParams;
 import org.springframework.cloud.dataflow.language.server.domain.DataflowEnvironmentParams.Environment;
+import org.springframework.cloud.dataflow.language.server.support.AppRegistrySnapshotService;
 import org.springframework.cloud.dataflow.language.server.support.DataFlowOperationsService;
 import org.springframework.cloud.dataflow.language.server.support.DataflowCacheService;
+import org.springframework.cloud.dataflow.language.server.support.DataflowMetricsService;
+import org.springframework.cloud.dataflow.language.server.support.DocumentLines;
+import org.springframework.cloud.dataflow.language.server.support.DocumentVersionTracker;
+import org.springframework.cloud.dataflow.language.server.support.ParsedNode;
+import org.springframework.cloud.dataflow.language.server.support.PositionIndex;
+import org.springframework.cloud.dataflow.language.server.support.SymbolizedDocument;
+import org.springframework.cloud.dataflow.language.server.support.WorkspaceSymbolIndex;
 import org.springframework.cloud.dataflow.rest.client.DataFlowOperations;
 import org.springframework.dsl.document.Document;
 import org.springframework.dsl.document.DocumentText;
@@ -43,18 +57,24 @@ import org.springframework.dsl.service.reconcile.DefaultReconcileProblem;
 import org.springframework.dsl.service.reconcile.ProblemSeverity;
 import org.springframework.dsl.service.reconcile.ProblemType;
 import org.springframework.dsl.service.reconcile.ReconcileProblem;
-import org.springframework.dsl.support.DslUtils;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 public abstract class AbstractTaskLanguageService extends AbstractDslService {
 
 	private static final Logger log = LoggerFactory.getLogger(AbstractTaskLanguageService.class);
+	private static final ErrorProblemType ERROR_PROBLEM_TYPE = new ErrorProblemType("");
 	protected DataFlowOperationsService dataflowOperationsService;
 	protected DataflowCacheService dataflowCacheService;
+	protected DataflowLanguagesProperties dataflowLanguagesProperties = new DataflowLanguagesProperties();
+	protected DataflowMetricsService dataflowMetricsService = new DataflowMetricsService();
+	protected DocumentVersionTracker documentVersionTracker = new DocumentVersionTracker();
+	protected WorkspaceSymbolIndex workspaceSymbolIndex = new WorkspaceSymbolIndex();
+	protected AppRegistrySnapshotService appRegistrySnapshotService = new AppRegistrySnapshotService();
 
 	public AbstractTaskLanguageService() {
 		super(DataflowLanguages.LANGUAGE_TASK);
@@ -70,6 +90,31 @@ public abstract class AbstractTaskLanguageService extends AbstractDslService {
 		this.dataflowCacheService = dataflowCacheService;
 	}
 
+	@Autowired
+	public void setDataflowLanguagesProperties(DataflowLanguagesProperties dataflowLanguagesProperties) {
+		this.dataflowLanguagesProperties = dataflowLanguagesProperties;
+	}
+
+	@Autowired
+	public void setDataflowMetricsService(DataflowMetricsService dataflowMetricsService) {
+		this.dataflowMetricsService = dataflowMetricsService;
+	}
+
+	@Autowired
+	public void setDocumentVersionTracker(DocumentVersionTracker documentVersionTracker) {
+		this.documentVersionTracker = documentVersionTracker;
+	}
+
+	@Autowired
+	public void setWorkspaceSymbolIndex(WorkspaceSymbolIndex workspaceSymbolIndex) {
+		this.workspaceSymbolIndex = workspaceSymbolIndex;
+	}
+
+	@Autowired
+	public void setAppRegistrySnapshotService(AppRegistrySnapshotService appRegistrySnapshotService) {
+		this.appRegistrySnapshotService = appRegistrySnapshotService;
+	}
+
 	protected static class ErrorProblemType implements ProblemType {
 
 		private final String code;
@@ -122,30 +167,52 @@ public abstract class AbstractTaskLanguageService extends AbstractDslService {
 	}
 
 	protected String resolveDefinedEnvironmentName(DslContext context, Position position) {
-		for (TaskItem item : parseCached(context.getDocument())) {
-			if (DslUtils.isPositionInRange(position, item.getRange())) {
-				DefinitionItem definitionItem = item.getDefinitionItem();
-				if (definitionItem != null) {
-					LaunchItem envItem = definitionItem.getEnvItem();
-					if (envItem != null) {
-						Range contentRange = envItem.getContentRange();
-						String envName = envItem.getText()
-								.substring(contentRange.getStart().getCharacter() + 5, envItem.getText().length())
-								.trim().toString();
-						if (StringUtils.hasText(envName)) {
-							return envName;
-						}
-					}
-				}
+		for (TaskItem item : parseIndexed(context.getDocument()).findAll(position)) {
+			String envName = resolveDefinedEnvironmentName(item);
+			if (envName != null) {
+				return envName;
 			}
 		}
 		return null;
 	}
 
+	protected String resolveDefinedEnvironmentName(TaskItem item) {
+		DefinitionItem definitionItem = item.getDefinitionItem();
+		if (definitionItem != null && StringUtils.hasText(definitionItem.getEnvironment())) {
+			return definitionItem.getEnvironment();
+		}
+		return null;
+	}
+
 	protected Flux<TaskItem> parse(Document document) {
 		return parseCachedMono(document).flatMapMany(items -> Flux.fromIterable(items));
 	}
 
+	/**
+	 * Gets a position index over parsed items of a document, built once per
+	 * document version.
+	 *
+	 * @param document the document
+	 * @return the position index of parsed items
+	 */
+	protected PositionIndex<TaskItem> parseIndexed(Document document) {
+		List<TaskItem> items = parseCached(document);
+		return dataflowCacheService.getTaskItemIndexCache().get(document,
+				key -> PositionIndex.of(items, TaskItem::getRange));
+	}
+
+	/**
+	 * Gets a symbol table of a document, built once per document version.
+	 *
+	 * @param document the document
+	 * @return the mono of symbolized document
+	 */
+	protected Mono<SymbolizedDocument> parseSymbols(Document document) {
+		return parseCachedMono(document)
+			.map(items -> dataflowCacheService.getTaskSymbolCache().get(document,
+					key -> new SymbolizedDocument(document.uri(), TaskLanguageSymbolizer.buildTable(items))));
+	}
+
 	protected Mono<List<TaskItem>> parseCachedMono(Document document) {
 		return Mono.defer(() -> {
 			return Mono.just(parseCached(document));
@@ -153,151 +220,198 @@ public abstract class AbstractTaskLanguageService extends AbstractDslService {
 	}
 
 	protected List<TaskItem> parseCached(Document document) {
-		String cacheKey = document.uri() + "#" + document.getVersion();
-		log.debug("Used cache key for streamItemCache is {}", cacheKey);
-		return dataflowCacheService.getTaskItemCache().get(cacheKey, key -> {
-			return parseTasks(document);
+		return dataflowCacheService.getTaskItemCache().get(document, key -> {
+			log.debug("Parsing {}", key);
+			List<TaskItem> items = parseTasks(document);
+			workspaceSymbolIndex.update(document.uri(), document.getVersion(),
+					TaskLanguageSymbolizer.workspaceSymbols(document.uri(), items));
+			return items;
 		});
 	}
 
+	/**
+	 * Parse a document without caching its items, used for documents which
+	 * are not open in a client.
+	 *
+	 * @param document the document
+	 * @return the parsed items
+	 */
+	protected List<TaskItem> parseDetached(Document document) {
+		return parseTasks(document);
+	}
+
+	/**
+	 * Start parsing a document on a background scheduler to warm up a task
+	 * item cache for requests coming in for a same version. Returned mono
+	 * replays a result of this one parse.
+	 *
+	 * @param document the document
+	 * @return the mono of parsed items
+	 */
+	protected Mono<List<TaskItem>> parseEagerly(Document document) {
+		if (!dataflowLanguagesProperties.getParse().isEager()) {
+			return parseCachedMono(document);
+		}
+		Mono<List<TaskItem>> parsed = parseCachedMono(document)
+			.subscribeOn(Schedulers.parallel())
+			.takeUntilOther(documentVersionTracker.superseded(document))
+			.cache();
+		parsed.subscribe(items -> log.debug("Eagerly parsed {} items from {} version {}", items.size(),
+				document.uri(), document.getVersion()),
+				e -> log.debug("Eager parse of {} failed", document.uri(), e));
+		return parsed;
+	}
+
+	/**
+	 * Parse a document in a time linear to its length, every line is
+	 * classified once and visited once by a block scanner.
+	 */
 	private List<TaskItem> parseTasks(Document document) {
-		ArrayList<TaskItem> items = new ArrayList<>();
+		DocumentText text = document.content();
+		return parseTasks(document, text, DocumentLines.classify(text.toString()));
+	}
+
+	/**
+	 * Parse all blocks of a document, in parallel if a document is large
+	 * enough. Blocks are independent once their start lines are known and
+	 * results are collected in a document order.
+	 */
+	private List<TaskItem> parseTasks(Document document, DocumentText text, DocumentLines lines) {
+		int lineCount = document.lineCount();
+		int[] starts = lines.getBlockStarts(lineCount);
+		DataflowLanguagesProperties.Parse parse = dataflowLanguagesProperties.getParse();
+		if (lineCount > parse.getParallelLineThreshold() || starts.length > parse.getParallelBlockThreshold()) {
+			log.debug("Parsing {} blocks with {} lines in parallel", starts.length, lineCount);
+			return Arrays.stream(starts)
+				.parallel()
+				.mapToObj(start -> parseNextTask(document, text, lines, start))
+				.filter(Objects::nonNull)
+				.collect(Collectors.toList());
+		}
+		return parseTasks(document, text, lines, 0, new ArrayList<>());
+	}
+
+	private List<TaskItem> parseTasks(Document document, DocumentText text, DocumentLines lines, int start,
+			List<TaskItem> items) {
 		TaskItem item = null;
 		do {
-			item = parseNextTask(document, item);
+			item = parseNextTask(document, text, lines, start);
 			if (item != null) {
 				items.add(item);
+				start = item.range.getEnd().getLine() + 1;
 			}
 		} while (item != null);
 		return items;
 	}
 
-	private static int findContentStart(DocumentText text) {
-		for (int i = 0; i < text.length(); i++) {
-			if (Character.isWhitespace(text.charAt(i))) {
-				continue;
-			} else if (text.charAt(i) == '-') {
-				continue;
-			} else if (text.charAt(i) == '#') {
-				continue;
-			} else if (text.charAt(i) == '@') {
-				return i;
-			} else if (Character.isLetterOrDigit(text.charAt(i))) {
-				return i;
-			}
-		}
-		return -1;
-	}
-
-	private TaskItem parseNextTask(Document document, TaskItem previous) {
-		List<LaunchItems> launches = new ArrayList<>();
-		List<LaunchItem> launchItems = new ArrayList<>();
-		List<LaunchItem> launchArgItems = new ArrayList<>();
+	private TaskItem parseNextTask(Document document, DocumentText text, DocumentLines lines, int start) {
+		List<LaunchItems> launches = null;
+		List<LaunchItem> launchItems = null;
+		List<LaunchItem> launchArgItems = null;
 		LaunchItem envItem = null;
 		LaunchItem nameItem = null;
 		LaunchItem descItem = null;
-		Range launchItemsRange = null;
-		Position launchItemsStart = null;
+		int launchItemsStartLine = -1;
+		int launchItemsStartLength = 0;
 		Position launchItemsEnd = null;
-		TaskItem taskItem = null;
+		DefinitionItem definitionItem = null;
+		Range range = null;
 		int lineCount = document.lineCount();
-		int start = previous != null ? previous.range.getEnd().getLine() + 1 : 0;
-		Range lineRange = null;
-
-		for (int line = start; taskItem == null && line < lineCount; line++) {
-			lineRange = document.getLineRange(line);
-			DocumentText lineContent = document.content(lineRange);
-			DocumentText trim = lineContent.trimStart();
-			if (trim.hasText() && Character.isLetterOrDigit(trim.charAt(0))) {
-				DefinitionItem definitionItem = parseDefinition(lineContent, nameItem, line);
-				definitionItem.range = lineRange;
-				definitionItem.envItem = envItem;
-				definitionItem.nameItem = nameItem;
-				definitionItem.descItem = descItem;
-				taskItem = new TaskItem();
-				taskItem.definitionItem = definitionItem;
-				taskItem.range = Range.from(start, 0, line, lineContent.length());
-				if (!launchItems.isEmpty()) {
-					LaunchItems items = new LaunchItems();
-					items.envItem = envItem;
-					items.startLineRange = launchItemsRange;
-					items.range = Range.from(launchItemsStart, launchItemsEnd);
-					items.items.addAll(launchItems);
-					launches.add(items);
+		int lastLine = -1;
+		int maximumBlockLines = dataflowLanguagesProperties.getParse().getMaximumBlockLines();
+		ReconcileProblem limitProblem = null;
+
+		for (int line = start; definitionItem == null && line < lineCount; line++) {
+			lastLine = line;
+			byte kind = lines.getKind(line);
+			if (kind != DocumentLines.DEFINITION && kind != DocumentLines.BLANK && line - start >= maximumBlockLines) {
+				// metadata past a block limit is dropped, block still ends at its definition
+				if (limitProblem == null) {
+					limitProblem = new DefaultReconcileProblem(ERROR_PROBLEM_TYPE,
+							"Block exceeds maximum of " + maximumBlockLines
+									+ " lines, rest of its metadata is ignored",
+							document.getLineRange(line));
+				}
+			} else if (kind == DocumentLines.DEFINITION) {
+				Range lineRange = document.getLineRange(line);
+				DocumentText lineContent = document.content(lineRange);
+				definitionItem = parseDefinition(lineContent, line, limitProblem, envItem, nameItem, descItem);
+				range = Range.from(start, 0, line, lineContent.length());
+				if (launchItems != null) {
+					launches = add(launches, new LaunchItems(launchItems, Collections.emptyList(), envItem,
+							launchItemsStartLine, launchItemsStartLength, launchItemsEnd));
 				}
-				taskItem.deployments.addAll(new ArrayList<>(launches));
-				launchItems.clear();
-				launchArgItems.clear();
-				launches.clear();
+				launchItems = null;
+				launchArgItems = null;
 				envItem = null;
 				nameItem = null;
 				descItem = null;
-				launchItemsStart = null;
-			} else {
-				if (trim.length() > 2 && (trim.charAt(0) == '#' || trim.charAt(0) == '-')) {
-					LaunchItem item = new LaunchItem();
-					item.range = lineRange;
-					item.text = lineContent;
-
-					int contentStart = findContentStart(lineContent);
-					if (contentStart > -1) {
-						item.contentRange = Range.from(lineRange.getStart().getLine(), contentStart,
-								lineRange.getEnd().getLine(), lineRange.getEnd().getCharacter());
-					}
-					boolean match = true;
-					if (contentStart > -1 && lineContent.startsWith(DataflowLanguages.TEXT_ENV_PREFIX, contentStart)) {
-						envItem = item;
-					} else if (contentStart > -1 && lineContent.startsWith(DataflowLanguages.TEXT_NAME_PREFIX, contentStart)) {
-						nameItem = item;
-					} else if (contentStart > -1 && lineContent.startsWith(DataflowLanguages.TEXT_DESC_PREFIX, contentStart)) {
-						descItem = item;
-					} else if (contentStart > -1 && lineContent.startsWith(DataflowLanguages.TEXT_PROP_PREFIX, contentStart)) {
-						launchItems.add(item);
-					} else if (contentStart > -1 && lineContent.startsWith(DataflowLanguages.TEXT_ARG_PREFIX, contentStart)) {
-						launchArgItems.add(item);
-					} else {
-						match = false;
-					}
-					if (match) {
-						if (launchItemsStart == null) {
-							launchItemsStart = lineRange.getStart();
-							launchItemsRange = lineRange;
-						}
-						launchItemsEnd = lineRange.getEnd();
-					}
+				launchItemsStartLine = -1;
+			} else if (kind == DocumentLines.ENV || kind == DocumentLines.NAME || kind == DocumentLines.DESC
+					|| kind == DocumentLines.PROP || kind == DocumentLines.ARG) {
+				int length = document.getLineRange(line).getEnd().getCharacter();
+				LaunchItem item = new LaunchItem(text, lines.getLineStart(line), line, lines.getContentStart(line),
+						length, lines.getKey(text, line, length), lines.getValue(text, line, length));
+				if (kind == DocumentLines.ENV) {
+					envItem = item;
+				} else if (kind == DocumentLines.NAME) {
+					nameItem = item;
+				} else if (kind == DocumentLines.DESC) {
+					descItem = item;
+				} else if (kind == DocumentLines.PROP) {
+					launchItems = add(launchItems, item);
 				} else {
-					if (!launchItems.isEmpty() || !launchArgItems.isEmpty()) {
-						LaunchItems items = new LaunchItems();
-						items.envItem = envItem;
-						items.startLineRange = launchItemsRange;
-						items.range = Range.from(launchItemsStart, launchItemsEnd);
-						items.items.addAll(launchItems);
-						items.argItems.addAll(launchArgItems);
-						launches.add(items);
-						envItem = null;
-						nameItem = null;
-						descItem = null;
-						launchItemsStart = null;
-					}
-					launchItems.clear();
-					launchArgItems.clear();
+					launchArgItems = add(launchArgItems, item);
+				}
+				if (launchItemsStartLine < 0) {
+					launchItemsStartLine = line;
+					launchItemsStartLength = length;
 				}
+				launchItemsEnd = Position.from(line, length);
+			} else if (kind == DocumentLines.BLANK) {
+				if (launchItems != null || launchArgItems != null) {
+					launches = add(launches, new LaunchItems(
+							launchItems != null ? launchItems : Collections.emptyList(),
+							launchArgItems != null ? launchArgItems : Collections.emptyList(), envItem,
+							launchItemsStartLine, launchItemsStartLength, launchItemsEnd));
+					envItem = null;
+					nameItem = null;
+					descItem = null;
+					launchItemsStartLine = -1;
+				}
+				launchItems = null;
+				launchArgItems = null;
 			}
 		}
-		// no check case when with metadata but no dsl
-		if (envItem != null || nameItem != null || descItem != null) {
-			DefinitionItem definitionItem = new DefinitionItem();
-			definitionItem.envItem = envItem;
-			definitionItem.nameItem = nameItem;
-			definitionItem.descItem = descItem;
-			taskItem = new TaskItem();
-			taskItem.definitionItem = definitionItem;
-			taskItem.range = Range.from(launchItemsStart, lineRange.getEnd());
+
+		if (definitionItem == null) {
+			// no check case when with metadata but no dsl
+			if (envItem == null && nameItem == null && descItem == null) {
+				return null;
+			}
+			definitionItem = new DefinitionItem(null, limitProblem, -1, 0, envItem, nameItem, descItem);
+			launches = null;
+			range = Range.from(Position.from(launchItemsStartLine, 0), document.getLineRange(lastLine).getEnd());
 		}
+		return new TaskItem(launches != null ? launches : Collections.emptyList(), definitionItem, range);
+	}
 
-		return taskItem;
+	private static <T> List<T> add(List<T> list, T item) {
+		if (list == null) {
+			list = new ArrayList<>(2);
+		}
+		list.add(item);
+		return list;
 	}
 
+	/**
+	 * Find a {@code name =} prefix of a task definition. Scans a given text
+	 * once up to a first {@code =}, so callers should pass a single line
+	 * rather than a whole document.
+	 *
+	 * @param text the definition line
+	 * @return the name prefix including {@code =} or {@code null}
+	 */
 	protected DocumentText parseName(DocumentText text) {
 		if (text.length() == 0) {
 			return null;
@@ -316,54 +430,84 @@ public abstract class AbstractTaskLanguageService extends AbstractDslService {
 		return null;
 	}
 
-	private DefinitionItem parseDefinition(DocumentText text, LaunchItem nameItem, int line) {
-		DefinitionItem definitionItem = new DefinitionItem();
-		try {
-			int l = 0;
-			String taskName = null;
-			DocumentText name = parseName(text);
-			if (name != null) {
-				l = name.length();
-				name = name.trim();
-				int i = name.length();
-				name = name.subtext(0, i - 1);
-				name = name.trim();
-				taskName = name.toString();
+	/**
+	 * Parse a definition line. Lines longer than a configured maximum are
+	 * neither scanned for a name nor handed to a {@link TaskParser}.
+	 */
+	private DefinitionItem parseDefinition(DocumentText text, int line, ReconcileProblem limitProblem,
+			LaunchItem envItem, LaunchItem nameItem, LaunchItem descItem) {
+		int maximumLineLength = dataflowLanguagesProperties.getParse().getMaximumLineLength();
+		if (text.length() > maximumLineLength) {
+			ParsedNode<TaskNode> parsed = ParsedNode.error(maximumLineLength,
+					"Definition exceeds maximum length of " + maximumLineLength + " characters");
+			return new DefinitionItem(parsed, limitProblem, line, text.length(), envItem, nameItem, descItem);
+		}
+		int l = 0;
+		String taskName = null;
+		DocumentText name = parseName(text);
+		if (name != null) {
+			l = name.length();
+			name = name.trim();
+			int i = name.length();
+			name = name.subtext(0, i - 1);
+			name = name.trim();
+			taskName = name.toString();
+		}
+		if (taskName == null && nameItem != null && StringUtils.hasText(nameItem.getValue())) {
+			taskName = nameItem.getValue();
+		}
+		if (taskName == null) {
+			ParsedNode<TaskNode> parsed = ParsedNode.error(0, "Task Definition must have a name");
+			return new DefinitionItem(parsed, limitProblem, line, text.length(), envItem, nameItem, descItem);
+		}
+		ParsedNode<TaskNode> parsed = parseTaskNode(taskName, text.subtext(l, text.length()).toString());
+		return new DefinitionItem(parsed, limitProblem, line, text.length(), envItem, nameItem, descItem);
+	}
+
+	private ParsedNode<TaskNode> parseTaskNode(String taskName, String definition) {
+		return dataflowCacheService.getTaskNodeCache().get(taskName + "\u0000" + definition, key -> {
+			try {
+				return ParsedNode.of(new TaskParser(taskName, definition, true, true).parse());
+			} catch (ParseException e) {
+				return ParsedNode.error(e.getPosition(), e.getMessage());
 			}
-			if (taskName == null && nameItem != null) {
-				Range contentRange = nameItem.getContentRange();
-				DocumentText nameItemText = nameItem.getText();
-				int s = contentRange.getStart().getCharacter() + 6;
-				if (nameItemText.length() > s) {
-					taskName = nameItemText.substring(s, nameItem.getText().length()).trim().toString();
+		});
+	}
+
+	/**
+	 * Group of {@link LaunchItem}s separated by blank lines.
+	 */
+	public static class LaunchItems {
+		private final List<LaunchItem> items;
+		private final List<LaunchItem> argItems;
+		private final Map<String, String> properties;
+		private final List<String> arguments;
+		private final LaunchItem envItem;
+		private final int startLine;
+		private final int startLineLength;
+		private final Range range;
+
+		LaunchItems(List<LaunchItem> items, List<LaunchItem> argItems, LaunchItem envItem, int startLine,
+				int startLineLength, Position end) {
+			this.items = Collections.unmodifiableList(items);
+			this.argItems = Collections.unmodifiableList(argItems);
+			Map<String, String> properties = new LinkedHashMap<>();
+			for (LaunchItem item : items) {
+				if (item.getKey() != null) {
+					properties.put(item.getKey(), item.getValue());
 				}
 			}
-			if (taskName == null) {
-				Range range = Range.from(line, 0, line, 0);
-				DefaultReconcileProblem problem = new DefaultReconcileProblem(new ErrorProblemType(""),
-						"Task Definition must have a name", range);
-				definitionItem.reconcileProblem = problem;
-				return definitionItem;
+			this.properties = Collections.unmodifiableMap(properties);
+			List<String> arguments = new ArrayList<>(argItems.size());
+			for (LaunchItem item : argItems) {
+				arguments.add(item.getValue());
 			}
-			TaskParser parser = new TaskParser(taskName, text.subtext(l, text.length()).toString(), true, true);
-			TaskNode node = parser.parse();
-			definitionItem.taskNode = node;
-		} catch (ParseException e) {
-			String message = e.getMessage();
-			int position = e.getPosition();
-			Range range = Range.from(line, position, line, position);
-			DefaultReconcileProblem problem = new DefaultReconcileProblem(new ErrorProblemType(""), message, range);
-			definitionItem.reconcileProblem = problem;
+			this.arguments = Collections.unmodifiableList(arguments);
+			this.envItem = envItem;
+			this.startLine = startLine;
+			this.startLineLength = startLineLength;
+			this.range = Range.from(Position.from(startLine, 0), end);
 		}
-		return definitionItem;
-	}
-
-	public static class LaunchItems {
-		private List<LaunchItem> items = new ArrayList<>();
-		private List<LaunchItem> argItems = new ArrayList<>();
-		private Range startLineRange;
-		private Range range;
-		private LaunchItem envItem;
 
 		public List<LaunchItem> getItems() {
 			return items;
@@ -373,12 +517,34 @@ public abstract class AbstractTaskLanguageService extends AbstractDslService {
 			return argItems;
 		}
 
+		/**
+		 * Gets launch properties of this group in a document order.
+		 *
+		 * @return the launch properties
+		 */
+		public Map<String, String> getProperties() {
+			return properties;
+		}
+
+		/**
+		 * Gets command line arguments of this group in a document order.
+		 *
+		 * @return the command line arguments
+		 */
+		public List<String> getArguments() {
+			return arguments;
+		}
+
 		public LaunchItem getEnvItem() {
 			return envItem;
 		}
 
+		public String getEnvironment() {
+			return envItem != null ? envItem.getValue() : null;
+		}
+
 		public Range getStartLineRange() {
-			return startLineRange;
+			return Range.from(startLine, 0, startLine, startLineLength);
 		}
 
 		public Range getRange() {
@@ -386,42 +552,136 @@ public abstract class AbstractTaskLanguageService extends AbstractDslService {
 		}
 	}
 
+	/**
+	 * Metadata line, kept as an offset into a document text which is sliced
+	 * only when {@link #getText()} is called.
+	 */
 	public static class LaunchItem {
-		private Range contentRange;
-		private Range range;
-		private DocumentText text;
+		private final DocumentText documentText;
+		private final int offset;
+		private final int line;
+		private final int contentStart;
+		private final int length;
+		private final String key;
+		private final String value;
+
+		LaunchItem(DocumentText documentText, int offset, int line, int contentStart, int length, String key,
+				String value) {
+			this.documentText = documentText;
+			this.offset = offset;
+			this.line = line;
+			this.contentStart = contentStart;
+			this.length = length;
+			this.key = key;
+			this.value = value;
+		}
 
 		public Range getRange() {
-			return range;
+			return Range.from(line, 0, line, length);
 		}
 
 		public Range getContentRange() {
-			return contentRange;
+			return Range.from(line, contentStart, line, length);
 		}
 
 		public DocumentText getText() {
-			return text;
+			return documentText.subtext(offset, offset + length);
+		}
+
+		/**
+		 * Gets a property key of an {@code @prop} line, {@code null} for
+		 * other lines.
+		 *
+		 * @return the property key
+		 */
+		public String getKey() {
+			return key;
+		}
+
+		/**
+		 * Gets a trimmed value after a metadata keyword, or after {@code =}
+		 * for an {@code @prop} line.
+		 *
+		 * @return the value
+		 */
+		public String getValue() {
+			return value;
 		}
 	}
 
+	/**
+	 * Task definition line together with its metadata. A parsed node or a
+	 * parse error is shared with other documents having a same definition.
+	 * A block exceeding a line limit carries a limit problem in addition to
+	 * a possible parse error.
+	 */
 	public static class DefinitionItem {
-		private TaskNode taskNode;
-		private Range range;
-		protected ReconcileProblem reconcileProblem;
-		private LaunchItem envItem;
-		private LaunchItem nameItem;
-		private LaunchItem descItem;
+		private final ParsedNode<TaskNode> parsed;
+		private final int line;
+		private final int length;
+		private final ReconcileProblem limitProblem;
+		private final LaunchItem envItem;
+		private final LaunchItem nameItem;
+		private final LaunchItem descItem;
+
+		DefinitionItem(ParsedNode<TaskNode> parsed, ReconcileProblem limitProblem, int line, int length,
+				LaunchItem envItem, LaunchItem nameItem, LaunchItem descItem) {
+			this.parsed = parsed;
+			this.limitProblem = limitProblem;
+			this.line = line;
+			this.length = length;
+			this.envItem = envItem;
+			this.nameItem = nameItem;
+			this.descItem = descItem;
+		}
 
 		public TaskNode getTaskNode() {
-			return taskNode;
+			return parsed != null ? parsed.getNode() : null;
 		}
 
 		public Range getRange() {
-			return range;
+			return line > -1 ? Range.from(line, 0, line, length) : null;
 		}
 
+		/**
+		 * Gets a first problem of a definition. A parse error, including a
+		 * missing task name, takes precedence over a limit problem.
+		 *
+		 * @return the problem or {@code null}
+		 */
 		public ReconcileProblem getReconcileProblem() {
-			return reconcileProblem;
+			ReconcileProblem parseProblem = getParseProblem();
+			return parseProblem != null ? parseProblem : limitProblem;
+		}
+
+		/**
+		 * Gets all problems of a definition, a parse error first.
+		 *
+		 * @return the problems
+		 */
+		public List<ReconcileProblem> getReconcileProblems() {
+			ReconcileProblem parseProblem = getParseProblem();
+			if (parseProblem == null) {
+				return limitProblem != null ? Collections.singletonList(limitProblem) : Collections.emptyList();
+			}
+			return limitProblem != null ? Arrays.asList(parseProblem, limitProblem)
+					: Collections.singletonList(parseProblem);
+		}
+
+		/**
+		 * Gets a parse error of a definition, ignoring a limit problem which
+		 * still leaves a definition with a usable node.
+		 *
+		 * @return the problem or {@code null}
+		 */
+		public ReconcileProblem getParseProblem() {
+			if (parsed == null || parsed.getNode() != null) {
+				return null;
+			}
+			// cached error position is relative to a definition, rebase it to this line
+			int position = parsed.getErrorPosition();
+			return new DefaultReconcileProblem(ERROR_PROBLEM_TYPE, parsed.getErrorMessage(),
+					Range.from(line, position, line, position));
 		}
 
 		public LaunchItem getEnvItem() {
@@ -435,12 +695,45 @@ public abstract class AbstractTaskLanguageService extends AbstractDslService {
 		public LaunchItem getDescItem() {
 			return descItem;
 		}
+
+		/**
+		 * Gets a task name from a parsed definition, falling back to an
+		 * {@code @name} line.
+		 *
+		 * @return the task name or {@code null}
+		 */
+		public String getName() {
+			String name = getTaskNode() != null ? getTaskNode().getName() : null;
+			if (!StringUtils.hasText(name) && nameItem != null) {
+				name = nameItem.getValue();
+			}
+			return name;
+		}
+
+		public String getEnvironment() {
+			return envItem != null ? envItem.getValue() : null;
+		}
+
+		public String getDescription() {
+			return descItem != null ? descItem.getValue() : null;
+		}
 	}
 
+	/**
+	 * Block of a task document ending with a definition line. Items are
+	 * immutable, problems found against a registry are never kept in them as
+	 * items are shared regardless of an environment.
+	 */
 	public static class TaskItem {
-		private List<LaunchItems> deployments = new ArrayList<>();
-		private DefinitionItem definitionItem;
-		private Range range;
+		private final List<LaunchItems> deployments;
+		private final DefinitionItem definitionItem;
+		private final Range range;
+
+		TaskItem(List<LaunchItems> deployments, DefinitionItem definitionItem, Range range) {
+			this.deployments = Collections.unmodifiableList(deployments);
+			this.definitionItem = definitionItem;
+			this.range = range;
+		}
 
 		public List<LaunchItems> getDeployments() {
 			return deployments;
@@ -44,9 +44,10 @@ public class TaskLanguageCompletioner extends AbstractTaskLanguageService implem
 				return Flux.empty();
 			}
 			final Range prefixRange = Range.from(position.getLine(), 0, position.getLine(), position.getCharacter());
-			String prefix = context.getDocument().content(prefixRange).toString();
+			DocumentText prefixText = context.getDocument().content(prefixRange);
+			String prefix = prefixText.toString();
 			int nameLength = 0;
-			DocumentText parsedName = parseName(context.getDocument().content());
+			DocumentText parsedName = parseName(prefixText);
 			if (parsedName != null) {
 				nameLength = parsedName.length();
 			}
@@ -15,12 +15,9 @@
  */
 package org.springframework.cloud.dataflow.language.server.task;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.springframework.cloud.dataflow.core.dsl.TaskNode;
@@ -28,9 +25,7 @@ import org.springframework.cloud.dataflow.language.server.DataflowLanguages;
 import org.springframework.cloud.dataflow.language.server.domain.DataflowTaskCreateParams;
 import org.springframework.cloud.dataflow.language.server.domain.DataflowTaskDestroyParams;
 import org.springframework.cloud.dataflow.language.server.domain.DataflowTaskLaunchParams;
-import org.springframework.dsl.document.DocumentText;
 import org.springframework.dsl.domain.CodeLens;
-import org.springframework.dsl.domain.Range;
 import org.springframework.dsl.service.DslContext;
 import org.springframework.dsl.service.Lenser;
 import org.springframework.stereotype.Component;
@@ -58,8 +53,8 @@ public class TaskLanguageLenser extends AbstractTaskLanguageService implements L
 						.title(DataflowLanguages.COMMAND_TASK_LAUNCH_TITLE)
 						.argument(DataflowTaskLaunchParams.from(getTaskName(item),
 							getTaskEnvironment(deployment, item),
-							getDeploymentProperties(deployment.getItems()),
-							getCommandLineArgs(deployment.getArgItems())))
+							deployment.getProperties(),
+							deployment.getArguments()))
 						.and()
 					.build();
 			})
@@ -108,95 +103,22 @@ public class TaskLanguageLenser extends AbstractTaskLanguageService implements L
 	}
 
 	private String getTaskName(TaskItem item) {
-		DefinitionItem definitionItem = item.getDefinitionItem();
-		String taskName = definitionItem.getTaskNode() != null ? definitionItem.getTaskNode().getName() : null;
-		if (!StringUtils.hasText(taskName)) {
-			LaunchItem nameItem = definitionItem.getNameItem();
-			if (nameItem != null) {
-				Range contentRange = nameItem.getContentRange();
-				taskName = nameItem.getText()
-						.substring(contentRange.getStart().getCharacter() + 5, nameItem.getText().length()).trim()
-						.toString();
-			}
-		}
-		return taskName;
+		return item.getDefinitionItem().getName();
 	}
 
 	private String getTaskDescription(TaskItem item) {
-		String taskDescription = null;
-		LaunchItem descItem = item.getDefinitionItem().getDescItem();
-		if (descItem != null) {
-			Range contentRange = descItem.getContentRange();
-			taskDescription = descItem.getText()
-					.substring(contentRange.getStart().getCharacter() + 5, descItem.getText().length()).trim()
-					.toString();
-		}
-		return taskDescription;
+		return item.getDefinitionItem().getDescription();
 	}
 
 	private String getTaskEnvironment(TaskItem item) {
-		String taskEnvironment = null;
-		LaunchItem envItem = item.getDefinitionItem().getEnvItem();
-		if (envItem != null) {
-			Range contentRange = envItem.getContentRange();
-			taskEnvironment = envItem.getText()
-					.substring(contentRange.getStart().getCharacter() + 4, envItem.getText().length()).trim()
-					.toString();
-		}
-		return taskEnvironment;
+		return item.getDefinitionItem().getEnvironment();
 	}
 
 	private String getTaskEnvironment(LaunchItems items, TaskItem item) {
-		String taskEnvironment = null;
-		LaunchItem envItem = items.getEnvItem();
-		if (envItem != null) {
-			Range contentRange = envItem.getContentRange();
-			taskEnvironment = envItem.getText()
-					.substring(contentRange.getStart().getCharacter() + 4, envItem.getText().length()).trim()
-					.toString();
-		}
+		String taskEnvironment = items.getEnvironment();
 		if (!StringUtils.hasText(taskEnvironment)) {
 			taskEnvironment = getTaskEnvironment(item);
 		}
 		return taskEnvironment;
 	}
-
-	private Map<String, String> getDeploymentProperties(List<LaunchItem> items) {
-		HashMap<String, String> properties = new HashMap<String, String>();
-		items.stream().forEach(item -> {
-			DocumentText[] split = item.getText().splitFirst('=');
-			if (split.length == 2) {
-				int firstAlphaNumeric = firstLetterOrDigit(split[0]);
-				if (firstAlphaNumeric > -1) {
-					int lastIndexOf = split[0].indexOf(DataflowLanguages.TEXT_PROP_PREFIX);
-					if (lastIndexOf > -1) {
-						properties.put(split[0].subSequence(lastIndexOf + DataflowLanguages.TEXT_PROP_PREFIX.length(),
-								split[0].length()).toString().trim(), split[1].toString().trim());
-					}
-				}
-			}
-		});
-		return properties;
-	}
-	private List<String> getCommandLineArgs(List<LaunchItem> items) {
-		List<String> args = new ArrayList<>();
-		items.stream().forEach(item -> {
-			int lastIndexOf = item.getText().indexOf(DataflowLanguages.TEXT_ARG_PREFIX);
-			if (lastIndexOf > -1) {
-				args.add(item.getText()
-						.subSequence(lastIndexOf + DataflowLanguages.TEXT_ARG_PREFIX.length(), item.getText().length())
-						.toString().trim());
-			}
-		});
-		return args;
-	}
-
-	private static int firstLetterOrDigit(DocumentText text) {
-		for (int i = 0; i < text.length(); i++) {
-			if (Character.isLetterOrDigit(text.charAt(i))) {
-				return i;
-			}
-		}
-		return -1;
-	}
 }
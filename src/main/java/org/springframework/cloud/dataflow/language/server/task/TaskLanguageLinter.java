@@ -15,21 +15,27 @@
  */
 package org.springframework.cloud.dataflow.language.server.task;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cloud.dataflow.core.ApplicationType;
 import org.springframework.cloud.dataflow.core.dsl.TaskApp;
+import org.springframework.cloud.dataflow.language.server.DataflowLanguages;
+import org.springframework.cloud.dataflow.language.server.domain.DataflowEnvironmentParams;
+import org.springframework.cloud.dataflow.language.server.support.AppRegistrySnapshot;
 import org.springframework.cloud.dataflow.rest.client.DataFlowOperations;
-import org.springframework.cloud.dataflow.rest.resource.AppRegistrationResource;
+import org.springframework.dsl.document.Document;
+import org.springframework.dsl.jsonrpc.session.JsonRpcSession;
+import org.springframework.dsl.lsp.LspSystemConstants;
 import org.springframework.dsl.service.DslContext;
 import org.springframework.dsl.service.reconcile.DefaultReconcileProblem;
 import org.springframework.dsl.service.reconcile.Linter;
 import org.springframework.dsl.service.reconcile.ReconcileProblem;
-import org.springframework.hateoas.PagedModel;
 import org.springframework.stereotype.Component;
 
 import reactor.core.publisher.Flux;
@@ -41,36 +47,67 @@ public class TaskLanguageLinter extends AbstractTaskLanguageService implements L
 
 	@Override
 	public Flux<ReconcileProblem> lint(DslContext context) {
-		return Flux.defer(() -> {
-			return parse(context.getDocument())
-				.map(item -> checkName(context, item))
-				.filter(item -> item.getDefinitionItem().getReconcileProblem() != null)
-				.map(item -> item.getDefinitionItem().getReconcileProblem());
-		});
+		Document document = context.getDocument();
+		documentVersionTracker.track(document);
+		return dataflowMetricsService.timeDiagnostics(DataflowLanguages.LANGUAGE_TASK_ID,
+				() -> documentVersionTracker.isSuperseded(document),
+				documentVersionTracker.supersedable(document, parseEagerly(document).flatMapMany(items -> {
+					return Flux.concat(parseProblems(items), registryProblems(context, items));
+				})));
 	}
 
-	private TaskItem checkName(DslContext context, TaskItem taskItem) {
-		DefinitionItem definitionItem = taskItem.getDefinitionItem();
-		if (definitionItem.getReconcileProblem() == null) {
-			DataFlowOperations operations = resolveDataFlowOperations(context, definitionItem.getRange().getStart());
-			if (operations == null) {
-				return taskItem;
+	private Flux<ReconcileProblem> parseProblems(List<TaskItem> items) {
+		return Flux.fromIterable(items)
+			.concatMapIterable(item -> item.getDefinitionItem().getReconcileProblems());
+	}
+
+	/**
+	 * Check task apps against a registry of an environment each task resolves
+	 * to. Registrations are read from a snapshot of an environment so that
+	 * a lint only calls a server if a snapshot is not yet loaded.
+	 */
+	private Flux<ReconcileProblem> registryProblems(DslContext context, List<TaskItem> items) {
+		DataflowEnvironmentParams params = null;
+		JsonRpcSession session = context.getAttribute(LspSystemConstants.CONTEXT_SESSION_ATTRIBUTE);
+		if (session != null) {
+			params = session.getAttribute(DataflowLanguages.CONTEXT_SESSION_ENVIRONMENTS_ATTRIBUTE);
+		}
+		Map<String, List<TaskItem>> environments = new LinkedHashMap<>();
+		for (TaskItem item : items) {
+			DefinitionItem definitionItem = item.getDefinitionItem();
+			if (definitionItem.getTaskNode() != null && definitionItem.getParseProblem() == null) {
+				String environment = resolveDefinedEnvironmentName(item);
+				if (environment == null && params != null) {
+					environment = params.getDefaultEnvironment();
+				}
+				environments.computeIfAbsent(environment, key -> new ArrayList<>()).add(item);
 			}
-			PagedModel<AppRegistrationResource> taskAppsResource = operations.appRegistryOperations()
-					.list(ApplicationType.task);
-			Set<String> validNames = taskAppsResource.getContent().stream()
-					.map(appRegistration -> appRegistration.getName()).collect(Collectors.toSet());
-			List<TaskApp> taskApps = definitionItem.getTaskNode().getTaskApps();
-			for (TaskApp taskApp : taskApps) {
-				if (!validNames.contains(taskApp.getName())) {
+		}
+		return appRegistrySnapshotService.check(environments,
+				(environment, environmentItems) -> registryProblems(context, environment, environmentItems));
+	}
+
+	private List<ReconcileProblem> registryProblems(DslContext context, String environment, List<TaskItem> items) {
+		DataFlowOperations operations = resolveDataFlowOperations(context,
+				items.get(0).getDefinitionItem().getRange().getStart());
+		if (operations == null) {
+			return Collections.emptyList();
+		}
+		AppRegistrySnapshot snapshot = appRegistrySnapshotService.getSnapshot(environment, ApplicationType.task,
+				operations);
+		List<ReconcileProblem> found = new ArrayList<>();
+		for (TaskItem item : items) {
+			DefinitionItem definitionItem = item.getDefinitionItem();
+			for (TaskApp taskApp : definitionItem.getTaskNode().getTaskApps()) {
+				if (!snapshot.contains(taskApp.getName())) {
 					DefaultReconcileProblem problem = new DefaultReconcileProblem(new ErrorProblemType(""),
 							"Task app " + taskApp.getName() + " is not registered", definitionItem.getRange());
-					definitionItem.reconcileProblem = problem;
-					log.debug("Setting problem {}", problem);
+					found.add(problem);
+					log.debug("Found problem {} for environment {}", problem, environment);
 					break;
 				}
 			}
 		}
-		return taskItem;
+		return found;
 	}
 }
@@ -15,20 +15,27 @@
  */
 package org.springframework.cloud.dataflow.language.server.task;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.cloud.dataflow.core.dsl.TaskNode;
+import org.springframework.cloud.dataflow.language.server.DataflowLanguages;
+import org.springframework.cloud.dataflow.language.server.support.WorkspaceSymbol;
+import org.springframework.cloud.dataflow.language.server.support.WorkspaceSymbolSource;
+import org.springframework.dsl.document.TextDocument;
 import org.springframework.dsl.domain.Range;
 import org.springframework.dsl.domain.SymbolKind;
 import org.springframework.dsl.service.DslContext;
 import org.springframework.dsl.service.symbol.SymbolizeInfo;
 import org.springframework.dsl.service.symbol.Symbolizer;
 import org.springframework.dsl.support.DslUtils;
+import org.springframework.dsl.symboltable.Symbol;
 import org.springframework.dsl.symboltable.SymbolTable;
 import org.springframework.dsl.symboltable.model.ClassSymbol;
 import org.springframework.dsl.symboltable.model.LocalScope;
 import org.springframework.dsl.symboltable.support.DefaultSymbolTable;
-import org.springframework.dsl.symboltable.support.DocumentSymbolTableVisitor;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
@@ -41,7 +48,11 @@ import reactor.core.publisher.Mono;
  *
  */
 @Component
-public class TaskLanguageSymbolizer extends AbstractTaskLanguageService implements Symbolizer {
+public class TaskLanguageSymbolizer extends AbstractTaskLanguageService implements Symbolizer,
+		WorkspaceSymbolSource {
+
+	private static final Map<Character, Class<? extends Symbol>> QUERY_PREFIXES = Collections
+			.singletonMap('@', TaskSymbol.class);
 
 	@Override
 	public SymbolizeInfo symbolize(DslContext context) {
@@ -54,19 +65,22 @@ public class TaskLanguageSymbolizer extends AbstractTaskLanguageService implemen
 	}
 
 	private SymbolizeInfo symbolizeInternal(DslContext context, String query) {
-		Mono<SymbolizeInfo> symbolizeInfo = parse(context.getDocument())
-			.collectList()
-			.map(items -> buildTable(items))
-			.map(table -> {
-				DocumentSymbolTableVisitor visitor = new DocumentSymbolTableVisitor(context.getDocument().uri());
-				table.visitSymbolTable(visitor);
-				return visitor;
-			})
-			.map(visitor -> visitor.getSymbolizeInfo());
+		Mono<SymbolizeInfo> symbolizeInfo = parseSymbols(context.getDocument())
+			.map(symbolized -> symbolized.getSymbolizeInfo(query, QUERY_PREFIXES));
 		return DslUtils.symbolizeInfoFromMono(symbolizeInfo);
 	}
 
-	private static SymbolTable buildTable(List<TaskItem> items) {
+	@Override
+	public String getFileExtension() {
+		return DataflowLanguages.LANGUAGE_TASK_ID;
+	}
+
+	@Override
+	public List<WorkspaceSymbol> parseWorkspaceSymbols(String uri, String content) {
+		return workspaceSymbols(uri, parseDetached(new TextDocument(uri, DataflowLanguages.LANGUAGE_TASK, 0, content)));
+	}
+
+	static SymbolTable buildTable(List<TaskItem> items) {
 		DefaultSymbolTable table = new DefaultSymbolTable();
 		for (TaskItem item : items) {
 			TaskNode taskNode = item.getDefinitionItem().getTaskNode();
@@ -76,7 +90,7 @@ public class TaskLanguageSymbolizer extends AbstractTaskLanguageService implemen
 			int line = item.getDefinitionItem().getRange().getStart().getLine();
 			int startPos = taskNode.getStartPos();
 			int endPos = taskNode.getEndPos();
-			String taskName = getTaskName(item);
+			String taskName = item.getDefinitionItem().getName();
 
 			LocalScope taskScope = new LocalScope(table.getGlobalScope());
 			table.getGlobalScope().nest(taskScope);
@@ -88,18 +102,27 @@ public class TaskLanguageSymbolizer extends AbstractTaskLanguageService implemen
 		return table;
 	}
 
-	private static String getTaskName(TaskItem item) {
-		String taskName = item.getDefinitionItem().getTaskNode().getName();
-		if (!StringUtils.hasText(taskName)) {
-			LaunchItem nameItem = item.getDefinitionItem().getNameItem();
-			if (nameItem != null) {
-				Range contentRange = nameItem.getContentRange();
-				taskName = nameItem.getText()
-						.substring(contentRange.getStart().getCharacter() + 5, nameItem.getText().length()).trim()
-						.toString();
+	/**
+	 * Build symbols of task documents kept in a workspace wide index, one per
+	 * named task definition positioned as in {@link #buildTable(List)}.
+	 *
+	 * @param uri the document uri
+	 * @param items the task items
+	 * @return the workspace symbols
+	 */
+	static List<WorkspaceSymbol> workspaceSymbols(String uri, List<TaskItem> items) {
+		List<WorkspaceSymbol> symbols = new ArrayList<>();
+		for (TaskItem item : items) {
+			TaskNode taskNode = item.getDefinitionItem().getTaskNode();
+			String taskName = item.getDefinitionItem().getName();
+			if (taskNode == null || !StringUtils.hasText(taskName)) {
+				continue;
 			}
+			int line = item.getDefinitionItem().getRange().getStart().getLine();
+			symbols.add(new WorkspaceSymbol(taskName, WorkspaceSymbol.Kind.TASK, uri,
+					Range.from(line, taskNode.getStartPos(), line, taskNode.getEndPos()), null));
 		}
-		return taskName;
+		return symbols;
 	}
 
 	public static class TaskSymbol extends ClassSymbol {
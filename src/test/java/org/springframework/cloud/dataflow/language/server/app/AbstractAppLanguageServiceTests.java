@@ -18,17 +18,28 @@ package org.springframework.cloud.dataflow.language.server.app;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.cloud.dataflow.language.server.DataflowLanguages;
 import org.springframework.cloud.dataflow.language.server.app.AbstractAppLanguageService.AppEntry;
+import org.springframework.cloud.dataflow.language.server.support.DataflowCacheService;
 import org.springframework.dsl.document.Document;
 import org.springframework.dsl.document.TextDocument;
+import org.springframework.dsl.domain.Range;
 
 public class AbstractAppLanguageServiceTests {
 
 	private static final TestAppLanguageService service = new TestAppLanguageService();
 
+	@BeforeEach
+	public void setup() {
+		service.setDataflowCacheService(new DataflowCacheService());
+	}
+
 	public static final String DSL_COMMON_TYPES =
 		"source.time=maven://org.springframework.cloud.stream.app:time-source-rabbit:2.0.1.RELEASE\n" +
 		"source.time.metadata=source.time.metadata=maven://org.springframework.cloud.stream.app:time-source-rabbit:jar:metadata:2.0.1.RELEASE\n" +
@@ -42,6 +53,70 @@ public class AbstractAppLanguageServiceTests {
 		assertThat(result).hasSize(2);
 	}
 
+	@Test
+	public void testIncrementalParseMatchesFullParse() {
+		String changed = DSL_COMMON_TYPES
+			.replace("sink.log=", "sink.logx=")
+			.replace("sink.log.metadata=", "\nsink.logx.metadata=");
+		Document document0 = new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_APP, 0, DSL_COMMON_TYPES);
+		Document document1 = new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_APP, 1, changed);
+		service.parseApps(document0);
+		List<AppEntry> incremental = sorted(service.parseApps(document1));
+
+		service.setDataflowCacheService(new DataflowCacheService());
+		List<AppEntry> full = sorted(service.parseApps(document1));
+
+		assertThat(incremental).hasSize(2);
+		assertThat(incremental.get(0).getName()).isEqualTo("logx");
+		assertThat(incremental.get(0).getAppRange().getStart().getLine()).isEqualTo(2);
+		assertThat(incremental.get(0).getMetadataRange().getStart().getLine()).isEqualTo(4);
+		assertThat(incremental.get(1).getName()).isEqualTo("time");
+		assertThat(incremental.get(1).getAppRange().getStart().getLine()).isEqualTo(0);
+		for (int i = 0; i < full.size(); i++) {
+			assertThat(incremental.get(i).getName()).isEqualTo(full.get(i).getName());
+			assertThat(incremental.get(i).getVersion()).isEqualTo(full.get(i).getVersion());
+			assertThat(incremental.get(i).getAppUri()).isEqualTo(full.get(i).getAppUri());
+			assertThat(describe(incremental.get(i).getAppRange())).isEqualTo(describe(full.get(i).getAppRange()));
+			assertThat(describe(incremental.get(i).getMetadataRange()))
+				.isEqualTo(describe(full.get(i).getMetadataRange()));
+		}
+	}
+
+	@Test
+	public void testEntriesNotSharedBetweenVersions() {
+		Document document0 = new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_APP, 0, DSL_COMMON_TYPES);
+		Document document1 = new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_APP, 1, "\n" + DSL_COMMON_TYPES);
+		List<AppEntry> result0 = sorted(service.parseApps(document0));
+		List<AppEntry> result1 = sorted(service.parseApps(document1));
+		assertThat(result0.get(0).getAppRange().getStart().getLine()).isEqualTo(2);
+		assertThat(result1.get(0).getAppRange().getStart().getLine()).isEqualTo(3);
+		assertThat(result1.get(1).getAppRange().getStart().getLine()).isEqualTo(1);
+	}
+
+	@Test
+	public void testLastLinesOfAppWin() {
+		String data = DSL_COMMON_TYPES + "\n"
+				+ "sink.log.metadata=maven://org.springframework.cloud.stream.app:log-sink-kafka:jar:metadata:2.0.2.RELEASE";
+		Document document = new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_APP, 0, data);
+		List<AppEntry> result = sorted(service.parseApps(document));
+		assertThat(result).hasSize(2);
+		assertThat(result.get(0).getName()).isEqualTo("log");
+		assertThat(result.get(0).getAppRange()).isEqualTo(Range.from(2, 0, 2, 8));
+		assertThat(result.get(0).getMetadataRange()).isEqualTo(Range.from(4, 0, 4, 17));
+		assertThat(result.get(0).getMetadataUri()).contains("log-sink-kafka");
+		assertThat(result.get(0).getAppRange()).isNotSameAs(result.get(0).getAppRange());
+	}
+
+	private static List<AppEntry> sorted(Collection<AppEntry> apps) {
+		return apps.stream().sorted(Comparator.comparing(AppEntry::getName)).collect(Collectors.toList());
+	}
+
+	private static String describe(Range range) {
+		return range == null ? null
+				: range.getStart().getLine() + ":" + range.getStart().getCharacter() + "-"
+						+ range.getEnd().getLine() + ":" + range.getEnd().getCharacter();
+	}
+
 	private static class TestAppLanguageService extends AbstractAppLanguageService {
 
 		public TestAppLanguageService() {
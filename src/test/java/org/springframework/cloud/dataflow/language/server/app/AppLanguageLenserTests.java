@@ -20,17 +20,18 @@ import static org.assertj.core.api.Assertions.assertThat;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.cloud.dataflow.language.server.DataflowLanguages;
+import org.springframework.cloud.dataflow.language.server.support.DataflowCacheService;
 import org.springframework.dsl.document.Document;
 import org.springframework.dsl.document.TextDocument;
 import org.springframework.dsl.domain.CodeLens;
 import org.springframework.dsl.service.DslContext;
-import org.springframework.dsl.service.Lenser;
 
 public class AppLanguageLenserTests {
 
-	private final static Lenser lenser = new AppLanguageLenser();
+	private final AppLanguageLenser lenser = new AppLanguageLenser();
 	private final String CONTENT1 =
 		"task.timestamp=maven://org.springframework.cloud.task.app:timestamp-task:1.3.0.RELEASE" +
 		"\n" +
@@ -56,6 +57,11 @@ public class AppLanguageLenserTests {
 		"\n" +
 		"source.time.metadata=https://repo.spring.io/libs-release/org/springframework/cloud/stream/app/time-source-rabbit/2.1.0.RELEASE/time-source-rabbit-2.1.0.RELEASE-metadata.jar";
 
+	@BeforeEach
+	public void setup() {
+		lenser.setDataflowCacheService(new DataflowCacheService());
+	}
+
 	@Test
 	public void testOneMavenWithMetadata() {
 		Document document = new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_APP, 0, CONTENT1);
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.dataflow.language.server.app;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.dataflow.language.server.DataflowLanguages;
+import org.springframework.cloud.dataflow.language.server.support.DataflowCacheService;
+import org.springframework.cloud.dataflow.language.server.support.DataflowMetricsService;
+import org.springframework.cloud.dataflow.language.server.support.DocumentKey;
+import org.springframework.dsl.document.Document;
+import org.springframework.dsl.document.TextDocument;
+import org.springframework.dsl.service.DslContext;
+import org.springframework.dsl.service.reconcile.ReconcileProblem;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class AppLanguageLinterTests {
+
+	private final AppLanguageLinter linter = new AppLanguageLinter();
+
+	@BeforeEach
+	public void setup() {
+		linter.setDataflowCacheService(new DataflowCacheService());
+	}
+
+	@Test
+	public void testParseTimed() {
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		DataflowMetricsService metricsService = new DataflowMetricsService();
+		metricsService.setMeterRegistry(meterRegistry);
+		linter.setDataflowMetricsService(metricsService);
+		Document document = new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_APP, 0,
+				"source.time=maven://org.springframework.cloud.stream.app:time-source-rabbit:2.0.1.RELEASE");
+		List<ReconcileProblem> problems = linter.lint(DslContext.builder().document(document).build()).toStream()
+				.collect(Collectors.toList());
+		assertThat(problems).isEmpty();
+		assertThat(linter.dataflowCacheService.getAppItemCache()
+				.getIfPresent(DocumentKey.of("fakeuri", 0))).hasSize(1);
+		assertThat(meterRegistry.get(DataflowMetricsService.METRIC_DIAGNOSTICS_LATENCY)
+				.tag("language", DataflowLanguages.LANGUAGE_APP_ID)
+				.tag(DataflowMetricsService.TAG_OUTCOME, DataflowMetricsService.OUTCOME_COMPLETED).timer().count())
+				.isEqualTo(1);
+	}
+}
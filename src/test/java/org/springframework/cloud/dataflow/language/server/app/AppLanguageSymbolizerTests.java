@@ -20,8 +20,10 @@ import static org.assertj.core.api.Assertions.assertThat;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.cloud.dataflow.language.server.DataflowLanguages;
+import org.springframework.cloud.dataflow.language.server.support.DataflowCacheService;
 import org.springframework.dsl.document.Document;
 import org.springframework.dsl.document.TextDocument;
 import org.springframework.dsl.domain.DocumentSymbol;
@@ -33,6 +35,11 @@ public class AppLanguageSymbolizerTests {
 
 	private final AppLanguageSymbolizer symbolizer = new AppLanguageSymbolizer();
 
+	@BeforeEach
+	public void setup() {
+		symbolizer.setDataflowCacheService(new DataflowCacheService());
+	}
+
 	@Test
 	public void testCommonTypes() {
 		Document document = new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_APP, 0,
@@ -0,0 +1,224 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.dataflow.language.server.stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.dataflow.language.server.DataflowLanguages;
+import org.springframework.cloud.dataflow.language.server.stream.AbstractStreamLanguageService.DefinitionItem;
+import org.springframework.cloud.dataflow.language.server.stream.AbstractStreamLanguageService.DeploymentItem;
+import org.springframework.cloud.dataflow.language.server.stream.AbstractStreamLanguageService.DeploymentItems;
+import org.springframework.cloud.dataflow.language.server.stream.AbstractStreamLanguageService.StreamItem;
+import org.springframework.cloud.dataflow.language.server.support.DataflowCacheService;
+import org.springframework.dsl.document.Document;
+import org.springframework.dsl.document.TextDocument;
+import org.springframework.dsl.domain.Range;
+
+/**
+ * Tests verifying that incrementally parsed stream documents are identical
+ * to a full parse of a same content.
+ */
+public class AbstractStreamLanguageServiceIncrementalTests {
+
+	private final TestStreamLanguageService incremental = new TestStreamLanguageService();
+	private final TestStreamLanguageService full = new TestStreamLanguageService();
+
+	private static final String DSL_MANY_STREAMS =
+		"# first\n" +
+		"-- @env env1\n" +
+		"-- @prop foo1=bar1\n" +
+		"\n" +
+		"-- @name name1\n" +
+		"-- @desc desc1\n" +
+		"time|log\n" +
+		"\n" +
+		"stream2=time|transform|log\n" +
+		"#\n" +
+		"#\n" +
+		"\n" +
+		"-- @env env2\n" +
+		"-- @prop foo2=bar2\n" +
+		"-- @prop foo3=bar3\n" +
+		"stream3=http|log\n" +
+		"ticktock = time --fixed-delay=| log\n" +
+		"\n" +
+		"-- @name name4\n" +
+		"tap4 = :stream2.time > log\n";
+
+	@BeforeEach
+	public void setup() {
+		incremental.setDataflowCacheService(new DataflowCacheService());
+		full.setDataflowCacheService(new DataflowCacheService());
+	}
+
+	@Test
+	public void testEditInsideDefinition() {
+		assertIncremental(DSL_MANY_STREAMS, DSL_MANY_STREAMS.replace("stream2=time|transform|log", "stream2=time|log"));
+	}
+
+	@Test
+	public void testEditBreaksDefinition() {
+		assertIncremental(DSL_MANY_STREAMS, DSL_MANY_STREAMS.replace("stream3=http|log", "stream3=http|"));
+	}
+
+	@Test
+	public void testInsertLines() {
+		assertIncremental(DSL_MANY_STREAMS,
+				DSL_MANY_STREAMS.replace("stream2=time|transform|log\n", "stream2=time|transform|log\n\nnew=time|log\n"));
+	}
+
+	@Test
+	public void testRemoveLines() {
+		assertIncremental(DSL_MANY_STREAMS, DSL_MANY_STREAMS.replace("-- @env env2\n-- @prop foo2=bar2\n", ""));
+	}
+
+	@Test
+	public void testDefinitionTurnsIntoComment() {
+		assertIncremental(DSL_MANY_STREAMS, DSL_MANY_STREAMS.replace("stream2=time", "#stream2=time"));
+	}
+
+	@Test
+	public void testCommentTurnsIntoDefinition() {
+		assertIncremental(DSL_MANY_STREAMS, DSL_MANY_STREAMS.replace("#\n#\n", "#\nnew=time|log\n"));
+	}
+
+	@Test
+	public void testAppendToEnd() {
+		assertIncremental(DSL_MANY_STREAMS, DSL_MANY_STREAMS + "-- @name name5\n");
+		assertIncremental(DSL_MANY_STREAMS, DSL_MANY_STREAMS + "last=time|log");
+	}
+
+	@Test
+	public void testPrependToStart() {
+		assertIncremental(DSL_MANY_STREAMS, "first=time|log\n" + DSL_MANY_STREAMS);
+	}
+
+	@Test
+	public void testSameContent() {
+		assertIncremental(DSL_MANY_STREAMS, DSL_MANY_STREAMS);
+	}
+
+	@Test
+	public void testFromAndToEmpty() {
+		assertIncremental("", DSL_MANY_STREAMS);
+		assertIncremental(DSL_MANY_STREAMS, "");
+	}
+
+	@Test
+	public void testRandomEditSequence() {
+		Random random = new Random(0);
+		String[] fragments = new String[] { "\n", "#", "-- @env e\n", "-- @prop a=b\n", "-- @name n\n", "time|log\n",
+				"s=time|log\n", "|", "x", " " };
+		String content = DSL_MANY_STREAMS + DSL_MANY_STREAMS;
+		for (int i = 0; i < 200; i++) {
+			int start = random.nextInt(content.length() + 1);
+			int end = Math.min(content.length(), start + random.nextInt(20));
+			String replacement = random.nextBoolean() ? fragments[random.nextInt(fragments.length)] : "";
+			String next = content.substring(0, start) + replacement + content.substring(end);
+			assertIncremental(content, next);
+			content = next;
+		}
+	}
+
+	@Test
+	public void testReusedItemsRebasedOnNewText() {
+		String inserted = DSL_MANY_STREAMS.replace("stream3=http|log\n", "stream3=http|log\nstream5=time|log\n");
+		Document previousDocument = new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_STREAM, 0,
+				DSL_MANY_STREAMS);
+		Document insertedDocument = new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_STREAM, 1, inserted);
+		List<StreamItem> previous = incremental.parseCached(previousDocument);
+		List<StreamItem> items = incremental.parseCached(insertedDocument);
+		assertThat(items).hasSize(previous.size() + 1);
+		assertThat(previous.get(0).references(previousDocument.content())).isTrue();
+		// block without metadata has nothing to rebase
+		assertThat(items.get(1)).isSameAs(previous.get(1));
+		assertThat(items.get(0)).isNotSameAs(previous.get(0));
+		assertThat(items.get(5).getRange().getStart().getLine())
+				.isEqualTo(previous.get(4).getRange().getStart().getLine() + 1);
+		assertThat(items).noneMatch(item -> item.references(previousDocument.content()));
+
+		List<StreamItem> edited = incremental.parseCached(new TextDocument("fakeuri",
+				DataflowLanguages.LANGUAGE_STREAM, 2, inserted.replace("stream3=http|log", "stream3=http|abc")));
+		assertThat(edited).noneMatch(item -> item.references(insertedDocument.content()));
+		assertThat(edited.get(5).getDefinitionItem().getNameItem().getText().toString()).isEqualTo("-- @name name4");
+	}
+
+	private void assertIncremental(String from, String to) {
+		incremental.setDataflowCacheService(new DataflowCacheService());
+		incremental.parseCached(new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_STREAM, 0, from));
+		List<StreamItem> incrementalItems = incremental
+				.parseCached(new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_STREAM, 1, to));
+		full.setDataflowCacheService(new DataflowCacheService());
+		List<StreamItem> fullItems = full
+				.parseCached(new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_STREAM, 1, to));
+		assertThat(describe(incrementalItems)).isEqualTo(describe(fullItems));
+	}
+
+	private static String describe(List<StreamItem> items) {
+		StringBuilder buf = new StringBuilder();
+		for (StreamItem item : items) {
+			buf.append("item ").append(describe(item.getRange())).append('\n');
+			for (Range commentRange : item.getCommentRanges()) {
+				buf.append(" comment ").append(describe(commentRange)).append('\n');
+			}
+			for (DeploymentItems deployment : item.getDeployments()) {
+				buf.append(" deployment ").append(describe(deployment.getRange())).append(' ')
+						.append(describe(deployment.getStartLineRange())).append('\n');
+				buf.append("  env ").append(describe(deployment.getEnvItem())).append('\n');
+				for (DeploymentItem deploymentItem : deployment.getItems()) {
+					buf.append("  prop ").append(describe(deploymentItem)).append('\n');
+				}
+			}
+			DefinitionItem definitionItem = item.getDefinitionItem();
+			buf.append(" definition ").append(describe(definitionItem.getRange())).append(' ')
+					.append(describe(definitionItem.getNameRange())).append('\n');
+			buf.append("  node ")
+					.append(definitionItem.getStreamNode() != null ? definitionItem.getStreamNode().stringify(true) : null)
+					.append('\n');
+			if (definitionItem.getReconcileProblem() != null) {
+				buf.append("  problem ").append(definitionItem.getReconcileProblem().getMessage()).append(' ')
+						.append(describe(definitionItem.getReconcileProblem().getRange())).append('\n');
+			}
+			buf.append("  env ").append(describe(definitionItem.getEnvItem())).append('\n');
+			buf.append("  name ").append(describe(definitionItem.getNameItem())).append('\n');
+			buf.append("  desc ").append(describe(definitionItem.getDescItem())).append('\n');
+		}
+		return buf.toString();
+	}
+
+	private static String describe(DeploymentItem item) {
+		if (item == null) {
+			return "null";
+		}
+		return describe(item.getRange()) + " " + describe(item.getContentRange()) + " " + item.getText();
+	}
+
+	private static String describe(Range range) {
+		if (range == null) {
+			return "null";
+		}
+		return range.getStart().getLine() + ":" + range.getStart().getCharacter() + "-" + range.getEnd().getLine()
+				+ ":" + range.getEnd().getCharacter();
+	}
+
+	private static class TestStreamLanguageService extends AbstractStreamLanguageService {
+	}
+}
@@ -16,18 +16,24 @@
 package org.springframework.cloud.dataflow.language.server.stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
 
 import java.util.List;
+import java.util.Random;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.cloud.dataflow.language.server.DataflowLanguages;
+import org.springframework.cloud.dataflow.language.server.config.DataflowLanguagesProperties;
 import org.springframework.cloud.dataflow.language.server.stream.AbstractStreamLanguageService.StreamItem;
 import org.springframework.cloud.dataflow.language.server.support.DataFlowOperationsService;
 import org.springframework.cloud.dataflow.language.server.support.DataflowCacheService;
+import org.springframework.cloud.dataflow.language.server.support.DocumentKey;
+import org.springframework.cloud.dataflow.language.server.support.DocumentVersionTracker;
 import org.springframework.dsl.document.Document;
 import org.springframework.dsl.document.TextDocument;
 import org.springframework.dsl.domain.Range;
+import org.springframework.dsl.service.reconcile.ReconcileProblem;
 
 public class AbstractStreamLanguageServiceTests {
 
@@ -36,6 +42,7 @@ public class AbstractStreamLanguageServiceTests {
 	@BeforeEach
 	public void setup() {
 		service.setDataflowCacheService(new DataflowCacheService());
+		service.setDocumentVersionTracker(new DocumentVersionTracker());
 		service.setDataflowOperationsService(new DataFlowOperationsService());
 	}
 
@@ -339,6 +346,158 @@ public class AbstractStreamLanguageServiceTests {
 		assertThat(result.get(0).getDefinitionItem().getReconcileProblem()).isNull();
 	}
 
+	@Test
+	public void testDefinitionNodesSharedAcrossDocuments() {
+		Document document1 = new TextDocument("fakeuri1", DataflowLanguages.LANGUAGE_STREAM, 0,
+				"ticktock=time|log\n" + DSL_STREAMS_ERROR_IN_OPTION);
+		Document document2 = new TextDocument("fakeuri2", DataflowLanguages.LANGUAGE_STREAM, 0,
+				DSL_STREAMS_ERROR_IN_OPTION + "\n\n" + "ticktock=time|log");
+		List<StreamItem> result1 = service.parse(document1).collectList().block();
+		List<StreamItem> result2 = service.parse(document2).collectList().block();
+		assertThat(result1).hasSize(2);
+		assertThat(result2).hasSize(2);
+		assertThat(result2.get(1).getDefinitionItem().getStreamNode())
+				.isSameAs(result1.get(0).getDefinitionItem().getStreamNode());
+		assertThat(result2.get(1).getDefinitionItem().getNameRange()).isEqualTo(Range.from(2, 0, 2, 8));
+		assertThat(result1.get(1).getDefinitionItem().getReconcileProblem().getRange().getStart().getLine())
+				.isEqualTo(1);
+		assertThat(result2.get(0).getDefinitionItem().getReconcileProblem().getRange().getStart().getLine())
+				.isEqualTo(0);
+		assertThat(result2.get(0).getDefinitionItem().getReconcileProblem().getMessage())
+				.isEqualTo(result1.get(1).getDefinitionItem().getReconcileProblem().getMessage());
+		assertThat(service.dataflowCacheService.getStreamNodeCacheStats().hitCount()).isEqualTo(2);
+	}
+
+	@Test
+	public void testParallelParseMatchesSequential() {
+		String data = DSL_COMMENTS_IN_MULTI + "\n" + DSL_ONE_MULTI_ENV + DSL_TAPS_LINKING + DSL_STREAMS_JUST_METADATA;
+		Document document = new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_STREAM, 0, data);
+		List<StreamItem> sequential = service.parse(document).collectList().block();
+
+		TestStreamLanguageService parallelService = new TestStreamLanguageService();
+		DataflowLanguagesProperties properties = new DataflowLanguagesProperties();
+		properties.getParse().setParallelBlockThreshold(0);
+		parallelService.setDataflowLanguagesProperties(properties);
+		List<StreamItem> parallel = parallelService.parse(document).collectList().block();
+
+		assertThat(parallel).hasSize(8);
+		assertThat(parallel).hasSameSizeAs(sequential);
+		for (int i = 0; i < parallel.size(); i++) {
+			assertThat(parallel.get(i).getRange()).isEqualTo(sequential.get(i).getRange());
+			assertThat(parallel.get(i).getCommentRanges()).isEqualTo(sequential.get(i).getCommentRanges());
+			assertThat(parallel.get(i).getDeployments()).hasSameSizeAs(sequential.get(i).getDeployments());
+			assertThat(parallel.get(i).getDefinitionItem().getRange())
+					.isEqualTo(sequential.get(i).getDefinitionItem().getRange());
+		}
+	}
+
+	@Test
+	public void testSupersededVersionIsStillParsed() {
+		Document document = new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_STREAM, 0, DSL_STREAMS_JUST_METADATA);
+		service.documentVersionTracker.track(document);
+		service.documentVersionTracker.track(new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_STREAM, 1, ""));
+		assertThat(service.parseCached(document)).hasSize(1);
+		assertThat(service.dataflowCacheService.getStreamItemCache()
+				.getIfPresent(DocumentKey.of("fakeuri", 0))).hasSize(1);
+	}
+
+	@Test
+	public void testMetadataValues() {
+		Document document = new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_STREAM, 0, DSL_ONE_MULTI_ENV);
+		List<StreamItem> result = service.parse(document).collectList().block();
+		assertThat(result).hasSize(1);
+		assertThat(result.get(0).getDeployments()).hasSize(2);
+		assertThat(result.get(0).getDeployments().get(0).getEnvironment()).isEqualTo("env1");
+		assertThat(result.get(0).getDeployments().get(0).getProperties()).containsExactly(entry("foo1", "bar1"));
+		assertThat(result.get(0).getDeployments().get(1).getEnvironment()).isEqualTo("env2");
+		assertThat(result.get(0).getDeployments().get(1).getProperties()).containsExactly(entry("foo2", "bar2"));
+		assertThat(result.get(0).getDefinitionItem().getName()).isEqualTo("name1");
+		assertThat(result.get(0).getDefinitionItem().getDescription()).isEqualTo("desc1");
+		assertThat(result.get(0).getDefinitionItem().getEnvironment()).isNull();
+	}
+
+	@Test
+	public void testDefinitionLineLengthLimit() {
+		TestStreamLanguageService limitedService = new TestStreamLanguageService();
+		DataflowLanguagesProperties properties = new DataflowLanguagesProperties();
+		properties.getParse().setMaximumLineLength(20);
+		limitedService.setDataflowLanguagesProperties(properties);
+		Document document = new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_STREAM, 0,
+				"-- @name name1\nstream1 = time | transform | log\n");
+		List<StreamItem> result = limitedService.parse(document).collectList().block();
+		assertThat(result).hasSize(1);
+		assertThat(result.get(0).getDefinitionItem().getStreamNode()).isNull();
+		ReconcileProblem problem = result.get(0).getDefinitionItem().getReconcileProblem();
+		assertThat(problem.getMessage()).contains("maximum length of 20");
+		assertThat(problem.getRange()).isEqualTo(Range.from(1, 20, 1, 20));
+		assertThat(result.get(0).getDefinitionItem().getNameItem()).isNotNull();
+	}
+
+	@Test
+	public void testBlockLinesLimit() {
+		TestStreamLanguageService limitedService = new TestStreamLanguageService();
+		DataflowLanguagesProperties properties = new DataflowLanguagesProperties();
+		properties.getParse().setMaximumBlockLines(3);
+		limitedService.setDataflowLanguagesProperties(properties);
+		StringBuilder data = new StringBuilder();
+		for (int i = 0; i < 5; i++) {
+			data.append("-- @prop foo").append(i).append("=bar\n");
+		}
+		data.append("stream1 = time|log\n");
+		Document document = new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_STREAM, 0, data.toString());
+		List<StreamItem> result = limitedService.parse(document).collectList().block();
+		assertThat(result).hasSize(1);
+		assertThat(result.get(0).getDeployments()).hasSize(1);
+		assertThat(result.get(0).getDeployments().get(0).getItems()).hasSize(3);
+		assertThat(result.get(0).getDefinitionItem().getStreamNode()).isNotNull();
+		ReconcileProblem problem = result.get(0).getDefinitionItem().getReconcileProblem();
+		assertThat(problem.getMessage()).contains("maximum of 3 lines");
+		assertThat(problem.getRange().getStart().getLine()).isEqualTo(3);
+	}
+
+	@Test
+	public void testBlockLinesLimitWithParseError() {
+		TestStreamLanguageService limitedService = new TestStreamLanguageService();
+		DataflowLanguagesProperties properties = new DataflowLanguagesProperties();
+		properties.getParse().setMaximumBlockLines(3);
+		limitedService.setDataflowLanguagesProperties(properties);
+		StringBuilder data = new StringBuilder();
+		for (int i = 0; i < 5; i++) {
+			data.append("-- @prop foo").append(i).append("=bar\n");
+		}
+		data.append("stream1 = :aaa > fff||bbb\n");
+		Document document = new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_STREAM, 0, data.toString());
+		List<StreamItem> result = limitedService.parse(document).collectList().block();
+		assertThat(result).hasSize(1);
+		List<ReconcileProblem> problems = result.get(0).getDefinitionItem().getReconcileProblems();
+		assertThat(problems).hasSize(2);
+		assertThat(problems.get(0).getMessage()).contains("do not use || between source/processor/sink apps");
+		assertThat(problems.get(0).getRange().getStart().getLine()).isEqualTo(5);
+		assertThat(problems.get(1).getMessage()).contains("maximum of 3 lines");
+		assertThat(result.get(0).getDefinitionItem().getReconcileProblem().getMessage())
+				.isEqualTo(problems.get(0).getMessage());
+	}
+
+	@Test
+	public void testFuzzedDocumentsParse() {
+		String[] fragments = { "time", "log", "|", "=", " ", "--", "#", "@name", "@env", "@prop", "@desc", ":",
+				">", "\n", "\n", "\t", "a.b=c", "--x=", "'", "\r\n" };
+		Random random = new Random(0);
+		for (int i = 0; i < 500; i++) {
+			StringBuilder data = new StringBuilder();
+			int count = random.nextInt(60);
+			for (int j = 0; j < count; j++) {
+				data.append(fragments[random.nextInt(fragments.length)]);
+			}
+			Document document = new TextDocument("fakeuri" + i, DataflowLanguages.LANGUAGE_STREAM, 0,
+					data.toString());
+			List<StreamItem> result = service.parse(document).collectList().block();
+			for (StreamItem item : result) {
+				assertThat(item.getRange().getEnd().getLine()).isLessThan(document.lineCount());
+			}
+		}
+	}
+
 	private static class TestStreamLanguageService extends AbstractStreamLanguageService {
 
 		public TestStreamLanguageService() {
@@ -17,18 +17,36 @@ package org.springframework.cloud.dataflow.language.server.stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.cloud.dataflow.core.ApplicationType;
 import org.springframework.cloud.dataflow.language.server.DataflowLanguages;
+import org.springframework.cloud.dataflow.language.server.config.DataflowLanguagesProperties;
 import org.springframework.cloud.dataflow.language.server.support.DataFlowOperationsService;
 import org.springframework.cloud.dataflow.language.server.support.DataflowCacheService;
+import org.springframework.cloud.dataflow.language.server.support.DataflowMetricsService;
+import org.springframework.cloud.dataflow.language.server.support.DocumentKey;
+import org.springframework.cloud.dataflow.language.server.support.DocumentVersionTracker;
+import org.springframework.cloud.dataflow.rest.client.AppRegistryOperations;
+import org.springframework.cloud.dataflow.rest.client.DataFlowOperations;
+import org.springframework.cloud.dataflow.rest.resource.AppRegistrationResource;
 import org.springframework.dsl.document.Document;
 import org.springframework.dsl.document.TextDocument;
+import org.springframework.dsl.domain.Position;
+import org.springframework.dsl.domain.Range;
 import org.springframework.dsl.service.DslContext;
 import org.springframework.dsl.service.reconcile.ReconcileProblem;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.PagedModel.PageMetadata;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Signal;
 
 public class StreamLanguageLinterTests {
 
@@ -36,8 +54,12 @@ public class StreamLanguageLinterTests {
 
 	@BeforeEach
 	public void setup() {
-		linter.setDataflowCacheService(new DataflowCacheService());
+		DocumentVersionTracker documentVersionTracker = new DocumentVersionTracker();
+		DataflowCacheService dataflowCacheService = new DataflowCacheService();
+		dataflowCacheService.setDocumentVersionTracker(documentVersionTracker);
+		linter.setDataflowCacheService(dataflowCacheService);
 		linter.setDataflowOperationsService(new DataFlowOperationsService());
+		linter.setDocumentVersionTracker(documentVersionTracker);
 	}
 
 	@Test
@@ -107,4 +129,232 @@ public class StreamLanguageLinterTests {
 				.collect(Collectors.toList());
 		assertThat(problems).hasSize(1);
 	}
+
+	@Test
+	public void testReopenedAtVersionOne() {
+		for (int i = 1; i <= 7; i++) {
+			Document document = new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_STREAM, i,
+					"stream" + i + " = time|log");
+			assertThat(linter.lint(DslContext.builder().document(document).build()).toStream()
+					.collect(Collectors.toList())).isEmpty();
+		}
+		Document reopened = new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_STREAM, 1,
+				"stream = :aaa > fff||bbb");
+		List<ReconcileProblem> problems = linter.lint(DslContext.builder().document(reopened).build()).toStream()
+				.collect(Collectors.toList());
+		assertThat(problems).hasSize(2);
+		assertThat(problems.get(0).getMessage()).contains("do not use || between source/processor/sink apps in a stream");
+	}
+
+	@Test
+	public void testReopenedAtSameVersion() {
+		Document document = new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_STREAM, 1, "stream1 = time|log");
+		assertThat(linter.lint(DslContext.builder().document(document).build()).toStream()
+				.collect(Collectors.toList())).isEmpty();
+		Document reopened = new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_STREAM, 1,
+				"stream = :aaa > fff||bbb");
+		List<ReconcileProblem> problems = linter.lint(DslContext.builder().document(reopened).build()).toStream()
+				.collect(Collectors.toList());
+		assertThat(problems).hasSize(2);
+	}
+
+	@Test
+	public void testSupersededLintIsCancelled() {
+		Document document = new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_STREAM, 0,
+				"stream = :aaa > fff||bbb");
+		Flux<ReconcileProblem> problems = linter.lint(DslContext.builder().document(document).build());
+		linter.documentVersionTracker
+				.track(new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_STREAM, 1, "stream1 = time|log|"));
+		List<Signal<ReconcileProblem>> signals = problems.materialize().collectList().block();
+		assertThat(signals).hasSize(1);
+		assertThat(signals.get(0).isOnComplete()).isTrue();
+		assertThat(linter.parseCached(document)).hasSize(1);
+	}
+
+	@Test
+	public void testDiagnosticsLatencyRecorded() {
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		DataflowMetricsService metricsService = new DataflowMetricsService();
+		metricsService.setMeterRegistry(meterRegistry);
+		linter.setDataflowMetricsService(metricsService);
+		Document document = new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_STREAM, 0, "ticktock=time|log");
+		linter.lint(DslContext.builder().document(document).build()).toStream().collect(Collectors.toList());
+		assertThat(linter.dataflowCacheService.getStreamItemCache()
+				.getIfPresent(DocumentKey.of("fakeuri", 0))).hasSize(1);
+		assertThat(meterRegistry.get(DataflowMetricsService.METRIC_DIAGNOSTICS_LATENCY)
+				.tag("language", DataflowLanguages.LANGUAGE_STREAM_ID)
+				.tag(DataflowMetricsService.TAG_OUTCOME, DataflowMetricsService.OUTCOME_COMPLETED).timer().count())
+				.isEqualTo(1);
+	}
+
+	@Test
+	public void testSupersededDiagnosticsLatencyTagged() {
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		DataflowMetricsService metricsService = new DataflowMetricsService();
+		metricsService.setMeterRegistry(meterRegistry);
+		linter.setDataflowMetricsService(metricsService);
+		Document document = new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_STREAM, 0, "ticktock=time|log");
+		Flux<ReconcileProblem> problems = linter.lint(DslContext.builder().document(document).build());
+		linter.documentVersionTracker
+				.track(new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_STREAM, 1, "ticktock=time|log|"));
+		assertThat(problems.collectList().block()).isEmpty();
+		assertThat(meterRegistry.get(DataflowMetricsService.METRIC_DIAGNOSTICS_LATENCY)
+				.tag("language", DataflowLanguages.LANGUAGE_STREAM_ID)
+				.tag(DataflowMetricsService.TAG_OUTCOME, DataflowMetricsService.OUTCOME_SUPERSEDED).timer().count())
+				.isEqualTo(1);
+		assertThat(meterRegistry.find(DataflowMetricsService.METRIC_DIAGNOSTICS_LATENCY)
+				.tag(DataflowMetricsService.TAG_OUTCOME, DataflowMetricsService.OUTCOME_COMPLETED).timer()).isNull();
+	}
+
+	@Test
+	public void testMissingAppRegistrations() {
+		AppRegistryOperations appRegistryOperations = mockRegistry();
+		MockStreamLanguageLinter linter = mockLinter(appRegistryOperations);
+
+		Document document = new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_STREAM, 0,
+				"stream1 = time | transform | log\nstream2 = http | file");
+		List<ReconcileProblem> problems = linter.lint(DslContext.builder().document(document).build()).toStream()
+				.collect(Collectors.toList());
+		assertThat(problems).hasSize(3);
+		assertThat(problems.get(0).getMessage()).isEqualTo("Processor app transform is not registered");
+		assertThat(problems.get(0).getRange()).isEqualTo(Range.from(0, 17, 0, 26));
+		assertThat(problems.get(1).getMessage()).isEqualTo("Source app http is not registered");
+		assertThat(problems.get(2).getMessage()).isEqualTo("Sink app file is not registered");
+
+		problems = linter.lint(DslContext.builder().document(document).build()).toStream()
+				.collect(Collectors.toList());
+		assertThat(problems).hasSize(3);
+		Mockito.verify(appRegistryOperations, Mockito.times(1)).list(ApplicationType.source);
+		Mockito.verify(appRegistryOperations, Mockito.times(1)).list(ApplicationType.processor);
+		Mockito.verify(appRegistryOperations, Mockito.times(1)).list(ApplicationType.sink);
+	}
+
+	@Test
+	public void testAppTypesWithSourceDestination() {
+		AppRegistryOperations appRegistryOperations = mockRegistry();
+		MockStreamLanguageLinter linter = mockLinter(appRegistryOperations);
+
+		Document document = new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_STREAM, 0,
+				"stream1 = :myevents > log\nstream2 = :myevents > time | log");
+		List<ReconcileProblem> problems = linter.lint(DslContext.builder().document(document).build()).toStream()
+				.collect(Collectors.toList());
+		assertThat(problems).hasSize(1);
+		assertThat(problems.get(0).getMessage()).isEqualTo("Processor app time is not registered");
+		Mockito.verify(appRegistryOperations, Mockito.never()).list(ApplicationType.source);
+	}
+
+	@Test
+	public void testAppTypesWithSinkDestination() {
+		AppRegistryOperations appRegistryOperations = mockRegistry();
+		MockStreamLanguageLinter linter = mockLinter(appRegistryOperations);
+
+		Document document = new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_STREAM, 0,
+				"stream1 = :in > transform > :out\nstream2 = time | transform > :out");
+		List<ReconcileProblem> problems = linter.lint(DslContext.builder().document(document).build()).toStream()
+				.collect(Collectors.toList());
+		assertThat(problems).hasSize(2);
+		assertThat(problems).extracting(ReconcileProblem::getMessage)
+				.containsOnly("Processor app transform is not registered");
+		Mockito.verify(appRegistryOperations, Mockito.never()).list(ApplicationType.sink);
+	}
+
+	@Test
+	public void testRegistryFailureKeepsParseProblems() {
+		AppRegistryOperations appRegistryOperations = Mockito.mock(AppRegistryOperations.class);
+		Mockito.when(appRegistryOperations.list(Mockito.any())).thenThrow(new IllegalStateException("registry down"));
+		MockStreamLanguageLinter linter = mockLinter(appRegistryOperations);
+
+		Document document = new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_STREAM, 0,
+				"stream1 = time | log\n\nstream2 = :aaa > fff||bbb");
+		List<ReconcileProblem> problems = linter.lint(DslContext.builder().document(document).build()).toStream()
+				.collect(Collectors.toList());
+		assertThat(problems).hasSize(2);
+		assertThat(problems.get(0).getMessage()).contains("do not use || between source/processor/sink apps in a stream");
+	}
+
+	@Test
+	public void testBlockLinesLimitKeepsRegistryProblems() {
+		AppRegistryOperations appRegistryOperations = mockRegistry();
+		MockStreamLanguageLinter linter = mockLinter(appRegistryOperations);
+		DataflowLanguagesProperties properties = new DataflowLanguagesProperties();
+		properties.getParse().setMaximumBlockLines(3);
+		linter.setDataflowLanguagesProperties(properties);
+		StringBuilder data = new StringBuilder();
+		for (int i = 0; i < 5; i++) {
+			data.append("-- @prop foo").append(i).append("=bar\n");
+		}
+		data.append("stream1 = time | transform | log\n");
+
+		Document document = new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_STREAM, 0, data.toString());
+		List<ReconcileProblem> problems = linter.lint(DslContext.builder().document(document).build()).toStream()
+				.collect(Collectors.toList());
+		assertThat(problems).hasSize(2);
+		assertThat(problems.get(0).getMessage()).contains("maximum of 3 lines");
+		assertThat(problems.get(1).getMessage()).isEqualTo("Processor app transform is not registered");
+		assertThat(problems.get(1).getRange()).isEqualTo(Range.from(5, 17, 5, 26));
+	}
+
+	@Test
+	public void testAppType() {
+		assertThat(StreamLanguageSymbolizer.appType(false, 0, 1)).isEqualTo(ApplicationType.source);
+		assertThat(StreamLanguageSymbolizer.appType(false, 0, 3)).isEqualTo(ApplicationType.source);
+		assertThat(StreamLanguageSymbolizer.appType(false, 1, 3)).isEqualTo(ApplicationType.processor);
+		assertThat(StreamLanguageSymbolizer.appType(false, 2, 3)).isEqualTo(ApplicationType.sink);
+		assertThat(StreamLanguageSymbolizer.appType(true, 0, 1)).isEqualTo(ApplicationType.sink);
+		assertThat(StreamLanguageSymbolizer.appType(true, 0, 2)).isEqualTo(ApplicationType.processor);
+		assertThat(StreamLanguageSymbolizer.appType(true, 1, 2)).isEqualTo(ApplicationType.sink);
+	}
+
+	@Test
+	public void testRegistryAppType() {
+		assertThat(StreamLanguageLinter.appType(false, false, 0, 1)).isEqualTo(ApplicationType.source);
+		assertThat(StreamLanguageLinter.appType(false, false, 1, 3)).isEqualTo(ApplicationType.processor);
+		assertThat(StreamLanguageLinter.appType(false, false, 2, 3)).isEqualTo(ApplicationType.sink);
+		assertThat(StreamLanguageLinter.appType(true, false, 0, 1)).isEqualTo(ApplicationType.sink);
+		assertThat(StreamLanguageLinter.appType(true, false, 0, 2)).isEqualTo(ApplicationType.processor);
+		// :in > transform > :out
+		assertThat(StreamLanguageLinter.appType(true, true, 0, 1)).isEqualTo(ApplicationType.processor);
+		// time | transform > :out
+		assertThat(StreamLanguageLinter.appType(false, true, 0, 2)).isEqualTo(ApplicationType.source);
+		assertThat(StreamLanguageLinter.appType(false, true, 1, 2)).isEqualTo(ApplicationType.processor);
+		// time > :out
+		assertThat(StreamLanguageLinter.appType(false, true, 0, 1)).isEqualTo(ApplicationType.source);
+	}
+
+	private static AppRegistryOperations mockRegistry() {
+		AppRegistryOperations appRegistryOperations = Mockito.mock(AppRegistryOperations.class);
+		Mockito.when(appRegistryOperations.list(ApplicationType.source))
+				.thenReturn(page(new AppRegistrationResource("time", "source", "maven://time")));
+		Mockito.when(appRegistryOperations.list(ApplicationType.processor)).thenReturn(page());
+		Mockito.when(appRegistryOperations.list(ApplicationType.sink))
+				.thenReturn(page(new AppRegistrationResource("log", "sink", "maven://log")));
+		return appRegistryOperations;
+	}
+
+	private static PagedModel<AppRegistrationResource> page(AppRegistrationResource... resources) {
+		PageMetadata metadata = null;
+		return PagedModel.of(Arrays.asList(resources), metadata);
+	}
+
+	private static MockStreamLanguageLinter mockLinter(AppRegistryOperations appRegistryOperations) {
+		DataFlowOperations dataFlowOperations = Mockito.mock(DataFlowOperations.class);
+		Mockito.when(dataFlowOperations.appRegistryOperations()).thenReturn(appRegistryOperations);
+		MockStreamLanguageLinter linter = new MockStreamLanguageLinter(dataFlowOperations);
+		linter.setDataflowCacheService(new DataflowCacheService());
+		return linter;
+	}
+
+	private static class MockStreamLanguageLinter extends StreamLanguageLinter {
+
+		private final DataFlowOperations dataFlowOperations;
+
+		MockStreamLanguageLinter(DataFlowOperations dataFlowOperations) {
+			this.dataFlowOperations = dataFlowOperations;
+		}
+
+		@Override
+		protected DataFlowOperations resolveDataFlowOperations(DslContext context, Position position) {
+			return dataFlowOperations;
+		}
+	}
 }
@@ -22,6 +22,8 @@ import org.junit.jupiter.api.Test;
 import org.springframework.cloud.dataflow.language.server.DataflowLanguages;
 import org.springframework.cloud.dataflow.language.server.support.DataFlowOperationsService;
 import org.springframework.cloud.dataflow.language.server.support.DataflowCacheService;
+import org.springframework.cloud.dataflow.language.server.support.DocumentVersionTracker;
+import org.springframework.cloud.dataflow.language.server.support.WorkspaceSymbolIndex;
 import org.springframework.dsl.document.Document;
 import org.springframework.dsl.document.TextDocument;
 import org.springframework.dsl.domain.Position;
@@ -98,4 +100,66 @@ public class StreamLanguageRenamerTests {
 		assertThat(edit.getDocumentChangesTextDocumentEdits().get(0).getEdits().get(1).getRange())
 				.isEqualTo(Range.from(2, 13, 2, 17));
 	}
+
+	@Test
+	public void testRenameAcrossWorkspace() {
+		WorkspaceSymbolIndex index = new WorkspaceSymbolIndex();
+		StreamLanguageSymbolizer symbolizer = new StreamLanguageSymbolizer();
+		symbolizer.setDataflowCacheService(new DataflowCacheService());
+		index.update("otheruri", WorkspaceSymbolIndex.DISK_VERSION,
+				symbolizer.parseWorkspaceSymbols("otheruri", "other = :main.time > log\nsink1 = :myevents > log"));
+		renamer.setWorkspaceSymbolIndex(index);
+		Document document = new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_STREAM, 1,
+				"main = time > :myevents");
+
+		WorkspaceEdit edit = renamer
+				.rename(DslContext.builder().document(document).build(), Position.from(0, 1), "newName").block();
+		assertThat(edit).isNotNull();
+		assertThat(edit.getDocumentChangesTextDocumentEdits()).hasSize(2);
+		assertThat(edit.getDocumentChangesTextDocumentEdits().get(0).getTextDocument().getUri()).isEqualTo("fakeuri");
+		assertThat(edit.getDocumentChangesTextDocumentEdits().get(0).getEdits().get(0).getRange())
+				.isEqualTo(Range.from(0, 0, 0, 4));
+		assertThat(edit.getDocumentChangesTextDocumentEdits().get(1).getTextDocument().getUri()).isEqualTo("otheruri");
+		assertThat(edit.getDocumentChangesTextDocumentEdits().get(1).getEdits()).hasSize(1);
+		assertThat(edit.getDocumentChangesTextDocumentEdits().get(1).getEdits().get(0).getRange())
+				.isEqualTo(Range.from(0, 9, 0, 13));
+
+		edit = renamer
+				.rename(DslContext.builder().document(document).build(), Position.from(0, 17), "newName").block();
+		assertThat(edit).isNotNull();
+		assertThat(edit.getDocumentChangesTextDocumentEdits()).hasSize(2);
+		assertThat(edit.getDocumentChangesTextDocumentEdits().get(0).getEdits().get(0).getRange())
+				.isEqualTo(Range.from(0, 15, 0, 23));
+		assertThat(edit.getDocumentChangesTextDocumentEdits().get(1).getEdits().get(0).getRange())
+				.isEqualTo(Range.from(1, 9, 1, 17));
+	}
+
+	@Test
+	public void testRenameAfterReopen() {
+		DocumentVersionTracker tracker = new DocumentVersionTracker();
+		WorkspaceSymbolIndex index = new WorkspaceSymbolIndex();
+		index.setDocumentVersionTracker(tracker);
+		renamer.setWorkspaceSymbolIndex(index);
+		renamer.setDocumentVersionTracker(tracker);
+		Document closed = new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_STREAM, 5,
+				"-- @desc moved\nxx = time | log\nmain = time > :myevents");
+		tracker.track(closed);
+		renamer.rename(DslContext.builder().document(closed).build(), Position.from(2, 1), "newName").block();
+		assertThat(index.getVersion("fakeuri")).isEqualTo(5);
+
+		Document reopened = new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_STREAM, 1,
+				"main = time > :myevents");
+		tracker.track(reopened);
+		assertThat(index.getVersion("fakeuri")).isEqualTo(WorkspaceSymbolIndex.DISK_VERSION);
+
+		WorkspaceEdit edit = renamer
+				.rename(DslContext.builder().document(reopened).build(), Position.from(0, 1), "newName").block();
+		assertThat(edit).isNotNull();
+		assertThat(edit.getDocumentChangesTextDocumentEdits()).hasSize(1);
+		assertThat(edit.getDocumentChangesTextDocumentEdits().get(0).getTextDocument().getVersion()).isEqualTo(1);
+		assertThat(edit.getDocumentChangesTextDocumentEdits().get(0).getEdits()).hasSize(1);
+		assertThat(edit.getDocumentChangesTextDocumentEdits().get(0).getEdits().get(0).getRange())
+				.isEqualTo(Range.from(0, 0, 0, 4));
+		assertThat(index.getVersion("fakeuri")).isEqualTo(1);
+	}
 }
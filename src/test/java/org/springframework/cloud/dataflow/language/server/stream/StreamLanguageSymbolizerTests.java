@@ -23,8 +23,14 @@ import java.util.stream.Collectors;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.cloud.dataflow.language.server.DataflowLanguages;
+import org.springframework.cloud.dataflow.language.server.stream.StreamLanguageSymbolizer.StreamSymbolKind;
 import org.springframework.cloud.dataflow.language.server.support.DataFlowOperationsService;
 import org.springframework.cloud.dataflow.language.server.support.DataflowCacheService;
+import org.springframework.cloud.dataflow.language.server.support.DocumentKey;
+import org.springframework.cloud.dataflow.language.server.support.SymbolNameIndex;
+import org.springframework.cloud.dataflow.language.server.support.SymbolizedDocument;
+import org.springframework.cloud.dataflow.language.server.support.WorkspaceSymbol;
+import org.springframework.cloud.dataflow.language.server.support.WorkspaceSymbolIndex;
 import org.springframework.dsl.document.Document;
 import org.springframework.dsl.document.TextDocument;
 import org.springframework.dsl.domain.DocumentSymbol;
@@ -37,10 +43,12 @@ import org.springframework.dsl.service.symbol.SymbolizeInfo;
 public class StreamLanguageSymbolizerTests {
 
 	private final StreamLanguageSymbolizer symbolizer = new StreamLanguageSymbolizer();
+	private DataflowCacheService dataflowCacheService;
 
 	@BeforeEach
 	public void setup() {
-		symbolizer.setDataflowCacheService(new DataflowCacheService());
+		dataflowCacheService = new DataflowCacheService();
+		symbolizer.setDataflowCacheService(dataflowCacheService);
 		symbolizer.setDataflowOperationsService(new DataFlowOperationsService());
 	}
 
@@ -98,6 +106,21 @@ public class StreamLanguageSymbolizerTests {
 		assertThat(documentSymbols.get(0).getChildren().get(2).getChildren().get(0).getRange()).isEqualTo(Range.from(0, 42, 0, 57));
 	}
 
+	@Test
+	public void testAppTypesWithSinkDestination() {
+		Document document = new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_STREAM, 0,
+				"stream1 = time > :out\nstream2 = :in > transform > :out\nstream3 = time | filter > :out");
+		DslContext context = DslContext.builder().document(document).build();
+
+		assertThat(symbolizer.symbolize(context, "<").symbolInformations().toStream()
+				.collect(Collectors.toList())).extracting(SymbolInformation::getName).containsExactly("time", "time");
+		assertThat(symbolizer.symbolize(context, "^").symbolInformations().toStream()
+				.collect(Collectors.toList())).isEmpty();
+		assertThat(symbolizer.symbolize(context, ">").symbolInformations().toStream()
+				.collect(Collectors.toList())).extracting(SymbolInformation::getName)
+				.containsExactly("transform", "filter");
+	}
+
 	@Test
 	public void testQuery() {
 		Document document = new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_STREAM, 0, "stream1 = time --initial-delay=1000 | log --name=mylogger");
@@ -326,4 +349,66 @@ public class StreamLanguageSymbolizerTests {
 		assertThat(documentSymbols.get(4).getChildren().get(4).getName()).isEqualTo("scriptable-transform");
 		assertThat(documentSymbols.get(4).getChildren().get(4).getDetail()).isEqualTo("ref");
 	}
+
+	@Test
+	public void testSymbolTableCachedPerVersion() {
+		Document document = new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_STREAM, 0, "stream1 = time | log");
+		SymbolizeInfo symbolizeInfo = symbolizer.symbolize(DslContext.builder().document(document).build());
+		assertThat(symbolizeInfo.documentSymbols().toStream().collect(Collectors.toList())).hasSize(1);
+
+		SymbolizedDocument symbolized = dataflowCacheService.getStreamSymbolCache()
+				.getIfPresent(DocumentKey.of("fakeuri", 0));
+		assertThat(symbolized).isNotNull();
+
+		symbolizeInfo = symbolizer.symbolize(DslContext.builder().document(document).build());
+		assertThat(symbolizeInfo.documentSymbols().toStream().collect(Collectors.toList())).hasSize(1);
+		assertThat(symbolizeInfo.symbolInformations().toStream().collect(Collectors.toList())).hasSize(4);
+		symbolizeInfo = symbolizer.symbolize(DslContext.builder().document(document).build(), ">");
+		assertThat(symbolizeInfo.symbolInformations().toStream().collect(Collectors.toList())).hasSize(1);
+		assertThat(dataflowCacheService.getStreamSymbolCache().getIfPresent(DocumentKey.of("fakeuri", 0)))
+				.isSameAs(symbolized);
+
+		document = new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_STREAM, 1, "stream1 = time | transform | log");
+		symbolizeInfo = symbolizer.symbolize(DslContext.builder().document(document).build());
+		assertThat(symbolizeInfo.symbolInformations().toStream().collect(Collectors.toList())).hasSize(5);
+		assertThat(dataflowCacheService.getStreamSymbolCache().getIfPresent(DocumentKey.of("fakeuri", 0))).isNull();
+	}
+
+	@Test
+	public void testNameIndexByKind() {
+		Document document = new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_STREAM, 0,
+				"stream1 = time --time=1 | log\nstream2 = time | log");
+		symbolizer.symbolize(DslContext.builder().document(document).build());
+		SymbolNameIndex index = dataflowCacheService.getStreamSymbolCache()
+				.getIfPresent(DocumentKey.of("fakeuri", 0)).getNameIndex();
+
+		assertThat(index.get(StreamSymbolKind.APP, "time")).hasSize(2);
+		assertThat(index.get(StreamSymbolKind.APP, "log")).hasSize(2);
+		assertThat(index.get(StreamSymbolKind.OPTION, "time")).hasSize(1);
+		assertThat(index.get("time")).hasSize(3);
+		assertThat(index.get(StreamSymbolKind.STREAM_NAME, "stream1")).hasSize(1);
+		assertThat(index.get("stream1")).hasSize(1);
+		assertThat(index.get(StreamSymbolKind.REFERENCE, "time")).isEmpty();
+		assertThat(index.get("xxx")).isEmpty();
+	}
+
+	@Test
+	public void testWorkspaceSymbols() {
+		WorkspaceSymbolIndex workspaceSymbolIndex = new WorkspaceSymbolIndex();
+		symbolizer.setWorkspaceSymbolIndex(workspaceSymbolIndex);
+		Document document = new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_STREAM, 0,
+				"stream1 = time > :myevents\nstream2 = :myevents > log\ntime | log");
+		symbolizer.symbolize(DslContext.builder().document(document).build());
+
+		List<WorkspaceSymbol> symbols = workspaceSymbolIndex.getSymbols("fakeuri");
+		assertThat(symbols).extracting(WorkspaceSymbol::getName).containsExactly("stream1", "myevents", "stream2",
+				"myevents");
+		assertThat(symbols).extracting(WorkspaceSymbol::getKind).containsExactly(WorkspaceSymbol.Kind.STREAM,
+				WorkspaceSymbol.Kind.DESTINATION, WorkspaceSymbol.Kind.STREAM, WorkspaceSymbol.Kind.DESTINATION);
+		assertThat(symbols).extracting(WorkspaceSymbol::getRole).containsExactly(WorkspaceSymbol.Role.DECLARATION,
+				WorkspaceSymbol.Role.PRODUCER, WorkspaceSymbol.Role.DECLARATION, WorkspaceSymbol.Role.CONSUMER);
+		assertThat(symbols.get(1).getContainerName()).isEqualTo("stream1");
+		assertThat(symbols.get(3).getContainerName()).isEqualTo("stream2");
+		assertThat(workspaceSymbolIndex.query("EVENTS", 10)).hasSize(2);
+	}
 }
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.dataflow.language.server.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.deployer.resource.maven.MavenResource;
+
+public class AppCoordinatesTests {
+
+	@Test
+	public void testMaven() {
+		AppCoordinates coordinates = AppCoordinates
+				.parse("maven://org.springframework.cloud.stream.app:time-source-rabbit:2.0.1.RELEASE");
+		assertThat(coordinates.getScheme()).isEqualTo("maven");
+		assertThat(coordinates.getGroupId()).isEqualTo("org.springframework.cloud.stream.app");
+		assertThat(coordinates.getArtifactId()).isEqualTo("time-source-rabbit");
+		assertThat(coordinates.getExtension()).isEqualTo("jar");
+		assertThat(coordinates.getClassifier()).isNull();
+		assertThat(coordinates.getVersion()).isEqualTo("2.0.1.RELEASE");
+
+		coordinates = AppCoordinates
+				.parse("maven:org.springframework.cloud.stream.app:time-source-rabbit:jar:metadata:2.0.1.RELEASE");
+		assertThat(coordinates.getArtifactId()).isEqualTo("time-source-rabbit");
+		assertThat(coordinates.getExtension()).isEqualTo("jar");
+		assertThat(coordinates.getClassifier()).isEqualTo("metadata");
+		assertThat(coordinates.getVersion()).isEqualTo("2.0.1.RELEASE");
+
+		coordinates = AppCoordinates.parse("maven://group:artifact:war:1.0");
+		assertThat(coordinates.getExtension()).isEqualTo("war");
+		assertThat(coordinates.getVersion()).isEqualTo("1.0");
+	}
+
+	@Test
+	public void testInvalidMaven() {
+		assertThat(AppCoordinates.parse("maven://group:artifact").getVersion()).isEmpty();
+		assertThat(AppCoordinates.parse("maven://group:artifact:").getVersion()).isEmpty();
+		assertThat(AppCoordinates.parse("maven://group:artifact:jar::1.0").getVersion()).isEmpty();
+		assertThat(AppCoordinates.parse("maven://a:b:c:d:e:f").getVersion()).isEmpty();
+		assertThat(AppCoordinates.parse("maven://group:artifact:1.0 ").getVersion()).isEmpty();
+	}
+
+	@Test
+	public void testMavenAgreesWithMavenResource() {
+		String[] coordinates = new String[] {
+			"org.springframework.cloud.stream.app:log-sink-kafka:2.1.2.RELEASE",
+			"org.springframework.cloud.stream.app:log-sink-kafka:jar:metadata:2.1.2.RELEASE",
+			"org.springframework.cloud.task.app:timestamp-task:jar:1.3.0.RELEASE",
+			"io.spring:app:jar:classifier:3.0.0-SNAPSHOT"
+		};
+		for (String c : coordinates) {
+			MavenResource resource = MavenResource.parse(c);
+			AppCoordinates parsed = AppCoordinates.parse("maven://" + c);
+			assertThat(parsed.getGroupId()).isEqualTo(resource.getGroupId());
+			assertThat(parsed.getArtifactId()).isEqualTo(resource.getArtifactId());
+			assertThat(parsed.getVersion()).isEqualTo(resource.getVersion());
+		}
+	}
+
+	@Test
+	public void testDocker() {
+		AppCoordinates coordinates = AppCoordinates.parse("docker:springcloudstream/time-source-kafka:2.1.0.RELEASE");
+		assertThat(coordinates.getScheme()).isEqualTo("docker");
+		assertThat(coordinates.getHost()).isNull();
+		assertThat(coordinates.getNamespace()).isEqualTo("springcloudstream");
+		assertThat(coordinates.getRepository()).isEqualTo("time-source-kafka");
+		assertThat(coordinates.getVersion()).isEqualTo("2.1.0.RELEASE");
+
+		coordinates = AppCoordinates.parse("docker://myhost:5000/team/path/repo:1.0");
+		assertThat(coordinates.getHost()).isEqualTo("myhost:5000");
+		assertThat(coordinates.getNamespace()).isEqualTo("team/path");
+		assertThat(coordinates.getRepository()).isEqualTo("repo");
+		assertThat(coordinates.getVersion()).isEqualTo("1.0");
+
+		coordinates = AppCoordinates.parse("docker:registry.local/repo:2");
+		assertThat(coordinates.getHost()).isEqualTo("registry.local");
+		assertThat(coordinates.getNamespace()).isNull();
+		assertThat(coordinates.getVersion()).isEqualTo("2");
+
+		coordinates = AppCoordinates.parse("docker:alpine");
+		assertThat(coordinates.getRepository()).isEqualTo("alpine");
+		assertThat(coordinates.getVersion()).isEqualTo("latest");
+
+		assertThat(AppCoordinates.parse("docker:repo:1:2").getVersion()).isEmpty();
+	}
+
+	@Test
+	public void testDockerAgreesWithDockerImage() {
+		String[] images = new String[] {
+			"springcloudstream/time-source-kafka:2.1.0.RELEASE",
+			"myhost:5000/team/path/repo:1.0",
+			"registry.local/repo",
+			"alpine:3"
+		};
+		for (String image : images) {
+			DockerImage dockerImage = DockerImage.fromImageName(image);
+			AppCoordinates parsed = AppCoordinates.parse("docker:" + image);
+			assertThat(parsed.getHost()).isEqualTo(dockerImage.getHost());
+			assertThat(parsed.getNamespace()).isEqualTo(dockerImage.getNamespace());
+			assertThat(parsed.getRepository()).isEqualTo(dockerImage.getRepository());
+			assertThat(parsed.getVersion()).isEqualTo(dockerImage.getTag());
+		}
+	}
+
+	@Test
+	public void testHttp() {
+		AppCoordinates coordinates = AppCoordinates.parse("https://repo.spring.io/libs-release/org/springframework"
+				+ "/cloud/stream/app/log-sink-rabbit/2.1.0.RELEASE/log-sink-rabbit-2.1.0.RELEASE.jar?download=true");
+		assertThat(coordinates.getScheme()).isEqualTo("https");
+		assertThat(coordinates.getHost()).isEqualTo("repo.spring.io");
+		assertThat(coordinates.getArtifactId()).isEqualTo("log-sink-rabbit");
+		assertThat(coordinates.getExtension()).isEqualTo("jar");
+		assertThat(coordinates.getVersion()).isEqualTo("2.1.0.RELEASE");
+
+		coordinates = AppCoordinates.parse("http://localhost:8080/apps/my-app-1.jar");
+		assertThat(coordinates.getHost()).isEqualTo("localhost:8080");
+		assertThat(coordinates.getArtifactId()).isEqualTo("my-app");
+		assertThat(coordinates.getVersion()).isEqualTo("1");
+
+		assertThat(AppCoordinates.parse("http://localhost/apps/my-app.jar").getVersion()).isEmpty();
+		assertThat(AppCoordinates.parse("http://localhost/apps/my-app").getVersion()).isEmpty();
+		assertThat(AppCoordinates.parse("http://localhost").getVersion()).isEmpty();
+		assertThat(AppCoordinates.parse("http:my-app-1.jar").getVersion()).isEmpty();
+	}
+
+	@Test
+	public void testUnknown() {
+		assertThat(AppCoordinates.parse(null).getVersion()).isEmpty();
+		assertThat(AppCoordinates.parse("").getVersion()).isEmpty();
+		assertThat(AppCoordinates.parse("no-scheme-1.0.jar").getScheme()).isNull();
+		assertThat(AppCoordinates.parse("1foo:bar").getScheme()).isNull();
+		AppCoordinates coordinates = AppCoordinates.parse("file:///tmp/app-1.0.jar");
+		assertThat(coordinates.getScheme()).isEqualTo("file");
+		assertThat(coordinates.getVersion()).isEmpty();
+	}
+}
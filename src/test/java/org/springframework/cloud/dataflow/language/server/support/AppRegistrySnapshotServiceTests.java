@@ -0,0 +1,203 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.dataflow.language.server.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.dataflow.core.ApplicationType;
+import org.springframework.cloud.dataflow.language.server.config.DataflowLanguagesProperties;
+import org.springframework.cloud.dataflow.rest.client.DataFlowOperations;
+import org.springframework.cloud.dataflow.rest.resource.AppRegistrationResource;
+
+public class AppRegistrySnapshotServiceTests {
+
+	private final CountingSnapshotService service = new CountingSnapshotService();
+
+	@AfterEach
+	public void clean() throws Exception {
+		service.destroy();
+	}
+
+	@Test
+	public void testSnapshotSplitByType() {
+		AppRegistrySnapshot tasks = service.getSnapshot("env1", ApplicationType.task, null);
+		AppRegistrySnapshot sources = service.getSnapshot("env1", ApplicationType.source, null);
+
+		assertThat(tasks.getNames()).containsExactlyInAnyOrder("timestamp");
+		assertThat(tasks.getRegistrations("timestamp")).hasSize(2);
+		assertThat(sources.getNames()).containsExactlyInAnyOrder("time", "http");
+		assertThat(sources.contains("timestamp")).isFalse();
+		assertThat(sources.getRegistrations("xxx")).isEmpty();
+	}
+
+	@Test
+	public void testVersionsMerged() {
+		AppRegistrySnapshot snapshot = AppRegistrySnapshot.of(ApplicationType.source, Arrays.asList(
+				new AppRegistrationResource("time", "source", "1.0.0", "maven://time:1.0.0", false),
+				new AppRegistrationResource("time", "source", "2.0.0", "maven://time:2.0.0", true),
+				new AppRegistrationResource("time", "source", "2.0.0", "maven://time:2.0.0", true),
+				new AppRegistrationResource("http", "source", "1.0.0", "maven://http:1.0.0", false)));
+
+		assertThat(snapshot.size()).isEqualTo(2);
+		assertThat(snapshot.getRegistrations("time")).extracting(AppRegistrationResource::getVersion)
+				.containsExactly("1.0.0", "2.0.0");
+		assertThat(snapshot.getDefaultRegistration("time").getVersion()).isEqualTo("2.0.0");
+		assertThat(snapshot.getDefaultRegistration("http").getVersion()).isEqualTo("1.0.0");
+		assertThat(snapshot.getDefaultRegistration("xxx")).isNull();
+	}
+
+	@Test
+	public void testLoadedOnceUntilInvalidated() {
+		service.getSnapshot("env1", ApplicationType.task, null);
+		service.getSnapshot("env1", ApplicationType.task, null);
+		service.getSnapshot("env2", ApplicationType.task, null);
+		assertThat(service.loads.get()).isEqualTo(2);
+
+		service.invalidateAll();
+		service.getSnapshot("env1", ApplicationType.task, null);
+		service.getSnapshot("env2", ApplicationType.task, null);
+		service.getSnapshot(null, ApplicationType.task, null);
+		service.getSnapshot(null, ApplicationType.task, null);
+		assertThat(service.loads.get()).isEqualTo(5);
+	}
+
+	@Test
+	public void testRefreshedInBackground() throws Exception {
+		DataflowLanguagesProperties properties = new DataflowLanguagesProperties();
+		properties.getRegistry().setRefreshInterval(Duration.ofMillis(20));
+		properties.getRegistry().setRefreshJitter(Duration.ofMillis(10));
+		service.setDataflowLanguagesProperties(properties);
+
+		service.getSnapshot("env1", ApplicationType.task, null);
+		for (int i = 0; i < 100 && service.loads.get() < 3; i++) {
+			Thread.sleep(20);
+		}
+		assertThat(service.loads.get()).isGreaterThanOrEqualTo(3);
+
+		service.invalidateAll();
+		int loads = service.loads.get();
+		Thread.sleep(100);
+		assertThat(service.loads.get()).isLessThanOrEqualTo(loads + 1);
+	}
+
+	@Test
+	public void testFailureRememberedUntilRetry() throws Exception {
+		DataflowLanguagesProperties properties = new DataflowLanguagesProperties();
+		properties.getRegistry().setFailureRetryInterval(Duration.ofMillis(50));
+		service.setDataflowLanguagesProperties(properties);
+		service.failing = true;
+
+		assertThatThrownBy(() -> service.getSnapshot("env1", ApplicationType.task, null))
+				.isInstanceOf(IllegalStateException.class);
+		assertThatThrownBy(() -> service.getSnapshot("env1", ApplicationType.task, null))
+				.isInstanceOf(IllegalStateException.class);
+		assertThat(service.loads.get()).isEqualTo(1);
+
+		service.failing = false;
+		Thread.sleep(100);
+		assertThat(service.getSnapshot("env1", ApplicationType.task, null).contains("timestamp")).isTrue();
+		assertThat(service.loads.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void testSlowLoadBlocksOnlySameSnapshot() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		service.latch = release;
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<AppRegistrySnapshot> first = executor
+					.submit(() -> service.getSnapshot("env1", ApplicationType.task, null));
+			Future<AppRegistrySnapshot> second = executor
+					.submit(() -> service.getSnapshot("env1", ApplicationType.task, null));
+			for (int i = 0; i < 100 && service.loads.get() < 1; i++) {
+				Thread.sleep(10);
+			}
+			service.latch = null;
+			assertThat(service.getSnapshot("env2", ApplicationType.task, null).contains("timestamp")).isTrue();
+			assertThat(first.isDone()).isFalse();
+
+			release.countDown();
+			assertThat(first.get(5, TimeUnit.SECONDS)).isSameAs(second.get(5, TimeUnit.SECONDS));
+			assertThat(service.loads.get()).isEqualTo(2);
+		} finally {
+			release.countDown();
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testCheckSkipsFailingEnvironment() {
+		Map<String, List<String>> environments = new LinkedHashMap<>();
+		environments.put("env1", Arrays.asList("a", "b"));
+		environments.put("env2", Arrays.asList("c"));
+		environments.put("env3", Arrays.asList("d"));
+
+		List<String> problems = service.check(environments, (environment, items) -> {
+			if (environment.equals("env2")) {
+				throw new IllegalStateException("registry down");
+			}
+			return Collections.singletonList(environment + items);
+		}).collectList().block();
+
+		assertThat(problems).containsExactly("env1[a, b]", "env3[d]");
+	}
+
+	private static class CountingSnapshotService extends AppRegistrySnapshotService {
+
+		final AtomicInteger loads = new AtomicInteger();
+		volatile boolean failing;
+		volatile CountDownLatch latch;
+
+		@Override
+		protected Collection<AppRegistrationResource> fetchRegistrations(ApplicationType type,
+				DataFlowOperations operations) {
+			loads.incrementAndGet();
+			if (failing) {
+				throw new IllegalStateException("registry down");
+			}
+			CountDownLatch waitFor = latch;
+			if (waitFor != null) {
+				try {
+					waitFor.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			return Arrays.asList(
+					new AppRegistrationResource("timestamp", "task", "maven://timestamp:1.0.0"),
+					new AppRegistrationResource("timestamp", "task", "maven://timestamp:2.0.0"),
+					new AppRegistrationResource("time", "source", "maven://time:1.0.0"),
+					new AppRegistrationResource("http", "source", "maven://http:1.0.0"));
+		}
+	}
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.dataflow.language.server.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.dataflow.language.server.config.DataflowLanguagesProperties;
+import org.springframework.cloud.dataflow.language.server.stream.AbstractStreamLanguageService.StreamItem;
+
+public class DataflowCacheServiceTests {
+
+	@Test
+	public void testDocumentCacheWeightedByLineCount() {
+		DataflowLanguagesProperties properties = new DataflowLanguagesProperties();
+		properties.getCache().setItemMaximumWeight(5);
+		DataflowCacheService cacheService = new DataflowCacheService();
+		cacheService.setDataflowLanguagesProperties(properties);
+		Cache<String, ParsedDocument<StreamItem>> cache = cacheService.getStreamDocumentCache();
+		cache.put("uri1", document("a\nb\nc"));
+		cache.put("uri2", document("a\nb\nc"));
+		cache.cleanUp();
+		assertThat(cache.estimatedSize()).isEqualTo(1);
+	}
+
+	private static ParsedDocument<StreamItem> document(String content) {
+		return new ParsedDocument<>(0, content, DocumentLines.classify(content), Collections.emptyList());
+	}
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.dataflow.language.server.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.dataflow.language.server.stream.StreamLanguageSymbolizer;
+import org.springframework.cloud.dataflow.language.server.support.DestinationGraph.SymbolLinks;
+import org.springframework.cloud.dataflow.language.server.support.WorkspaceSymbol.Kind;
+import org.springframework.cloud.dataflow.language.server.support.WorkspaceSymbol.Role;
+import org.springframework.dsl.domain.Position;
+
+public class DestinationGraphTests {
+
+	private final StreamLanguageSymbolizer symbolizer = new StreamLanguageSymbolizer();
+	private final WorkspaceSymbolIndex index = new WorkspaceSymbolIndex();
+	private final DestinationGraph graph = new DestinationGraph();
+
+	@BeforeEach
+	public void setup() {
+		symbolizer.setDataflowCacheService(new DataflowCacheService());
+		graph.setWorkspaceSymbolIndex(index);
+	}
+
+	@Test
+	public void testDestinationsAcrossDocuments() {
+		index("uri1", 0, "stream1 = time > :myevents");
+		index("uri2", 0, "stream2 = :myevents > log\nstream3 = :stream1.time > log");
+
+		assertThat(graph.getProducers("myevents")).extracting(WorkspaceSymbol::getUri).containsExactly("uri1");
+		assertThat(graph.getConsumers("myevents")).extracting(WorkspaceSymbol::getContainerName)
+				.containsExactly("stream2");
+		assertThat(graph.getConsumers("stream1.time")).extracting(WorkspaceSymbol::getKind)
+				.containsExactly(Kind.TAP);
+		assertThat(graph.getTaps("stream1")).extracting(WorkspaceSymbol::getContainerName)
+				.containsExactly("stream3");
+		assertThat(graph.getProducers("xxx")).isEmpty();
+	}
+
+	@Test
+	public void testLinks() {
+		index("uri1", 0, "stream1 = time > :myevents");
+		index("uri2", 0, "stream2 = :myevents > log\nstream3 = :stream1.time > log");
+
+		SymbolLinks links = graph.getLinks("uri2", Position.from(0, 13));
+		assertThat(links.getSymbol().getKind()).isEqualTo(Kind.DESTINATION);
+		assertThat(links.getDefinitions()).extracting(WorkspaceSymbol::getUri).containsExactly("uri1");
+		assertThat(links.getReferences()).hasSize(2);
+		assertThat(links.getConsumers()).extracting(WorkspaceSymbol::getUri).containsExactly("uri2");
+
+		links = graph.getLinks("uri2", Position.from(1, 13));
+		assertThat(links.getSymbol().getKind()).isEqualTo(Kind.STREAM);
+		assertThat(links.getSymbol().getRole()).isEqualTo(Role.REFERENCE);
+		assertThat(links.getDefinitions()).extracting(WorkspaceSymbol::getUri).containsExactly("uri1");
+		assertThat(links.getDefinitions().get(0).getRole()).isEqualTo(Role.DECLARATION);
+
+		links = graph.getLinks("uri1", Position.from(0, 2));
+		assertThat(links.getSymbol().getName()).isEqualTo("stream1");
+		assertThat(links.getConsumers()).extracting(WorkspaceSymbol::getContainerName).containsExactly("stream3");
+
+		assertThat(graph.getLinks("uri3", Position.from(0, 0))).isNull();
+	}
+
+	@Test
+	public void testChangedDocumentOnly() {
+		index("uri1", 0, "stream1 = time > :myevents");
+		index("uri2", 0, "stream2 = :myevents > log");
+		index("uri1", 1, "stream1 = time > :other");
+
+		assertThat(graph.getProducers("myevents")).isEmpty();
+		assertThat(graph.getProducers("other")).hasSize(1);
+		assertThat(graph.getConsumers("myevents")).hasSize(1);
+
+		index.remove("uri2");
+		assertThat(graph.getConsumers("myevents")).isEmpty();
+	}
+
+	private void index(String uri, int version, String content) {
+		index.update(uri, version, symbolizer.parseWorkspaceSymbols(uri, content));
+	}
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.dataflow.language.server.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dsl.document.DocumentText;
+
+public class DocumentLinesTests {
+
+	@Test
+	public void testEmpty() {
+		DocumentLines lines = DocumentLines.classify("");
+		assertThat(lines.getLineCount()).isEqualTo(1);
+		assertThat(lines.getKind(0)).isEqualTo(DocumentLines.BLANK);
+		assertThat(lines.getKind(1)).isEqualTo(DocumentLines.BLANK);
+		assertThat(lines.isComment(0)).isFalse();
+	}
+
+	@Test
+	public void testKinds() {
+		String data =
+			"-- @env env1\n" +
+			"-- @name name1\n" +
+			"-- @desc desc1\n" +
+			"-- @prop foo1=bar1\n" +
+			"  -- @arg --foo1=bar1\n" +
+			"# comment\n" +
+			"#\n" +
+			"--\n" +
+			"\n" +
+			"   \n" +
+			":main.time > log\n" +
+			"#-- @prop foo2=bar2\r\n" +
+			"ticktock=time|log";
+		DocumentLines lines = DocumentLines.classify(data);
+		assertThat(lines.getLineCount()).isEqualTo(13);
+		assertThat(lines.getKind(0)).isEqualTo(DocumentLines.ENV);
+		assertThat(lines.getContentStart(0)).isEqualTo(3);
+		assertThat(lines.getKind(1)).isEqualTo(DocumentLines.NAME);
+		assertThat(lines.getKind(2)).isEqualTo(DocumentLines.DESC);
+		assertThat(lines.getKind(3)).isEqualTo(DocumentLines.PROP);
+		assertThat(lines.getKind(4)).isEqualTo(DocumentLines.ARG);
+		assertThat(lines.getContentStart(4)).isEqualTo(5);
+		assertThat(lines.getKind(5)).isEqualTo(DocumentLines.COMMENT);
+		assertThat(lines.isComment(5)).isTrue();
+		assertThat(lines.getContentStart(5)).isEqualTo(2);
+		assertThat(lines.getKind(6)).isEqualTo(DocumentLines.BLANK);
+		assertThat(lines.isComment(6)).isTrue();
+		assertThat(lines.getKind(7)).isEqualTo(DocumentLines.BLANK);
+		assertThat(lines.isComment(7)).isFalse();
+		assertThat(lines.getKind(8)).isEqualTo(DocumentLines.BLANK);
+		assertThat(lines.getKind(9)).isEqualTo(DocumentLines.BLANK);
+		assertThat(lines.getKind(10)).isEqualTo(DocumentLines.BLANK);
+		assertThat(lines.getKind(11)).isEqualTo(DocumentLines.PROP);
+		assertThat(lines.isComment(11)).isTrue();
+		assertThat(lines.getKind(12)).isEqualTo(DocumentLines.DEFINITION);
+		assertThat(lines.getContentStart(12)).isEqualTo(-1);
+	}
+
+	@Test
+	public void testLineStarts() {
+		DocumentLines lines = DocumentLines.classify("a\r\n\nbc\nd");
+		assertThat(lines.getLineStart(0)).isEqualTo(0);
+		assertThat(lines.getLineStart(1)).isEqualTo(3);
+		assertThat(lines.getLineStart(2)).isEqualTo(4);
+		assertThat(lines.getLineStart(3)).isEqualTo(7);
+		assertThat(lines.getLineStart(4)).isEqualTo(-1);
+	}
+
+	@Test
+	public void testValues() {
+		String data =
+			"-- @env  env1 \n" +
+			"-- @name name1\n" +
+			"-- @desc some desc\n" +
+			"-- @prop foo1 = bar1=x\n" +
+			"-- @prop foo2\n" +
+			"  -- @arg --foo1=bar1\n" +
+			"-- @name\n" +
+			"# comment\n" +
+			"ticktock=time|log";
+		DocumentText text = DocumentText.from(data);
+		DocumentLines lines = DocumentLines.classify(data);
+		String[] split = data.split("\n");
+		assertThat(lines.getValue(text, 0, split[0].length())).isEqualTo("env1");
+		assertThat(lines.getKey(text, 0, split[0].length())).isNull();
+		assertThat(lines.getValue(text, 1, split[1].length())).isEqualTo("name1");
+		assertThat(lines.getValue(text, 2, split[2].length())).isEqualTo("some desc");
+		assertThat(lines.getKey(text, 3, split[3].length())).isEqualTo("foo1");
+		assertThat(lines.getValue(text, 3, split[3].length())).isEqualTo("bar1=x");
+		assertThat(lines.getKey(text, 4, split[4].length())).isNull();
+		assertThat(lines.getValue(text, 4, split[4].length())).isNull();
+		assertThat(lines.getValue(text, 5, split[5].length())).isEqualTo("--foo1=bar1");
+		assertThat(lines.getValue(text, 6, split[6].length())).isEmpty();
+		assertThat(lines.getValue(text, 7, split[7].length())).isNull();
+		assertThat(lines.getValue(text, 8, split[8].length())).isNull();
+	}
+
+	@Test
+	public void testGetLine() {
+		DocumentLines lines = DocumentLines.classify("a\r\n\nbc\nd");
+		assertThat(lines.getLine(0)).isEqualTo(0);
+		assertThat(lines.getLine(2)).isEqualTo(0);
+		assertThat(lines.getLine(3)).isEqualTo(1);
+		assertThat(lines.getLine(4)).isEqualTo(2);
+		assertThat(lines.getLine(6)).isEqualTo(2);
+		assertThat(lines.getLine(7)).isEqualTo(3);
+		assertThat(lines.getLine(100)).isEqualTo(3);
+	}
+
+	@Test
+	public void testUpdateMatchesClassify() {
+		String[] fragments = { "-- @prop a=b", "-- @env e", "# c", "time|log", "\n", "\n", "\r\n", " ", "x" };
+		Random random = new Random(0);
+		for (int i = 0; i < 1000; i++) {
+			StringBuilder previous = new StringBuilder();
+			int count = random.nextInt(20);
+			for (int j = 0; j < count; j++) {
+				previous.append(fragments[random.nextInt(fragments.length)]);
+			}
+			StringBuilder next = new StringBuilder(previous);
+			int start = random.nextInt(next.length() + 1);
+			int end = Math.min(next.length(), start + random.nextInt(10));
+			next.replace(start, end, fragments[random.nextInt(fragments.length)]);
+			String left = previous.toString();
+			String right = next.toString();
+			int prefix = 0;
+			while (prefix < Math.min(left.length(), right.length()) && left.charAt(prefix) == right.charAt(prefix)) {
+				prefix++;
+			}
+			int suffix = 0;
+			while (suffix < Math.min(left.length(), right.length()) - prefix
+					&& left.charAt(left.length() - 1 - suffix) == right.charAt(right.length() - 1 - suffix)) {
+				suffix++;
+			}
+			DocumentLines updated = DocumentLines.update(DocumentLines.classify(left), right, prefix, suffix);
+			assertSameLines(updated, DocumentLines.classify(right));
+		}
+	}
+
+	private static void assertSameLines(DocumentLines actual, DocumentLines expected) {
+		assertThat(actual.getLineCount()).isEqualTo(expected.getLineCount());
+		for (int line = 0; line < expected.getLineCount(); line++) {
+			assertThat(actual.getKind(line)).isEqualTo(expected.getKind(line));
+			assertThat(actual.isComment(line)).isEqualTo(expected.isComment(line));
+			assertThat(actual.getContentStart(line)).isEqualTo(expected.getContentStart(line));
+			assertThat(actual.getLineStart(line)).isEqualTo(expected.getLineStart(line));
+		}
+	}
+}
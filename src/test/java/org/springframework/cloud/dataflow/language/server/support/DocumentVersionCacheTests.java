@@ -0,0 +1,121 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.dataflow.language.server.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.dataflow.language.server.DataflowLanguages;
+import org.springframework.dsl.document.Document;
+import org.springframework.dsl.document.TextDocument;
+
+public class DocumentVersionCacheTests {
+
+	private final DocumentVersionCache<String> cache = new DocumentVersionCache<>(1000);
+
+	@Test
+	public void testHitsAndMisses() {
+		Document v0 = document("fakeuri", 0, "a");
+		assertThat(cache.get(v0, key -> key.toString())).isEqualTo("fakeuri#0");
+		assertThat(cache.get(v0, key -> "other")).isEqualTo("fakeuri#0");
+		assertThat(cache.stats().missCount()).isEqualTo(1);
+		assertThat(cache.stats().hitCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void testNewerVersionEvictsOlder() {
+		cache.get(document("fakeuri", 0, "a"), key -> "v0");
+		cache.get(document("otheruri", 0, "a"), key -> "other");
+		cache.get(document("fakeuri", 1, "a"), key -> "v1");
+		assertThat(cache.getIfPresent(DocumentKey.of("fakeuri", 0))).isNull();
+		assertThat(cache.getIfPresent(DocumentKey.of("fakeuri", 1))).isEqualTo("v1");
+		assertThat(cache.getIfPresent(DocumentKey.of("otheruri", 0))).isEqualTo("other");
+	}
+
+	@Test
+	public void testLowerVersionKeepsHigher() {
+		cache.get(document("fakeuri", 1, "a"), key -> "v1");
+		assertThat(cache.get(document("fakeuri", 0, "a"), key -> "v0")).isEqualTo("v0");
+		assertThat(cache.getIfPresent(DocumentKey.of("fakeuri", 0))).isNull();
+		assertThat(cache.getIfPresent(DocumentKey.of("fakeuri", 1))).isEqualTo("v1");
+	}
+
+	@Test
+	public void testOlderVersionCompletingLastKeepsNewer() throws Exception {
+		CountDownLatch computing = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<String> old = CompletableFuture
+			.supplyAsync(() -> cache.get(document("fakeuri", 0, "a"), key -> {
+				computing.countDown();
+				try {
+					release.await(5, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return "v0";
+			}));
+		assertThat(computing.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(cache.get(document("fakeuri", 1, "a"), key -> "v1")).isEqualTo("v1");
+		release.countDown();
+		assertThat(old.get(5, TimeUnit.SECONDS)).isEqualTo("v0");
+
+		assertThat(cache.getIfPresent(DocumentKey.of("fakeuri", 1))).isEqualTo("v1");
+		assertThat(cache.getIfPresent(DocumentKey.of("fakeuri", 0))).isNull();
+		assertThat(cache.get(document("fakeuri", 1, "a"), key -> "recomputed")).isEqualTo("v1");
+	}
+
+	@Test
+	public void testReopenedDocumentNotServedStale() {
+		DocumentVersionTracker tracker = new DocumentVersionTracker();
+		tracker.addResetListener(cache::invalidate);
+		for (int i = 1; i <= 3; i++) {
+			Document document = document("fakeuri", i, "content" + i);
+			tracker.track(document);
+			cache.get(document, key -> "content" + key.getVersion());
+		}
+		Document reopened = document("fakeuri", 3, "reopened");
+		tracker.track(reopened);
+		assertThat(cache.getIfPresent(DocumentKey.of("fakeuri", 3))).isNull();
+		assertThat(cache.get(reopened, key -> "reopened")).isEqualTo("reopened");
+	}
+
+	@Test
+	public void testInvalidateDocument() {
+		cache.get(document("fakeuri", 0, "a"), key -> "v0");
+		cache.get(document("otheruri", 0, "a"), key -> "other");
+		cache.invalidate("fakeuri");
+		assertThat(cache.getIfPresent(DocumentKey.of("fakeuri", 0))).isNull();
+		assertThat(cache.getIfPresent(DocumentKey.of("otheruri", 0))).isEqualTo("other");
+	}
+
+	@Test
+	public void testWeightedByLineCount() {
+		DocumentVersionCache<String> small = new DocumentVersionCache<>(5);
+		small.get(document("uri1", 0, "a\nb\nc"), key -> "uri1");
+		small.get(document("uri2", 0, "a\nb\nc"), key -> "uri2");
+		small.cleanUp();
+		assertThat(small.estimatedSize()).isEqualTo(1);
+		assertThat(small.stats().evictionCount()).isEqualTo(1);
+	}
+
+	private static Document document(String uri, int version, String content) {
+		return new TextDocument(uri, DataflowLanguages.LANGUAGE_STREAM, version, content);
+	}
+}
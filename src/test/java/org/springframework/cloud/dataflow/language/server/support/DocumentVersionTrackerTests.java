@@ -0,0 +1,165 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.dataflow.language.server.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.dataflow.language.server.DataflowLanguages;
+import org.springframework.dsl.document.Document;
+import org.springframework.dsl.document.TextDocument;
+
+import reactor.core.publisher.Flux;
+
+public class DocumentVersionTrackerTests {
+
+	private final DocumentVersionTracker tracker = new DocumentVersionTracker();
+
+	@Test
+	public void testNewerVersionSupersedes() {
+		Document v0 = document(0);
+		Document v1 = document(1);
+		tracker.track(v0);
+		assertThat(tracker.isSuperseded(v0)).isFalse();
+		tracker.track(v1);
+		assertThat(tracker.isSuperseded(v0)).isTrue();
+		assertThat(tracker.isSuperseded(v1)).isFalse();
+		assertThat(tracker.supersedable(v0, Flux.just("a")).collectList().block()).isEmpty();
+		assertThat(tracker.supersedable(v1, Flux.just("a")).collectList().block()).containsExactly("a");
+	}
+
+	@Test
+	public void testLowerVersionStartsNewEpoch() {
+		List<String> resets = new ArrayList<>();
+		tracker.addResetListener(resets::add);
+		Document v0 = document(0);
+		Document v1 = document(1);
+		tracker.track(v1);
+		tracker.track(v0);
+		assertThat(tracker.isSuperseded(v1)).isTrue();
+		assertThat(tracker.isSuperseded(v0)).isFalse();
+		assertThat(resets).containsExactly("fakeuri");
+	}
+
+	@Test
+	public void testReopenAtVersionOne() {
+		List<String> resets = new ArrayList<>();
+		tracker.addResetListener(resets::add);
+		for (int i = 1; i <= 7; i++) {
+			tracker.track(document(i, "content" + i));
+		}
+		assertThat(resets).isEmpty();
+
+		Document reopened = document(1, "reopened");
+		tracker.track(reopened);
+		assertThat(resets).containsExactly("fakeuri");
+		assertThat(tracker.isSuperseded(reopened)).isFalse();
+		assertThat(tracker.isSuperseded(document(5, "content5"))).isTrue();
+		assertThat(tracker.isSuperseded(document(7, "content7"))).isTrue();
+		List<String> result = tracker.supersedable(reopened, Flux.just("a")).collectList().block();
+		assertThat(result).containsExactly("a");
+
+		Document v2 = document(2, "reopened2");
+		tracker.track(v2);
+		assertThat(tracker.isSuperseded(reopened)).isTrue();
+		assertThat(tracker.isSuperseded(v2)).isFalse();
+		assertThat(resets).hasSize(1);
+
+		Document v8 = document(8, "reopened8");
+		tracker.track(v8);
+		assertThat(tracker.isSuperseded(v8)).isFalse();
+		assertThat(tracker.isSuperseded(document(7, "content7"))).isTrue();
+	}
+
+	@Test
+	public void testCloseAndReopen() {
+		List<String> resets = new ArrayList<>();
+		tracker.addResetListener(resets::add);
+		Document v3 = document(3, "content");
+		tracker.track(v3);
+		assertThat(tracker.isTracked("fakeuri")).isTrue();
+
+		tracker.close("fakeuri");
+		assertThat(tracker.isTracked("fakeuri")).isFalse();
+		assertThat(tracker.isSuperseded(v3)).isTrue();
+		assertThat(tracker.supersedable(v3, Flux.just("a")).collectList().block()).isEmpty();
+		assertThat(resets).containsExactly("fakeuri");
+		tracker.close("fakeuri");
+		assertThat(resets).hasSize(1);
+
+		Document reopened = document(1, "content");
+		tracker.track(reopened);
+		assertThat(tracker.isTracked("fakeuri")).isTrue();
+		assertThat(tracker.isSuperseded(reopened)).isFalse();
+		assertThat(resets).hasSize(2);
+	}
+
+	@Test
+	public void testReopenAtSameVersion() {
+		List<String> resets = new ArrayList<>();
+		tracker.addResetListener(resets::add);
+		tracker.track(document(1, "content"));
+		tracker.track(document(1, "content"));
+		assertThat(resets).isEmpty();
+		tracker.track(document(1, "other"));
+		assertThat(resets).containsExactly("fakeuri");
+	}
+
+	@Test
+	public void testReopenAtSameVersionWithSameLength() {
+		List<String> resets = new ArrayList<>();
+		tracker.addResetListener(resets::add);
+		tracker.track(document(3, "time|log"));
+		tracker.track(document(3, "log|time"));
+		assertThat(resets).containsExactly("fakeuri");
+		assertThat(tracker.isSuperseded(document(3, "log|time"))).isFalse();
+	}
+
+	@Test
+	public void testSupersededWorkIsCancelled() {
+		Document v0 = document(0);
+		tracker.track(v0);
+		AtomicBoolean cancelled = new AtomicBoolean();
+		CompletableFuture<List<Object>> result = tracker
+				.supersedable(v0, Flux.never().doOnCancel(() -> cancelled.set(true))).collectList().toFuture();
+		assertThat(result.isDone()).isFalse();
+		tracker.track(document(1));
+		assertThat(cancelled.get()).isTrue();
+		assertThat(result.isCompletedExceptionally()).isFalse();
+		assertThat(result.join()).isEmpty();
+	}
+
+	@Test
+	public void testCurrentWorkCompletes() {
+		Document v0 = document(0);
+		tracker.track(v0);
+		List<String> result = tracker.supersedable(v0, Flux.just("a", "b")).collectList().block();
+		assertThat(result).containsExactly("a", "b");
+	}
+
+	private static Document document(int version) {
+		return document(version, "");
+	}
+
+	private static Document document(int version, String content) {
+		return new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_STREAM, version, content);
+	}
+}
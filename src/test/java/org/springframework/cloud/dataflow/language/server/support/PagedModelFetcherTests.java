@@ -0,0 +1,94 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.dataflow.language.server.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.PagedModel.PageMetadata;
+
+public class PagedModelFetcherTests {
+
+	@Test
+	public void testAllPagesInOrder() {
+		AtomicInteger active = new AtomicInteger();
+		AtomicInteger maxActive = new AtomicInteger();
+		IntFunction<PagedModel<String>> pages = number -> {
+			maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+			try {
+				Thread.sleep(10);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			active.decrementAndGet();
+			return page(number, 10, 2);
+		};
+
+		List<String> content = PagedModelFetcher.fetchAll(page(0, 10, 2), pages, 3);
+
+		assertThat(content).hasSize(20);
+		assertThat(content.get(0)).isEqualTo("item0");
+		assertThat(content.get(19)).isEqualTo("item19");
+		for (int i = 0; i < content.size(); i++) {
+			assertThat(content.get(i)).isEqualTo("item" + i);
+		}
+		assertThat(maxActive.get()).isLessThanOrEqualTo(3);
+	}
+
+	@Test
+	public void testSinglePage() {
+		AtomicInteger calls = new AtomicInteger();
+		IntFunction<PagedModel<String>> pages = number -> {
+			calls.incrementAndGet();
+			return page(number, 1, 2);
+		};
+
+		assertThat(PagedModelFetcher.fetchAll(page(0, 1, 2), pages, 3)).containsExactly("item0", "item1");
+		assertThat(calls.get()).isEqualTo(0);
+	}
+
+	@Test
+	public void testWithoutMetadata() {
+		PageMetadata metadata = null;
+		PagedModel<String> first = PagedModel.of(Arrays.asList("item0"), metadata);
+
+		assertThat(PagedModelFetcher.fetchAll(first, number -> page(number, 5, 1), 3)).containsExactly("item0");
+		assertThat(PagedModelFetcher.fetchAll(page(0, 5, 1), null, 3)).containsExactly("item0");
+	}
+
+	@Test
+	public void testEmptyPage() {
+		PagedModel<String> first = PagedModel.of(Collections.emptyList(), new PageMetadata(20, 0, 0, 0));
+
+		assertThat(PagedModelFetcher.fetchAll(first, number -> page(number, 5, 1), 3)).isEmpty();
+	}
+
+	private static PagedModel<String> page(int number, int totalPages, int size) {
+		String[] items = new String[size];
+		for (int i = 0; i < size; i++) {
+			items[i] = "item" + (number * size + i);
+		}
+		return PagedModel.of(Arrays.asList(items), new PageMetadata(size, number, (long) totalPages * size,
+				totalPages));
+	}
+}
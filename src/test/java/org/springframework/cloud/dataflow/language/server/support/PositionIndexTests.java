@@ -0,0 +1,106 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.dataflow.language.server.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dsl.domain.Position;
+import org.springframework.dsl.domain.Range;
+
+public class PositionIndexTests {
+
+	@Test
+	public void testBlocks() {
+		List<Range> ranges = Arrays.asList(Range.from(0, 0, 2, 10), Range.from(3, 0, 3, 5), Range.from(5, 0, 9, 1));
+		PositionIndex<Range> index = PositionIndex.of(ranges, Function.identity());
+		assertThat(index.size()).isEqualTo(3);
+		assertThat(index.find(Position.from(0, 0))).isSameAs(ranges.get(0));
+		assertThat(index.find(Position.from(1, 100))).isSameAs(ranges.get(0));
+		assertThat(index.find(Position.from(2, 10))).isSameAs(ranges.get(0));
+		assertThat(index.find(Position.from(2, 11))).isNull();
+		assertThat(index.find(Position.from(3, 5))).isSameAs(ranges.get(1));
+		assertThat(index.find(Position.from(4, 0))).isNull();
+		assertThat(index.find(Position.from(9, 1))).isSameAs(ranges.get(2));
+		assertThat(index.find(Position.from(10, 0))).isNull();
+	}
+
+	@Test
+	public void testNestedKeepsOriginalOrder() {
+		Range app = Range.from(0, 10, 0, 30);
+		Range option = Range.from(0, 15, 0, 25);
+		Range stream = Range.from(0, 0, 0, 40);
+		List<Range> ranges = Arrays.asList(app, option, stream);
+		PositionIndex<Range> index = PositionIndex.of(ranges, Function.identity());
+		assertThat(index.find(Position.from(0, 20))).isSameAs(app);
+		assertThat(index.findAll(Position.from(0, 20))).containsExactly(app, option, stream);
+		assertThat(index.findAll(Position.from(0, 5))).containsExactly(stream);
+		assertThat(index.findAll(Position.from(0, 41))).isEmpty();
+	}
+
+	@Test
+	public void testMissingRanges() {
+		List<Range> ranges = Arrays.asList(null, Range.from(1, 0, 1, 5));
+		PositionIndex<Range> index = PositionIndex.of(ranges, Function.identity());
+		assertThat(index.size()).isEqualTo(1);
+		assertThat(index.find(Position.from(1, 2))).isSameAs(ranges.get(1));
+		assertThat(PositionIndex.of(Collections.<Range>emptyList(), Function.identity()).find(Position.from(0, 0)))
+				.isNull();
+	}
+
+	@Test
+	public void testMatchesLinearScan() {
+		Random random = new Random(0);
+		List<Range> ranges = new ArrayList<>();
+		for (int i = 0; i < 500; i++) {
+			int line = random.nextInt(50);
+			int start = random.nextInt(40);
+			int endLine = random.nextInt(4) == 0 ? line + random.nextInt(3) : line;
+			int end = endLine > line ? random.nextInt(40) : start + random.nextInt(20);
+			ranges.add(Range.from(line, start, endLine, end));
+		}
+		PositionIndex<Range> index = PositionIndex.of(ranges, Function.identity());
+		for (int line = 0; line < 55; line++) {
+			for (int character = 0; character < 65; character++) {
+				Position position = Position.from(line, character);
+				List<Range> expected = ranges.stream()
+					.filter(range -> contains(range, position))
+					.collect(Collectors.toList());
+				assertThat(index.findAll(position)).containsExactlyElementsOf(expected);
+				assertThat(index.find(position)).isSameAs(expected.isEmpty() ? null : expected.get(0));
+			}
+		}
+	}
+
+	private static boolean contains(Range range, Position position) {
+		return compare(range.getStart(), position) <= 0 && compare(position, range.getEnd()) <= 0;
+	}
+
+	private static int compare(Position left, Position right) {
+		if (left.getLine() != right.getLine()) {
+			return Integer.compare(left.getLine(), right.getLine());
+		}
+		return Integer.compare(left.getCharacter(), right.getCharacter());
+	}
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.dataflow.language.server.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dsl.symboltable.Symbol;
+import org.springframework.dsl.symboltable.model.ClassSymbol;
+
+public class SymbolQueryTests {
+
+	@Test
+	public void testTypePrefix() {
+		List<Symbol> symbols = new ArrayList<>();
+		symbols.add(new ClassSymbol("time"));
+		symbols.add(new TypedSymbol("time"));
+		symbols.add(new TypedSymbol("log"));
+		Map<Character, Class<? extends Symbol>> prefixes = Collections.singletonMap('<', TypedSymbol.class);
+		SymbolTrigramIndex<Symbol> index = SymbolTrigramIndex.of(symbols);
+
+		SymbolQuery query = SymbolQuery.compile("<", prefixes, index);
+		assertThat(symbols.stream().filter(query::apply)).containsExactly(symbols.get(1), symbols.get(2));
+		query = SymbolQuery.compile("<ti", prefixes, index);
+		assertThat(symbols.stream().filter(query::apply)).containsExactly(symbols.get(1));
+		query = SymbolQuery.compile("TIM", prefixes, index);
+		assertThat(symbols.stream().filter(query::apply)).containsExactly(symbols.get(0), symbols.get(1));
+		query = SymbolQuery.compile("", prefixes, index);
+		assertThat(symbols.stream().filter(query::apply)).hasSize(3);
+	}
+
+	@Test
+	public void testSubstringMatchesLinearScan() {
+		Random random = new Random(0);
+		String alphabet = "abcAB-_";
+		List<Symbol> symbols = new ArrayList<>();
+		for (int i = 0; i < 300; i++) {
+			symbols.add(new ClassSymbol(randomString(random, alphabet, 1 + random.nextInt(10))));
+		}
+		SymbolTrigramIndex<Symbol> index = SymbolTrigramIndex.of(symbols);
+		for (int i = 0; i < 300; i++) {
+			String text = randomString(random, alphabet, 1 + random.nextInt(5));
+			SymbolQuery query = SymbolQuery.compile(text, index);
+			for (Symbol symbol : symbols) {
+				assertThat(query.apply(symbol))
+					.isEqualTo(symbol.getName().toLowerCase().contains(text.toLowerCase()));
+			}
+		}
+	}
+
+	private static String randomString(Random random, String alphabet, int length) {
+		StringBuilder buf = new StringBuilder();
+		for (int i = 0; i < length; i++) {
+			buf.append(alphabet.charAt(random.nextInt(alphabet.length())));
+		}
+		return buf.toString();
+	}
+
+	private static class TypedSymbol extends ClassSymbol {
+
+		TypedSymbol(String name) {
+			super(name);
+		}
+	}
+}
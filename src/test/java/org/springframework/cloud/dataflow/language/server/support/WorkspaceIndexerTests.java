@@ -0,0 +1,225 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.dataflow.language.server.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cloud.dataflow.language.server.DataflowLanguages;
+import org.springframework.cloud.dataflow.language.server.config.DataflowLanguagesProperties;
+import org.springframework.cloud.dataflow.language.server.domain.DataflowWorkspaceIndexProgress;
+import org.springframework.cloud.dataflow.language.server.stream.StreamLanguageSymbolizer;
+import org.springframework.cloud.dataflow.language.server.task.TaskLanguageSymbolizer;
+import org.springframework.dsl.document.TextDocument;
+import org.springframework.dsl.domain.Range;
+
+public class WorkspaceIndexerTests {
+
+	@TempDir
+	Path root;
+	private final WorkspaceSymbolIndex index = new WorkspaceSymbolIndex();
+	private final WorkspaceIndexer indexer = new WorkspaceIndexer();
+
+	@BeforeEach
+	public void setup() {
+		DataflowLanguagesProperties properties = new DataflowLanguagesProperties();
+		properties.getWorkspace().setIndexConcurrency(2);
+		properties.getWorkspace().setWatch(false);
+		indexer.setDataflowLanguagesProperties(properties);
+		indexer.setWorkspaceSymbolIndex(index);
+		indexer.setWorkspaceSymbolSources(Collections.singletonList(new LineSource()));
+	}
+
+	@Test
+	public void testIndexTree() throws IOException {
+		for (int i = 0; i < 250; i++) {
+			write(root.resolve("dir" + (i % 5)).resolve("file" + i + ".scdfs"), "stream" + i);
+		}
+		write(root.resolve("dir0").resolve("ignored.txt"), "ignored");
+		write(root.resolve(".hidden").resolve("hidden.scdfs"), "hidden");
+
+		List<DataflowWorkspaceIndexProgress> progress = indexer.index(Arrays.asList(root)).collectList().block();
+
+		assertThat(index.size()).isEqualTo(250);
+		assertThat(index.query("stream1", 1000)).hasSize(111);
+		assertThat(index.query("hidden", 10)).isEmpty();
+		assertThat(index.query("ignored", 10)).isEmpty();
+		assertThat(progress.get(0).getIndexed()).isEqualTo(0);
+		assertThat(progress.get(progress.size() - 1).getIndexed()).isEqualTo(250);
+		assertThat(progress.get(progress.size() - 1).isDone()).isTrue();
+		assertThat(progress).allMatch(p -> p.getTotal() == 250);
+	}
+
+	@Test
+	public void testOpenDocumentNotOverridden() throws IOException {
+		Path file = root.resolve("file.scdfs");
+		write(file, "disk");
+		String uri = file.toUri().toString();
+		index.update(uri, 3, Collections.singletonList(symbol("open", uri)));
+
+		indexer.index(Arrays.asList(root)).blockLast();
+
+		assertThat(index.getSymbols(uri)).extracting(WorkspaceSymbol::getName).containsExactly("open");
+	}
+
+	@Test
+	public void testChangedFileOverridesOnlyClosedDocument() throws IOException {
+		DocumentVersionTracker tracker = new DocumentVersionTracker();
+		indexer.setDocumentVersionTracker(tracker);
+		Path openFile = root.resolve("open.scdfs");
+		Path closedFile = root.resolve("closed.scdfs");
+		write(openFile, "disk");
+		write(closedFile, "disk");
+		String openUri = openFile.toUri().toString();
+		String closedUri = closedFile.toUri().toString();
+		tracker.track(new TextDocument(openUri, DataflowLanguages.LANGUAGE_STREAM, 3, "open"));
+		index.update(openUri, 3, Collections.singletonList(symbol("open", openUri)));
+		index.update(closedUri, 3, Collections.singletonList(symbol("closed", closedUri)));
+
+		indexer.indexFile(openFile, true);
+		indexer.indexFile(closedFile, true);
+
+		assertThat(index.getSymbols(openUri)).extracting(WorkspaceSymbol::getName).containsExactly("open");
+		assertThat(index.getSymbols(closedUri)).extracting(WorkspaceSymbol::getName).containsExactly("disk");
+	}
+
+	@Test
+	public void testDeletedFileRemovesOnlyClosedDocument() throws IOException {
+		DocumentVersionTracker tracker = new DocumentVersionTracker();
+		indexer.setDocumentVersionTracker(tracker);
+		Path dir = root.resolve("dir");
+		Path openFile = dir.resolve("open.scdfs");
+		Path closedFile = dir.resolve("closed.scdfs");
+		write(openFile, "disk");
+		write(closedFile, "disk");
+		String openUri = openFile.toUri().toString();
+		String closedUri = closedFile.toUri().toString();
+		tracker.track(new TextDocument(openUri, DataflowLanguages.LANGUAGE_STREAM, 3, "open"));
+		index.update(openUri, 3, Collections.singletonList(symbol("open", openUri)));
+		indexer.indexFile(closedFile, false);
+
+		Files.delete(openFile);
+		indexer.removeDeleted(openFile);
+		assertThat(index.getSymbols(openUri)).extracting(WorkspaceSymbol::getName).containsExactly("open");
+
+		Files.delete(closedFile);
+		Files.delete(dir);
+		indexer.removeDeleted(dir);
+		assertThat(index.getSymbols(openUri)).extracting(WorkspaceSymbol::getName).containsExactly("open");
+		assertThat(index.getSymbols(closedUri)).isEmpty();
+	}
+
+	@Test
+	public void testClosedDocumentFollowsDisk() throws IOException {
+		DocumentVersionTracker tracker = new DocumentVersionTracker();
+		indexer.setDocumentVersionTracker(tracker);
+		index.setDocumentVersionTracker(tracker);
+		Path modifiedFile = root.resolve("modified.scdfs");
+		Path deletedFile = root.resolve("deleted.scdfs");
+		write(modifiedFile, "disk");
+		write(deletedFile, "disk");
+		String modifiedUri = modifiedFile.toUri().toString();
+		String deletedUri = deletedFile.toUri().toString();
+		tracker.track(new TextDocument(modifiedUri, DataflowLanguages.LANGUAGE_STREAM, 3, "open"));
+		tracker.track(new TextDocument(deletedUri, DataflowLanguages.LANGUAGE_STREAM, 3, "open"));
+		index.update(modifiedUri, 3, Collections.singletonList(symbol("open", modifiedUri)));
+		index.update(deletedUri, 3, Collections.singletonList(symbol("open", deletedUri)));
+
+		tracker.close(modifiedUri);
+		tracker.close(deletedUri);
+		indexer.reload(modifiedUri);
+		assertThat(index.getSymbols(modifiedUri)).extracting(WorkspaceSymbol::getName).containsExactly("disk");
+		assertThat(index.getVersion(modifiedUri)).isEqualTo(WorkspaceSymbolIndex.DISK_VERSION);
+
+		write(modifiedFile, "changed");
+		indexer.indexFile(modifiedFile, true);
+		assertThat(index.getSymbols(modifiedUri)).extracting(WorkspaceSymbol::getName).containsExactly("changed");
+
+		Files.delete(deletedFile);
+		indexer.removeDeleted(deletedFile);
+		assertThat(index.getSymbols(deletedUri)).isEmpty();
+	}
+
+	@Test
+	public void testIndexFilesOpenAtHigherVersion() throws IOException {
+		DocumentVersionTracker tracker = new DocumentVersionTracker();
+		StreamLanguageSymbolizer streamSymbolizer = new StreamLanguageSymbolizer();
+		streamSymbolizer.setDataflowCacheService(new DataflowCacheService());
+		streamSymbolizer.setDocumentVersionTracker(tracker);
+		TaskLanguageSymbolizer taskSymbolizer = new TaskLanguageSymbolizer();
+		taskSymbolizer.setDataflowCacheService(new DataflowCacheService());
+		taskSymbolizer.setDocumentVersionTracker(tracker);
+		indexer.setWorkspaceSymbolSources(Arrays.asList(streamSymbolizer, taskSymbolizer));
+		Path streamFile = root.resolve("file.scdfs");
+		Path taskFile = root.resolve("file.scdft");
+		write(streamFile, "stream1 = time|log");
+		write(taskFile, "task1 = timestamp");
+		String streamUri = streamFile.toUri().toString();
+		String taskUri = taskFile.toUri().toString();
+		tracker.track(new TextDocument(streamUri, DataflowLanguages.LANGUAGE_STREAM, 5, "stream1 = time|log"));
+		tracker.track(new TextDocument(taskUri, DataflowLanguages.LANGUAGE_TASK, 5, "task1 = timestamp"));
+
+		indexer.index(Arrays.asList(root)).blockLast();
+
+		assertThat(index.getSymbols(streamUri)).extracting(WorkspaceSymbol::getName).contains("stream1");
+		assertThat(index.getSymbols(taskUri)).extracting(WorkspaceSymbol::getName).contains("task1");
+	}
+
+	@Test
+	public void testMissingRoot() {
+		List<DataflowWorkspaceIndexProgress> progress = indexer.index(Arrays.asList(root.resolve("missing")))
+				.collectList().block();
+		assertThat(progress).hasSize(1);
+		assertThat(progress.get(0).isDone()).isTrue();
+	}
+
+	private static void write(Path file, String content) throws IOException {
+		Files.createDirectories(file.getParent());
+		Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static WorkspaceSymbol symbol(String name, String uri) {
+		return new WorkspaceSymbol(name, WorkspaceSymbol.Kind.STREAM, uri, Range.from(0, 0, 0, name.length()), null);
+	}
+
+	private static class LineSource implements WorkspaceSymbolSource {
+
+		@Override
+		public String getFileExtension() {
+			return "scdfs";
+		}
+
+		@Override
+		public List<WorkspaceSymbol> parseWorkspaceSymbols(String uri, String content) {
+			List<WorkspaceSymbol> symbols = new ArrayList<>();
+			for (String line : content.split("\n")) {
+				symbols.add(symbol(line, uri));
+			}
+			return symbols;
+		}
+	}
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.dataflow.language.server.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.dataflow.language.server.support.WorkspaceSymbol.Kind;
+import org.springframework.dsl.domain.Range;
+
+public class WorkspaceSymbolIndexTests {
+
+	@Test
+	public void testUpdateAndQuery() {
+		WorkspaceSymbolIndex index = new WorkspaceSymbolIndex();
+		index.update("uri1", 0, Arrays.asList(symbol("stream1", Kind.STREAM, "uri1"),
+				symbol("myevents", Kind.DESTINATION, "uri1")));
+		index.update("uri2", 0, Arrays.asList(symbol("Task1", Kind.TASK, "uri2")));
+
+		assertThat(index.size()).isEqualTo(2);
+		assertThat(index.query("", 10)).hasSize(3);
+		assertThat(index.query(null, 10)).hasSize(3);
+		assertThat(index.query("task", 10)).extracting(WorkspaceSymbol::getName).containsExactly("Task1");
+		assertThat(index.query("EVENT", 10)).extracting(WorkspaceSymbol::getName).containsExactly("myevents");
+		assertThat(index.query("xxx", 10)).isEmpty();
+		assertThat(index.query("", 2)).hasSize(2);
+	}
+
+	@Test
+	public void testQueryMatchesShortAndLongQueries() {
+		WorkspaceSymbolIndex index = new WorkspaceSymbolIndex();
+		index.update("uri1", 0, Arrays.asList(symbol("stream1", Kind.STREAM, "uri1"),
+				new WorkspaceSymbol("stream2", Kind.STREAM, WorkspaceSymbol.Role.REFERENCE, "uri1",
+						Range.from(1, 0, 1, 7), null),
+				symbol("Stream3", Kind.STREAM, "uri1")));
+
+		assertThat(index.query("s", 10)).extracting(WorkspaceSymbol::getName).containsExactly("stream1", "Stream3");
+		assertThat(index.query("REAM", 10)).extracting(WorkspaceSymbol::getName).containsExactly("stream1",
+				"Stream3");
+		assertThat(index.query("eam3", 10)).extracting(WorkspaceSymbol::getName).containsExactly("Stream3");
+		assertThat(index.query("stream2", 10)).isEmpty();
+
+		index.update("uri1", 1, Arrays.asList(symbol("stream4", Kind.STREAM, "uri1")));
+		assertThat(index.query("ream", 10)).extracting(WorkspaceSymbol::getName).containsExactly("stream4");
+	}
+
+	@Test
+	public void testOlderVersionIgnored() {
+		WorkspaceSymbolIndex index = new WorkspaceSymbolIndex();
+		assertThat(index.update("uri1", 2, Arrays.asList(symbol("stream2", Kind.STREAM, "uri1")))).isTrue();
+		assertThat(index.update("uri1", 1, Arrays.asList(symbol("stream1", Kind.STREAM, "uri1")))).isFalse();
+		assertThat(index.getSymbols("uri1")).extracting(WorkspaceSymbol::getName).containsExactly("stream2");
+		assertThat(index.getVersion("uri1")).isEqualTo(2);
+
+		assertThat(index.update("uri1", 3, Collections.emptyList())).isTrue();
+		assertThat(index.getSymbols("uri1")).isEmpty();
+		assertThat(index.query("stream", 10)).isEmpty();
+
+		index.remove("uri1");
+		assertThat(index.getVersion("uri1")).isNull();
+		assertThat(index.size()).isEqualTo(0);
+	}
+
+	private static WorkspaceSymbol symbol(String name, Kind kind, String uri) {
+		return new WorkspaceSymbol(name, kind, uri, Range.from(0, 0, 0, name.length()), null);
+	}
+}
@@ -16,18 +16,22 @@
 package org.springframework.cloud.dataflow.language.server.task;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
 
 import java.util.List;
+import java.util.Random;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.cloud.dataflow.language.server.DataflowLanguages;
+import org.springframework.cloud.dataflow.language.server.config.DataflowLanguagesProperties;
 import org.springframework.cloud.dataflow.language.server.support.DataFlowOperationsService;
 import org.springframework.cloud.dataflow.language.server.support.DataflowCacheService;
 import org.springframework.cloud.dataflow.language.server.task.AbstractTaskLanguageService.TaskItem;
 import org.springframework.dsl.document.Document;
 import org.springframework.dsl.document.TextDocument;
 import org.springframework.dsl.domain.Range;
+import org.springframework.dsl.service.reconcile.ReconcileProblem;
 
 public class AbstractTaskLanguageServiceTests {
 
@@ -158,6 +162,143 @@ public class AbstractTaskLanguageServiceTests {
 		assertThat(result.get(0).getDefinitionItem().getTaskNode()).isNull();
 	}
 
+	@Test
+	public void testDefinitionNodesSharedAcrossDocuments() {
+		Document document1 = new TextDocument("fakeuri1", DataflowLanguages.LANGUAGE_TASK, 0, DSL_TWO_INLINE_NAME);
+		Document document2 = new TextDocument("fakeuri2", DataflowLanguages.LANGUAGE_TASK, 0, DSL_INLINE_NAME);
+		Document document3 = new TextDocument("fakeuri3", DataflowLanguages.LANGUAGE_TASK, 0, "name=timestamp");
+		List<TaskItem> result1 = service.parse(document1).collectList().block();
+		List<TaskItem> result2 = service.parse(document2).collectList().block();
+		List<TaskItem> result3 = service.parse(document3).collectList().block();
+		assertThat(result1).hasSize(2);
+		assertThat(result2).hasSize(1);
+		assertThat(result3).hasSize(1);
+		assertThat(result1.get(0).getDefinitionItem().getTaskNode())
+				.isNotSameAs(result1.get(1).getDefinitionItem().getTaskNode());
+		assertThat(result3.get(0).getDefinitionItem().getTaskNode())
+				.isSameAs(result2.get(0).getDefinitionItem().getTaskNode());
+		assertThat(service.dataflowCacheService.getTaskNodeCacheStats().hitCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void testParallelParseMatchesSequential() {
+		String data = DSL_ONE_MULTI_ENV + "\n" + DSL_TWO_INLINE_NAME + "\n" + DSL_INCOMPLETE_NAME + "\n" + DSL_JUST_METADATA;
+		Document document = new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_TASK, 0, data);
+		List<TaskItem> sequential = service.parse(document).collectList().block();
+
+		TestTaskLanguageService parallelService = new TestTaskLanguageService();
+		parallelService.setDataflowCacheService(new DataflowCacheService());
+		DataflowLanguagesProperties properties = new DataflowLanguagesProperties();
+		properties.getParse().setParallelLineThreshold(0);
+		parallelService.setDataflowLanguagesProperties(properties);
+		List<TaskItem> parallel = parallelService.parse(document).collectList().block();
+
+		assertThat(parallel).hasSize(5);
+		assertThat(parallel).hasSameSizeAs(sequential);
+		for (int i = 0; i < parallel.size(); i++) {
+			assertThat(parallel.get(i).getRange()).isEqualTo(sequential.get(i).getRange());
+			assertThat(parallel.get(i).getDeployments()).hasSameSizeAs(sequential.get(i).getDeployments());
+			assertThat(parallel.get(i).getDefinitionItem().getRange())
+					.isEqualTo(sequential.get(i).getDefinitionItem().getRange());
+		}
+	}
+
+	@Test
+	public void testMetadataValues() {
+		Document document = new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_TASK, 0, DSL_ONE_MULTI_ENV);
+		List<TaskItem> result = service.parse(document).collectList().block();
+		assertThat(result).hasSize(1);
+		assertThat(result.get(0).getDeployments().get(0).getEnvironment()).isEqualTo("env1");
+		assertThat(result.get(0).getDeployments().get(0).getProperties()).containsExactly(entry("foo1", "bar1"));
+		assertThat(result.get(0).getDeployments().get(0).getArguments()).containsExactly("--foo1=bar1");
+		assertThat(result.get(0).getDeployments().get(2).getProperties()).isEmpty();
+		assertThat(result.get(0).getDeployments().get(2).getArguments()).containsExactly("--foo4=bar4");
+		assertThat(result.get(0).getDefinitionItem().getName()).isEqualTo("name3");
+		assertThat(result.get(0).getDefinitionItem().getEnvironment()).isEqualTo("env3");
+		assertThat(result.get(0).getDefinitionItem().getDescription()).isEqualTo("desc3");
+	}
+
+	@Test
+	public void testDefinitionLineLengthLimit() {
+		TestTaskLanguageService limitedService = new TestTaskLanguageService();
+		DataflowLanguagesProperties properties = new DataflowLanguagesProperties();
+		properties.getParse().setMaximumLineLength(20);
+		limitedService.setDataflowLanguagesProperties(properties);
+		Document document = new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_TASK, 0,
+				"task1 = timestamp && timestamp\n");
+		List<TaskItem> result = limitedService.parse(document).collectList().block();
+		assertThat(result).hasSize(1);
+		assertThat(result.get(0).getDefinitionItem().getTaskNode()).isNull();
+		ReconcileProblem problem = result.get(0).getDefinitionItem().getReconcileProblem();
+		assertThat(problem.getMessage()).contains("maximum length of 20");
+		assertThat(problem.getRange()).isEqualTo(Range.from(0, 20, 0, 20));
+	}
+
+	@Test
+	public void testBlockLinesLimit() {
+		TestTaskLanguageService limitedService = new TestTaskLanguageService();
+		DataflowLanguagesProperties properties = new DataflowLanguagesProperties();
+		properties.getParse().setMaximumBlockLines(3);
+		limitedService.setDataflowLanguagesProperties(properties);
+		StringBuilder data = new StringBuilder();
+		for (int i = 0; i < 5; i++) {
+			data.append("-- @prop foo").append(i).append("=bar\n");
+		}
+		data.append("task1 = timestamp\n");
+		Document document = new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_TASK, 0, data.toString());
+		List<TaskItem> result = limitedService.parse(document).collectList().block();
+		assertThat(result).hasSize(1);
+		assertThat(result.get(0).getDeployments()).hasSize(1);
+		assertThat(result.get(0).getDeployments().get(0).getItems()).hasSize(3);
+		assertThat(result.get(0).getDefinitionItem().getTaskNode()).isNotNull();
+		ReconcileProblem problem = result.get(0).getDefinitionItem().getReconcileProblem();
+		assertThat(problem.getMessage()).contains("maximum of 3 lines");
+		assertThat(problem.getRange().getStart().getLine()).isEqualTo(3);
+	}
+
+	@Test
+	public void testBlockLinesLimitWithMissingName() {
+		TestTaskLanguageService limitedService = new TestTaskLanguageService();
+		DataflowLanguagesProperties properties = new DataflowLanguagesProperties();
+		properties.getParse().setMaximumBlockLines(3);
+		limitedService.setDataflowLanguagesProperties(properties);
+		StringBuilder data = new StringBuilder();
+		for (int i = 0; i < 5; i++) {
+			data.append("-- @prop foo").append(i).append("=bar\n");
+		}
+		data.append("timestamp\n");
+		Document document = new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_TASK, 0, data.toString());
+		List<TaskItem> result = limitedService.parse(document).collectList().block();
+		assertThat(result).hasSize(1);
+		List<ReconcileProblem> problems = result.get(0).getDefinitionItem().getReconcileProblems();
+		assertThat(problems).hasSize(2);
+		assertThat(problems.get(0).getMessage()).isEqualTo("Task Definition must have a name");
+		assertThat(problems.get(0).getRange()).isEqualTo(Range.from(5, 0, 5, 0));
+		assertThat(problems.get(1).getMessage()).contains("maximum of 3 lines");
+		assertThat(result.get(0).getDefinitionItem().getReconcileProblem().getMessage())
+				.isEqualTo("Task Definition must have a name");
+	}
+
+	@Test
+	public void testFuzzedDocumentsParse() {
+		String[] fragments = { "timestamp", "name", "&&", "||", "=", " ", "--", "#", "@name", "@env", "@arg",
+				"@prop", "@desc", "<", ">", "\n", "\n", "\t", "a.b=c", "'", "\r\n" };
+		Random random = new Random(0);
+		for (int i = 0; i < 500; i++) {
+			StringBuilder data = new StringBuilder();
+			int count = random.nextInt(60);
+			for (int j = 0; j < count; j++) {
+				data.append(fragments[random.nextInt(fragments.length)]);
+			}
+			Document document = new TextDocument("fakeuri" + i, DataflowLanguages.LANGUAGE_TASK, 0,
+					data.toString());
+			List<TaskItem> result = service.parse(document).collectList().block();
+			for (TaskItem item : result) {
+				assertThat(item.getRange().getEnd().getLine()).isLessThan(document.lineCount());
+			}
+		}
+	}
+
 	private static class TestTaskLanguageService extends AbstractTaskLanguageService {
 
 		public TestTaskLanguageService() {
@@ -28,6 +28,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mockito;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.cloud.dataflow.language.server.DataflowLanguages;
+import org.springframework.cloud.dataflow.language.server.config.DataflowLanguagesProperties;
 import org.springframework.cloud.dataflow.language.server.support.DataFlowOperationsService;
 import org.springframework.cloud.dataflow.language.server.support.DataflowCacheService;
 import org.springframework.cloud.dataflow.rest.client.AppRegistryOperations;
@@ -106,6 +107,68 @@ public class TaskLanguageLinterTests {
 		assertThat(problems).hasSize(1);
 	}
 
+	@Test
+	public void testRegistryProblemsKeptOutOfParsedItems() {
+		PageMetadata metadata = null;
+		PagedModel<AppRegistrationResource> model = PagedModel.of(Collections.emptyList(), metadata);
+		Mockito.when(dataFlowOperations.appRegistryOperations()).thenReturn(appRegistryOperations);
+		Mockito.when(appRegistryOperations.list(any())).thenReturn(model);
+		MockTaskLanguageLinter linter = mockLinter();
+		linter.setDataflowCacheService(new DataflowCacheService());
+
+		Document document = new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_TASK, 0, "t1=timestamp");
+		List<ReconcileProblem> problems = linter.lint(DslContext.builder().document(document).build()).toStream()
+				.collect(Collectors.toList());
+		assertThat(problems).hasSize(1);
+		assertThat(problems.get(0).getMessage()).isEqualTo("Task app timestamp is not registered");
+		assertThat(linter.parseCached(document).get(0).getDefinitionItem().getReconcileProblem()).isNull();
+
+		problems = linter.lint(DslContext.builder().document(document).build()).toStream()
+				.collect(Collectors.toList());
+		assertThat(problems).hasSize(1);
+		Mockito.verify(appRegistryOperations, Mockito.times(1)).list(any());
+	}
+
+	@Test
+	public void testRegistryFailureKeepsParseProblems() {
+		Mockito.when(dataFlowOperations.appRegistryOperations()).thenReturn(appRegistryOperations);
+		Mockito.when(appRegistryOperations.list(any())).thenThrow(new IllegalStateException("registry down"));
+		MockTaskLanguageLinter linter = mockLinter();
+		linter.setDataflowCacheService(new DataflowCacheService());
+
+		Document document = new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_TASK, 0,
+				"timestamp\n\nt1=timestamp");
+		List<ReconcileProblem> problems = linter.lint(DslContext.builder().document(document).build()).toStream()
+				.collect(Collectors.toList());
+		assertThat(problems).hasSize(1);
+		assertThat(problems.get(0).getMessage()).isEqualTo("Task Definition must have a name");
+	}
+
+	@Test
+	public void testBlockLinesLimitKeepsRegistryProblems() {
+		PageMetadata metadata = null;
+		PagedModel<AppRegistrationResource> model = PagedModel.of(Collections.emptyList(), metadata);
+		Mockito.when(dataFlowOperations.appRegistryOperations()).thenReturn(appRegistryOperations);
+		Mockito.when(appRegistryOperations.list(any())).thenReturn(model);
+		MockTaskLanguageLinter linter = mockLinter();
+		linter.setDataflowCacheService(new DataflowCacheService());
+		DataflowLanguagesProperties properties = new DataflowLanguagesProperties();
+		properties.getParse().setMaximumBlockLines(3);
+		linter.setDataflowLanguagesProperties(properties);
+		StringBuilder data = new StringBuilder();
+		for (int i = 0; i < 5; i++) {
+			data.append("-- @prop foo").append(i).append("=bar\n");
+		}
+		data.append("t1=timestamp\n");
+
+		Document document = new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_TASK, 0, data.toString());
+		List<ReconcileProblem> problems = linter.lint(DslContext.builder().document(document).build()).toStream()
+				.collect(Collectors.toList());
+		assertThat(problems).hasSize(2);
+		assertThat(problems.get(0).getMessage()).contains("maximum of 3 lines");
+		assertThat(problems.get(1).getMessage()).isEqualTo("Task app timestamp is not registered");
+	}
+
     private MockTaskLanguageLinter mockLinter() {
         return new MockTaskLanguageLinter();
     }
@@ -61,4 +61,24 @@ public class TaskLanguageSymbolizerTests {
         assertThat(documentSymbols.get(1).getName()).isEqualTo("name2");
         assertThat(documentSymbols.get(1).getDetail()).isNull();
 	}
+
+	@Test
+	public void testQuery() {
+		Document document = new TextDocument("fakeuri", DataflowLanguages.LANGUAGE_TASK, 0, AbstractTaskLanguageServiceTests.DSL_TWO_INLINE_NAME);
+
+		SymbolizeInfo symbolizeInfo = symbolizer.symbolize(DslContext.builder().document(document).build(), "NAME");
+		assertThat(symbolizeInfo.symbolInformations().toStream().collect(Collectors.toList())).hasSize(2);
+
+		symbolizeInfo = symbolizer.symbolize(DslContext.builder().document(document).build(), "ame2");
+		List<SymbolInformation> symbolInformations = symbolizeInfo.symbolInformations().toStream()
+				.collect(Collectors.toList());
+		assertThat(symbolInformations).hasSize(1);
+		assertThat(symbolInformations.get(0).getName()).isEqualTo("name2");
+
+		symbolizeInfo = symbolizer.symbolize(DslContext.builder().document(document).build(), "@name1");
+		assertThat(symbolizeInfo.symbolInformations().toStream().collect(Collectors.toList())).hasSize(1);
+
+		symbolizeInfo = symbolizer.symbolize(DslContext.builder().document(document).build(), "xx");
+		assertThat(symbolizeInfo.symbolInformations().toStream().collect(Collectors.toList())).isEmpty();
+	}
 }